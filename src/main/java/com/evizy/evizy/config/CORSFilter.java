@@ -46,7 +46,7 @@ public class CORSFilter implements Filter {
         }
 
         String methods = "GET, POST, PATCH, PUT, DELETE, OPTIONS";
-        String headers = "x-requested-with, Authorization, Content-Type, credential, X-Import-Process, X-XSRF-TOKEN";
+        String headers = "x-requested-with, Authorization, Content-Type, credential, X-Import-Process, X-XSRF-TOKEN, Idempotency-Key, X-Admission-Token";
         String maxAge = "3600";
         resp.setHeader("Access-Control-Allow-Methods", methods);
         resp.setHeader("Access-Control-Allow-Headers", headers);
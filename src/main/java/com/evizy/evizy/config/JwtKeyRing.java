@@ -0,0 +1,167 @@
+package com.evizy.evizy.config;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * HS256 keys shared by every node, so a token signed by one node verifies on any other and survives restarts.
+ * Keys come from app.jwt.keys as kid:base64-secret[:active-from] entries, or from the secret key entries of a
+ * PKCS12 keystore where the alias is the kid and a key becomes active an activation delay after it was added.
+ * Tokens are signed with the newest active key and verified with the key named by their kid header, so a rotation is
+ * scheduled by adding a key ahead of time. Every node has reloaded it before any node signs with it, and older keys
+ * keep verifying the tokens they signed until they are removed.
+ * Without either, a random key is generated and tokens only verify on this node until it restarts.
+ */
+@Log4j2
+@Component
+public class JwtKeyRing {
+    @Value("${app.jwt.keys:}")
+    private String keys;
+
+    @Value("${app.jwt.keystore.path:}")
+    private String keystorePath;
+
+    @Value("${app.jwt.keystore.password:}")
+    private String keystorePassword;
+
+    @Value("${app.jwt.keystore.activation-delay-ms:300000}")
+    private long activationDelayMs;
+
+    private volatile Map<String, SigningKey> ring = Map.of();
+
+    @PostConstruct
+    public void load() {
+        if (!keystorePath.isBlank()) {
+            ring = fromKeystore();
+        } else if (!keys.isBlank()) {
+            ring = fromProperty();
+        } else {
+            log.warn("No JWT signing keys configured, tokens are only valid on this node until it restarts");
+            SigningKey local = new SigningKey("local", Keys.secretKeyFor(SignatureAlgorithm.HS256), Instant.EPOCH);
+            ring = Map.of(local.getId(), local);
+        }
+        log.info("JWT key ring loaded {}, signing with {}", ring.keySet(), signingKey().getId());
+    }
+
+    /**
+     * Pick up keys added to or removed from the keystore, the previous ring is kept when it can't be read
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.keystore.reload-interval-ms:60000}")
+    public void reload() {
+        if (keystorePath.isBlank()) {
+            return;
+        }
+        try {
+            Map<String, SigningKey> reloaded = fromKeystore();
+            if (!reloaded.keySet().equals(ring.keySet())) {
+                log.info("JWT key ring reloaded {}", reloaded.keySet());
+            }
+            ring = reloaded;
+        } catch (RuntimeException e) {
+            log.error("Failed to reload JWT key ring: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The newest key that is already active, or the first one to become active when a new ring has none yet
+     */
+    public SigningKey signingKey() {
+        Instant now = Instant.now();
+        SigningKey signingKey = null;
+        SigningKey firstKey = null;
+        for (SigningKey key : ring.values()) {
+            if (!key.getActiveFrom().isAfter(now) && (signingKey == null || key.getActiveFrom().isAfter(signingKey.getActiveFrom()))) {
+                signingKey = key;
+            }
+            if (firstKey == null || key.getActiveFrom().isBefore(firstKey.getActiveFrom())) {
+                firstKey = key;
+            }
+        }
+        return signingKey == null ? firstKey : signingKey;
+    }
+
+    public Optional<Key> verificationKey(String id) {
+        SigningKey key = id == null ? null : ring.get(id);
+        return key == null ? Optional.empty() : Optional.of(key.getKey());
+    }
+
+    public boolean contains(String id) {
+        return id != null && ring.containsKey(id);
+    }
+
+    private Map<String, SigningKey> fromProperty() {
+        Map<String, SigningKey> loaded = new LinkedHashMap<>();
+        for (String entry : keys.split(",")) {
+            String[] parts = entry.trim().split(":", 3);
+            if (parts.length < 2) {
+                throw new IllegalStateException("JWT key must be kid:base64-secret[:active-from]");
+            }
+            Instant activeFrom = parts.length == 3 ? Instant.parse(parts[2]) : Instant.EPOCH;
+            loaded.put(parts[0], new SigningKey(parts[0], Keys.hmacShaKeyFor(Base64.getDecoder().decode(parts[1])), activeFrom));
+        }
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    private Map<String, SigningKey> fromKeystore() {
+        char[] password = keystorePassword.toCharArray();
+        try (InputStream inputStream = Files.newInputStream(Path.of(keystorePath))) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(inputStream, password);
+            Map<String, SigningKey> loaded = new LinkedHashMap<>();
+            for (String alias : Collections.list(keyStore.aliases())) {
+                if (!keyStore.entryInstanceOf(alias, KeyStore.SecretKeyEntry.class)) {
+                    continue;
+                }
+                SecretKey secretKey = (SecretKey) keyStore.getKey(alias, password);
+                Instant activeFrom = keyStore.getCreationDate(alias).toInstant().plusMillis(activationDelayMs);
+                loaded.put(alias, new SigningKey(alias, Keys.hmacShaKeyFor(secretKey.getEncoded()), activeFrom));
+            }
+            if (loaded.isEmpty()) {
+                throw new IllegalStateException("No secret keys in " + keystorePath);
+            }
+            return Collections.unmodifiableMap(loaded);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to read JWT keystore " + keystorePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    public static class SigningKey {
+        private final String id;
+        private final Key key;
+        private final Instant activeFrom;
+
+        public SigningKey(String id, Key key, Instant activeFrom) {
+            this.id = id;
+            this.key = key;
+            this.activeFrom = activeFrom;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Key getKey() {
+            return key;
+        }
+
+        public Instant getActiveFrom() {
+            return activeFrom;
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.evizy.evizy.config;
 
+import com.evizy.evizy.domain.common.AuthenticatedPrincipal;
 import com.evizy.evizy.domain.dao.Admin;
 import com.evizy.evizy.domain.dao.Users;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,21 +12,49 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Log4j2
 @Component
 public class JwtTokenProvider {
-    private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    private static final long EVICTION_INTERVAL_MS = 1000;
 
-    @Value("3600000")
+    private final JwtKeyRing keyRing;
+
+    private final JwtParser parser;
+
+    @Value("${app.jwt.expiration-ms:3600000}")
     private Long expiration;
 
+    @Value("${app.jwt.cache.max-entries:10000}")
+    private int maxCachedTokens;
+
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextEvictionAt = new AtomicLong();
+
+    public JwtTokenProvider(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return keyRing.verificationKey(header.getKeyId())
+                                .orElseThrow(() -> new SignatureException("Unknown signing key " + header.getKeyId()));
+                    }
+                })
+                .build();
+    }
+
     public String generateToken(Authentication authentication) {
         Map<String, Object> claims = new HashMap<>();
 
-        String id = "";
         String subject = "";
 
         boolean isAdmin = false;
@@ -44,34 +72,57 @@ public class JwtTokenProvider {
             claims.put("is_admin", true);
             claims.put("admin_id", admin.getId());
             claims.put("admin_username", admin.getUsername());
-            id = admin.getId().toString();
+            claims.put("is_super_admin", admin.isSuperAdmin());
             subject = admin.getUsername();
         } else {
             final Users user = (Users) authentication.getPrincipal();
             claims.put("is_admin", false);
             claims.put("user_nik", user.getNik());
             claims.put("user_id", user.getId());
-            id = user.getId().toString();
             subject = user.getNik();
         }
 
         Date now = new Date(System.currentTimeMillis());
         Date expiredDate = new Date(now.getTime() + expiration);
 
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
         return Jwts.builder()
-                .setId(id)
-                .setSubject(subject)
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getId())
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
+                .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiredDate)
-                .signWith(key)
+                .signWith(signingKey.getKey())
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verify the token once and return its claims. Verified tokens are cached by their SHA-256 until they expire,
+     * so a client sending the same token again skips the signature check. Lookups don't lock, when the cache is full
+     * the expired tokens are evicted and new tokens are not cached until there is room again.
+     */
+    public Optional<Claims> parseToken(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        String hash = hash(token);
+        long now = System.currentTimeMillis();
+        VerifiedToken verifiedToken = verifiedTokens.get(hash);
+        if (verifiedToken != null) {
+            if (verifiedToken.expiresAt > now && keyRing.contains(verifiedToken.keyId)) {
+                return Optional.of(verifiedToken.claims);
+            }
+            verifiedTokens.remove(hash, verifiedToken);
+        }
+
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            Jws<Claims> jws = parser.parseClaimsJws(token);
+            Claims claims = jws.getBody();
+            if (claims.getExpiration() != null && maxCachedTokens > 0) {
+                cache(hash, new VerifiedToken(claims, jws.getHeader().getKeyId(), claims.getExpiration().getTime()), now);
+            }
+            return Optional.of(claims);
         } catch (SignatureException ex) {
             log.error("Invalid Jwt Signature: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
@@ -83,24 +134,71 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             log.error("Jwt claim string is empty: {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
     }
 
-    public String getUsername(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
-        if ((boolean) claims.get("is_admin")) {
+    public String getUsername(Claims claims) {
+        if (getIsAdmin(claims)) {
             return claims.get("admin_username").toString();
         } else {
             return claims.get("user_nik").toString();
         }
     }
 
-    public boolean getIsAdmin(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
-        if ((boolean) claims.get("is_admin")) {
-            return true;
-        } else {
-            return false;
+    public boolean getIsAdmin(Claims claims) {
+        return Boolean.TRUE.equals(claims.get("is_admin"));
+    }
+
+    public AuthenticatedPrincipal getPrincipal(Claims claims) {
+        boolean isAdmin = getIsAdmin(claims);
+        Object id = claims.get(isAdmin ? "admin_id" : "user_id");
+        return AuthenticatedPrincipal.builder()
+                .id(id == null ? null : ((Number) id).longValue())
+                .username(getUsername(claims))
+                .admin(isAdmin)
+                .superAdmin(isAdmin && Boolean.TRUE.equals(claims.get("is_super_admin")))
+                .build();
+    }
+
+    private void cache(String hash, VerifiedToken verifiedToken, long now) {
+        if (verifiedTokens.size() >= maxCachedTokens) {
+            evictExpired(now);
+            if (verifiedTokens.size() >= maxCachedTokens) {
+                return;
+            }
+        }
+        verifiedTokens.put(hash, verifiedToken);
+    }
+
+    /**
+     * Remove the expired tokens, at most once a second so a cache full of valid tokens isn't scanned on every miss
+     */
+    private void evictExpired(long now) {
+        long evictionAt = nextEvictionAt.get();
+        if (now < evictionAt || !nextEvictionAt.compareAndSet(evictionAt, now + EVICTION_INTERVAL_MS)) {
+            return;
+        }
+        verifiedTokens.values().removeIf(verifiedToken -> verifiedToken.expiresAt <= now);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class VerifiedToken {
+        private final Claims claims;
+        private final String keyId;
+        private final long expiresAt;
+
+        private VerifiedToken(Claims claims, String keyId, long expiresAt) {
+            this.claims = claims;
+            this.keyId = keyId;
+            this.expiresAt = expiresAt;
         }
     }
 }
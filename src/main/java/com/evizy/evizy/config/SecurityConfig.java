@@ -2,8 +2,10 @@ package com.evizy.evizy.config;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -23,9 +25,22 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     private final UserDetailsService userDetailsService;
     private final SecurityFilter securityFilter;
 
+    @Value("${app.auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    /**
+     * BCrypt with the configured strength. A password hashed with another strength is rehashed on the next login,
+     * so lowering it takes effect as users log in as well as raising it.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength) {
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                String[] parts = encodedPassword == null ? new String[0] : encodedPassword.split("\\$");
+                return parts.length > 2 && !parts[2].equals(String.format("%02d", bcryptStrength));
+            }
+        };
     }
 
     @Override
@@ -46,6 +61,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/v2/api-docs", "/configuration/**", "/swagger-resources/**",  "/swagger-ui.html", "/webjars/**", "/api-docs/**").permitAll()
                 .antMatchers("/api/v1/auth/*").permitAll()
                 .antMatchers("/api/v1/admin/login").permitAll()
+                .antMatchers(HttpMethod.GET, SecurityFilter.QUEUE_POLL_PATH).permitAll()
                 .anyRequest().authenticated();
 
         http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
@@ -1,13 +1,16 @@
 package com.evizy.evizy.config;
 
-import com.evizy.evizy.service.UsersService;
+import com.evizy.evizy.domain.common.AuthenticatedPrincipal;
+import com.evizy.evizy.service.AccountStatusService;
+import com.evizy.evizy.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -16,6 +19,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -23,25 +27,24 @@ import java.io.IOException;
 public class SecurityFilter extends OncePerRequestFilter {
     private static final String JWT_HEADER = "Authorization";
     private static final String JWT_TOKEN_PREFIX = "Bearer ";
+    static final String QUEUE_POLL_PATH = "/api/v1/vaccination-pass/queue/*";
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
 
-    private final UsersService usersService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final AccountStatusService accountStatusService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         try {
-            String token = this.getJWTFromRequest(request);
-            if (token != null && !token.isBlank() && jwtTokenProvider.validateToken(token)) {
-                String username = jwtTokenProvider.getUsername(token);
-                boolean isAdmin = jwtTokenProvider.getIsAdmin(token);
-                if (isAdmin) {
-                    username = "admin_" + username;
-                } else {
-                    username = "user_" + username;
-                }
-                UserDetails user = usersService.loadUserByUsername(username);
+            Optional<Claims> claims = jwtTokenProvider.parseToken(this.getJWTFromRequest(request))
+                    .filter(verified -> !tokenRevocationService.isRevoked(verified.getId()));
+            Optional<AuthenticatedPrincipal> principal = claims.map(jwtTokenProvider::getPrincipal)
+                    .flatMap(accountStatusService::check);
+            if (principal.isPresent()) {
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                        user, user.getPassword(), user.getAuthorities()
+                        principal.get(), null, principal.get().getAuthorities()
                 );
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
@@ -53,6 +56,15 @@ public class SecurityFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * The queue poll is permitAll and the admission token itself is the credential, so the JWT isn't parsed
+     * on the polls that arrive at a high rate during a session opening
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) && PATH_MATCHER.match(QUEUE_POLL_PATH, request.getServletPath());
+    }
+
     private String getJWTFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader(JWT_HEADER);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(JWT_TOKEN_PREFIX)) {
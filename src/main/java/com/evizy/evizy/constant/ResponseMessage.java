@@ -14,4 +14,12 @@ public class ResponseMessage {
     public static String VACCINATION_SESSION_ALREADY_BOOKED = "VACCINATION_SESSION_ALREADY_BOOKED";
     public static String STOCK_EMPTY = "STOCK_EMPTY";
     public static String CITIZEN_ALREADY_VACCINATED = "CITIZEN_ALREADY_VACCINATED";
+    public static String BOOKING_HOLD_EXPIRED = "BOOKING_HOLD_EXPIRED";
+    public static String ADMISSION_PENDING = "ADMISSION_PENDING";
+    public static String IDEMPOTENCY_KEY_REUSED = "IDEMPOTENCY_KEY_REUSED";
+    public static String IDEMPOTENCY_KEY_IN_PROGRESS = "IDEMPOTENCY_KEY_IN_PROGRESS";
+    public static String CITIZEN_SERVICE_UNAVAILABLE = "CITIZEN_SERVICE_UNAVAILABLE";
+    public static String INVALID_REFRESH_TOKEN = "INVALID_REFRESH_TOKEN";
+    public static String LOGIN_BUSY = "LOGIN_BUSY";
+    public static String INVALID_CURSOR = "INVALID_CURSOR";
 }
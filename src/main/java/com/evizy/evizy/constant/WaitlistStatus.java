@@ -0,0 +1,8 @@
+package com.evizy.evizy.constant;
+
+public class WaitlistStatus {
+    public static final String WAITING = "WAITING";
+    public static final String PROMOTED = "PROMOTED";
+    public static final String FAILED = "FAILED";
+    public static final String CANCELLED = "CANCELLED";
+}
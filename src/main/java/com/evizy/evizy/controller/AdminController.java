@@ -1,6 +1,7 @@
 package com.evizy.evizy.controller;
 
 import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.common.AuthenticatedPrincipal;
 import com.evizy.evizy.domain.dao.Admin;
 import com.evizy.evizy.domain.dto.AdminsRequest;
 import com.evizy.evizy.domain.dto.UsersRequest;
@@ -15,10 +16,10 @@ import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.ConstraintViolationException;
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -30,9 +31,9 @@ public class AdminController {
     private final AuthService authService;
 
     @PostMapping("")
-    public ResponseEntity<?> create(Principal principal, @RequestBody AdminsRequest request) {
+    public ResponseEntity<?> create(@AuthenticationPrincipal AuthenticatedPrincipal principal, @RequestBody AdminsRequest request) {
         try {
-            AdminsRequest admin = adminService.find(principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
             if (!admin.isSuperAdmin())
                 throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Unauthorized to create new admin.");
 
@@ -52,9 +53,9 @@ public class AdminController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> delete(Principal principal, @PathVariable Long id) {
+    public ResponseEntity<?> delete(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id) {
         try {
-            AdminsRequest admin = adminService.find(principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
             if (!admin.isSuperAdmin())
                 throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Unauthorized to delete admin.");
 
@@ -70,9 +71,9 @@ public class AdminController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> update(Principal principal, @PathVariable Long id, @RequestBody AdminsRequest request) {
+    public ResponseEntity<?> update(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id, @RequestBody AdminsRequest request) {
         try {
-            AdminsRequest admin = adminService.find(principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
             if (!admin.isSuperAdmin())
                 throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Unauthorized to update admin.");
 
@@ -97,6 +98,8 @@ public class AdminController {
                     .build());
         } catch (BadCredentialsException e) {
             return Response.build(ResponseMessage.INVALID_CREDENTIALS, HttpStatus.BAD_REQUEST, null);
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
         } catch (Exception e) {
             log.error("Admin failed to login: {}", e.getMessage());
             log.trace(e);
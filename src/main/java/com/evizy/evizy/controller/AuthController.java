@@ -2,6 +2,7 @@ package com.evizy.evizy.controller;
 
 import com.evizy.evizy.constant.ResponseMessage;
 import com.evizy.evizy.domain.dao.Users;
+import com.evizy.evizy.domain.dto.RefreshTokenRequest;
 import com.evizy.evizy.domain.dto.UsersRequest;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.service.AuthService;
@@ -51,10 +52,42 @@ public class AuthController {
             return authService.authenticatedAndGenerateToken(request);
         } catch (BadCredentialsException e) {
             return Response.build(ResponseMessage.INVALID_CREDENTIALS, HttpStatus.BAD_REQUEST, null);
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
         } catch (Exception e) {
             log.error("User failed to login: {}", e.getMessage());
             log.trace(e);
             return Response.build(ResponseMessage.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR, null);
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshTokenRequest request) {
+        try {
+            Validation.validate(request);
+
+            return authService.refreshToken(request);
+        } catch (ConstraintViolationException e) {
+            return Response.build(ResponseMessage.INVALID_INPUT, HttpStatus.BAD_REQUEST, null);
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
+        } catch (Exception e) {
+            log.error("Failed to refresh token: {}", e.getMessage());
+            log.trace(e);
+            return Response.build(ResponseMessage.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR, null);
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                    @RequestBody(required = false) RefreshTokenRequest request) {
+        try {
+            String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring("Bearer ".length()) : null;
+            return authService.logout(accessToken, request == null ? null : request.getRefreshToken());
+        } catch (Exception e) {
+            log.error("Failed to logout: {}", e.getMessage());
+            log.trace(e);
+            return Response.build(ResponseMessage.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR, null);
+        }
+    }
+}
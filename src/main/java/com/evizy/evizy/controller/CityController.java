@@ -2,7 +2,7 @@ package com.evizy.evizy.controller;
 
 
 import com.evizy.evizy.constant.ResponseMessage;
-import com.evizy.evizy.domain.dao.Admin;
+import com.evizy.evizy.domain.common.AuthenticatedPrincipal;
 import com.evizy.evizy.domain.dto.CityRequest;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.service.AuthService;
@@ -13,10 +13,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.ConstraintViolationException;
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -28,9 +28,9 @@ public class CityController {
     private final AuthService authService;
 
     @PostMapping("")
-    public ResponseEntity<?> create(Principal principal, @RequestBody CityRequest request) {
+    public ResponseEntity<?> create(@AuthenticationPrincipal AuthenticatedPrincipal principal, @RequestBody CityRequest request) {
         try {
-            Admin admin = (Admin) authService.getInfoByPrincipal("admin_" + principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
             if (!admin.isSuperAdmin())
                 throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Unauthorized to create new city.");
 
@@ -50,9 +50,9 @@ public class CityController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> delete(Principal principal, @PathVariable Long id) {
+    public ResponseEntity<?> delete(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id) {
         try {
-            Admin admin = (Admin) authService.getInfoByPrincipal("admin_" + principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
             if (!admin.isSuperAdmin())
                 throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Unauthorized to delete city.");
 
@@ -68,9 +68,9 @@ public class CityController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> update(Principal principal, @PathVariable Long id, @RequestBody CityRequest request) {
+    public ResponseEntity<?> update(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id, @RequestBody CityRequest request) {
         try {
-            Admin admin = (Admin) authService.getInfoByPrincipal("admin_" + principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
             if (!admin.isSuperAdmin())
                 throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Unauthorized to update city.");
 
@@ -1,7 +1,8 @@
 package com.evizy.evizy.controller;
 
 import com.evizy.evizy.constant.ResponseMessage;
-import com.evizy.evizy.domain.dao.Users;
+import com.evizy.evizy.domain.common.AuthenticatedPrincipal;
+import com.evizy.evizy.domain.common.CursorPage;
 import com.evizy.evizy.domain.dto.FamilyMembersRequest;
 import com.evizy.evizy.domain.dto.UsersRequest;
 import com.evizy.evizy.errors.BusinessFlowException;
@@ -14,11 +15,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.ConstraintViolationException;
-import java.security.Principal;
-import java.util.List;
 
 @RestController
 @Log4j2
@@ -29,9 +29,9 @@ public class FamilyMembersController {
     private final FamilyMembersService familyMembersService;
 
     @PostMapping("")
-    public ResponseEntity<?> create(Principal principal, @RequestBody FamilyMembersRequest request) {
+    public ResponseEntity<?> create(@AuthenticationPrincipal AuthenticatedPrincipal principal, @RequestBody FamilyMembersRequest request) {
         try {
-            Users user = (Users) authService.getInfoByPrincipal("user_" + principal.getName());
+            AuthenticatedPrincipal user = authService.getUser(principal);
 
             request.setUser(UsersRequest.builder()
                     .id(user.getId())
@@ -53,9 +53,9 @@ public class FamilyMembersController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> delete(Principal principal, @PathVariable Long id) {
+    public ResponseEntity<?> delete(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id) {
         try {
-            Users user = (Users) authService.getInfoByPrincipal("user_" + principal.getName());
+            AuthenticatedPrincipal user = authService.getUser(principal);
             FamilyMembersRequest familyMembers = familyMembersService.find(id);
             if (!familyMembers.getUser().getId().equals(user.getId())) {
                 throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "User not authorized to delete this family member.");
@@ -73,9 +73,9 @@ public class FamilyMembersController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> update(Principal principal, @PathVariable Long id, @RequestBody FamilyMembersRequest request) {
+    public ResponseEntity<?> update(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id, @RequestBody FamilyMembersRequest request) {
         try {
-            Users user = (Users) authService.getInfoByPrincipal("user_" + principal.getName());
+            AuthenticatedPrincipal user = authService.getUser(principal);
             FamilyMembersRequest familyMembers = familyMembersService.find(id);
             if (!familyMembers.getUser().getId().equals(user.getId())) {
                 throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "User not authorized to update this family member.");
@@ -111,9 +111,11 @@ public class FamilyMembersController {
     }
 
     @GetMapping("")
-    public ResponseEntity<?> findAll(@RequestParam(value = "user_id", required = false) Long userId) {
+    public ResponseEntity<?> findAll(@RequestParam(value = "user_id", required = false) Long userId,
+                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                     @RequestParam(value = "limit", required = false) Integer limit) {
         try {
-            List<FamilyMembersRequest> familyMembers = familyMembersService.findAll(userId);
+            CursorPage<FamilyMembersRequest> familyMembers = familyMembersService.findAll(userId, cursor, limit);
             return Response.build(ResponseMessage.SUCCESS, HttpStatus.OK, familyMembers);
         } catch (BusinessFlowException e) {
             return Response.build(e.getCode(), e.getHttpStatus(), null);
@@ -2,7 +2,8 @@ package com.evizy.evizy.controller;
 
 
 import com.evizy.evizy.constant.ResponseMessage;
-import com.evizy.evizy.domain.dao.Admin;
+import com.evizy.evizy.domain.common.AuthenticatedPrincipal;
+import com.evizy.evizy.domain.common.CursorPage;
 import com.evizy.evizy.domain.dto.*;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.service.*;
@@ -12,10 +13,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.ConstraintViolationException;
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -26,11 +27,12 @@ public class HealthFacilitiesController {
     private final HealthFacilityService healthFacilityService;
     private final HealthFacilitiesVaccinesService healthFacilitiesVaccinesService;
     private final AuthService authService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("")
-    public ResponseEntity<?> create(Principal principal, @RequestBody HealthFacilityRequest request) {
+    public ResponseEntity<?> create(@AuthenticationPrincipal AuthenticatedPrincipal principal, @RequestBody HealthFacilityRequest request) {
         try {
-            Admin admin = (Admin) authService.getInfoByPrincipal("admin_" + principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
             if (!admin.isSuperAdmin())
                 throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Unauthorized to create new health facility.");
 
@@ -50,9 +52,9 @@ public class HealthFacilitiesController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> delete(Principal principal, @PathVariable Long id) {
+    public ResponseEntity<?> delete(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id) {
         try {
-            Admin admin = (Admin) authService.getInfoByPrincipal("admin_" + principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
             if (!admin.isSuperAdmin())
                 throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Unauthorized to delete health facility.");
 
@@ -68,9 +70,9 @@ public class HealthFacilitiesController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> update(Principal principal, @PathVariable Long id, @RequestBody HealthFacilityRequest request) {
+    public ResponseEntity<?> update(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id, @RequestBody HealthFacilityRequest request) {
         try {
-            Admin admin = (Admin) authService.getInfoByPrincipal("admin_" + principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
             if (!admin.isSuperAdmin())
                 throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Unauthorized to update health facility.");
 
@@ -104,9 +106,11 @@ public class HealthFacilitiesController {
     }
 
     @GetMapping("")
-    public ResponseEntity<?> findAll(@RequestParam(value = "city_id", required = false) Long cityId) {
+    public ResponseEntity<?> findAll(@RequestParam(value = "city_id", required = false) Long cityId,
+                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                     @RequestParam(value = "limit", required = false) Integer limit) {
         try {
-            List<HealthFacilityRequest> healthFacilities = healthFacilityService.findAll(cityId);
+            CursorPage<HealthFacilityRequest> healthFacilities = healthFacilityService.findAll(cityId, cursor, limit);
             return Response.build(ResponseMessage.SUCCESS, HttpStatus.OK, healthFacilities);
         } catch (BusinessFlowException e) {
             return Response.build(e.getCode(), e.getHttpStatus(), null);
@@ -132,9 +136,20 @@ public class HealthFacilitiesController {
     }
 
     @PostMapping("/{id}/vaccines")
-    public ResponseEntity<?> createVaccineDistribution(Principal principal, @PathVariable Long id, @RequestBody VaccineDistributionRequest request) {
+    public ResponseEntity<?> createVaccineDistribution(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id,
+                                                       @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                       @RequestBody VaccineDistributionRequest request) {
         try {
-            Admin admin = (Admin) authService.getInfoByPrincipal("admin_" + principal.getName());
+            return idempotencyService.execute(idempotencyKey, "admin_" + principal.getName() + ":health-facilities/" + id + "/vaccines", request,
+                    () -> createVaccineDistribution(principal, id, request));
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
+        }
+    }
+
+    private ResponseEntity<?> createVaccineDistribution(@AuthenticationPrincipal AuthenticatedPrincipal principal, Long id, VaccineDistributionRequest request) {
+        try {
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
 
             HealthFacilityRequest healthFacility = healthFacilityService.find(id);
             if (!healthFacility.getAdmin().getId().equals(admin.getId()) && !admin.isSuperAdmin()) {
@@ -1,7 +1,8 @@
 package com.evizy.evizy.controller;
 
 import com.evizy.evizy.constant.ResponseMessage;
-import com.evizy.evizy.domain.dao.Admin;
+import com.evizy.evizy.domain.common.AuthenticatedPrincipal;
+import com.evizy.evizy.domain.common.CursorPage;
 import com.evizy.evizy.domain.dto.AdminsRequest;
 import com.evizy.evizy.domain.dto.NewsRequest;
 import com.evizy.evizy.errors.BusinessFlowException;
@@ -13,11 +14,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.ConstraintViolationException;
-import java.security.Principal;
-import java.util.List;
 
 @RestController
 @Log4j2
@@ -28,9 +28,9 @@ public class NewsController {
     private final AuthService authService;
 
     @PostMapping("")
-    public ResponseEntity<?> create(Principal principal, @RequestBody NewsRequest request) {
+    public ResponseEntity<?> create(@AuthenticationPrincipal AuthenticatedPrincipal principal, @RequestBody NewsRequest request) {
         try {
-            Admin admin = (Admin) authService.getInfoByPrincipal("admin_" + principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
             if (!admin.isSuperAdmin())
                 throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Unauthorized to create new news.");
 
@@ -53,9 +53,9 @@ public class NewsController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> delete(Principal principal, @PathVariable Long id) {
+    public ResponseEntity<?> delete(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id) {
         try {
-            Admin admin = (Admin) authService.getInfoByPrincipal("admin_" + principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
             if (!admin.isSuperAdmin())
                 throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Unauthorized to delete news.");
 
@@ -71,9 +71,9 @@ public class NewsController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> update(Principal principal, @PathVariable Long id, @RequestBody NewsRequest request) {
+    public ResponseEntity<?> update(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id, @RequestBody NewsRequest request) {
         try {
-            Admin admin = (Admin) authService.getInfoByPrincipal("admin_" + principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
             if (!admin.isSuperAdmin())
                 throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Unauthorized to update news.");
 
@@ -107,9 +107,10 @@ public class NewsController {
     }
 
     @GetMapping("")
-    public ResponseEntity<?> findAll() {
+    public ResponseEntity<?> findAll(@RequestParam(value = "cursor", required = false) String cursor,
+                                     @RequestParam(value = "limit", required = false) Integer limit) {
         try {
-            List<NewsRequest> news = newsService.find();
+            CursorPage<NewsRequest> news = newsService.find(cursor, limit);
             return Response.build(ResponseMessage.SUCCESS, HttpStatus.OK, news);
         } catch (BusinessFlowException e) {
             return Response.build(e.getCode(), e.getHttpStatus(), null);
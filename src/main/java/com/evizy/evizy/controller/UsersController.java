@@ -1,6 +1,7 @@
 package com.evizy.evizy.controller;
 
 import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.common.CursorPage;
 import com.evizy.evizy.domain.dao.Users;
 import com.evizy.evizy.domain.dto.UsersRequest;
 import com.evizy.evizy.errors.BusinessFlowException;
@@ -13,7 +14,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
-import java.util.List;
 
 @RestController
 @Log4j2
@@ -37,9 +37,10 @@ public class UsersController {
     }
 
     @GetMapping("")
-    public ResponseEntity<?> findAll() {
+    public ResponseEntity<?> findAll(@RequestParam(value = "cursor", required = false) String cursor,
+                                     @RequestParam(value = "limit", required = false) Integer limit) {
         try {
-            List<UsersRequest> users = usersService.find();
+            CursorPage<UsersRequest> users = usersService.find(cursor, limit);
             return Response.build(ResponseMessage.SUCCESS, HttpStatus.OK, users);
         } catch (BusinessFlowException e) {
             return Response.build(e.getCode(), e.getHttpStatus(), null);
@@ -1,8 +1,8 @@
 package com.evizy.evizy.controller;
 
 import com.evizy.evizy.constant.ResponseMessage;
-import com.evizy.evizy.domain.dao.Admin;
-import com.evizy.evizy.domain.dao.Users;
+import com.evizy.evizy.domain.common.AuthenticatedPrincipal;
+import com.evizy.evizy.domain.common.CursorPage;
 import com.evizy.evizy.domain.dto.*;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.service.*;
@@ -12,10 +12,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.ConstraintViolationException;
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -23,15 +23,30 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/vaccination-pass")
 public class VaccinationPassController {
+    private final AdmissionQueueService admissionQueueService;
     private final AuthService authService;
+    private final BookingHoldService bookingHoldService;
     private final HealthFacilityService healthFacilityService;
+    private final IdempotencyService idempotencyService;
     private final VaccinationPassService vaccinationPassService;
     private final VaccinationSessionService vaccinationSessionService;
+    private final WaitlistService waitlistService;
 
     @PostMapping("")
-    public ResponseEntity<?> create(Principal principal, @RequestBody VaccinationPassRequest request) {
+    public ResponseEntity<?> create(@AuthenticationPrincipal AuthenticatedPrincipal principal, @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                    @RequestHeader(value = "X-Admission-Token", required = false) String admissionToken,
+                                    @RequestBody VaccinationPassRequest request) {
         try {
-            Users user = (Users) authService.getInfoByPrincipal("user_" + principal.getName());
+            return idempotencyService.execute(idempotencyKey, "user_" + principal.getName() + ":vaccination-pass", request,
+                    () -> create(principal, admissionToken, request));
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
+        }
+    }
+
+    private ResponseEntity<?> create(AuthenticatedPrincipal principal, String admissionToken, VaccinationPassRequest request) {
+        try {
+            AuthenticatedPrincipal user = authService.getUser(principal);
 
             request.setRegisteredBy(UsersRequest.builder()
                     .id(user.getId())
@@ -39,6 +54,10 @@ public class VaccinationPassController {
 
             Validation.validate(request);
 
+            if (admissionQueueService.isEnabled()) {
+                admissionQueueService.admit(admissionToken, user.getId(), request.getVaccinationSession().getId());
+            }
+
             VaccinationPassRequest newVaccinationPass = vaccinationPassService.create(request);
             return Response.build(ResponseMessage.SUCCESS, HttpStatus.CREATED, newVaccinationPass);
         } catch (ConstraintViolationException e) {
@@ -52,10 +71,189 @@ public class VaccinationPassController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> createAll(@AuthenticationPrincipal AuthenticatedPrincipal principal, @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                       @RequestHeader(value = "X-Admission-Token", required = false) String admissionToken,
+                                       @RequestBody VaccinationPassBatchRequest request) {
+        try {
+            return idempotencyService.execute(idempotencyKey, "user_" + principal.getName() + ":vaccination-pass/batch", request,
+                    () -> createAll(principal, admissionToken, request));
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
+        }
+    }
+
+    private ResponseEntity<?> createAll(AuthenticatedPrincipal principal, String admissionToken, VaccinationPassBatchRequest request) {
+        try {
+            AuthenticatedPrincipal user = authService.getUser(principal);
+
+            if (request.getVaccinationPasses() != null) {
+                for (VaccinationPassRequest vaccinationPassRequest : request.getVaccinationPasses()) {
+                    Validation.validate(vaccinationPassRequest);
+                }
+            }
+
+            if (admissionQueueService.isEnabled()) {
+                admissionQueueService.admit(admissionToken, user.getId(), request.getVaccinationSession().getId());
+            }
+
+            List<VaccinationPassRequest> newVaccinationPasses = vaccinationPassService.createAll(user.getId(), request);
+            return Response.build(ResponseMessage.SUCCESS, HttpStatus.CREATED, newVaccinationPasses);
+        } catch (ConstraintViolationException e) {
+            return Response.build(ResponseMessage.INVALID_INPUT, HttpStatus.BAD_REQUEST, null);
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
+        } catch (Exception e) {
+            log.error("Failed to create vaccination passes: {}", e.getMessage());
+            log.trace(e);
+            return Response.build(ResponseMessage.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR, null);
+        }
+    }
+
+    @PostMapping("/waitlist")
+    public ResponseEntity<?> joinWaitlist(@AuthenticationPrincipal AuthenticatedPrincipal principal, @RequestHeader(value = "X-Admission-Token", required = false) String admissionToken,
+                                          @RequestBody VaccinationPassRequest request) {
+        try {
+            AuthenticatedPrincipal user = authService.getUser(principal);
+
+            request.setRegisteredBy(UsersRequest.builder()
+                    .id(user.getId())
+                    .build());
+
+            Validation.validate(request);
+
+            if (admissionQueueService.isEnabled()) {
+                admissionQueueService.admit(admissionToken, user.getId(), request.getVaccinationSession().getId());
+            }
+
+            WaitlistEntryRequest waitlistEntry = waitlistService.join(request);
+            return Response.build(ResponseMessage.SUCCESS, HttpStatus.CREATED, waitlistEntry);
+        } catch (ConstraintViolationException e) {
+            return Response.build(ResponseMessage.INVALID_INPUT, HttpStatus.BAD_REQUEST, null);
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
+        } catch (Exception e) {
+            log.error("Failed to join waitlist: {}", e.getMessage());
+            log.trace(e);
+            return Response.build(ResponseMessage.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR, null);
+        }
+    }
+
+    @GetMapping("/waitlist/{id}")
+    public ResponseEntity<?> findWaitlist(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id) {
+        try {
+            AuthenticatedPrincipal user = authService.getUser(principal);
+
+            WaitlistEntryRequest waitlistEntry = waitlistService.find(id, user.getId());
+            return Response.build(ResponseMessage.SUCCESS, HttpStatus.OK, waitlistEntry);
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
+        } catch (Exception e) {
+            log.error("Failed to get waitlist entry: {}", e.getMessage());
+            log.trace(e);
+            return Response.build(ResponseMessage.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR, null);
+        }
+    }
+
+    @DeleteMapping("/waitlist/{id}")
+    public ResponseEntity<?> deleteWaitlist(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id) {
+        try {
+            AuthenticatedPrincipal user = authService.getUser(principal);
+
+            waitlistService.delete(id, user.getId());
+            return Response.build(ResponseMessage.SUCCESS, HttpStatus.OK, null);
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
+        } catch (Exception e) {
+            log.error("Failed to delete waitlist entry: {}", e.getMessage());
+            log.trace(e);
+            return Response.build(ResponseMessage.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR, null);
+        }
+    }
+
+    @PostMapping("/queue")
+    public ResponseEntity<?> joinQueue(@AuthenticationPrincipal AuthenticatedPrincipal principal, @RequestBody AdmissionTokenRequest request) {
+        try {
+            AuthenticatedPrincipal user = authService.getUser(principal);
+
+            AdmissionTokenRequest admissionToken = admissionQueueService.join(user.getId(), request.getVaccinationSession().getId());
+            return Response.build(ResponseMessage.SUCCESS, HttpStatus.CREATED, admissionToken);
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
+        } catch (Exception e) {
+            log.error("Failed to join admission queue: {}", e.getMessage());
+            log.trace(e);
+            return Response.build(ResponseMessage.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR, null);
+        }
+    }
+
+    @GetMapping("/queue/{token}")
+    public ResponseEntity<?> findQueue(@PathVariable String token) {
+        try {
+            AdmissionTokenRequest admissionToken = admissionQueueService.find(token);
+            return Response.build(ResponseMessage.SUCCESS, HttpStatus.OK, admissionToken);
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
+        } catch (Exception e) {
+            log.error("Failed to get admission token: {}", e.getMessage());
+            log.trace(e);
+            return Response.build(ResponseMessage.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR, null);
+        }
+    }
+
+    @PostMapping("/holds")
+    public ResponseEntity<?> reserve(@AuthenticationPrincipal AuthenticatedPrincipal principal, @RequestHeader(value = "X-Admission-Token", required = false) String admissionToken,
+                                     @RequestBody VaccinationPassRequest request) {
+        try {
+            AuthenticatedPrincipal user = authService.getUser(principal);
+
+            request.setRegisteredBy(UsersRequest.builder()
+                    .id(user.getId())
+                    .build());
+
+            if (admissionQueueService.isEnabled()) {
+                admissionQueueService.admit(admissionToken, user.getId(), request.getVaccinationSession().getId());
+            }
+
+            BookingHoldRequest bookingHold = bookingHoldService.reserve(request);
+            return Response.build(ResponseMessage.SUCCESS, HttpStatus.CREATED, bookingHold);
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
+        } catch (Exception e) {
+            log.error("Failed to reserve vaccination session: {}", e.getMessage());
+            log.trace(e);
+            return Response.build(ResponseMessage.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR, null);
+        }
+    }
+
+    @PostMapping("/holds/{id}/confirm")
+    public ResponseEntity<?> confirm(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id, @RequestBody VaccinationPassRequest request) {
+        try {
+            AuthenticatedPrincipal user = authService.getUser(principal);
+
+            request.setRegisteredBy(UsersRequest.builder()
+                    .id(user.getId())
+                    .build());
+
+            Validation.validate(request);
+
+            VaccinationPassRequest newVaccinationPass = bookingHoldService.confirm(id, request);
+            return Response.build(ResponseMessage.SUCCESS, HttpStatus.CREATED, newVaccinationPass);
+        } catch (ConstraintViolationException e) {
+            return Response.build(ResponseMessage.INVALID_INPUT, HttpStatus.BAD_REQUEST, null);
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
+        } catch (Exception e) {
+            log.error("Failed to confirm booking hold: {}", e.getMessage());
+            log.trace(e);
+            return Response.build(ResponseMessage.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR, null);
+        }
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> delete(Principal principal, @PathVariable Long id) {
+    public ResponseEntity<?> delete(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id) {
         try {
-            Users user = (Users) authService.getInfoByPrincipal("user_" + principal.getName());
+            AuthenticatedPrincipal user = authService.getUser(principal);
 
             VaccinationPassRequest vaccinationPass = vaccinationPassService.find(id);
             if (!vaccinationPass.getRegisteredBy().getId().equals(user.getId())) {
@@ -63,6 +261,7 @@ public class VaccinationPassController {
             }
 
             vaccinationPassService.delete(id);
+            waitlistService.promote(vaccinationPass.getVaccinationSession().getId());
             return Response.build(ResponseMessage.SUCCESS, HttpStatus.OK, null);
         } catch (BusinessFlowException e) {
             return Response.build(e.getCode(), e.getHttpStatus(), null);
@@ -74,9 +273,9 @@ public class VaccinationPassController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> update(Principal principal, @PathVariable Long id, @RequestBody VaccinationPassRequest request) {
+    public ResponseEntity<?> update(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id, @RequestBody VaccinationPassRequest request) {
         try {
-            Users user = (Users) authService.getInfoByPrincipal("user_" + principal.getName());
+            AuthenticatedPrincipal user = authService.getUser(principal);
 
             VaccinationPassRequest vaccinationPass = vaccinationPassService.find(id);
             if (!vaccinationPass.getRegisteredBy().getId().equals(user.getId())) {
@@ -99,9 +298,9 @@ public class VaccinationPassController {
     }
 
     @PutMapping("/{id}/vaccinated-status")
-    public ResponseEntity<?> updateVaccinatedStatus(Principal principal, @PathVariable Long id, @RequestBody VaccinationPassRequest request) {
+    public ResponseEntity<?> updateVaccinatedStatus(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id, @RequestBody VaccinationPassRequest request) {
         try {
-            Admin admin = (Admin) authService.getInfoByPrincipal("admin_" + principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
 
             VaccinationPassRequest vaccinationPass = vaccinationPassService.find(id);
             VaccinationSessionRequest vaccinationSession = vaccinationSessionService.find(vaccinationPass.getVaccinationSession().getId());
@@ -136,9 +335,11 @@ public class VaccinationPassController {
     }
 
     @GetMapping("")
-    public ResponseEntity<?> findAll(@RequestParam(value = "user_id", required = false) Long userId) {
+    public ResponseEntity<?> findAll(@RequestParam(value = "user_id", required = false) Long userId,
+                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                     @RequestParam(value = "limit", required = false) Integer limit) {
         try {
-            List<VaccinationPassRequest> vaccinationPass = vaccinationPassService.findAll(userId);
+            CursorPage<VaccinationPassRequest> vaccinationPass = vaccinationPassService.findAll(userId, cursor, limit);
             return Response.build(ResponseMessage.SUCCESS, HttpStatus.OK, vaccinationPass);
         } catch (BusinessFlowException e) {
             return Response.build(e.getCode(), e.getHttpStatus(), null);
@@ -1,24 +1,29 @@
 package com.evizy.evizy.controller;
 
 import com.evizy.evizy.constant.ResponseMessage;
-import com.evizy.evizy.domain.dao.Admin;
+import com.evizy.evizy.domain.common.AuthenticatedPrincipal;
+import com.evizy.evizy.domain.common.CursorPage;
 import com.evizy.evizy.domain.dto.HealthFacilityRequest;
+import com.evizy.evizy.domain.dto.VaccinationSessionBatchRequest;
 import com.evizy.evizy.domain.dto.VaccinationSessionRequest;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.service.AuthService;
 import com.evizy.evizy.service.HealthFacilityService;
 import com.evizy.evizy.service.VaccinationSessionService;
+import com.evizy.evizy.service.WaitlistService;
 import com.evizy.evizy.util.Response;
 import com.evizy.evizy.util.Validation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.ConstraintViolationException;
-import java.security.Principal;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @Log4j2
@@ -28,11 +33,12 @@ public class VaccinationSessionController {
     private final VaccinationSessionService vaccinationSessionService;
     private final HealthFacilityService healthFacilityService;
     private final AuthService authService;
+    private final WaitlistService waitlistService;
 
     @PostMapping("")
-    public ResponseEntity<?> create(Principal principal, @RequestBody VaccinationSessionRequest request) {
+    public ResponseEntity<?> create(@AuthenticationPrincipal AuthenticatedPrincipal principal, @RequestBody VaccinationSessionRequest request) {
         try {
-            Admin admin = (Admin) authService.getInfoByPrincipal("admin_" + principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
 
             HealthFacilityRequest healthFacility = healthFacilityService.find(request.getHealthFacility().getId());
             if (!healthFacility.getAdmin().getId().equals(admin.getId()) && !admin.isSuperAdmin()) {
@@ -54,10 +60,42 @@ public class VaccinationSessionController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> createAll(@AuthenticationPrincipal AuthenticatedPrincipal principal, @RequestBody VaccinationSessionBatchRequest request) {
+        try {
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
+
+            if (request.getVaccinationSessions() != null) {
+                Set<Long> healthFacilityIds = new HashSet<>();
+                for (VaccinationSessionRequest vaccinationSessionRequest : request.getVaccinationSessions()) {
+                    Validation.validate(vaccinationSessionRequest);
+                    healthFacilityIds.add(vaccinationSessionRequest.getHealthFacility().getId());
+                }
+                for (Long healthFacilityId : healthFacilityIds) {
+                    HealthFacilityRequest healthFacility = healthFacilityService.find(healthFacilityId);
+                    if (!healthFacility.getAdmin().getId().equals(admin.getId()) && !admin.isSuperAdmin()) {
+                        throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Unauthorized to create vaccination session.");
+                    }
+                }
+            }
+
+            List<VaccinationSessionRequest> newVaccinationSessions = vaccinationSessionService.createAll(request);
+            return Response.build(ResponseMessage.SUCCESS, HttpStatus.CREATED, newVaccinationSessions);
+        } catch (ConstraintViolationException e) {
+            return Response.build(ResponseMessage.INVALID_INPUT, HttpStatus.BAD_REQUEST, null);
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
+        } catch (Exception e) {
+            log.error("Failed to create vaccination sessions: {}", e.getMessage());
+            log.trace(e);
+            return Response.build(ResponseMessage.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR, null);
+        }
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> delete(Principal principal, @PathVariable Long id) {
+    public ResponseEntity<?> delete(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id) {
         try {
-            Admin admin = (Admin) authService.getInfoByPrincipal("admin_" + principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
 
             VaccinationSessionRequest vaccinationSession = vaccinationSessionService.find(id);
             HealthFacilityRequest healthFacility = healthFacilityService.find(vaccinationSession.getHealthFacility().getId());
@@ -76,10 +114,32 @@ public class VaccinationSessionController {
         }
     }
 
+    @DeleteMapping("/{id}/vaccination-pass")
+    public ResponseEntity<?> deleteAllVaccinationPass(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id) {
+        try {
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
+
+            VaccinationSessionRequest vaccinationSession = vaccinationSessionService.find(id);
+            HealthFacilityRequest healthFacility = healthFacilityService.find(vaccinationSession.getHealthFacility().getId());
+            if (!healthFacility.getAdmin().getId().equals(admin.getId()) && !admin.isSuperAdmin()) {
+                throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Unauthorized to cancel vaccination passes.");
+            }
+
+            int cancelled = vaccinationSessionService.cancelAllVaccinationPass(id);
+            return Response.build(ResponseMessage.SUCCESS, HttpStatus.OK, cancelled);
+        } catch (BusinessFlowException e) {
+            return Response.build(e.getCode(), e.getHttpStatus(), null);
+        } catch (Exception e) {
+            log.error("Failed to cancel vaccination passes: {}", e.getMessage());
+            log.trace(e);
+            return Response.build(ResponseMessage.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR, null);
+        }
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<?> update(Principal principal, @PathVariable Long id, @RequestBody VaccinationSessionRequest request) {
+    public ResponseEntity<?> update(@AuthenticationPrincipal AuthenticatedPrincipal principal, @PathVariable Long id, @RequestBody VaccinationSessionRequest request) {
         try {
-            Admin admin = (Admin) authService.getInfoByPrincipal("admin_" + principal.getName());
+            AuthenticatedPrincipal admin = authService.getAdmin(principal);
 
             VaccinationSessionRequest vaccinationSession = vaccinationSessionService.find(id);
             HealthFacilityRequest healthFacility = healthFacilityService.find(vaccinationSession.getHealthFacility().getId());
@@ -90,6 +150,7 @@ public class VaccinationSessionController {
             Validation.validate(request);
 
             VaccinationSessionRequest updatedVaccinationSession = vaccinationSessionService.update(id, request);
+            waitlistService.promote(id);
             return Response.build(ResponseMessage.SUCCESS, HttpStatus.OK, updatedVaccinationSession);
         } catch (ConstraintViolationException e) {
             return Response.build(ResponseMessage.INVALID_INPUT, HttpStatus.BAD_REQUEST, null);
@@ -117,9 +178,11 @@ public class VaccinationSessionController {
     }
 
     @GetMapping("")
-    public ResponseEntity<?> findAll(@RequestParam(value = "health_facility_id", required = false) Long healthFacilityId) {
+    public ResponseEntity<?> findAll(@RequestParam(value = "health_facility_id", required = false) Long healthFacilityId,
+                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                     @RequestParam(value = "limit", required = false) Integer limit) {
         try {
-            List<VaccinationSessionRequest> vaccinationSessions = vaccinationSessionService.findAll(healthFacilityId);
+            CursorPage<VaccinationSessionRequest> vaccinationSessions = vaccinationSessionService.findAll(healthFacilityId, cursor, limit);
             return Response.build(ResponseMessage.SUCCESS, HttpStatus.OK, vaccinationSessions);
         } catch (BusinessFlowException e) {
             return Response.build(e.getCode(), e.getHttpStatus(), null);
@@ -0,0 +1,26 @@
+package com.evizy.evizy.domain.common;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * One page of a list ordered by id, next_cursor is passed back as cursor to get the next page and is null on the last
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class CursorPage<T> implements Serializable {
+    private static final long serialVersionUID = 4179826301571420935L;
+
+    private List<T> items;
+    private String nextCursor;
+}
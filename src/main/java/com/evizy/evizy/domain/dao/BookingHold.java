@@ -0,0 +1,38 @@
+package com.evizy.evizy.domain.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@Entity
+@Table(name = "booking_holds")
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingHold implements Serializable {
+    private static final long serialVersionUID = -3183304963164575627L;
+
+    @Id
+    @Column(name = "id", nullable = false)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_holds_seq")
+    @SequenceGenerator(name = "booking_holds_seq", sequenceName = "booking_holds_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Users registeredBy;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private VaccinationSessions vaccinationSessions;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private FamilyMembers familyMembers;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,36 @@
+package com.evizy.evizy.domain.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@Entity
+@Table(name = "citizens")
+@NoArgsConstructor
+@AllArgsConstructor
+public class Citizen implements Serializable {
+    private static final long serialVersionUID = -1437209518864527341L;
+
+    @Id
+    @Column(name = "nik", nullable = false)
+    private String nik;
+
+    @Column(name = "citizen_id")
+    private Long citizenId;
+
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "gender")
+    private Character gender;
+
+    @Column(name = "date_of_birth")
+    private LocalDate dateOfBirth;
+}
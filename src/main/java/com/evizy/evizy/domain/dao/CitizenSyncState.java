@@ -0,0 +1,33 @@
+package com.evizy.evizy.domain.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@Entity
+@Table(name = "citizen_sync_state")
+@NoArgsConstructor
+@AllArgsConstructor
+public class CitizenSyncState implements Serializable {
+    private static final long serialVersionUID = 6620953843139710552L;
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private String id;
+
+    @Column(name = "etag")
+    private String etag;
+
+    @Column(name = "last_modified")
+    private String lastModified;
+
+    @Column(name = "synced_at")
+    private LocalDateTime syncedAt;
+}
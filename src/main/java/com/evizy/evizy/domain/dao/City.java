@@ -26,7 +26,8 @@ public class City extends BaseDao implements Serializable {
 
     @Id
     @Column(name = "id", nullable = false)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cities_seq")
+    @SequenceGenerator(name = "cities_seq", sequenceName = "cities_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false)
@@ -27,10 +27,11 @@ public class FamilyMembers extends BaseDao implements Serializable {
 
     @Id
     @Column(name = "id", nullable = false)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "family_members_seq")
+    @SequenceGenerator(name = "family_members_seq", sequenceName = "family_members_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Users users;
 
     @Column(name = "nik", nullable = false)
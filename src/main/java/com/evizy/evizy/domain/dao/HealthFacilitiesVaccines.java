@@ -29,12 +29,12 @@ public class HealthFacilitiesVaccines implements Serializable {
     }
 
     @Id
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "health_facility_id", nullable = false)
     private HealthFacility healthFacility;
 
     @Id
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vaccine_id", nullable = false)
     private Vaccine vaccine;
 
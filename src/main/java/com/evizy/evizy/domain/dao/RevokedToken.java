@@ -0,0 +1,35 @@
+package com.evizy.evizy.domain.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "revoked_tokens_revoked_at_idx", columnList = "revoked_at"))
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken implements Serializable {
+    private static final long serialVersionUID = -4532091824467192735L;
+
+    @Id
+    @Column(name = "id", nullable = false)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "revoked_tokens_seq")
+    @SequenceGenerator(name = "revoked_tokens_seq", sequenceName = "revoked_tokens_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "jti", nullable = false, unique = true)
+    private String jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+}
@@ -30,19 +30,20 @@ public class VaccinationPass extends BaseDao implements Serializable {
 
     @Id
     @Column(name = "id", nullable = false)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vaccination_pass_seq")
+    @SequenceGenerator(name = "vaccination_pass_seq", sequenceName = "vaccination_pass_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Users registeredBy;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private VaccinationSessions vaccinationSessions;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private FamilyMembers familyMembers;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Vaccine vaccine;
 
     @Column(name = "nik", nullable = false)
@@ -30,13 +30,14 @@ public class VaccinationSessions extends BaseDao implements Serializable {
 
     @Id
     @Column(name = "id", nullable = false)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vaccination_sessions_seq")
+    @SequenceGenerator(name = "vaccination_sessions_seq", sequenceName = "vaccination_sessions_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private HealthFacility healthFacility;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Vaccine vaccine;
 
     @Column(name = "schedule_date", nullable = false)
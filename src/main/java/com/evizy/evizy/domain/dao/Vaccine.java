@@ -26,7 +26,8 @@ public class Vaccine extends BaseDao implements Serializable {
 
     @Id
     @Column(name = "id", nullable = false)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vaccines_seq")
+    @SequenceGenerator(name = "vaccines_seq", sequenceName = "vaccines_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false)
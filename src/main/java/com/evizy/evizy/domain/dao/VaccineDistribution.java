@@ -29,16 +29,17 @@ public class VaccineDistribution extends BaseDao implements Serializable {
 
     @Id
     @Column(name = "id", nullable = false)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vaccine_distribution_seq")
+    @SequenceGenerator(name = "vaccine_distribution_seq", sequenceName = "vaccine_distribution_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private HealthFacility healthFacility;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Vaccine vaccine;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private VaccinationSessions vaccinationSession;
 
     @Column(name = "quantity", nullable = false)
@@ -0,0 +1,89 @@
+package com.evizy.evizy.domain.dao;
+
+import com.evizy.evizy.domain.common.BaseDao;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.Where;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+@EqualsAndHashCode(callSuper = true)
+@Data
+@SuperBuilder
+@Entity
+@Table(name = "waitlist_entries")
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+@SQLDelete(sql = "UPDATE waitlist_entries SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?")
+@Where(clause = "deleted_at IS NULL")
+public class WaitlistEntry extends BaseDao implements Serializable {
+    private static final long serialVersionUID = 8830126574021979344L;
+
+    @Id
+    @Column(name = "id", nullable = false)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waitlist_entries_seq")
+    @SequenceGenerator(name = "waitlist_entries_seq", sequenceName = "waitlist_entries_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Users registeredBy;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private VaccinationSessions vaccinationSessions;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private FamilyMembers familyMembers;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private VaccinationPass vaccinationPass;
+
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "medical_history")
+    private String medicalHistory;
+
+    @Column(name = "age_category")
+    private String ageCategory;
+
+    @Column(name = "is_pregnant")
+    private Boolean isPregnant;
+
+    @Column(name = "id_address")
+    private String idAddress;
+
+    @Column(name = "id_urban_village")
+    private String idUrbanVillage;
+
+    @Column(name = "id_sub_district")
+    private String idSubDistrict;
+
+    @Column(name = "id_city")
+    private String idCity;
+
+    @Column(name = "id_province")
+    private String idProvince;
+
+    @Column(name = "curr_address")
+    private String currAddress;
+
+    @Column(name = "curr_urban_village")
+    private String currUrbanVillage;
+
+    @Column(name = "curr_sub_district")
+    private String currSubDistrict;
+
+    @Column(name = "curr_city")
+    private String currCity;
+
+    @Column(name = "curr_province")
+    private String currProvince;
+}
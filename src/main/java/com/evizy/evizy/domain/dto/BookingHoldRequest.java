@@ -0,0 +1,30 @@
+package com.evizy.evizy.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingHoldRequest implements Serializable {
+    private static final long serialVersionUID = 2301954837746192038L;
+
+    private Long id;
+    private UsersRequest registeredBy;
+    private VaccinationSessionRequest vaccinationSession;
+    private FamilyMembersRequest familyMember;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,22 @@
+package com.evizy.evizy.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CitizenSyncResponse implements Serializable {
+    private static final long serialVersionUID = -2203585817419683150L;
+
+    private boolean modified;
+    private String etag;
+    private String lastModified;
+    private List<CitizenResponse> citizens;
+}
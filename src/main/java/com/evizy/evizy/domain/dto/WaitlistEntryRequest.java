@@ -0,0 +1,31 @@
+package com.evizy.evizy.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WaitlistEntryRequest implements Serializable {
+    private static final long serialVersionUID = -2264731903184561337L;
+
+    private Long id;
+    private UsersRequest registeredBy;
+    private VaccinationSessionRequest vaccinationSession;
+    private FamilyMembersRequest familyMember;
+    private VaccinationPassRequest vaccinationPass;
+    private String status;
+    private Long position;
+}
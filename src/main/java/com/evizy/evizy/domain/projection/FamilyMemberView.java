@@ -0,0 +1,25 @@
+package com.evizy.evizy.domain.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Columns of a family member read for FamilyMembersRequest, the user is joined for its name only
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class FamilyMemberView {
+    private Long id;
+    private Long userId;
+    private String userName;
+    private String nik;
+    private String name;
+    private String phoneNumber;
+    private LocalDate dateOfBirth;
+    private Character gender;
+    private String relationship;
+}
@@ -0,0 +1,19 @@
+package com.evizy.evizy.domain.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Stock of a vaccine at a health facility read for HealthFacilityVaccinesRequest
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class HealthFacilityVaccinesView {
+    private Long healthFacilityId;
+    private String healthFacilityName;
+    private Long vaccineId;
+    private String vaccineName;
+    private Long stock;
+}
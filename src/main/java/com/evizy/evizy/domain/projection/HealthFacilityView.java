@@ -0,0 +1,20 @@
+package com.evizy.evizy.domain.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Columns of a health facility read for HealthFacilityRequest, without loading its admin or city
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class HealthFacilityView {
+    private Long id;
+    private String name;
+    private Long cityId;
+    private String cityName;
+    private Long adminId;
+    private String adminName;
+}
@@ -0,0 +1,20 @@
+package com.evizy.evizy.domain.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Columns of a news read for NewsRequest, the admin is joined for its name only
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class NewsView {
+    private Long id;
+    private String title;
+    private String description;
+    private String content;
+    private Long adminId;
+    private String adminName;
+}
@@ -0,0 +1,22 @@
+package com.evizy.evizy.domain.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Columns of a user read for UsersRequest, the password and account flags are left out
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class UserView {
+    private Long id;
+    private String nik;
+    private String name;
+    private String phoneNumber;
+    private Character gender;
+    private LocalDate dateOfBirth;
+}
@@ -0,0 +1,43 @@
+package com.evizy.evizy.domain.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Columns of a vaccination pass read for VaccinationPassRequest, with the names of its vaccine, user and family member
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class VaccinationPassView {
+    private Long id;
+    private Long vaccinationSessionId;
+    private Long vaccineId;
+    private String vaccineName;
+    private Long registeredById;
+    private String registeredByName;
+    private Long familyMemberId;
+    private String familyMemberName;
+    private String nik;
+    private String name;
+    private LocalDate dateOfBirth;
+    private String phoneNumber;
+    private char gender;
+    private String ageCategory;
+    private Boolean isVaccinated;
+    private Boolean isPregnant;
+    private String medicalHistory;
+    private String idAddress;
+    private String idUrbanVillage;
+    private String idSubDistrict;
+    private String idCity;
+    private String idProvince;
+    private String currAddress;
+    private String currUrbanVillage;
+    private String currSubDistrict;
+    private String currCity;
+    private String currProvince;
+}
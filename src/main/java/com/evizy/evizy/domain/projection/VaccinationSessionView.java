@@ -0,0 +1,26 @@
+package com.evizy.evizy.domain.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Columns of a vaccination session read for VaccinationSessionRequest
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class VaccinationSessionView {
+    private Long id;
+    private Long healthFacilityId;
+    private String healthFacilityName;
+    private Long vaccineId;
+    private String vaccineName;
+    private LocalDate scheduleDate;
+    private String scheduleTimeStart;
+    private String scheduleTimeEnd;
+    private Long quantity;
+    private Long booked;
+}
@@ -0,0 +1,34 @@
+package com.evizy.evizy.repository;
+
+import com.evizy.evizy.domain.dao.BookingHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingHoldRepository extends JpaRepository<BookingHold, Long> {
+    long countByVaccinationSessionsId(Long id);
+
+    @Query(value = "SELECT DISTINCT vaccination_sessions_id FROM booking_holds WHERE expires_at <= :now", nativeQuery = true)
+    List<Long> findAllExpiredVaccinationSessionIds(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM booking_holds WHERE vaccination_sessions_id = :vaccinationSessionId AND expires_at <= :now", nativeQuery = true)
+    int deleteAllExpiredByVaccinationSessionId(@Param("vaccinationSessionId") Long vaccinationSessionId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM booking_holds WHERE vaccination_sessions_id = :vaccinationSessionId", nativeQuery = true)
+    int deleteAllByVaccinationSessionId(@Param("vaccinationSessionId") Long vaccinationSessionId);
+
+    /**
+     * Claim a hold for confirmation, returns 0 when it already expired or was swept
+     */
+    @Modifying
+    @Query(value = "DELETE FROM booking_holds WHERE id = :id AND expires_at > :now", nativeQuery = true)
+    int deleteActiveById(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
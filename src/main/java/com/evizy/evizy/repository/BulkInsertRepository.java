@@ -0,0 +1,12 @@
+package com.evizy.evizy.repository;
+
+import java.util.List;
+
+public interface BulkInsertRepository<T> {
+    /**
+     * Persist new entities, flushing every app.bulk-insert.flush-size rows. The entities of each full chunk are detached
+     * once flushed so the persistence context doesn't grow with the list, the last chunk and every entity loaded earlier
+     * in the transaction stay managed. Set hibernate.jdbc.batch_size to send the inserts in JDBC batches
+     */
+    <S extends T> List<S> insertAll(Iterable<S> entities);
+}
@@ -0,0 +1,45 @@
+package com.evizy.evizy.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkInsertRepositoryImpl<T> implements BulkInsertRepository<T> {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.bulk-insert.flush-size:1000}")
+    private int flushSize;
+
+    @PostConstruct
+    public void init() {
+        if (flushSize <= 0) {
+            throw new IllegalStateException("app.bulk-insert.flush-size must be greater than 0");
+        }
+    }
+
+    @Override
+    @Transactional
+    public <S extends T> List<S> insertAll(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        int flushed = 0;
+        for (S entity : entities) {
+            entityManager.persist(entity);
+            inserted.add(entity);
+            if (inserted.size() - flushed == flushSize) {
+                entityManager.flush();
+                for (S chunk : inserted.subList(flushed, inserted.size())) {
+                    entityManager.detach(chunk);
+                }
+                flushed = inserted.size();
+            }
+        }
+        entityManager.flush();
+        return inserted;
+    }
+}
@@ -0,0 +1,18 @@
+package com.evizy.evizy.repository;
+
+import com.evizy.evizy.domain.dao.Citizen;
+
+import java.util.Collection;
+
+public interface CitizenBatchRepository {
+    /**
+     * Write citizens in JDBC batches of app.citizen.sync.batch-size without loading them first.
+     * Each chunk is updated by NIK, the rows that did not exist yet are inserted with a second batch.
+     */
+    void upsertAll(Collection<Citizen> citizens);
+
+    /**
+     * Delete citizens by NIK in JDBC batches of app.citizen.sync.batch-size
+     */
+    void deleteAllByNik(Collection<String> niks);
+}
@@ -0,0 +1,67 @@
+package com.evizy.evizy.repository;
+
+import com.evizy.evizy.domain.dao.Citizen;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class CitizenBatchRepositoryImpl implements CitizenBatchRepository {
+    private static final String UPDATE = "UPDATE citizens SET citizen_id = ?, name = ?, date_of_birth = ?, gender = ? WHERE nik = ?";
+    private static final String INSERT = "INSERT INTO citizens (citizen_id, name, date_of_birth, gender, nik) VALUES (?, ?, ?, ?, ?)";
+
+    private static final ParameterizedPreparedStatementSetter<Citizen> SETTER = (ps, citizen) -> {
+        ps.setObject(1, citizen.getCitizenId(), Types.BIGINT);
+        ps.setObject(2, citizen.getName(), Types.VARCHAR);
+        ps.setObject(3, citizen.getDateOfBirth(), Types.DATE);
+        ps.setObject(4, citizen.getGender() == null ? null : citizen.getGender().toString(), Types.CHAR);
+        ps.setString(5, citizen.getNik());
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.citizen.sync.batch-size:1000}")
+    private int batchSize;
+
+    @PostConstruct
+    public void init() {
+        if (batchSize <= 0) {
+            throw new IllegalStateException("app.citizen.sync.batch-size must be greater than 0");
+        }
+    }
+
+    @Override
+    @Transactional
+    public void upsertAll(Collection<Citizen> citizens) {
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE, citizens, batchSize, SETTER);
+
+        List<Citizen> missing = new ArrayList<>();
+        Iterator<Citizen> iterator = citizens.iterator();
+        for (int[] chunk : updated) {
+            for (int count : chunk) {
+                Citizen citizen = iterator.next();
+                if (count == 0) {
+                    missing.add(citizen);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, missing, batchSize, SETTER);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllByNik(Collection<String> niks) {
+        jdbcTemplate.batchUpdate("DELETE FROM citizens WHERE nik = ?", niks, batchSize, (ps, nik) -> ps.setString(1, nik));
+    }
+}
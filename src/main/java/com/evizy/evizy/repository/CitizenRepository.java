@@ -0,0 +1,23 @@
+package com.evizy.evizy.repository;
+
+import com.evizy.evizy.domain.dao.Citizen;
+import com.evizy.evizy.domain.dto.CitizenResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface CitizenRepository extends JpaRepository<Citizen, String>, CitizenBatchRepository {
+    /**
+     * Every citizen as a response, read with a cursor and never loaded as entities. Has to be consumed in a transaction
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.evizy.evizy.domain.dto.CitizenResponse(c.citizenId, c.nik, c.name, c.gender, c.dateOfBirth) FROM Citizen c")
+    Stream<CitizenResponse> streamAll();
+}
@@ -0,0 +1,9 @@
+package com.evizy.evizy.repository;
+
+import com.evizy.evizy.domain.dao.CitizenSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CitizenSyncStateRepository extends JpaRepository<CitizenSyncState, String> {
+}
@@ -10,6 +10,6 @@ import java.util.List;
 
 @Repository
 public interface CityRepository extends JpaRepository<City, Long> {
-    @Query(value = "SELECT COUNT(*) FROM cities WHERE lower(name) = :name",nativeQuery = true)
+    @Query(value = "SELECT COUNT(*) FROM cities WHERE lower(name) = :name AND deleted_at IS NULL", nativeQuery = true)
     Long countAllCitiesByLowerName(@Param("name") String name);
 }
@@ -1,12 +1,28 @@
 package com.evizy.evizy.repository;
 
 import com.evizy.evizy.domain.dao.FamilyMembers;
+import com.evizy.evizy.domain.projection.FamilyMemberView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FamilyMembersRepository extends JpaRepository<FamilyMembers, Long> {
-    List<FamilyMembers> findAllByUsersId(Long userId);
+    String SELECT_VIEW = "SELECT new com.evizy.evizy.domain.projection.FamilyMemberView(f.id, u.id, u.name, f.nik, f.name, " +
+            "f.phoneNumber, f.dateOfBirth, f.gender, f.relationship) " +
+            "FROM FamilyMembers f LEFT JOIN f.users u ";
+
+    @Query(SELECT_VIEW + "WHERE f.id = :id")
+    Optional<FamilyMemberView> findViewById(@Param("id") Long id);
+
+    @Query(SELECT_VIEW + "WHERE f.id > :id ORDER BY f.id")
+    List<FamilyMemberView> findViewsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_VIEW + "WHERE f.users.id = :userId AND f.id > :id ORDER BY f.id")
+    List<FamilyMemberView> findViewsByUsersIdAndIdGreaterThan(@Param("userId") Long userId, @Param("id") Long id, Pageable pageable);
 }
@@ -1,12 +1,40 @@
 package com.evizy.evizy.repository;
 
 import com.evizy.evizy.domain.dao.HealthFacilitiesVaccines;
+import com.evizy.evizy.domain.projection.HealthFacilityVaccinesView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface HealthFacilitiesVaccinesRepository extends JpaRepository<HealthFacilitiesVaccines, HealthFacilitiesVaccines.HealthFacilitiesVaccinesId> {
-    public List<HealthFacilitiesVaccines> findAllByHealthFacilityId(Long id);
+    @Query("SELECT new com.evizy.evizy.domain.projection.HealthFacilityVaccinesView(h.id, h.name, v.id, v.name, hv.stock) " +
+            "FROM HealthFacilitiesVaccines hv JOIN hv.healthFacility h JOIN hv.vaccine v WHERE h.id = :healthFacilityId")
+    List<HealthFacilityVaccinesView> findAllViewsByHealthFacilityId(@Param("healthFacilityId") Long healthFacilityId);
+
+    /**
+     * Take vaccines out of the stock only when enough is left, returns 0 when the stock is not enough
+     */
+    @Modifying
+    @Query(value = "UPDATE health_facilities_vaccines SET stock = stock - :quantity " +
+            "WHERE health_facility_id = :healthFacilityId AND vaccine_id = :vaccineId AND stock >= :quantity", nativeQuery = true)
+    int debitStock(@Param("healthFacilityId") Long healthFacilityId, @Param("vaccineId") Long vaccineId, @Param("quantity") long quantity);
+
+    /**
+     * Put vaccines back into the stock, returns 0 when the stock row doesn't exist yet
+     */
+    @Modifying
+    @Query(value = "UPDATE health_facilities_vaccines SET stock = stock + :quantity " +
+            "WHERE health_facility_id = :healthFacilityId AND vaccine_id = :vaccineId", nativeQuery = true)
+    int creditStock(@Param("healthFacilityId") Long healthFacilityId, @Param("vaccineId") Long vaccineId, @Param("quantity") long quantity);
+
+    @Modifying
+    @Query(value = "INSERT INTO health_facilities_vaccines (health_facility_id, vaccine_id, stock) " +
+            "SELECT :healthFacilityId, :vaccineId, 0 WHERE NOT EXISTS (SELECT 1 FROM health_facilities_vaccines " +
+            "WHERE health_facility_id = :healthFacilityId AND vaccine_id = :vaccineId)", nativeQuery = true)
+    int insertEmptyStockIfAbsent(@Param("healthFacilityId") Long healthFacilityId, @Param("vaccineId") Long vaccineId);
 }
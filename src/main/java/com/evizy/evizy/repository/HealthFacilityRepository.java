@@ -1,14 +1,27 @@
 package com.evizy.evizy.repository;
 
-import com.evizy.evizy.domain.dao.Admin;
 import com.evizy.evizy.domain.dao.HealthFacility;
-import com.evizy.evizy.domain.dao.VaccinationSessions;
+import com.evizy.evizy.domain.projection.HealthFacilityView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface HealthFacilityRepository extends JpaRepository<HealthFacility, Long> {
-    List<HealthFacility> findAllByCityId(Long cityId);
+    String SELECT_VIEW = "SELECT new com.evizy.evizy.domain.projection.HealthFacilityView(h.id, h.name, c.id, c.name, a.id, a.name) " +
+            "FROM HealthFacility h LEFT JOIN h.city c LEFT JOIN h.admin a ";
+
+    @Query(SELECT_VIEW + "WHERE h.id = :id")
+    Optional<HealthFacilityView> findViewById(@Param("id") Long id);
+
+    @Query(SELECT_VIEW + "WHERE h.id > :id ORDER BY h.id")
+    List<HealthFacilityView> findViewsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_VIEW + "WHERE h.city.id = :cityId AND h.id > :id ORDER BY h.id")
+    List<HealthFacilityView> findViewsByCityIdAndIdGreaterThan(@Param("cityId") Long cityId, @Param("id") Long id, Pageable pageable);
 }
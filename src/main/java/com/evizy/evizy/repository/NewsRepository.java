@@ -1,9 +1,24 @@
 package com.evizy.evizy.repository;
 
 import com.evizy.evizy.domain.dao.News;
+import com.evizy.evizy.domain.projection.NewsView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface NewsRepository extends JpaRepository<News, Long> {
+    String SELECT_VIEW = "SELECT new com.evizy.evizy.domain.projection.NewsView(n.id, n.title, n.description, n.content, a.id, a.name) " +
+            "FROM News n LEFT JOIN n.admin a ";
+
+    @Query(SELECT_VIEW + "WHERE n.id = :id")
+    Optional<NewsView> findViewById(@Param("id") Long id);
+
+    @Query(SELECT_VIEW + "WHERE n.id > :id ORDER BY n.id")
+    List<NewsView> findViewsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
 }
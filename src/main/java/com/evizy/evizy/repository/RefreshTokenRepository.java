@@ -0,0 +1,31 @@
+package com.evizy.evizy.repository;
+
+import com.evizy.evizy.domain.dao.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Claim a token for rotation, returns 0 when it was already used or revoked
+     */
+    @Modifying
+    @Query(value = "UPDATE refresh_tokens SET used_at = :now WHERE id = :id AND used_at IS NULL AND revoked_at IS NULL", nativeQuery = true)
+    int markUsed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE refresh_tokens SET revoked_at = :now WHERE family_id = :familyId AND revoked_at IS NULL", nativeQuery = true)
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE expires_at <= :now", nativeQuery = true)
+    int deleteAllExpired(@Param("now") LocalDateTime now);
+}
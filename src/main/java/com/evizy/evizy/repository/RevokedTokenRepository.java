@@ -0,0 +1,22 @@
+package com.evizy.evizy.repository;
+
+import com.evizy.evizy.domain.dao.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    List<RevokedToken> findAllByExpiresAtAfter(LocalDateTime now);
+
+    List<RevokedToken> findAllByRevokedAtGreaterThanEqual(LocalDateTime since);
+
+    @Modifying
+    @Query(value = "DELETE FROM revoked_tokens WHERE expires_at <= :now", nativeQuery = true)
+    int deleteAllExpired(@Param("now") LocalDateTime now);
+}
@@ -1,11 +1,29 @@
 package com.evizy.evizy.repository;
 
 import com.evizy.evizy.domain.dao.Users;
+import com.evizy.evizy.domain.projection.UserView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface UsersRepository extends JpaRepository<Users, Long> {
     Users getDistinctTopByNik(String nik);
+
+    String SELECT_VIEW = "SELECT new com.evizy.evizy.domain.projection.UserView(u.id, u.nik, u.name, u.phoneNumber, u.gender, u.dateOfBirth) " +
+            "FROM Users u ";
+
+    @Query(SELECT_VIEW + "WHERE u.id = :id")
+    Optional<UserView> findViewById(@Param("id") Long id);
+
+    @Query(SELECT_VIEW + "WHERE u.id > :id ORDER BY u.id")
+    List<UserView> findViewsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT u.nik FROM Users u")
+    List<String> findAllNik();
 }
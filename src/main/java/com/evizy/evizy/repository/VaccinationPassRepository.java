@@ -1,12 +1,47 @@
 package com.evizy.evizy.repository;
 
 import com.evizy.evizy.domain.dao.VaccinationPass;
+import com.evizy.evizy.domain.projection.VaccinationPassView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface VaccinationPassRepository extends JpaRepository<VaccinationPass, Long> {
-    List<VaccinationPass> findAllByRegisteredById(Long id);
+public interface VaccinationPassRepository extends JpaRepository<VaccinationPass, Long>, BulkInsertRepository<VaccinationPass> {
+    /**
+     * The columns of a pass with the names of its vaccine, user and family member joined in, in one statement
+     */
+    String SELECT_VIEW = "SELECT new com.evizy.evizy.domain.projection.VaccinationPassView(p.id, p.vaccinationSessions.id, " +
+            "v.id, v.name, u.id, u.name, f.id, f.name, p.nik, p.name, p.dateOfBirth, p.phoneNumber, p.gender, p.ageCategory, " +
+            "p.isVaccinated, p.isPregnant, p.medicalHistory, p.idAddress, p.idUrbanVillage, p.idSubDistrict, p.idCity, p.idProvince, " +
+            "p.currAddress, p.currUrbanVillage, p.currSubDistrict, p.currCity, p.currProvince) " +
+            "FROM VaccinationPass p LEFT JOIN p.vaccine v LEFT JOIN p.registeredBy u LEFT JOIN p.familyMembers f ";
+
+    @Query(SELECT_VIEW + "WHERE p.id = :id")
+    Optional<VaccinationPassView> findViewById(@Param("id") Long id);
+
+    @Query(SELECT_VIEW + "WHERE p.id > :id ORDER BY p.id")
+    List<VaccinationPassView> findViewsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_VIEW + "WHERE p.registeredBy.id = :registeredById AND p.id > :id ORDER BY p.id")
+    List<VaccinationPassView> findViewsByRegisteredByIdAndIdGreaterThan(@Param("registeredById") Long registeredById, @Param("id") Long id, Pageable pageable);
+
+    long countByVaccinationSessionsId(Long id);
+
+    /**
+     * Soft delete a pass that is not vaccinated yet, returns 0 when it was already cancelled or vaccinated
+     */
+    @Modifying
+    @Query(value = "UPDATE vaccination_pass SET deleted_at = CURRENT_TIMESTAMP WHERE id = :id AND is_vaccinated = false AND deleted_at IS NULL", nativeQuery = true)
+    int deleteUnvaccinatedById(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "UPDATE vaccination_pass SET deleted_at = CURRENT_TIMESTAMP WHERE vaccination_sessions_id = :vaccinationSessionId AND is_vaccinated = false AND deleted_at IS NULL", nativeQuery = true)
+    int deleteAllUnvaccinatedByVaccinationSessionId(@Param("vaccinationSessionId") Long vaccinationSessionId);
 }
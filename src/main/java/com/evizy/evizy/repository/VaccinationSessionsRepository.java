@@ -1,12 +1,68 @@
 package com.evizy.evizy.repository;
 
 import com.evizy.evizy.domain.dao.VaccinationSessions;
+import com.evizy.evizy.domain.projection.VaccinationSessionView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface VaccinationSessionsRepository extends JpaRepository<VaccinationSessions, Long> {
+public interface VaccinationSessionsRepository extends JpaRepository<VaccinationSessions, Long>, BulkInsertRepository<VaccinationSessions> {
     List<VaccinationSessions> findAllByHealthFacilityId(Long healthFacilityId);
+
+    String SELECT_VIEW = "SELECT new com.evizy.evizy.domain.projection.VaccinationSessionView(s.id, h.id, h.name, v.id, v.name, " +
+            "s.scheduleDate, s.scheduleTimeStart, s.scheduleTimeEnd, s.quantity, s.booked) " +
+            "FROM VaccinationSessions s LEFT JOIN s.healthFacility h LEFT JOIN s.vaccine v ";
+
+    @Query(SELECT_VIEW + "WHERE s.id = :id")
+    Optional<VaccinationSessionView> findViewById(@Param("id") Long id);
+
+    @Query(SELECT_VIEW + "WHERE s.id > :id ORDER BY s.id")
+    List<VaccinationSessionView> findViewsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_VIEW + "WHERE s.healthFacility.id = :healthFacilityId AND s.id > :id ORDER BY s.id")
+    List<VaccinationSessionView> findViewsByHealthFacilityIdAndIdGreaterThan(@Param("healthFacilityId") Long healthFacilityId, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Reserve seats in a single conditional statement, returns 0 when the session has fewer seats left
+     */
+    @Modifying
+    @Query(value = "UPDATE vaccination_sessions SET booked = booked + :seats WHERE id = :id AND booked + :seats <= quantity AND deleted_at IS NULL", nativeQuery = true)
+    int incrementBookedIfAvailable(@Param("id") Long id, @Param("seats") long seats);
+
+    @Modifying
+    @Query(value = "UPDATE vaccination_sessions SET booked = booked - :seats WHERE id = :id AND booked >= :seats", nativeQuery = true)
+    int decrementBooked(@Param("id") Long id, @Param("seats") long seats);
+
+    /**
+     * Add seats without touching booked, so reservations running at the same time are not overwritten
+     */
+    @Modifying
+    @Query(value = "UPDATE vaccination_sessions SET quantity = quantity + :seats WHERE id = :id AND deleted_at IS NULL", nativeQuery = true)
+    int incrementQuantity(@Param("id") Long id, @Param("seats") long seats);
+
+    /**
+     * Reschedule the session only while nobody booked it, returns 0 once a booking committed
+     */
+    @Modifying
+    @Query(value = "UPDATE vaccination_sessions SET vaccine_id = :vaccineId, schedule_date = :scheduleDate, " +
+            "schedule_time_start = :scheduleTimeStart, schedule_time_end = :scheduleTimeEnd, quantity = :quantity, " +
+            "updated_at = CURRENT_TIMESTAMP WHERE id = :id AND booked = 0 AND deleted_at IS NULL", nativeQuery = true)
+    int updateUnbookedById(@Param("id") Long id, @Param("vaccineId") Long vaccineId, @Param("scheduleDate") LocalDate scheduleDate,
+                           @Param("scheduleTimeStart") String scheduleTimeStart, @Param("scheduleTimeEnd") String scheduleTimeEnd,
+                           @Param("quantity") Long quantity);
+
+    /**
+     * Soft delete the session only while nobody booked it, so the stock is given back once
+     */
+    @Modifying
+    @Query(value = "UPDATE vaccination_sessions SET deleted_at = CURRENT_TIMESTAMP WHERE id = :id AND booked = 0 AND deleted_at IS NULL", nativeQuery = true)
+    int deleteUnbookedById(@Param("id") Long id);
 }
@@ -8,7 +8,7 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface VaccineRepository extends JpaRepository<Vaccine, Long> {
-    @Query(value = "SELECT COUNT(*) FROM vaccines WHERE lower(name) = :name",nativeQuery = true)
+    @Query(value = "SELECT COUNT(*) FROM vaccines WHERE lower(name) = :name AND deleted_at IS NULL", nativeQuery = true)
     Long countAllVaccinesByLowerName(@Param("name") String name);
 }
 
@@ -0,0 +1,36 @@
+package com.evizy.evizy.repository;
+
+import com.evizy.evizy.domain.dao.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    Optional<WaitlistEntry> findFirstByVaccinationSessionsIdAndStatusOrderByIdAsc(Long vaccinationSessionId, String status);
+    List<WaitlistEntry> findAllByRegisteredByIdAndVaccinationSessionsIdAndStatus(Long userId, Long vaccinationSessionId, String status);
+    long countByVaccinationSessionsIdAndStatusAndIdLessThan(Long vaccinationSessionId, String status, Long id);
+
+    @Query(value = "SELECT DISTINCT vaccination_sessions_id FROM waitlist_entries WHERE status = :status AND deleted_at IS NULL", nativeQuery = true)
+    List<Long> findAllVaccinationSessionIdsByStatus(@Param("status") String status);
+
+    /**
+     * Move an entry out of its current status, returns 0 when another promotion already took it
+     */
+    @Modifying
+    @Query(value = "UPDATE waitlist_entries SET status = :status, updated_at = CURRENT_TIMESTAMP WHERE id = :id AND status = :current AND deleted_at IS NULL", nativeQuery = true)
+    int updateStatus(@Param("id") Long id, @Param("current") String current, @Param("status") String status);
+
+    @Modifying
+    @Query(value = "UPDATE waitlist_entries SET status = :status, updated_at = CURRENT_TIMESTAMP WHERE vaccination_sessions_id = :vaccinationSessionId AND status = :current AND deleted_at IS NULL", nativeQuery = true)
+    int updateAllStatusByVaccinationSessionId(@Param("vaccinationSessionId") Long vaccinationSessionId, @Param("current") String current, @Param("status") String status);
+
+    @Modifying
+    @Query(value = "UPDATE waitlist_entries SET vaccination_pass_id = :vaccinationPassId WHERE id = :id", nativeQuery = true)
+    int updateVaccinationPass(@Param("id") Long id, @Param("vaccinationPassId") Long vaccinationPassId);
+}
@@ -0,0 +1,108 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.domain.common.AuthenticatedPrincipal;
+import com.evizy.evizy.repository.AdminRepository;
+import com.evizy.evizy.repository.UsersRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks that the account of a token is still active, with a short TTL so disabled or deleted accounts and revoked
+ * super admins lose access within seconds, while an active account costs one lookup per TTL instead of one per request.
+ * Lookups don't lock and concurrent requests of one account share a single load.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountStatusService {
+    private static final long EVICTION_INTERVAL_MS = 1000;
+
+    private final UsersRepository usersRepository;
+    private final AdminRepository adminRepository;
+
+    @Value("${app.auth.account-status.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.auth.account-status.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${app.auth.account-status.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextEvictionAt = new AtomicLong();
+
+    /**
+     * The principal with the current super admin flag, empty when the account is disabled or deleted
+     */
+    public Optional<AuthenticatedPrincipal> check(AuthenticatedPrincipal principal) {
+        if (!enabled) {
+            return Optional.of(principal);
+        }
+
+        String key = (principal.isAdmin() ? "admin_" : "user_") + principal.getId();
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry == null || entry.expiresAt <= now) {
+            if (entry != null) {
+                entries.remove(key, entry);
+            }
+            long expiresAt = now + TimeUnit.SECONDS.toMillis(ttlSeconds);
+            if (entries.size() >= maxEntries) {
+                evictExpired(now);
+            }
+            entry = entries.size() < maxEntries
+                    ? entries.computeIfAbsent(key, k -> load(principal, expiresAt))
+                    : load(principal, expiresAt);
+        }
+
+        if (!entry.active) {
+            return Optional.empty();
+        }
+        return Optional.of(principal.toBuilder()
+                .superAdmin(entry.superAdmin)
+                .build());
+    }
+
+    /**
+     * Remove the expired entries, at most once a second so a map full of live accounts isn't scanned on every miss.
+     * Until there is room again the status is loaded without being cached.
+     */
+    private void evictExpired(long now) {
+        long evictionAt = nextEvictionAt.get();
+        if (now < evictionAt || !nextEvictionAt.compareAndSet(evictionAt, now + EVICTION_INTERVAL_MS)) {
+            return;
+        }
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+    }
+
+    private Entry load(AuthenticatedPrincipal principal, long expiresAt) {
+        if (principal.isAdmin()) {
+            return adminRepository.findById(principal.getId())
+                    .map(admin -> new Entry(admin.isActive(), admin.isSuperAdmin(), expiresAt))
+                    .orElseGet(() -> new Entry(false, false, expiresAt));
+        }
+        return usersRepository.findById(principal.getId())
+                .map(user -> new Entry(user.isActive(), false, expiresAt))
+                .orElseGet(() -> new Entry(false, false, expiresAt));
+    }
+
+    private static class Entry {
+        private final boolean active;
+        private final boolean superAdmin;
+        private final long expiresAt;
+
+        private Entry(boolean active, boolean superAdmin, long expiresAt) {
+            this.active = active;
+            this.superAdmin = superAdmin;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.dao.VaccinationSessions;
+import com.evizy.evizy.domain.dto.AdmissionTokenRequest;
+import com.evizy.evizy.domain.dto.VaccinationSessionRequest;
+import com.evizy.evizy.errors.BusinessFlowException;
+import com.evizy.evizy.repository.VaccinationSessionsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Waiting room in front of the booking endpoints. Every client takes a numbered token per health facility
+ * and the facility admits a fixed number of tokens per second, so a session opening reaches the database
+ * at a steady rate instead of all at once. Tokens live in memory, polling them never touches the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdmissionQueueService {
+    private final VaccinationSessionsRepository vaccinationSessionsRepository;
+
+    private final Map<Long, Queue> queues = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Map<String, String> ticketsByUser = new ConcurrentHashMap<>();
+
+    @Value("${app.booking.queue.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.booking.queue.admitted-per-second:50}")
+    private long admittedPerSecond;
+
+    @Value("${app.booking.queue.token-ttl-seconds:600}")
+    private long tokenTtlSeconds;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue the user for a vaccination session, joining again while the token is alive returns the same token
+     */
+    public AdmissionTokenRequest join(Long userId, Long vaccinationSessionId) throws BusinessFlowException {
+        Optional<VaccinationSessions> optionalVaccinationSessions = vaccinationSessionsRepository.findById(vaccinationSessionId);
+        if (optionalVaccinationSessions.isEmpty()) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Vaccination session not found!");
+        }
+        VaccinationSessions vaccinationSessions = optionalVaccinationSessions.get();
+        Long healthFacilityId = vaccinationSessions.getHealthFacility() == null ? null : vaccinationSessions.getHealthFacility().getId();
+
+        String token = ticketsByUser.compute(userId + ":" + vaccinationSessionId, (key, current) -> {
+            if (current != null && tickets.containsKey(current) && !tickets.get(current).isExpired()) {
+                return current;
+            }
+            if (current != null) {
+                tickets.remove(current);
+            }
+            Queue queue = queues.computeIfAbsent(healthFacilityId == null ? 0L : healthFacilityId, id -> new Queue());
+            String newToken = UUID.randomUUID().toString();
+            tickets.put(newToken, new Ticket(userId, vaccinationSessionId, queue, queue.issued.incrementAndGet(),
+                    LocalDateTime.now().plusSeconds(tokenTtlSeconds)));
+            return newToken;
+        });
+        return describe(token, tickets.get(token));
+    }
+
+    public AdmissionTokenRequest find(String token) throws BusinessFlowException {
+        Ticket ticket = tickets.get(token);
+        if (ticket == null || ticket.isExpired()) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Admission token not found!");
+        }
+        return describe(token, ticket);
+    }
+
+    /**
+     * Let an admitted token through to the booking, each token is good for one booking only
+     */
+    public void admit(String token, Long userId, Long vaccinationSessionId) throws BusinessFlowException {
+        Ticket ticket = token == null ? null : tickets.get(token);
+        if (ticket == null || ticket.isExpired() || !ticket.userId.equals(userId) || !ticket.vaccinationSessionId.equals(vaccinationSessionId)) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Admission token not found!");
+        }
+        if (!ticket.isAdmitted()) {
+            throw new BusinessFlowException(HttpStatus.TOO_MANY_REQUESTS, ResponseMessage.ADMISSION_PENDING, "Admission token is still queued!");
+        }
+        if (!tickets.remove(token, ticket)) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Admission token not found!");
+        }
+        ticketsByUser.remove(userId + ":" + vaccinationSessionId, token);
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void advance() {
+        queues.values().forEach(queue -> queue.admitted.accumulateAndGet(admittedPerSecond,
+                (admitted, rate) -> Math.min(queue.issued.get(), admitted + rate)));
+
+        tickets.entrySet().removeIf(entry -> {
+            if (!entry.getValue().isExpired()) {
+                return false;
+            }
+            Ticket ticket = entry.getValue();
+            ticketsByUser.remove(ticket.userId + ":" + ticket.vaccinationSessionId, entry.getKey());
+            return true;
+        });
+    }
+
+    private AdmissionTokenRequest describe(String token, Ticket ticket) {
+        return AdmissionTokenRequest.builder()
+                .token(token)
+                .vaccinationSession(VaccinationSessionRequest.builder()
+                        .id(ticket.vaccinationSessionId)
+                        .build())
+                .position(Math.max(0, ticket.position - ticket.queue.admitted.get()))
+                .admitted(ticket.isAdmitted())
+                .expiresAt(ticket.expiresAt)
+                .build();
+    }
+
+    private static class Queue {
+        private final AtomicLong issued = new AtomicLong();
+        private final AtomicLong admitted = new AtomicLong();
+    }
+
+    @RequiredArgsConstructor
+    private static class Ticket {
+        private final Long userId;
+        private final Long vaccinationSessionId;
+        private final Queue queue;
+        private final long position;
+        private final LocalDateTime expiresAt;
+
+        private boolean isAdmitted() {
+            return position <= queue.admitted.get();
+        }
+
+        private boolean isExpired() {
+            return LocalDateTime.now().isAfter(expiresAt);
+        }
+    }
+}
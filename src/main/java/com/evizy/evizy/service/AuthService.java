@@ -1,8 +1,10 @@
 package com.evizy.evizy.service;
 
 import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.common.AuthenticatedPrincipal;
 import com.evizy.evizy.domain.dao.Users;
 import com.evizy.evizy.domain.dto.CitizenResponse;
+import com.evizy.evizy.domain.dto.RefreshTokenRequest;
 import com.evizy.evizy.domain.dto.TokenResponse;
 import com.evizy.evizy.domain.dto.UsersRequest;
 import com.evizy.evizy.errors.BusinessFlowException;
@@ -22,7 +24,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -36,10 +40,18 @@ public class AuthService {
 
     private final JwtTokenProvider jwtTokenProvider;
 
-    private final UsersService usersService;
+    private final CitizenRegistry citizenRegistry;
 
     private final AdminRepository adminRepository;
 
+    private final NikFilter nikFilter;
+
+    private final RefreshTokenService refreshTokenService;
+
+    private final LoginExecutor loginExecutor;
+
+    private final TokenRevocationService tokenRevocationService;
+
     public UserDetails getInfoByPrincipal(String str) throws BusinessFlowException {
         UserDetails ret;
         if (str.startsWith("admin_")) {
@@ -54,21 +66,35 @@ public class AuthService {
         return ret;
     }
 
-    public Users register(UsersRequest usersRequest) throws BusinessFlowException {
-        Users exists = usersRepository.getDistinctTopByNik(usersRequest.getNik());
-        if (exists != null) {
-            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.ALREADY_EXIST, "User already exist!");
-        }
+    /**
+     * The authenticated user of the request, read from the token without a lookup
+     */
+    public AuthenticatedPrincipal getUser(AuthenticatedPrincipal principal) throws BusinessFlowException {
+        if (principal == null || principal.isAdmin())
+            throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Info not found!");
+        return principal;
+    }
 
-        List<CitizenResponse> citizens = usersService.getAllCitizen();
+    /**
+     * The authenticated admin of the request, read from the token without a lookup
+     */
+    public AuthenticatedPrincipal getAdmin(AuthenticatedPrincipal principal) throws BusinessFlowException {
+        if (principal == null || !principal.isAdmin())
+            throw new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.UNAUTHORIZED, "Info not found!");
+        return principal;
+    }
 
-        CitizenResponse citizen = null;
-        for (CitizenResponse e : citizens) {
-            if (e.getNik().equalsIgnoreCase(usersRequest.getNik()))
-                citizen = e;
+    public Users register(UsersRequest usersRequest) throws BusinessFlowException {
+        if (nikFilter.mightBeUser(usersRequest.getNik())) {
+            Users exists = usersRepository.getDistinctTopByNik(usersRequest.getNik());
+            if (exists != null) {
+                throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.ALREADY_EXIST, "User already exist!");
+            }
+            nikFilter.userNotFound();
         }
 
-        if (citizen == null) {
+        Optional<CitizenResponse> optionalCitizen = citizenRegistry.find(usersRequest.getNik());
+        if (optionalCitizen.isEmpty()) {
             log.error("Nik not found!");
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.INVALID_NIK, "Nik not found!");
         }
@@ -77,26 +103,52 @@ public class AuthService {
                 .nik(usersRequest.getNik())
                 .name(usersRequest.getName())
                 .phoneNumber(usersRequest.getPhoneNumber())
-                .gender(citizen.getGender())
-                .dateOfBirth(citizen.getDateOfBirth())
+                .gender(optionalCitizen.get().getGender())
+                .dateOfBirth(optionalCitizen.get().getDateOfBirth())
                 .active(true)
-                .password(passwordEncoder.encode(usersRequest.getPassword())).build();
-        return usersRepository.save(users);
+                .password(loginExecutor.execute("register", () -> passwordEncoder.encode(usersRequest.getPassword()))).build();
+        Users saved = usersRepository.save(users);
+        nikFilter.addUser(users.getNik());
+        return saved;
     }
 
-    public ResponseEntity<?> authenticatedAndGenerateToken(UsersRequest usersRequest) {
-        Authentication authentication = authenticationManager.authenticate(
+    public ResponseEntity<?> authenticatedAndGenerateToken(UsersRequest usersRequest) throws BusinessFlowException {
+        Authentication authentication = loginExecutor.execute("login", () -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         usersRequest.getNik(),
                         usersRequest.getPassword()
                 )
-        );
+        ));
         String jwt = jwtTokenProvider.generateToken(authentication);
         SecurityContextHolder.getContext().setAuthentication(authentication);
         return Response.build(
                 ResponseMessage.SUCCESS,
                 HttpStatus.OK,
-                TokenResponse.builder().accessToken(jwt).build()
+                TokenResponse.builder()
+                        .accessToken(jwt)
+                        .refreshToken(refreshTokenService.issue((UserDetails) authentication.getPrincipal()))
+                        .build()
+        );
+    }
+
+    /**
+     * Renew the access token with a refresh token, the password is not verified again
+     */
+    public ResponseEntity<?> refreshToken(RefreshTokenRequest refreshTokenRequest) throws BusinessFlowException {
+        return Response.build(
+                ResponseMessage.SUCCESS,
+                HttpStatus.OK,
+                refreshTokenService.refresh(refreshTokenRequest.getRefreshToken())
         );
     }
+
+    /**
+     * Revoke the access token on every node, and the refresh token family when one is given
+     */
+    public ResponseEntity<?> logout(String accessToken, String refreshToken) {
+        jwtTokenProvider.parseToken(accessToken).ifPresent(claims -> tokenRevocationService.revoke(claims.getId(),
+                LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault())));
+        refreshTokenService.revoke(refreshToken);
+        return Response.build(ResponseMessage.SUCCESS, HttpStatus.OK, null);
+    }
 }
@@ -0,0 +1,150 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.dao.BookingHold;
+import com.evizy.evizy.domain.dao.FamilyMembers;
+import com.evizy.evizy.domain.dao.Users;
+import com.evizy.evizy.domain.dao.VaccinationSessions;
+import com.evizy.evizy.domain.dto.*;
+import com.evizy.evizy.errors.BusinessFlowException;
+import com.evizy.evizy.repository.BookingHoldRepository;
+import com.evizy.evizy.repository.FamilyMembersRepository;
+import com.evizy.evizy.repository.VaccinationSessionsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingHoldService {
+    private final BookingHoldRepository bookingHoldRepository;
+    private final VaccinationSessionsRepository vaccinationSessionsRepository;
+    private final FamilyMembersRepository familyMembersRepository;
+    private final VaccinationPassService vaccinationPassService;
+    private final WaitlistService waitlistService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.booking.hold-minutes:10}")
+    private long holdMinutes;
+
+    @Transactional
+    public BookingHoldRequest reserve(VaccinationPassRequest request) throws BusinessFlowException {
+        Optional<VaccinationSessions> optionalVaccinationSessions = vaccinationSessionsRepository.findById(request.getVaccinationSession().getId());
+        if (optionalVaccinationSessions.isEmpty()) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "Vaccination session not found!");
+        }
+
+        FamilyMembers familyMember = null;
+        if (request.getFamilyMember() != null && request.getFamilyMember().getId() != null) {
+            Optional<FamilyMembers> optionalFamilyMembers = familyMembersRepository.findById(request.getFamilyMember().getId());
+            if (optionalFamilyMembers.isEmpty() || !optionalFamilyMembers.get().getUsers().getId().equals(request.getRegisteredBy().getId())) {
+                throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "Family member not found or not the part of the auth user!");
+            }
+            familyMember = optionalFamilyMembers.get();
+        }
+
+        VaccinationSessions vaccinationSessions = optionalVaccinationSessions.get();
+        if (!vaccinationPassService.reserveSeat(vaccinationSessions.getId())) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.STOCK_EMPTY, "Stock empty!");
+        }
+
+        BookingHold bookingHold = BookingHold.builder()
+                .vaccinationSessions(vaccinationSessions)
+                .registeredBy(Users.builder()
+                        .id(request.getRegisteredBy().getId())
+                        .build())
+                .familyMembers(familyMember)
+                .expiresAt(LocalDateTime.now().plusMinutes(holdMinutes))
+                .build();
+        bookingHoldRepository.save(bookingHold);
+
+        BookingHoldRequest response = BookingHoldRequest.builder()
+                .id(bookingHold.getId())
+                .vaccinationSession(VaccinationSessionRequest.builder()
+                        .id(vaccinationSessions.getId())
+                        .build())
+                .registeredBy(UsersRequest.builder()
+                        .id(request.getRegisteredBy().getId())
+                        .build())
+                .expiresAt(bookingHold.getExpiresAt())
+                .build();
+
+        if (familyMember != null) {
+            response.setFamilyMember(FamilyMembersRequest.builder()
+                    .id(familyMember.getId())
+                    .build());
+        }
+
+        return response;
+    }
+
+    /**
+     * Turn the hold into a vaccination pass, the seat was already taken on reserve
+     */
+    @Transactional
+    public VaccinationPassRequest confirm(Long id, VaccinationPassRequest request) throws BusinessFlowException {
+        Optional<BookingHold> optionalBookingHold = bookingHoldRepository.findById(id);
+        if (optionalBookingHold.isEmpty() || !optionalBookingHold.get().getRegisteredBy().getId().equals(request.getRegisteredBy().getId())) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Booking hold not found!");
+        }
+
+        BookingHold bookingHold = optionalBookingHold.get();
+        if (bookingHoldRepository.deleteActiveById(id, LocalDateTime.now()) == 0) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BOOKING_HOLD_EXPIRED, "Booking hold expired!");
+        }
+
+        request.setVaccinationSession(VaccinationSessionRequest.builder()
+                .id(bookingHold.getVaccinationSessions().getId())
+                .build());
+        request.setFamilyMember(bookingHold.getFamilyMembers() == null ? null : FamilyMembersRequest.builder()
+                .id(bookingHold.getFamilyMembers().getId())
+                .build());
+        return vaccinationPassService.createReserved(request);
+    }
+
+    /**
+     * Drop every hold of a session, e.g. when the session is cancelled
+     */
+    @Transactional
+    public int deleteAllByVaccinationSession(Long vaccinationSessionId) {
+        int deleted = bookingHoldRepository.deleteAllByVaccinationSessionId(vaccinationSessionId);
+        if (deleted > 0) {
+            vaccinationPassService.releaseSeats(vaccinationSessionId, deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Release the seats of expired holds, one set-based delete and one counter update per session
+     */
+    @Scheduled(fixedDelayString = "${app.booking.hold-sweep-interval-ms:30000}")
+    public void releaseExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> vaccinationSessionIds = bookingHoldRepository.findAllExpiredVaccinationSessionIds(now);
+        for (Long vaccinationSessionId : vaccinationSessionIds) {
+            try {
+                Integer released = transactionTemplate.execute(status -> {
+                    int expired = bookingHoldRepository.deleteAllExpiredByVaccinationSessionId(vaccinationSessionId, now);
+                    if (expired > 0) {
+                        vaccinationPassService.releaseSeats(vaccinationSessionId, expired);
+                    }
+                    return expired;
+                });
+                log.info("Released {} expired booking holds of vaccination session {}", released, vaccinationSessionId);
+                waitlistService.promote(vaccinationSessionId);
+            } catch (RuntimeException e) {
+                log.error("Failed to release expired booking holds of vaccination session {}: {}", vaccinationSessionId, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.domain.dao.Citizen;
+import com.evizy.evizy.domain.dao.CitizenSyncState;
+import com.evizy.evizy.domain.dto.CitizenResponse;
+import com.evizy.evizy.domain.dto.CitizenSyncResponse;
+import com.evizy.evizy.repository.CitizenRepository;
+import com.evizy.evizy.repository.CitizenSyncStateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Local copy of the citizen service keyed by NIK. The list is synced in the background with a conditional GET,
+ * only citizens that changed since the last sync are written to the citizens table and the in-memory index.
+ * The table and the sync watermark survive restarts, so a restart reloads the index from the database and only
+ * asks the citizen service whether anything changed.
+ * Until the first sync, or when the registry is disabled, lookups stream the citizen list and stop at the requested NIK.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CitizenRegistry {
+    static final String SYNC_STATE_ID = "citizen";
+
+    private final UsersService usersService;
+    private final CitizenRepository citizenRepository;
+    private final CitizenSyncStateRepository citizenSyncStateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final NikFilter nikFilter;
+
+    /**
+     * Never modified once published, every sync builds a new map and swaps it in
+     */
+    private volatile Map<String, CitizenResponse> citizens;
+    private CitizenSyncState syncState;
+
+    @Value("${app.citizen.registry.enabled:true}")
+    private boolean enabled;
+
+    public Optional<CitizenResponse> find(String nik) {
+        if (nik == null) {
+            return Optional.empty();
+        }
+        Map<String, CitizenResponse> snapshot = citizens;
+        if (!enabled || snapshot == null) {
+            return usersService.findCitizen(nik);
+        }
+        String key = key(nik);
+        if (!nikFilter.mightBeCitizen(key)) {
+            return Optional.empty();
+        }
+        CitizenResponse citizen = snapshot.get(key);
+        if (citizen == null) {
+            nikFilter.citizenNotFound();
+        }
+        return Optional.ofNullable(citizen);
+    }
+
+    public int size() {
+        Map<String, CitizenResponse> snapshot = citizens;
+        return snapshot == null ? 0 : snapshot.size();
+    }
+
+    /**
+     * Apply the citizens changed since the last sync, the index is kept as is when the citizen service can't be reached
+     */
+    @Scheduled(fixedDelayString = "${app.citizen.refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (syncState == null) {
+                restore();
+            }
+            CitizenSyncResponse sync = usersService.syncCitizens(syncState.getEtag(), syncState.getLastModified());
+            if (!sync.isModified()) {
+                log.debug("Citizen registry is up to date");
+                return;
+            }
+            apply(sync);
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh citizen registry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Load the citizens and the watermark of the last sync, nothing is loaded when there never was one
+     */
+    private void restore() {
+        Optional<CitizenSyncState> optionalSyncState = citizenSyncStateRepository.findById(SYNC_STATE_ID);
+        if (optionalSyncState.isEmpty()) {
+            syncState = CitizenSyncState.builder()
+                    .id(SYNC_STATE_ID)
+                    .build();
+            return;
+        }
+
+        Map<String, CitizenResponse> index = new HashMap<>();
+        transactionTemplate.execute(status -> {
+            try (Stream<CitizenResponse> stream = citizenRepository.streamAll()) {
+                stream.forEach(citizen -> index.put(citizen.getNik(), citizen));
+            }
+            return null;
+        });
+        citizens = index;
+        nikFilter.rebuildCitizens(index.keySet());
+        syncState = optionalSyncState.get();
+        log.info("Citizen registry restored {} citizens synced at {}", index.size(), syncState.getSyncedAt());
+    }
+
+    private void apply(CitizenSyncResponse sync) {
+        Map<String, CitizenResponse> current = citizens == null ? Collections.emptyMap() : citizens;
+        Map<String, CitizenResponse> received = new HashMap<>(Math.max(16, sync.getCitizens().size() * 4 / 3 + 1));
+        for (CitizenResponse citizen : sync.getCitizens()) {
+            if (citizen.getNik() != null) {
+                received.put(key(citizen.getNik()), citizen);
+            }
+        }
+
+        List<Citizen> changed = new ArrayList<>();
+        for (Map.Entry<String, CitizenResponse> entry : received.entrySet()) {
+            if (!entry.getValue().equals(current.get(entry.getKey()))) {
+                changed.add(toCitizen(entry.getKey(), entry.getValue()));
+            }
+        }
+        List<String> removed = new ArrayList<>();
+        for (String nik : current.keySet()) {
+            if (!received.containsKey(nik)) {
+                removed.add(nik);
+            }
+        }
+
+        CitizenSyncState nextSyncState = CitizenSyncState.builder()
+                .id(SYNC_STATE_ID)
+                .etag(sync.getEtag())
+                .lastModified(sync.getLastModified())
+                .syncedAt(LocalDateTime.now())
+                .build();
+        transactionTemplate.execute(status -> {
+            if (!changed.isEmpty()) {
+                citizenRepository.upsertAll(changed);
+            }
+            if (!removed.isEmpty()) {
+                citizenRepository.deleteAllByNik(removed);
+            }
+            return citizenSyncStateRepository.save(nextSyncState);
+        });
+        syncState = nextSyncState;
+
+        for (Citizen citizen : changed) {
+            nikFilter.putCitizen(citizen.getNik());
+        }
+        citizens = received;
+        nikFilter.rebuildCitizens(received.keySet());
+        log.info("Citizen registry synced {} changed and {} removed of {} citizens", changed.size(), removed.size(), received.size());
+    }
+
+    private static Citizen toCitizen(String nik, CitizenResponse citizen) {
+        return Citizen.builder()
+                .nik(nik)
+                .citizenId(citizen.getId())
+                .name(citizen.getName())
+                .gender(citizen.getGender())
+                .dateOfBirth(citizen.getDateOfBirth())
+                .build();
+    }
+
+    private static String key(String nik) {
+        return nik.toUpperCase(Locale.ROOT);
+    }
+}
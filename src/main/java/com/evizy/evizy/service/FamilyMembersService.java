@@ -1,13 +1,16 @@
 package com.evizy.evizy.service;
 
 import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.common.CursorPage;
 import com.evizy.evizy.domain.dao.FamilyMembers;
 import com.evizy.evizy.domain.dao.Users;
 import com.evizy.evizy.domain.dto.CitizenResponse;
 import com.evizy.evizy.domain.dto.FamilyMembersRequest;
 import com.evizy.evizy.domain.dto.UsersRequest;
+import com.evizy.evizy.domain.projection.FamilyMemberView;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.FamilyMembersRepository;
+import com.evizy.evizy.util.Cursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -22,18 +25,11 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class FamilyMembersService {
     private final FamilyMembersRepository familyMembersRepository;
-    private final UsersService usersService;
+    private final CitizenRegistry citizenRegistry;
 
     public FamilyMembersRequest create(FamilyMembersRequest request) throws BusinessFlowException {
-        List<CitizenResponse> citizens = usersService.getAllCitizen();
-
-        CitizenResponse citizen = null;
-        for (CitizenResponse e : citizens) {
-            if (e.getNik().equalsIgnoreCase(request.getNik()))
-                citizen = e;
-        }
-
-        if (citizen == null) {
+        Optional<CitizenResponse> optionalCitizen = citizenRegistry.find(request.getNik());
+        if (optionalCitizen.isEmpty()) {
             log.error("Nik not found!");
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.INVALID_NIK, "Nik not found!");
         }
@@ -79,15 +75,8 @@ public class FamilyMembersService {
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Family member not found!");
         }
 
-        List<CitizenResponse> citizens = usersService.getAllCitizen();
-
-        CitizenResponse citizen = null;
-        for (CitizenResponse e : citizens) {
-            if (e.getNik().equalsIgnoreCase(request.getNik()))
-                citizen = e;
-        }
-
-        if (citizen == null) {
+        Optional<CitizenResponse> optionalCitizen = citizenRegistry.find(request.getNik());
+        if (optionalCitizen.isEmpty()) {
             log.error("Nik not found!");
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.INVALID_NIK, "Nik not found!");
         }
@@ -119,17 +108,37 @@ public class FamilyMembersService {
     }
 
     public FamilyMembersRequest find(Long id) {
-        Optional<FamilyMembers> optionalFamilyMembers = familyMembersRepository.findById(id);
+        Optional<FamilyMemberView> optionalFamilyMembers = familyMembersRepository.findViewById(id);
         if (optionalFamilyMembers.isEmpty())
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "Family member not found!");
-        FamilyMembers familyMembers = optionalFamilyMembers.get();
-        Users user = familyMembers.getUsers();
+        return toRequest(optionalFamilyMembers.get());
+    }
+
+    public CursorPage<FamilyMembersRequest> findAll(Long userId, String cursor, Integer limit) throws BusinessFlowException {
+        long afterId = Cursor.after(cursor);
+        int pageSize = Cursor.limit(limit);
+        List<FamilyMemberView> familyMembersList;
+        if (userId == null)
+            familyMembersList = familyMembersRepository.findViewsByIdGreaterThan(afterId, Cursor.pageable(pageSize));
+        else
+            familyMembersList = familyMembersRepository.findViewsByUsersIdAndIdGreaterThan(userId, afterId, Cursor.pageable(pageSize));
+
+        List<FamilyMembersRequest> familyMembersRequests = new ArrayList<>();
+        for(FamilyMemberView familyMembers : Cursor.items(familyMembersList, pageSize)) {
+            familyMembersRequests.add(toRequest(familyMembers));
+        }
+        return CursorPage.<FamilyMembersRequest>builder()
+                .items(familyMembersRequests)
+                .nextCursor(Cursor.next(familyMembersList, pageSize, FamilyMemberView::getId))
+                .build();
+    }
 
+    private static FamilyMembersRequest toRequest(FamilyMemberView familyMembers) {
         return FamilyMembersRequest.builder()
                 .id(familyMembers.getId())
                 .user(UsersRequest.builder()
-                        .id(user.getId())
-                        .name(user.getName())
+                        .id(familyMembers.getUserId())
+                        .name(familyMembers.getUserName())
                         .build())
                 .nik(familyMembers.getNik())
                 .phoneNumber(familyMembers.getPhoneNumber())
@@ -139,33 +148,4 @@ public class FamilyMembersService {
                 .name(familyMembers.getName())
                 .build();
     }
-
-    public List<FamilyMembersRequest> findAll(Long userId) {
-        List<FamilyMembers> familyMembersList;
-        if (userId == null)
-            familyMembersList = familyMembersRepository.findAll();
-        else
-            familyMembersList = familyMembersRepository.findAllByUsersId(userId);
-
-        List<FamilyMembersRequest> familyMembersRequests = new ArrayList<>();
-        for(FamilyMembers familyMembers : familyMembersList) {
-            Users user = familyMembers.getUsers();
-
-            familyMembersRequests.add(FamilyMembersRequest.builder()
-                    .id(familyMembers.getId())
-                    .user(UsersRequest.builder()
-                            .id(user.getId())
-                            .name(user.getName())
-                            .build())
-                    .nik(familyMembers.getNik())
-                    .phoneNumber(familyMembers.getPhoneNumber())
-                    .dateOfBirth(familyMembers.getDateOfBirth())
-                    .gender(familyMembers.getGender())
-                    .relationship(familyMembers.getRelationship())
-                    .name(familyMembers.getName())
-                    .build());
-        }
-        return familyMembersRequests;
-    }
 }
-
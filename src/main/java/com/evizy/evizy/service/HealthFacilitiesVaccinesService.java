@@ -3,12 +3,15 @@ package com.evizy.evizy.service;
 import com.evizy.evizy.constant.ResponseMessage;
 import com.evizy.evizy.domain.dao.*;
 import com.evizy.evizy.domain.dto.*;
+import com.evizy.evizy.domain.projection.HealthFacilityVaccinesView;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -23,23 +26,21 @@ public class HealthFacilitiesVaccinesService {
     private final VaccinationSessionsRepository vaccinationSessionsRepository;
     private final VaccineRepository vaccineRepository;
     private final VaccineDistributionRepository vaccineDistributionRepository;
+    private final TransactionTemplate transactionTemplate;
 
     public List<HealthFacilityVaccinesRequest> find(Long healthFacilityId) {
-        List<HealthFacilitiesVaccines> healthFacilitiesVaccinesList = healthFacilitiesVaccinesRepository.findAllByHealthFacilityId(healthFacilityId);
+        List<HealthFacilityVaccinesView> healthFacilitiesVaccinesList = healthFacilitiesVaccinesRepository.findAllViewsByHealthFacilityId(healthFacilityId);
         List<HealthFacilityVaccinesRequest> healthFacilityVaccinesRequests = new ArrayList<>();
-        for(HealthFacilitiesVaccines healthFacilitiesVaccines : healthFacilitiesVaccinesList) {
-            Vaccine vaccine = healthFacilitiesVaccines.getVaccine();
-            HealthFacility healthFacility = healthFacilitiesVaccines.getHealthFacility();
-
+        for(HealthFacilityVaccinesView healthFacilitiesVaccines : healthFacilitiesVaccinesList) {
             healthFacilityVaccinesRequests.add(HealthFacilityVaccinesRequest
                     .builder()
                     .healthFacility(HealthFacilityRequest.builder()
-                            .id(healthFacility.getId())
-                            .name(healthFacility.getName())
+                            .id(healthFacilitiesVaccines.getHealthFacilityId())
+                            .name(healthFacilitiesVaccines.getHealthFacilityName())
                             .build())
                     .vaccine(VaccineRequest.builder()
-                            .id(vaccine.getId())
-                            .name(vaccine.getName())
+                            .id(healthFacilitiesVaccines.getVaccineId())
+                            .name(healthFacilitiesVaccines.getVaccineName())
                             .build())
                     .stock(healthFacilitiesVaccines.getStock())
                     .build());
@@ -71,54 +72,54 @@ public class HealthFacilitiesVaccinesService {
                     .build();
         }
 
-        HealthFacilitiesVaccines.HealthFacilitiesVaccinesId id = new HealthFacilitiesVaccines.HealthFacilitiesVaccinesId(
-                request.getHealthFacility().getId(),
-                request.getVaccine().getId()
-        );
-
-        Optional<HealthFacilitiesVaccines> optionalHealthFacilitiesVaccines = healthFacilitiesVaccinesRepository.findById(id);
-        HealthFacilitiesVaccines healthFacilitiesVaccines;
-        if (optionalHealthFacilitiesVaccines.isEmpty()) {
-            healthFacilitiesVaccines = HealthFacilitiesVaccines
-                    .builder()
-                    .healthFacility(HealthFacility.builder()
-                            .id(request.getHealthFacility().getId())
-                            .build())
-                    .vaccine(Vaccine.builder()
-                            .id(request.getVaccine().getId())
-                            .build())
-                    .stock(0L)
-                    .build();
-            healthFacilitiesVaccinesRepository.save(healthFacilitiesVaccines);
-        } else {
-            healthFacilitiesVaccines = optionalHealthFacilitiesVaccines.get();
+        if (request.getQuantity() >= 0) {
+            createStockIfAbsent(optionalHealthFacility.get().getId(), optionalVaccine.get().getId());
         }
 
-        if (healthFacilitiesVaccines.getStock() + request.getQuantity() < 0) {
-            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.STOCK_NOT_VALID, "Stock is not enough!");
-        }
+        VaccinationSessions distributedVaccinationSessions = vaccinationSessions;
+        HealthFacilitiesVaccines healthFacilitiesVaccines = transactionTemplate.execute(status -> {
+            int updated = request.getQuantity() >= 0
+                    ? healthFacilitiesVaccinesRepository.creditStock(optionalHealthFacility.get().getId(), optionalVaccine.get().getId(), request.getQuantity())
+                    : healthFacilitiesVaccinesRepository.debitStock(optionalHealthFacility.get().getId(), optionalVaccine.get().getId(), -request.getQuantity());
+            if (updated == 0) {
+                throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.STOCK_NOT_VALID, "Stock is not enough!");
+            }
 
-        healthFacilitiesVaccines.setStock(healthFacilitiesVaccines.getStock() + request.getQuantity());
-        healthFacilitiesVaccinesRepository.save(healthFacilitiesVaccines);
+            VaccineDistribution vaccineDistribution = VaccineDistribution.builder()
+                    .healthFacility(optionalHealthFacility.get())
+                    .vaccine(optionalVaccine.get())
+                    .vaccinationSession(distributedVaccinationSessions)
+                    .quantity(request.getQuantity())
+                    .build();
+            vaccineDistributionRepository.save(vaccineDistribution);
 
-        VaccineDistribution vaccineDistribution = VaccineDistribution.builder()
-                .healthFacility(healthFacilitiesVaccines.getHealthFacility())
-                .vaccine(healthFacilitiesVaccines.getVaccine())
-                .vaccinationSession(vaccinationSessions)
-                .quantity(request.getQuantity())
-                .build();
-        vaccineDistributionRepository.save(vaccineDistribution);
+            return healthFacilitiesVaccinesRepository.findById(new HealthFacilitiesVaccines.HealthFacilitiesVaccinesId(
+                    optionalHealthFacility.get().getId(),
+                    optionalVaccine.get().getId()
+            )).orElseThrow();
+        });
 
         return HealthFacilityVaccinesRequest.builder()
                 .healthFacility(HealthFacilityRequest.builder()
-                        .id(healthFacilitiesVaccines.getHealthFacility().getId())
-                        .name(healthFacilitiesVaccines.getHealthFacility().getName())
+                        .id(optionalHealthFacility.get().getId())
+                        .name(optionalHealthFacility.get().getName())
                         .build())
                 .stock(healthFacilitiesVaccines.getStock())
                 .vaccine(VaccineRequest.builder()
-                        .id(healthFacilitiesVaccines.getVaccine().getId())
-                        .name(healthFacilitiesVaccines.getVaccine().getName())
+                        .id(optionalVaccine.get().getId())
+                        .name(optionalVaccine.get().getName())
                         .build())
                 .build();
     }
+
+    /**
+     * The first distribution of a vaccine opens its stock row, a concurrent distribution may open it first
+     */
+    private void createStockIfAbsent(Long healthFacilityId, Long vaccineId) {
+        try {
+            transactionTemplate.execute(status -> healthFacilitiesVaccinesRepository.insertEmptyStockIfAbsent(healthFacilityId, vaccineId));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Stock of health facility {} and vaccine {} already created", healthFacilityId, vaccineId);
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.evizy.evizy.service;
 
 import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.common.CursorPage;
 import com.evizy.evizy.domain.dao.Admin;
 import com.evizy.evizy.domain.dao.City;
 import com.evizy.evizy.domain.dao.HealthFacility;
@@ -8,10 +9,12 @@ import com.evizy.evizy.domain.dao.VaccinationSessions;
 import com.evizy.evizy.domain.dto.AdminsRequest;
 import com.evizy.evizy.domain.dto.CityRequest;
 import com.evizy.evizy.domain.dto.HealthFacilityRequest;
+import com.evizy.evizy.domain.projection.HealthFacilityView;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.AdminRepository;
 import com.evizy.evizy.repository.CityRepository;
 import com.evizy.evizy.repository.HealthFacilityRepository;
+import com.evizy.evizy.util.Cursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -115,54 +118,45 @@ public class HealthFacilityService {
     }
 
     public HealthFacilityRequest find(Long id) {
-        Optional<HealthFacility> optionalHealthFacility = healthFacilityRepository.findById(id);
+        Optional<HealthFacilityView> optionalHealthFacility = healthFacilityRepository.findViewById(id);
         if (optionalHealthFacility.isEmpty()) {
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Health facility not found!");
         }
-        HealthFacility healthFacility = optionalHealthFacility.get();
-        City city = healthFacility.getCity();
-        Admin admin = healthFacility.getAdmin();
+        return toRequest(optionalHealthFacility.get());
+    }
+
+    public CursorPage<HealthFacilityRequest> findAll(Long cityId, String cursor, Integer limit) throws BusinessFlowException {
+        long afterId = Cursor.after(cursor);
+        int pageSize = Cursor.limit(limit);
+        List<HealthFacilityView> healthFacilityList;
+        if (cityId == null) {
+            healthFacilityList = healthFacilityRepository.findViewsByIdGreaterThan(afterId, Cursor.pageable(pageSize));
+        } else {
+            healthFacilityList = healthFacilityRepository.findViewsByCityIdAndIdGreaterThan(cityId, afterId, Cursor.pageable(pageSize));
+        }
+        List<HealthFacilityRequest> healthFacilityRequests = new ArrayList<>();
+        for(HealthFacilityView healthFacility : Cursor.items(healthFacilityList, pageSize)) {
+            healthFacilityRequests.add(toRequest(healthFacility));
+        }
+        return CursorPage.<HealthFacilityRequest>builder()
+                .items(healthFacilityRequests)
+                .nextCursor(Cursor.next(healthFacilityList, pageSize, HealthFacilityView::getId))
+                .build();
+    }
+
+    private static HealthFacilityRequest toRequest(HealthFacilityView healthFacility) {
         return HealthFacilityRequest
                 .builder()
                 .id(healthFacility.getId())
                 .name(healthFacility.getName())
                 .city(CityRequest.builder()
-                        .id(city.getId())
-                        .name(city.getName())
+                        .id(healthFacility.getCityId())
+                        .name(healthFacility.getCityName())
                         .build())
                 .admin(AdminsRequest.builder()
-                        .id(admin.getId())
-                        .name(admin.getName())
+                        .id(healthFacility.getAdminId())
+                        .name(healthFacility.getAdminName())
                         .build())
                 .build();
     }
-
-    public List<HealthFacilityRequest> findAll(Long cityId) {
-        List<HealthFacility> healthFacilityList;
-        if (cityId == null) {
-            healthFacilityList = healthFacilityRepository.findAll();
-        } else {
-            healthFacilityList = healthFacilityRepository.findAllByCityId(cityId);
-        }
-        List<HealthFacilityRequest> healthFacilityRequests = new ArrayList<>();
-        for(HealthFacility healthFacility : healthFacilityList) {
-            City city = healthFacility.getCity();
-            Admin admin = healthFacility.getAdmin();
-
-            healthFacilityRequests.add(HealthFacilityRequest
-                    .builder()
-                    .id(healthFacility.getId())
-                    .name(healthFacility.getName())
-                    .city(CityRequest.builder()
-                            .id(city.getId())
-                            .name(city.getName())
-                            .build())
-                    .admin(AdminsRequest.builder()
-                            .id(admin.getId())
-                            .name(admin.getName())
-                            .build())
-                    .build());
-        }
-        return healthFacilityRequests;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,153 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.errors.BusinessFlowException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Replays the first response of a request sent again with the same Idempotency-Key, so client retries
+ * neither repeat the write nor reach the database. Keys are kept in a bounded in-memory store with a TTL,
+ * a retry that arrives while the first request is still running waits for its response.
+ * Only final outcomes are kept: 2xx responses and 4xx responses other than 408, 409, 425 and 429.
+ * Those four and 5xx responses may succeed when retried, so the key is released for the next attempt.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json()
+            .featuresToEnable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    @Value("${app.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${app.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.idempotency.wait-seconds:30}")
+    private long waitSeconds;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Run the action once per scope and key. The SHA-256 of the serialized request body is compared,
+     * so a key can't be reused for another request
+     */
+    public ResponseEntity<?> execute(String key, String scope, Object request, Supplier<ResponseEntity<?>> action) throws BusinessFlowException {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        String id = scope + ":" + key;
+        Entry entry = new Entry(fingerprint(request), System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds));
+        Entry existing;
+        synchronized (entries) {
+            existing = entries.get(id);
+            if (existing != null && existing.isExpired()) {
+                entries.remove(id);
+                existing = null;
+            }
+            if (existing == null) {
+                entries.put(id, entry);
+            }
+        }
+
+        if (existing != null) {
+            return replay(existing, entry.fingerprint);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            forget(id, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+        if (!isFinal(response.getStatusCode())) {
+            forget(id, entry);
+        }
+        entry.response.complete(response);
+        return response;
+    }
+
+    private ResponseEntity<?> replay(Entry entry, byte[] fingerprint) throws BusinessFlowException {
+        if (!MessageDigest.isEqual(entry.fingerprint, fingerprint)) {
+            throw new BusinessFlowException(HttpStatus.UNPROCESSABLE_ENTITY, ResponseMessage.IDEMPOTENCY_KEY_REUSED, "Idempotency key was used for another request!");
+        }
+        try {
+            return entry.response.get(waitSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new BusinessFlowException(HttpStatus.CONFLICT, ResponseMessage.IDEMPOTENCY_KEY_IN_PROGRESS, "Request with this idempotency key is still running!");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessFlowException(HttpStatus.CONFLICT, ResponseMessage.IDEMPOTENCY_KEY_IN_PROGRESS, "Request with this idempotency key is still running!");
+        } catch (ExecutionException e) {
+            throw new BusinessFlowException(HttpStatus.INTERNAL_SERVER_ERROR, ResponseMessage.INTERNAL_SERVER_ERROR, "Request with this idempotency key failed!");
+        }
+    }
+
+    private static boolean isFinal(HttpStatus status) {
+        if (status.is2xxSuccessful()) {
+            return true;
+        }
+        return status.is4xxClientError()
+                && status != HttpStatus.REQUEST_TIMEOUT
+                && status != HttpStatus.CONFLICT
+                && status != HttpStatus.TOO_EARLY
+                && status != HttpStatus.TOO_MANY_REQUESTS;
+    }
+
+    private static byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(MAPPER.writeValueAsBytes(request));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void forget(String id, Entry entry) {
+        synchronized (entries) {
+            entries.remove(id, entry);
+        }
+    }
+
+    private static class Entry {
+        private final byte[] fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        private Entry(byte[] fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
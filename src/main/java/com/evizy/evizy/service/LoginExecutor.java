@@ -0,0 +1,126 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.errors.BusinessFlowException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on a small pool of its own, so a burst of logins can't take every request thread with BCrypt
+ * work. When the pool and its queue are full, or a hash isn't done in time, the login is rejected with 503 right away
+ * instead of waiting behind the burst.
+ */
+@Slf4j
+@Service
+public class LoginExecutor implements MeterBinder {
+    @Value("${app.auth.login.threads:4}")
+    private int threads;
+
+    @Value("${app.auth.login.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.auth.login.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private ThreadPoolExecutor executor;
+    private volatile MeterRegistry registry;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run the task on the login pool and wait for it, exceptions thrown by the task are rethrown as is
+     */
+    public <T> T execute(String operation, Supplier<T> task) throws BusinessFlowException {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                record("auth.login.wait", operation, startedAt - submittedAt);
+                try {
+                    return task.get();
+                } finally {
+                    record("auth.password.hash", operation, System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("Login queue is full, rejecting {}", operation);
+            throw busy();
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.incrementAndGet();
+            log.warn("{} did not finish in {} ms", operation, timeoutMs);
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.login.queue.depth", this, loginExecutor -> loginExecutor.executor.getQueue().size())
+                .description("Logins waiting for a hashing thread")
+                .register(registry);
+        Gauge.builder("auth.login.active", this, loginExecutor -> loginExecutor.executor.getActiveCount())
+                .description("Logins being hashed")
+                .register(registry);
+        FunctionCounter.builder("auth.login.rejected", rejected, AtomicLong::get)
+                .description("Logins rejected because the login pool was full or too slow")
+                .register(registry);
+        this.registry = registry;
+    }
+
+    private void record(String name, String operation, long nanos) {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null) {
+            meterRegistry.timer(name, "operation", operation).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static BusinessFlowException busy() {
+        return new BusinessFlowException(HttpStatus.SERVICE_UNAVAILABLE, ResponseMessage.LOGIN_BUSY, "Too many logins, try again later!");
+    }
+}
@@ -1,12 +1,15 @@
 package com.evizy.evizy.service;
 
 import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.common.CursorPage;
 import com.evizy.evizy.domain.dao.Admin;
 import com.evizy.evizy.domain.dao.News;
 import com.evizy.evizy.domain.dto.AdminsRequest;
 import com.evizy.evizy.domain.dto.NewsRequest;
+import com.evizy.evizy.domain.projection.NewsView;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.NewsRepository;
+import com.evizy.evizy.util.Cursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -78,40 +81,37 @@ public class NewsService {
     }
 
     public NewsRequest find(Long id) {
-        Optional<News> optionalNews = newsRepository.findById(id);
+        Optional<NewsView> optionalNews = newsRepository.findViewById(id);
         if (optionalNews.isEmpty())
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "News not found!");
 
-        News news = optionalNews.get();
+        return toRequest(optionalNews.get());
+    }
+
+    public CursorPage<NewsRequest> find(String cursor, Integer limit) throws BusinessFlowException {
+        int pageSize = Cursor.limit(limit);
+        List<NewsView> newsList = newsRepository.findViewsByIdGreaterThan(Cursor.after(cursor), Cursor.pageable(pageSize));
+        List<NewsRequest> newsRequests = new ArrayList<>();
+        for(NewsView news : Cursor.items(newsList, pageSize)) {
+            newsRequests.add(toRequest(news));
+        }
+        return CursorPage.<NewsRequest>builder()
+                .items(newsRequests)
+                .nextCursor(Cursor.next(newsList, pageSize, NewsView::getId))
+                .build();
+    }
+
+    private static NewsRequest toRequest(NewsView news) {
         return NewsRequest
                 .builder()
                 .id(news.getId())
                 .title(news.getTitle())
-                .content(news.getContent())
                 .description(news.getDescription())
+                .content(news.getContent())
                 .admin(AdminsRequest.builder()
-                        .id(news.getAdmin().getId())
-                        .name(news.getAdmin().getName())
+                        .id(news.getAdminId())
+                        .name(news.getAdminName())
                         .build())
                 .build();
     }
-
-    public List<NewsRequest> find() {
-        List<News> newsList = newsRepository.findAll();
-        List<NewsRequest> newsRequests = new ArrayList<>();
-        for(News news : newsList) {
-            newsRequests.add(NewsRequest
-                    .builder()
-                    .id(news.getId())
-                    .title(news.getTitle())
-                    .description(news.getDescription())
-                    .content(news.getContent())
-                    .admin(AdminsRequest.builder()
-                            .id(news.getAdmin().getId())
-                            .name(news.getAdmin().getName())
-                            .build())
-                    .build());
-        }
-        return newsRequests;
-    }
 }
@@ -0,0 +1,193 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.repository.UsersRepository;
+import com.evizy.evizy.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloom filters over the NIKs of the citizen registry and of registered users. A negative answer is definite, so
+ * unknown NIKs are rejected and new users skip the duplicate query without any I/O. A positive answer still has to be
+ * confirmed, those that turn out wrong are counted for the false positive rate metric.
+ * Until a filter is built, or when disabled, every NIK might be contained.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NikFilter implements MeterBinder {
+    private static final long MIN_EXPECTED_INSERTIONS = 1024;
+
+    private final UsersRepository usersRepository;
+
+    private final AtomicLong citizenNegatives = new AtomicLong();
+    private final AtomicLong citizenFalsePositives = new AtomicLong();
+    private final AtomicLong userNegatives = new AtomicLong();
+    private final AtomicLong userFalsePositives = new AtomicLong();
+
+    private volatile BloomFilter citizens;
+    private volatile BloomFilter users;
+    private BloomFilter pendingCitizens;
+    private BloomFilter pendingUsers;
+
+    @Value("${app.nik-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.nik-filter.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    public boolean mightBeCitizen(String nik) {
+        return mightContain(citizens, nik, citizenNegatives);
+    }
+
+    public boolean mightBeUser(String nik) {
+        return mightContain(users, nik, userNegatives);
+    }
+
+    /**
+     * The registry has no citizen the filter answered positive for
+     */
+    public void citizenNotFound() {
+        if (enabled && citizens != null) {
+            citizenFalsePositives.incrementAndGet();
+        }
+    }
+
+    /**
+     * No user has the NIK the filter answered positive for
+     */
+    public void userNotFound() {
+        if (enabled && users != null) {
+            userFalsePositives.incrementAndGet();
+        }
+    }
+
+    /**
+     * Add a citizen to the current filter before it is added to the registry, so it is found before the next rebuild
+     */
+    public synchronized void putCitizen(String nik) {
+        if (nik == null) {
+            return;
+        }
+        if (citizens != null) {
+            citizens.put(nik);
+        }
+        if (pendingCitizens != null) {
+            pendingCitizens.put(nik);
+        }
+    }
+
+    /**
+     * Replace the citizen filter, sized for the registry so removed citizens don't stay in it.
+     * Citizens put meanwhile are added to both filters
+     */
+    public void rebuildCitizens(Collection<String> niks) {
+        if (!enabled) {
+            return;
+        }
+        BloomFilter filter = BloomFilter.create(Math.max(MIN_EXPECTED_INSERTIONS, niks.size() + niks.size() / 10), falsePositiveProbability);
+        synchronized (this) {
+            pendingCitizens = filter;
+        }
+        try {
+            niks.forEach(filter::put);
+            synchronized (this) {
+                citizens = filter;
+                pendingCitizens = null;
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingCitizens = null;
+            }
+            throw e;
+        }
+    }
+
+    public synchronized void addUser(String nik) {
+        if (nik == null) {
+            return;
+        }
+        if (users != null) {
+            users.put(nik);
+        }
+        if (pendingUsers != null) {
+            pendingUsers.put(nik);
+        }
+    }
+
+    /**
+     * Rebuild the user filter from the users table, users registered meanwhile are added to both filters
+     */
+    @Scheduled(fixedDelayString = "${app.nik-filter.users-refresh-interval-ms:3600000}")
+    public void refreshUsers() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            BloomFilter filter = BloomFilter.create(Math.max(MIN_EXPECTED_INSERTIONS, usersRepository.count() * 2), falsePositiveProbability);
+            synchronized (this) {
+                pendingUsers = filter;
+            }
+            for (String nik : usersRepository.findAllNik()) {
+                if (nik != null) {
+                    filter.put(nik);
+                }
+            }
+            synchronized (this) {
+                users = filter;
+                pendingUsers = null;
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingUsers = null;
+            }
+            log.error("Failed to refresh user NIK filter: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("nik.filter.false.positive.rate", this, filter -> rate(citizenFalsePositives, citizenNegatives))
+                .tag("filter", "citizens")
+                .description("Share of unknown NIKs the filter answered positive for")
+                .register(registry);
+        Gauge.builder("nik.filter.false.positive.rate", this, filter -> rate(userFalsePositives, userNegatives))
+                .tag("filter", "users")
+                .description("Share of unknown NIKs the filter answered positive for")
+                .register(registry);
+        Gauge.builder("nik.filter.expected.false.positive.rate", this, filter -> expected(citizens))
+                .tag("filter", "citizens")
+                .description("False positive probability estimated from the bits set")
+                .register(registry);
+        Gauge.builder("nik.filter.expected.false.positive.rate", this, filter -> expected(users))
+                .tag("filter", "users")
+                .description("False positive probability estimated from the bits set")
+                .register(registry);
+    }
+
+    private boolean mightContain(BloomFilter filter, String nik, AtomicLong negatives) {
+        if (!enabled || filter == null || nik == null || filter.mightContain(nik)) {
+            return true;
+        }
+        negatives.incrementAndGet();
+        return false;
+    }
+
+    private static double rate(AtomicLong falsePositives, AtomicLong negatives) {
+        long positives = falsePositives.get();
+        long total = positives + negatives.get();
+        return total == 0 ? 0 : (double) positives / total;
+    }
+
+    private static double expected(BloomFilter filter) {
+        return filter == null ? Double.NaN : filter.expectedFalsePositiveProbability();
+    }
+}
@@ -0,0 +1,152 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.config.JwtTokenProvider;
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.dao.Admin;
+import com.evizy.evizy.domain.dao.RefreshToken;
+import com.evizy.evizy.domain.dao.Users;
+import com.evizy.evizy.domain.dto.TokenResponse;
+import com.evizy.evizy.errors.BusinessFlowException;
+import com.evizy.evizy.repository.AdminRepository;
+import com.evizy.evizy.repository.RefreshTokenRepository;
+import com.evizy.evizy.repository.UsersRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opaque refresh tokens that renew an access token without verifying the password again. Only their SHA-256 is stored.
+ * Every refresh uses up the token and issues the next one of the same family. A token presented after it was used
+ * means it was copied, so the whole family is revoked and the account has to log in again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UsersRepository usersRepository;
+    private final AdminRepository adminRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TransactionTemplate transactionTemplate;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${app.jwt.refresh.expiration-ms:1209600000}")
+    private long expirationMs;
+
+    /**
+     * Start a new family for an account that just logged in
+     */
+    public String issue(UserDetails account) {
+        return issue(account, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Use up the refresh token and return a new access token with the next refresh token of its family
+     */
+    public TokenResponse refresh(String token) throws BusinessFlowException {
+        if (token == null || token.isBlank()) {
+            throw invalid();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hash(token)).orElseThrow(this::invalid);
+        if (refreshToken.getRevokedAt() != null || !refreshToken.getExpiresAt().isAfter(now)) {
+            throw invalid();
+        }
+
+        Integer claimed = transactionTemplate.execute(status -> refreshTokenRepository.markUsed(refreshToken.getId(), now));
+        if (claimed == null || claimed == 0) {
+            log.warn("Refresh token of family {} was reused, revoking the family", refreshToken.getFamilyId());
+            revokeFamily(refreshToken.getFamilyId());
+            throw invalid();
+        }
+
+        Optional<? extends UserDetails> account = refreshToken.getAdminId() != null
+                ? adminRepository.findById(refreshToken.getAdminId())
+                : usersRepository.findById(refreshToken.getUserId());
+        if (account.isEmpty() || !account.get().isEnabled()) {
+            revokeFamily(refreshToken.getFamilyId());
+            throw invalid();
+        }
+
+        String accessToken = jwtTokenProvider.generateToken(new UsernamePasswordAuthenticationToken(
+                account.get(), null, account.get().getAuthorities()));
+        return TokenResponse.builder()
+                .accessToken(accessToken)
+                .refreshToken(issue(account.get(), refreshToken.getFamilyId()))
+                .build();
+    }
+
+    /**
+     * Revoke the family of the refresh token, unknown tokens are ignored
+     */
+    public void revoke(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(refreshToken -> revokeFamily(refreshToken.getFamilyId()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        try {
+            Integer deleted = transactionTemplate.execute(status -> refreshTokenRepository.deleteAllExpired(LocalDateTime.now()));
+            if (deleted != null && deleted > 0) {
+                log.info("Deleted {} expired refresh tokens", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to delete expired refresh tokens: {}", e.getMessage());
+        }
+    }
+
+    private String issue(UserDetails account, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(token))
+                .familyId(familyId)
+                .userId(account instanceof Users ? ((Users) account).getId() : null)
+                .adminId(account instanceof Admin ? ((Admin) account).getId() : null)
+                .expiresAt(LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(expirationMs)))
+                .build());
+        return token;
+    }
+
+    private void revokeFamily(String familyId) {
+        transactionTemplate.execute(status -> refreshTokenRepository.revokeFamily(familyId, LocalDateTime.now()));
+    }
+
+    private BusinessFlowException invalid() {
+        return new BusinessFlowException(HttpStatus.UNAUTHORIZED, ResponseMessage.INVALID_REFRESH_TOKEN, "Invalid refresh token!");
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
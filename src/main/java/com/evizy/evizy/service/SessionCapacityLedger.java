@@ -0,0 +1,326 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.domain.dao.VaccinationSessions;
+import com.evizy.evizy.repository.BookingHoldRepository;
+import com.evizy.evizy.repository.VaccinationPassRepository;
+import com.evizy.evizy.repository.VaccinationSessionsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process seat counter for hot vaccination sessions.
+ * Bookings are admitted against striped in-memory counters and the booked delta is written back in batches,
+ * so the session row is no longer locked once per booking. Only meant for single instance deployments.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SessionCapacityLedger {
+    private static final int LOCK_STRIPES = 64;
+
+    private final VaccinationSessionsRepository vaccinationSessionsRepository;
+    private final VaccinationPassRepository vaccinationPassRepository;
+    private final BookingHoldRepository bookingHoldRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> blocked = new ConcurrentHashMap<>();
+    private final ReadWriteLock[] locks = new ReadWriteLock[LOCK_STRIPES];
+    private TransactionTemplate writeBackTemplate;
+
+    @Value("${app.booking.ledger.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.booking.ledger.stripes:4}")
+    private int stripes;
+
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        writeBackTemplate = new TransactionTemplate(transactionManager);
+        writeBackTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Admit one booking, the seat is handed back automatically when the surrounding transaction rolls back.
+     * While the session is blocked the seat is taken from the row itself, see {@link #evict(Long)}.
+     */
+    public boolean tryAcquire(Long sessionId) {
+        Lock lock = lock(sessionId).readLock();
+        lock.lock();
+        try {
+            if (blocked.containsKey(sessionId)) {
+                block(sessionId);
+            } else {
+                Entry entry = entries.computeIfAbsent(sessionId, this::load);
+                if (entry == null || !entry.acquire()) {
+                    return false;
+                }
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status != STATUS_COMMITTED) {
+                                releaseNow(sessionId, 1);
+                            }
+                        }
+                    });
+                }
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return vaccinationSessionsRepository.incrementBookedIfAvailable(sessionId, 1) > 0;
+        } finally {
+            unblockAfterCompletion(sessionId);
+        }
+    }
+
+    /**
+     * Hand seats back, returns false when the session is not tracked so the caller has to update the database itself.
+     * Inside a transaction the seats are handed back once it commits, a cancellation that rolls back never frees them.
+     */
+    public boolean release(Long sessionId, int seats) {
+        Lock lock = lock(sessionId).readLock();
+        lock.lock();
+        try {
+            if (!entries.containsKey(sessionId)) {
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    releaseNow(sessionId, seats);
+                }
+            });
+        } else {
+            releaseNow(sessionId, seats);
+        }
+        return true;
+    }
+
+    /**
+     * Write back and forget a session, used before the session itself is changed.
+     * The delta is committed in its own transaction, so the caller reads the booked count the ledger admitted.
+     * The session stays blocked until the caller's transaction completes: bookings meanwhile update the row directly
+     * and wait on its lock, and the entry is only loaded again once the new quantity is committed.
+     */
+    public void evict(Long sessionId) {
+        Lock lock = lock(sessionId).writeLock();
+        lock.lock();
+        try {
+            Entry entry = entries.get(sessionId);
+            if (entry != null) {
+                long delta = entry.pending.sumThenReset();
+                if (delta != 0) {
+                    try {
+                        writeBackTemplate.executeWithoutResult(status -> write(Collections.singletonList(new Object[]{delta, sessionId})));
+                    } catch (RuntimeException e) {
+                        entry.pending.add(delta);
+                        throw e;
+                    }
+                }
+                entries.remove(sessionId);
+            }
+            block(sessionId);
+        } finally {
+            lock.unlock();
+        }
+        unblockAfterCompletion(sessionId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.booking.ledger.flush-interval-ms:500}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        entries.forEach((sessionId, entry) -> {
+            long delta = entry.pending.sumThenReset();
+            if (delta != 0) {
+                batch.add(new Object[]{delta, sessionId});
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            log.error("Failed to flush booked seats, will retry: {}", e.getMessage());
+            for (Object[] row : batch) {
+                restore((Long) row[1], (long) row[0]);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * The session may have been evicted since the seats were taken, its booked count was written back with them
+     * and is corrected in the database instead
+     */
+    private void releaseNow(Long sessionId, int seats) {
+        Lock lock = lock(sessionId).readLock();
+        lock.lock();
+        try {
+            Entry entry = entries.get(sessionId);
+            if (entry != null) {
+                for (int i = 0; i < seats; i++) {
+                    entry.release();
+                }
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        writeBackTemplate.executeWithoutResult(status -> write(Collections.singletonList(new Object[]{(long) -seats, sessionId})));
+    }
+
+    /**
+     * Hand an unwritten delta back to the current entry. An entry evicted since the flush already wrote back
+     * without it, so it goes to the database instead.
+     */
+    private void restore(Long sessionId, long delta) {
+        Lock lock = lock(sessionId).readLock();
+        lock.lock();
+        try {
+            Entry entry = entries.get(sessionId);
+            if (entry != null) {
+                entry.pending.add(delta);
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writeBackTemplate.executeWithoutResult(status -> write(Collections.singletonList(new Object[]{delta, sessionId})));
+        } catch (RuntimeException e) {
+            log.error("Failed to write back {} booked seats of vaccination session {}: {}", delta, sessionId, e.getMessage());
+        }
+    }
+
+    private void block(Long sessionId) {
+        blocked.merge(sessionId, 1, Integer::sum);
+    }
+
+    private void unblockAfterCompletion(Long sessionId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    unblock(sessionId);
+                }
+            });
+        } else {
+            unblock(sessionId);
+        }
+    }
+
+    private void unblock(Long sessionId) {
+        blocked.computeIfPresent(sessionId, (id, count) -> count == 1 ? null : count - 1);
+    }
+
+    private ReadWriteLock lock(Long sessionId) {
+        return locks[Math.floorMod(sessionId.hashCode(), locks.length)];
+    }
+
+    private void write(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("UPDATE vaccination_sessions SET booked = booked + ? WHERE id = ?", batch);
+    }
+
+    /**
+     * Seed from the session row. Passes and booking holds are the source of truth, so seats admitted before a crash
+     * but never written back are recovered from their count.
+     */
+    private Entry load(Long sessionId) {
+        Optional<VaccinationSessions> optionalVaccinationSessions = vaccinationSessionsRepository.findById(sessionId);
+        if (optionalVaccinationSessions.isEmpty()) {
+            return null;
+        }
+        VaccinationSessions vaccinationSessions = optionalVaccinationSessions.get();
+        long taken = vaccinationPassRepository.countByVaccinationSessionsId(sessionId)
+                + bookingHoldRepository.countByVaccinationSessionsId(sessionId);
+        long booked = Math.max(vaccinationSessions.getBooked(), taken);
+
+        Entry entry = new Entry(Math.max(1, stripes), vaccinationSessions.getQuantity() - booked);
+        if (booked != vaccinationSessions.getBooked()) {
+            log.warn("Recovered booked seats of vaccination session {}: {} -> {}", sessionId, vaccinationSessions.getBooked(), booked);
+            entry.pending.add(booked - vaccinationSessions.getBooked());
+        }
+        return entry;
+    }
+
+    private static class Entry {
+        private final AtomicLong[] available;
+        private final LongAdder pending = new LongAdder();
+
+        private Entry(int stripes, long free) {
+            available = new AtomicLong[stripes];
+            long remaining = Math.max(0, free);
+            for (int i = 0; i < stripes; i++) {
+                long share = remaining / (stripes - i);
+                available[i] = new AtomicLong(share);
+                remaining -= share;
+            }
+        }
+
+        private boolean acquire() {
+            int start = ThreadLocalRandom.current().nextInt(available.length);
+            for (int i = 0; i < available.length; i++) {
+                AtomicLong stripe = available[(start + i) % available.length];
+                long current = stripe.get();
+                while (current > 0) {
+                    if (stripe.compareAndSet(current, current - 1)) {
+                        pending.increment();
+                        return true;
+                    }
+                    current = stripe.get();
+                }
+            }
+            return false;
+        }
+
+        private void release() {
+            available[ThreadLocalRandom.current().nextInt(available.length)].incrementAndGet();
+            pending.decrement();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.domain.dao.RevokedToken;
+import com.evizy.evizy.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens revoked before they expire, keyed by their jti. Requests are checked against an in-memory copy,
+ * revocations are stored in revoked_tokens and every node polls the rows revoked since its last poll. The poll reads
+ * back an overlap so rows committed late by another node are still picked up. A token is forgotten once it expired.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService implements MeterBinder {
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+
+    private LocalDateTime polledAt;
+
+    @Value("${app.jwt.revocation.poll-overlap-ms:60000}")
+    private long pollOverlapMs;
+
+    public boolean isRevoked(String jti) {
+        return jti != null && !revoked.isEmpty() && revoked.containsKey(jti);
+    }
+
+    /**
+     * Revoke the token on this node right away, other nodes pick it up with their next poll
+     */
+    public void revoke(String jti, LocalDateTime expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(LocalDateTime.now()) || revoked.containsKey(jti)) {
+            return;
+        }
+        try {
+            revokedTokenRepository.save(RevokedToken.builder()
+                    .jti(jti)
+                    .expiresAt(expiresAt)
+                    .revokedAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Token {} was already revoked", jti);
+        }
+        revoked.put(jti, expiresAt);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    /**
+     * Load the tokens revoked since the last poll, all unexpired ones on the first poll
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.poll-interval-ms:5000}")
+    public synchronized void poll() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (RevokedToken token : polledAt == null
+                    ? revokedTokenRepository.findAllByExpiresAtAfter(now)
+                    : revokedTokenRepository.findAllByRevokedAtGreaterThanEqual(polledAt.minusNanos(pollOverlapMs * 1_000_000))) {
+                if (token.getExpiresAt().isAfter(now)) {
+                    revoked.put(token.getJti(), token.getExpiresAt());
+                }
+            }
+            revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            polledAt = now;
+        } catch (RuntimeException e) {
+            log.error("Failed to poll revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        try {
+            transactionTemplate.execute(status -> revokedTokenRepository.deleteAllExpired(LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            log.error("Failed to delete expired revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jwt.revoked.tokens", revoked, Map::size)
+                .description("Revoked tokens that have not expired yet")
+                .register(registry);
+    }
+}
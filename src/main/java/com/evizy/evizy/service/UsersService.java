@@ -2,29 +2,49 @@ package com.evizy.evizy.service;
 
 import com.evizy.evizy.constant.Endpoints;
 import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.common.CursorPage;
+import com.evizy.evizy.domain.dao.Admin;
 import com.evizy.evizy.domain.dao.Users;
 import com.evizy.evizy.domain.dto.CitizenResponse;
+import com.evizy.evizy.domain.dto.CitizenSyncResponse;
 import com.evizy.evizy.domain.dto.UsersRequest;
+import com.evizy.evizy.domain.projection.UserView;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.AdminRepository;
 import com.evizy.evizy.repository.UsersRepository;
+import com.evizy.evizy.util.CitizenParser;
+import com.evizy.evizy.util.Cursor;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.conn.ConnectionReleaseTrigger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
-public class UsersService implements UserDetailsService {
+public class UsersService implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     private UsersRepository usersRepository;
 
@@ -34,6 +54,12 @@ public class UsersService implements UserDetailsService {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private CircuitBreaker citizenCircuitBreaker;
+
+    @Autowired
+    private Bulkhead citizenBulkhead;
+
     public UserDetails loadUserByUsername(String str) throws UsernameNotFoundException {
         UserDetails ret;
         if (str.startsWith("admin_")) {
@@ -48,11 +74,42 @@ public class UsersService implements UserDetailsService {
         return ret;
     }
 
+    /**
+     * Store the password rehashed on login after the BCrypt strength changed
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (user instanceof Admin) {
+            Admin admin = (Admin) user;
+            admin.setPassword(newPassword);
+            return adminRepository.save(admin);
+        }
+        Users users = (Users) user;
+        users.setPassword(newPassword);
+        return usersRepository.save(users);
+    }
+
     public UsersRequest find(Long id) {
-        Optional<Users> optionalUsers = usersRepository.findById(id);
+        Optional<UserView> optionalUsers = usersRepository.findViewById(id);
         if (optionalUsers.isEmpty())
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "User not found!");
-        Users user = optionalUsers.get();
+        return toRequest(optionalUsers.get());
+    }
+
+    public CursorPage<UsersRequest> find(String cursor, Integer limit) throws BusinessFlowException {
+        int pageSize = Cursor.limit(limit);
+        List<UserView> usersList = usersRepository.findViewsByIdGreaterThan(Cursor.after(cursor), Cursor.pageable(pageSize));
+        List<UsersRequest> usersRequests = new ArrayList<>();
+        for(UserView user : Cursor.items(usersList, pageSize)) {
+            usersRequests.add(toRequest(user));
+        }
+        return CursorPage.<UsersRequest>builder()
+                .items(usersRequests)
+                .nextCursor(Cursor.next(usersList, pageSize, UserView::getId))
+                .build();
+    }
+
+    private static UsersRequest toRequest(UserView user) {
         return UsersRequest
                 .builder()
                 .id(user.getId())
@@ -64,27 +121,68 @@ public class UsersService implements UserDetailsService {
                 .build();
     }
 
-    public List<UsersRequest> find() {
-        List<Users> usersList = usersRepository.findAll();
-        List<UsersRequest> usersRequests = new ArrayList<>();
-        for(Users user : usersList) {
-            usersRequests.add(UsersRequest
-                    .builder()
-                    .id(user.getId())
-                    .nik(user.getNik())
-                    .name(user.getName())
-                    .phoneNumber(user.getPhoneNumber())
-                    .gender(user.getGender())
-                    .dateOfBirth(user.getDateOfBirth())
-                    .build());
+    public List<CitizenResponse> getAllCitizen() {
+        String url = Endpoints.API_CITIZEN_BASE_URL + "/api/v1/citizen";
+        CitizenResponse[] lists = callCitizenService(() -> restTemplate.getForObject(url, CitizenResponse[].class));
+
+        return Arrays.asList(lists);
+    }
+
+    /**
+     * Conditional GET of the citizen list, the body is only downloaded when it changed since the given validators
+     */
+    public CitizenSyncResponse syncCitizens(String etag, String lastModified) {
+        String url = Endpoints.API_CITIZEN_BASE_URL + "/api/v1/citizen";
+        HttpHeaders headers = new HttpHeaders();
+        if (etag != null)
+            headers.setIfNoneMatch(etag);
+        if (lastModified != null)
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        ResponseEntity<CitizenResponse[]> response = callCitizenService(() -> restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), CitizenResponse[].class));
+
+        if (HttpStatus.NOT_MODIFIED.equals(response.getStatusCode())) {
+            return CitizenSyncResponse.builder()
+                    .modified(false)
+                    .etag(etag)
+                    .lastModified(lastModified)
+                    .build();
         }
-        return usersRequests;
+        CitizenResponse[] lists = response.getBody();
+        return CitizenSyncResponse.builder()
+                .modified(true)
+                .etag(response.getHeaders().getETag())
+                .lastModified(response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED))
+                .citizens(lists == null ? new ArrayList<>() : Arrays.asList(lists))
+                .build();
     }
 
-    public List<CitizenResponse> getAllCitizen() {
+    /**
+     * Stream the citizen list and stop reading at the citizen with the NIK instead of downloading all of it first.
+     * Closing the response would read the rest of the list to reuse the connection, so after a match the connection
+     * is aborted instead
+     */
+    public Optional<CitizenResponse> findCitizen(String nik) {
         String url = Endpoints.API_CITIZEN_BASE_URL + "/api/v1/citizen";
-        CitizenResponse[] lists = restTemplate.getForObject(url, CitizenResponse[].class);
+        return callCitizenService(() -> restTemplate.execute(url, HttpMethod.GET, null, response -> {
+            InputStream body = response.getBody();
+            Optional<CitizenResponse> citizen = CitizenParser.find(StreamUtils.nonClosing(body), nik);
+            if (citizen.isPresent() && body instanceof ConnectionReleaseTrigger) {
+                ((ConnectionReleaseTrigger) body).abortConnection();
+            }
+            return citizen;
+        }));
+    }
 
-        return Arrays.asList(lists);
+    /**
+     * Citizen calls share a bulkhead so a slow citizen service can't hold every request thread,
+     * and fail fast while the circuit breaker is open
+     */
+    private <T> T callCitizenService(Supplier<T> call) {
+        try {
+            return Bulkhead.decorateSupplier(citizenBulkhead, CircuitBreaker.decorateSupplier(citizenCircuitBreaker, call)).get();
+        } catch (CallNotPermittedException | BulkheadFullException | RestClientException e) {
+            log.error("Citizen service call failed: {}", e.getMessage());
+            throw new BusinessFlowException(HttpStatus.SERVICE_UNAVAILABLE, ResponseMessage.CITIZEN_SERVICE_UNAVAILABLE, "Citizen service is unavailable!");
+        }
     }
 }
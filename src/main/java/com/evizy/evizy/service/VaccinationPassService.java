@@ -1,21 +1,24 @@
 package com.evizy.evizy.service;
 
 import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.common.CursorPage;
 import com.evizy.evizy.domain.dao.*;
 import com.evizy.evizy.domain.dto.*;
+import com.evizy.evizy.domain.projection.VaccinationPassView;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.FamilyMembersRepository;
 import com.evizy.evizy.repository.UsersRepository;
 import com.evizy.evizy.repository.VaccinationPassRepository;
 import com.evizy.evizy.repository.VaccinationSessionsRepository;
+import com.evizy.evizy.util.Cursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Slf4j
 @Service
@@ -25,15 +28,32 @@ public class VaccinationPassService {
     private final VaccinationSessionsRepository vaccinationSessionsRepository;
     private final FamilyMembersRepository familyMembersRepository;
     private final UsersRepository usersRepository;
+    private final SessionCapacityLedger sessionCapacityLedger;
 
+    @Value("${app.vaccination-pass.batch.max-size:10}")
+    private int maxBatchSize;
+
+    @Transactional
     public VaccinationPassRequest create(VaccinationPassRequest request) throws BusinessFlowException {
+        return create(request, true);
+    }
+
+    /**
+     * Create the pass for a seat that was already taken, e.g. by a booking hold
+     */
+    @Transactional
+    public VaccinationPassRequest createReserved(VaccinationPassRequest request) throws BusinessFlowException {
+        return create(request, false);
+    }
+
+    private VaccinationPassRequest create(VaccinationPassRequest request, boolean reserve) throws BusinessFlowException {
         Optional<VaccinationSessions> optionalVaccinationSessions = vaccinationSessionsRepository.findById(request.getVaccinationSession().getId());
 
         if (optionalVaccinationSessions.isEmpty()) {
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "Vaccination session not found!");
         }
 
-        if (optionalVaccinationSessions.get().getBooked() >= optionalVaccinationSessions.get().getQuantity()) {
+        if (reserve && optionalVaccinationSessions.get().getBooked() >= optionalVaccinationSessions.get().getQuantity()) {
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.STOCK_EMPTY, "Stock empty!");
         }
 
@@ -49,6 +69,96 @@ public class VaccinationPassService {
         }
         VaccinationSessions vaccinationSessions = optionalVaccinationSessions.get();
 
+        Users users = null;
+        if (familyMember == null) {
+            users = usersRepository.findById(request.getRegisteredBy().getId()).get();
+        }
+        VaccinationPass vaccinationPass = buildVaccinationPass(request, vaccinationSessions, familyMember, users);
+
+        if (reserve && !reserveSeat(vaccinationSessions.getId())) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.STOCK_EMPTY, "Stock empty!");
+        }
+        vaccinationPassRepository.save(vaccinationPass);
+
+        return buildCreatedResponse(vaccinationPass, request.getRegisteredBy().getId());
+    }
+
+    /**
+     * Book one session for the user and several family members at once, all seats are taken with one
+     * conditional update and the passes are inserted in one JDBC batch, so either every pass is created or none.
+     * A batch holds at most app.vaccination-pass.batch.max-size passes.
+     */
+    @Transactional
+    public List<VaccinationPassRequest> createAll(Long userId, VaccinationPassBatchRequest request) throws BusinessFlowException {
+        if (request.getVaccinationPasses() != null && request.getVaccinationPasses().size() > maxBatchSize) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "Too many vaccination passes to book at once!");
+        }
+
+        Optional<VaccinationSessions> optionalVaccinationSessions = vaccinationSessionsRepository.findById(request.getVaccinationSession().getId());
+
+        if (optionalVaccinationSessions.isEmpty()) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "Vaccination session not found!");
+        }
+
+        VaccinationSessions vaccinationSessions = optionalVaccinationSessions.get();
+        List<VaccinationPassRequest> vaccinationPassRequests = request.getVaccinationPasses();
+        if (vaccinationPassRequests == null || vaccinationPassRequests.isEmpty()) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "No vaccination pass to book!");
+        }
+
+        if (vaccinationSessions.getBooked() + vaccinationPassRequests.size() > vaccinationSessions.getQuantity()) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.STOCK_EMPTY, "Stock empty!");
+        }
+
+        Set<Long> familyMemberIds = new HashSet<>();
+        int self = 0;
+        for (VaccinationPassRequest vaccinationPassRequest : vaccinationPassRequests) {
+            if (vaccinationPassRequest.getFamilyMember() == null || vaccinationPassRequest.getFamilyMember().getId() == null) {
+                self++;
+            } else if (!familyMemberIds.add(vaccinationPassRequest.getFamilyMember().getId())) {
+                throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "Family member booked more than once!");
+            }
+        }
+        if (self > 1) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "User booked more than once!");
+        }
+
+        Map<Long, FamilyMembers> familyMembers = new HashMap<>();
+        if (!familyMemberIds.isEmpty()) {
+            for (FamilyMembers familyMember : familyMembersRepository.findAllById(familyMemberIds)) {
+                if (familyMember.getUsers().getId().equals(userId)) {
+                    familyMembers.put(familyMember.getId(), familyMember);
+                }
+            }
+            if (familyMembers.size() != familyMemberIds.size()) {
+                throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "Family member not found or not the part of the auth user!");
+            }
+        }
+        Users users = self > 0 ? usersRepository.findById(userId).get() : null;
+
+        List<VaccinationPass> vaccinationPasses = new ArrayList<>();
+        for (VaccinationPassRequest vaccinationPassRequest : vaccinationPassRequests) {
+            vaccinationPassRequest.setRegisteredBy(UsersRequest.builder()
+                    .id(userId)
+                    .build());
+            FamilyMembers familyMember = vaccinationPassRequest.getFamilyMember() == null ? null
+                    : familyMembers.get(vaccinationPassRequest.getFamilyMember().getId());
+            vaccinationPasses.add(buildVaccinationPass(vaccinationPassRequest, vaccinationSessions, familyMember, users));
+        }
+
+        if (!reserveSeats(vaccinationSessions.getId(), vaccinationPasses.size())) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.STOCK_EMPTY, "Stock empty!");
+        }
+        vaccinationPassRepository.insertAll(vaccinationPasses);
+
+        List<VaccinationPassRequest> response = new ArrayList<>();
+        for (VaccinationPass vaccinationPass : vaccinationPasses) {
+            response.add(buildCreatedResponse(vaccinationPass, userId));
+        }
+        return response;
+    }
+
+    private VaccinationPass buildVaccinationPass(VaccinationPassRequest request, VaccinationSessions vaccinationSessions, FamilyMembers familyMember, Users users) {
         VaccinationPass vaccinationPass = VaccinationPass.builder()
                 .vaccinationSessions(vaccinationSessions)
                 .vaccine(vaccinationSessions.getVaccine())
@@ -79,20 +189,17 @@ public class VaccinationPassService {
             vaccinationPass.setPhoneNumber(familyMember.getPhoneNumber());
             vaccinationPass.setGender(familyMember.getGender());
         } else {
-            Optional<Users> optionalUsers = usersRepository.findById(request.getRegisteredBy().getId());
-            Users users = optionalUsers.get();
-
             vaccinationPass.setNik(users.getNik());
             vaccinationPass.setName(users.getName());
             vaccinationPass.setDateOfBirth(users.getDateOfBirth());
             vaccinationPass.setPhoneNumber(users.getPhoneNumber());
             vaccinationPass.setGender(users.getGender());
         }
+        return vaccinationPass;
+    }
 
-        vaccinationSessions.setBooked(vaccinationSessions.getBooked() + 1);
-        vaccinationSessionsRepository.save(vaccinationSessions);
-        vaccinationPassRepository.save(vaccinationPass);
-
+    private VaccinationPassRequest buildCreatedResponse(VaccinationPass vaccinationPass, Long registeredById) {
+        VaccinationSessions vaccinationSessions = vaccinationPass.getVaccinationSessions();
         VaccinationPassRequest response = VaccinationPassRequest.builder()
                 .id(vaccinationPass.getId())
                 .vaccinationSession(VaccinationSessionRequest.builder()
@@ -102,7 +209,7 @@ public class VaccinationPassService {
                         .id(vaccinationSessions.getVaccine().getId())
                         .build())
                 .registeredBy(UsersRequest.builder()
-                        .id(request.getRegisteredBy().getId())
+                        .id(registeredById)
                         .build())
                 .nik(vaccinationPass.getNik())
                 .name(vaccinationPass.getName())
@@ -124,15 +231,19 @@ public class VaccinationPassService {
                 .currProvince(vaccinationPass.getCurrProvince())
                 .build();
 
-        if (familyMember != null) {
+        if (vaccinationPass.getFamilyMembers() != null) {
             response.setFamilyMember(FamilyMembersRequest.builder()
-                    .id(familyMember.getId())
+                    .id(vaccinationPass.getFamilyMembers().getId())
                     .build());
         }
 
         return response;
     }
 
+    /**
+     * Cancel a pass, the pass is only deleted once so concurrent cancellations can't hand back the seat twice
+     */
+    @Transactional
     public void delete(Long id) throws BusinessFlowException {
         Optional<VaccinationPass> optionalVaccinationPass = vaccinationPassRepository.findById(id);
 
@@ -146,9 +257,23 @@ public class VaccinationPassService {
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.CITIZEN_ALREADY_VACCINATED, "Can't update the ticket, citizen already vaccinated!");
         }
 
-        VaccinationSessions vaccinationSessions = vaccinationPass.getVaccinationSessions();
-        vaccinationSessions.setBooked(vaccinationSessions.getBooked() - 1);
-        vaccinationPassRepository.delete(vaccinationPass);
+        if (vaccinationPassRepository.deleteUnvaccinatedById(id) == 0) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Vaccination pass not found!");
+        }
+        releaseSeats(vaccinationPass.getVaccinationSessions().getId(), 1);
+    }
+
+    /**
+     * Cancel every pass of a session that is not vaccinated yet with one soft delete and one counter update
+     */
+    @Transactional
+    public int deleteAllByVaccinationSession(Long vaccinationSessionId) {
+        int cancelled = vaccinationPassRepository.deleteAllUnvaccinatedByVaccinationSessionId(vaccinationSessionId);
+        if (cancelled > 0) {
+            releaseSeats(vaccinationSessionId, cancelled);
+        }
+        log.info("Cancelled {} vaccination passes of vaccination session {}", cancelled, vaccinationSessionId);
+        return cancelled;
     }
 
     public void updateStatusVaccinated(Long id, VaccinationPassRequest request) throws BusinessFlowException {
@@ -233,26 +358,44 @@ public class VaccinationPassService {
     }
 
     public VaccinationPassRequest find(Long id) {
-        Optional<VaccinationPass> optionalVaccinationPass = vaccinationPassRepository.findById(id);
+        Optional<VaccinationPassView> optionalVaccinationPass = vaccinationPassRepository.findViewById(id);
         if (optionalVaccinationPass.isEmpty())
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "Vaccination pass not found!");
-        VaccinationPass vaccinationPass = optionalVaccinationPass.get();
-        VaccinationSessions vaccinationSessions = vaccinationPass.getVaccinationSessions();
-        FamilyMembers familyMember = vaccinationPass.getFamilyMembers();
-        Users registeredBy = vaccinationPass.getRegisteredBy();
-        Vaccine vaccine = vaccinationPass.getVaccine();
+        return toRequest(optionalVaccinationPass.get());
+    }
+
+    public CursorPage<VaccinationPassRequest> findAll(Long userId, String cursor, Integer limit) throws BusinessFlowException {
+        long afterId = Cursor.after(cursor);
+        int pageSize = Cursor.limit(limit);
+        List<VaccinationPassView> vaccinationPassList;
+        if (userId == null)
+            vaccinationPassList = vaccinationPassRepository.findViewsByIdGreaterThan(afterId, Cursor.pageable(pageSize));
+        else
+            vaccinationPassList = vaccinationPassRepository.findViewsByRegisteredByIdAndIdGreaterThan(userId, afterId, Cursor.pageable(pageSize));
+
+        List<VaccinationPassRequest> vaccinationPassRequests = new ArrayList<>();
+        for(VaccinationPassView vaccinationPass : Cursor.items(vaccinationPassList, pageSize)) {
+            vaccinationPassRequests.add(toRequest(vaccinationPass));
+        }
+        return CursorPage.<VaccinationPassRequest>builder()
+                .items(vaccinationPassRequests)
+                .nextCursor(Cursor.next(vaccinationPassList, pageSize, VaccinationPassView::getId))
+                .build();
+    }
+
+    private static VaccinationPassRequest toRequest(VaccinationPassView vaccinationPass) {
         VaccinationPassRequest response = VaccinationPassRequest.builder()
                 .id(vaccinationPass.getId())
                 .vaccinationSession(VaccinationSessionRequest.builder()
-                        .id(vaccinationSessions.getId())
+                        .id(vaccinationPass.getVaccinationSessionId())
                         .build())
                 .vaccine(VaccineRequest.builder()
-                        .id(vaccine.getId())
-                        .name(vaccine.getName())
+                        .id(vaccinationPass.getVaccineId())
+                        .name(vaccinationPass.getVaccineName())
                         .build())
                 .registeredBy(UsersRequest.builder()
-                        .id(registeredBy.getId())
-                        .name(registeredBy.getName())
+                        .id(vaccinationPass.getRegisteredById())
+                        .name(vaccinationPass.getRegisteredByName())
                         .build())
                 .nik(vaccinationPass.getNik())
                 .name(vaccinationPass.getName())
@@ -275,73 +418,41 @@ public class VaccinationPassService {
                 .currProvince(vaccinationPass.getCurrProvince())
                 .build();
 
-        if (familyMember != null) {
+        if (vaccinationPass.getFamilyMemberId() != null) {
             response.setFamilyMember(FamilyMembersRequest.builder()
-                    .id(familyMember.getId())
-                    .name(familyMember.getName())
+                    .id(vaccinationPass.getFamilyMemberId())
+                    .name(vaccinationPass.getFamilyMemberName())
                     .build());
         }
 
         return response;
     }
 
-    public List<VaccinationPassRequest> findAll(Long userId) {
-        List<VaccinationPass> vaccinationPassList;
-        if (userId == null)
-            vaccinationPassList = vaccinationPassRepository.findAll();
-        else
-            vaccinationPassList = vaccinationPassRepository.findAllByRegisteredById(userId);
+    public boolean reserveSeat(Long vaccinationSessionId) {
+        return reserveSeats(vaccinationSessionId, 1);
+    }
 
-        List<VaccinationPassRequest> vaccinationPassRequests = new ArrayList<>();
-        for(VaccinationPass vaccinationPass : vaccinationPassList) {
-            VaccinationSessions vaccinationSessions = vaccinationPass.getVaccinationSessions();
-            FamilyMembers familyMember = vaccinationPass.getFamilyMembers();
-            Users registeredBy = vaccinationPass.getRegisteredBy();
-            Vaccine vaccine = vaccinationPass.getVaccine();
-
-            VaccinationPassRequest vaccinationPassRequest = VaccinationPassRequest.builder()
-                    .id(vaccinationPass.getId())
-                    .vaccinationSession(VaccinationSessionRequest.builder()
-                            .id(vaccinationSessions.getId())
-                            .build())
-                    .vaccine(VaccineRequest.builder()
-                            .id(vaccine.getId())
-                            .name(vaccine.getName())
-                            .build())
-                    .registeredBy(UsersRequest.builder()
-                            .id(registeredBy.getId())
-                            .name(registeredBy.getName())
-                            .build())
-                    .nik(vaccinationPass.getNik())
-                    .name(vaccinationPass.getName())
-                    .dateOfBirth(vaccinationPass.getDateOfBirth())
-                    .phoneNumber(vaccinationPass.getPhoneNumber())
-                    .gender(vaccinationPass.getGender())
-                    .ageCategory(vaccinationPass.getAgeCategory())
-                    .isVaccinated(vaccinationPass.getIsVaccinated())
-                    .isPregnant(vaccinationPass.getIsPregnant())
-                    .medicalHistory(vaccinationPass.getMedicalHistory())
-                    .idAddress(vaccinationPass.getIdAddress())
-                    .idUrbanVillage(vaccinationPass.getIdUrbanVillage())
-                    .idSubDistrict(vaccinationPass.getIdSubDistrict())
-                    .idCity(vaccinationPass.getIdCity())
-                    .idProvince(vaccinationPass.getIdProvince())
-                    .currAddress(vaccinationPass.getCurrAddress())
-                    .currUrbanVillage(vaccinationPass.getCurrUrbanVillage())
-                    .currSubDistrict(vaccinationPass.getCurrSubDistrict())
-                    .currCity(vaccinationPass.getCurrCity())
-                    .currProvince(vaccinationPass.getCurrProvince())
-                    .build();
-
-            if (familyMember != null) {
-                vaccinationPassRequest.setFamilyMember(FamilyMembersRequest.builder()
-                        .id(familyMember.getId())
-                        .name(familyMember.getName())
-                        .build());
+    /**
+     * Take all seats or none, seats taken from the ledger are handed back when the surrounding transaction rolls back
+     */
+    public boolean reserveSeats(Long vaccinationSessionId, int seats) {
+        if (sessionCapacityLedger.isEnabled()) {
+            for (int i = 0; i < seats; i++) {
+                if (!sessionCapacityLedger.tryAcquire(vaccinationSessionId)) {
+                    return false;
+                }
             }
+            return true;
+        }
+        return vaccinationSessionsRepository.incrementBookedIfAvailable(vaccinationSessionId, seats) > 0;
+    }
 
-            vaccinationPassRequests.add(vaccinationPassRequest);
+    /**
+     * Seats handed back to the ledger only become free once the surrounding transaction commits
+     */
+    public void releaseSeats(Long vaccinationSessionId, int seats) {
+        if (!sessionCapacityLedger.release(vaccinationSessionId, seats)) {
+            vaccinationSessionsRepository.decrementBooked(vaccinationSessionId, seats);
         }
-        return vaccinationPassRequests;
     }
 }
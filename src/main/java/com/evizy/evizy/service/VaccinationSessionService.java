@@ -1,26 +1,28 @@
 package com.evizy.evizy.service;
 
 import com.evizy.evizy.constant.ResponseMessage;
-import com.evizy.evizy.domain.dao.HealthFacilitiesVaccines;
+import com.evizy.evizy.domain.common.CursorPage;
 import com.evizy.evizy.domain.dao.HealthFacility;
 import com.evizy.evizy.domain.dao.VaccinationSessions;
 import com.evizy.evizy.domain.dao.Vaccine;
 import com.evizy.evizy.domain.dto.HealthFacilityRequest;
+import com.evizy.evizy.domain.dto.VaccinationSessionBatchRequest;
 import com.evizy.evizy.domain.dto.VaccinationSessionRequest;
 import com.evizy.evizy.domain.dto.VaccineRequest;
+import com.evizy.evizy.domain.projection.VaccinationSessionView;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.HealthFacilitiesVaccinesRepository;
 import com.evizy.evizy.repository.HealthFacilityRepository;
 import com.evizy.evizy.repository.VaccinationSessionsRepository;
 import com.evizy.evizy.repository.VaccineRepository;
+import com.evizy.evizy.util.Cursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Slf4j
 @Service
@@ -30,7 +32,12 @@ public class VaccinationSessionService {
     private final HealthFacilityRepository healthFacilityRepository;
     private final HealthFacilitiesVaccinesRepository healthFacilitiesVaccinesRepository;
     private final VaccineRepository vaccineRepository;
+    private final SessionCapacityLedger sessionCapacityLedger;
+    private final WaitlistService waitlistService;
+    private final BookingHoldService bookingHoldService;
+    private final VaccinationPassService vaccinationPassService;
 
+    @Transactional
     public VaccinationSessionRequest create(VaccinationSessionRequest request) throws BusinessFlowException {
         Optional<HealthFacility> optionalHealthFacility = healthFacilityRepository.findById(request.getHealthFacility().getId());
         if (optionalHealthFacility.isEmpty()) {
@@ -42,30 +49,10 @@ public class VaccinationSessionService {
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Vaccine not found!");
         }
 
-        HealthFacilitiesVaccines.HealthFacilitiesVaccinesId healthFacilitiesVaccinesId = new HealthFacilitiesVaccines.HealthFacilitiesVaccinesId(
-                optionalHealthFacility.get().getId(),
-                optionalVaccine.get().getId()
-        );
-
-        HealthFacilitiesVaccines healthFacilitiesVaccines;
-        Optional<HealthFacilitiesVaccines> optionalHealthFacilitiesVaccines = healthFacilitiesVaccinesRepository.findById(healthFacilitiesVaccinesId);
-        if (optionalHealthFacilitiesVaccines.isEmpty()) {
-            healthFacilitiesVaccines = HealthFacilitiesVaccines.builder()
-                    .stock(0L)
-                    .vaccine(optionalVaccine.get())
-                    .healthFacility(optionalHealthFacility.get())
-                    .build();
-            healthFacilitiesVaccinesRepository.save(healthFacilitiesVaccines);
-        } else {
-            healthFacilitiesVaccines = optionalHealthFacilitiesVaccines.get();
-        }
-
-        if (healthFacilitiesVaccines.getStock() < request.getQuantity()) {
+        if (healthFacilitiesVaccinesRepository.debitStock(optionalHealthFacility.get().getId(), optionalVaccine.get().getId(), request.getQuantity()) == 0) {
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.STOCK_NOT_VALID, "Stock is not enough!");
         }
 
-        healthFacilitiesVaccines.setStock(healthFacilitiesVaccines.getStock() - request.getQuantity());
-
         VaccinationSessions vaccinationSessions = VaccinationSessions.builder()
                 .healthFacility(optionalHealthFacility.get())
                 .vaccine(optionalVaccine.get())
@@ -76,16 +63,84 @@ public class VaccinationSessionService {
                 .booked(0L)
                 .build();
         vaccinationSessionsRepository.save(vaccinationSessions);
-        healthFacilitiesVaccinesRepository.save(healthFacilitiesVaccines);
+        return buildCreatedResponse(vaccinationSessions, optionalHealthFacility.get(), optionalVaccine.get());
+    }
+
+    /**
+     * Schedule many sessions at once. The stock is taken once per health facility and vaccine, and the sessions are
+     * inserted in JDBC batches, so either every session is created or none
+     */
+    @Transactional
+    public List<VaccinationSessionRequest> createAll(VaccinationSessionBatchRequest request) throws BusinessFlowException {
+        List<VaccinationSessionRequest> vaccinationSessionRequests = request.getVaccinationSessions();
+        if (vaccinationSessionRequests == null || vaccinationSessionRequests.isEmpty()) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "No vaccination session to create!");
+        }
+
+        Set<Long> healthFacilityIds = new HashSet<>();
+        Set<Long> vaccineIds = new HashSet<>();
+        for (VaccinationSessionRequest vaccinationSessionRequest : vaccinationSessionRequests) {
+            healthFacilityIds.add(vaccinationSessionRequest.getHealthFacility().getId());
+            vaccineIds.add(vaccinationSessionRequest.getVaccine().getId());
+        }
+
+        Map<Long, HealthFacility> healthFacilities = new HashMap<>();
+        for (HealthFacility healthFacility : healthFacilityRepository.findAllById(healthFacilityIds)) {
+            healthFacilities.put(healthFacility.getId(), healthFacility);
+        }
+        if (!healthFacilities.keySet().containsAll(healthFacilityIds)) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Health facility not found!");
+        }
+
+        Map<Long, Vaccine> vaccines = new HashMap<>();
+        for (Vaccine vaccine : vaccineRepository.findAllById(vaccineIds)) {
+            vaccines.put(vaccine.getId(), vaccine);
+        }
+        if (!vaccines.keySet().containsAll(vaccineIds)) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Vaccine not found!");
+        }
+
+        Map<List<Long>, Long> quantities = new LinkedHashMap<>();
+        List<VaccinationSessions> vaccinationSessions = new ArrayList<>();
+        for (VaccinationSessionRequest vaccinationSessionRequest : vaccinationSessionRequests) {
+            HealthFacility healthFacility = healthFacilities.get(vaccinationSessionRequest.getHealthFacility().getId());
+            Vaccine vaccine = vaccines.get(vaccinationSessionRequest.getVaccine().getId());
+            quantities.merge(List.of(healthFacility.getId(), vaccine.getId()), vaccinationSessionRequest.getQuantity(), Long::sum);
+            vaccinationSessions.add(VaccinationSessions.builder()
+                    .healthFacility(healthFacility)
+                    .vaccine(vaccine)
+                    .scheduleDate(vaccinationSessionRequest.getScheduleDate())
+                    .scheduleTimeStart(vaccinationSessionRequest.getScheduleTimeStart())
+                    .scheduleTimeEnd(vaccinationSessionRequest.getScheduleTimeEnd())
+                    .quantity(vaccinationSessionRequest.getQuantity())
+                    .booked(0L)
+                    .build());
+        }
+
+        for (Map.Entry<List<Long>, Long> quantity : quantities.entrySet()) {
+            if (healthFacilitiesVaccinesRepository.debitStock(quantity.getKey().get(0), quantity.getKey().get(1), quantity.getValue()) == 0) {
+                throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.STOCK_NOT_VALID, "Stock is not enough!");
+            }
+        }
+        vaccinationSessionsRepository.insertAll(vaccinationSessions);
+
+        List<VaccinationSessionRequest> response = new ArrayList<>();
+        for (VaccinationSessions vaccinationSession : vaccinationSessions) {
+            response.add(buildCreatedResponse(vaccinationSession, vaccinationSession.getHealthFacility(), vaccinationSession.getVaccine()));
+        }
+        return response;
+    }
+
+    private VaccinationSessionRequest buildCreatedResponse(VaccinationSessions vaccinationSessions, HealthFacility healthFacility, Vaccine vaccine) {
         return VaccinationSessionRequest.builder()
                 .id(vaccinationSessions.getId())
                 .healthFacility(HealthFacilityRequest.builder()
-                        .id(optionalHealthFacility.get().getId())
-                        .name(optionalHealthFacility.get().getName())
+                        .id(healthFacility.getId())
+                        .name(healthFacility.getName())
                         .build())
                 .vaccine(VaccineRequest.builder()
-                        .id(optionalVaccine.get().getId())
-                        .name(optionalVaccine.get().getName())
+                        .id(vaccine.getId())
+                        .name(vaccine.getName())
                         .build())
                 .scheduleDate(vaccinationSessions.getScheduleDate())
                 .scheduleTimeStart(vaccinationSessions.getScheduleTimeStart())
@@ -95,7 +150,9 @@ public class VaccinationSessionService {
                 .build();
     }
 
+    @Transactional
     public void delete(Long id) throws BusinessFlowException {
+        sessionCapacityLedger.evict(id);
         Optional<VaccinationSessions> optionalVaccinationSessions = vaccinationSessionsRepository.findById(id);
         if (optionalVaccinationSessions.isEmpty()) {
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Vaccination session not found!");
@@ -105,28 +162,37 @@ public class VaccinationSessionService {
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.VACCINATION_SESSION_ALREADY_BOOKED, "Can't delete vaccination session because already booked!");
         }
 
-        Vaccine vaccine = optionalVaccinationSessions.get().getVaccine();
-        HealthFacility healthFacility = optionalVaccinationSessions.get().getHealthFacility();
-
-        HealthFacilitiesVaccines.HealthFacilitiesVaccinesId healthFacilitiesVaccinesId = new HealthFacilitiesVaccines.HealthFacilitiesVaccinesId(
-                healthFacility.getId(),
-                vaccine.getId()
-        );
-
-        Optional<HealthFacilitiesVaccines> optionalHealthFacilitiesVaccines = healthFacilitiesVaccinesRepository.findById(healthFacilitiesVaccinesId);
-        if (optionalHealthFacilitiesVaccines.isPresent()) {
-            HealthFacilitiesVaccines healthFacilitiesVaccines = optionalHealthFacilitiesVaccines.get();
-            healthFacilitiesVaccines.setStock(healthFacilitiesVaccines.getStock() + optionalVaccinationSessions.get().getQuantity());
-            healthFacilitiesVaccinesRepository.save(healthFacilitiesVaccines);
+        if (vaccinationSessionsRepository.deleteUnbookedById(id) == 0) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.VACCINATION_SESSION_ALREADY_BOOKED, "Can't delete vaccination session because already booked!");
         }
 
-        vaccinationSessionsRepository.delete(optionalVaccinationSessions.get());
+        healthFacilitiesVaccinesRepository.creditStock(
+                optionalVaccinationSessions.get().getHealthFacility().getId(),
+                optionalVaccinationSessions.get().getVaccine().getId(),
+                optionalVaccinationSessions.get().getQuantity());
     }
 
     /**
-     * Can't update the health facility of vaccination session
+     * Cancel the bookings of a session in one transaction: the waitlist is closed, the holds are dropped and the passes
+     * that are not vaccinated yet are cancelled. Seats released through the ledger become free once it commits.
      */
+    @Transactional
+    public int cancelAllVaccinationPass(Long id) {
+        waitlistService.cancelAllByVaccinationSession(id);
+        bookingHoldService.deleteAllByVaccinationSession(id);
+        return vaccinationPassService.deleteAllByVaccinationSession(id);
+    }
+
+    /**
+     * Can't update the health facility of vaccination session. The stock of the current vaccine is given back
+     * before the requested one is taken, both are rolled back when the requested stock is not enough.
+     * Once the session is booked only its quantity can be increased, the extra seats are taken from the stock.
+     * The row is only written while nobody booked it, the entity read here is never saved so a booking committed
+     * meanwhile isn't overwritten.
+     */
+    @Transactional
     public VaccinationSessionRequest update(Long id, VaccinationSessionRequest request) throws BusinessFlowException {
+        sessionCapacityLedger.evict(id);
         Optional<VaccinationSessions> optionalVaccinationSessions = vaccinationSessionsRepository.findById(id);
         if (optionalVaccinationSessions.isEmpty()) {
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Vaccination session not found!");
@@ -135,7 +201,7 @@ public class VaccinationSessionService {
         VaccinationSessions vaccinationSessions = optionalVaccinationSessions.get();
 
         if (vaccinationSessions.getBooked() > 0) {
-            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.VACCINATION_SESSION_ALREADY_BOOKED, "Can't update vaccination session because already booked!");
+            return increaseQuantity(vaccinationSessions, request);
         }
 
         Optional<Vaccine> optionalVaccine = vaccineRepository.findById(request.getVaccine().getId());
@@ -143,47 +209,18 @@ public class VaccinationSessionService {
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Vaccine not found!");
         }
 
-        HealthFacilitiesVaccines.HealthFacilitiesVaccinesId requestedHealthFacilitiesVaccinesId = new HealthFacilitiesVaccines.HealthFacilitiesVaccinesId(
+        healthFacilitiesVaccinesRepository.creditStock(
                 vaccinationSessions.getHealthFacility().getId(),
-                request.getVaccine().getId()
-        );
-
-        HealthFacilitiesVaccines.HealthFacilitiesVaccinesId healthFacilitiesVaccinesId = new HealthFacilitiesVaccines.HealthFacilitiesVaccinesId(
-                vaccinationSessions.getHealthFacility().getId(),
-                vaccinationSessions.getVaccine().getId()
-        );
-
-        HealthFacilitiesVaccines requestedHealthFacilitiesVaccines;
-
-        Optional<HealthFacilitiesVaccines> optionalHealthFacilitiesVaccines = healthFacilitiesVaccinesRepository.findById(healthFacilitiesVaccinesId);
-        HealthFacilitiesVaccines currentHealthFacilitiesVaccines = optionalHealthFacilitiesVaccines.get();
-        Optional<HealthFacilitiesVaccines> optionalRequestedHealthFacilitiesVaccines = healthFacilitiesVaccinesRepository.findById(requestedHealthFacilitiesVaccinesId);
-        if (optionalRequestedHealthFacilitiesVaccines.isEmpty()) {
-            requestedHealthFacilitiesVaccines = HealthFacilitiesVaccines.builder()
-                    .healthFacility(vaccinationSessions.getHealthFacility())
-                    .vaccine(optionalVaccine.get())
-                    .stock(0L)
-                    .build();
-            healthFacilitiesVaccinesRepository.save(requestedHealthFacilitiesVaccines);
-        } else {
-            requestedHealthFacilitiesVaccines = optionalRequestedHealthFacilitiesVaccines.get();
-        }
-
-        currentHealthFacilitiesVaccines.setStock(currentHealthFacilitiesVaccines.getStock() + vaccinationSessions.getQuantity());
-        if (requestedHealthFacilitiesVaccines.getStock() < request.getQuantity()) {
+                vaccinationSessions.getVaccine().getId(),
+                vaccinationSessions.getQuantity());
+        if (healthFacilitiesVaccinesRepository.debitStock(vaccinationSessions.getHealthFacility().getId(), optionalVaccine.get().getId(), request.getQuantity()) == 0) {
             throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.STOCK_NOT_VALID, "Stock is not enough!");
         }
-        requestedHealthFacilitiesVaccines.setStock(requestedHealthFacilitiesVaccines.getStock() - request.getQuantity());
-
-        healthFacilitiesVaccinesRepository.save(currentHealthFacilitiesVaccines);
-        healthFacilitiesVaccinesRepository.save(requestedHealthFacilitiesVaccines);
 
-        vaccinationSessions.setVaccine(optionalVaccine.get());
-        vaccinationSessions.setScheduleDate(request.getScheduleDate());
-        vaccinationSessions.setScheduleTimeStart(request.getScheduleTimeStart());
-        vaccinationSessions.setScheduleTimeEnd(request.getScheduleTimeEnd());
-        vaccinationSessions.setQuantity(request.getQuantity());
-        vaccinationSessionsRepository.save(vaccinationSessions);
+        if (vaccinationSessionsRepository.updateUnbookedById(id, optionalVaccine.get().getId(), request.getScheduleDate(),
+                request.getScheduleTimeStart(), request.getScheduleTimeEnd(), request.getQuantity()) == 0) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.VACCINATION_SESSION_ALREADY_BOOKED, "Can't update vaccination session because already booked!");
+        }
 
         return VaccinationSessionRequest.builder()
                 .id(vaccinationSessions.getId())
@@ -195,19 +232,34 @@ public class VaccinationSessionService {
                         .id(vaccinationSessions.getHealthFacility().getId())
                         .name(vaccinationSessions.getHealthFacility().getName())
                         .build())
-                .scheduleDate(vaccinationSessions.getScheduleDate())
-                .scheduleTimeStart(vaccinationSessions.getScheduleTimeStart())
-                .scheduleTimeEnd(vaccinationSessions.getScheduleTimeEnd())
-                .quantity(vaccinationSessions.getQuantity())
-                .booked(vaccinationSessions.getBooked())
+                .scheduleDate(request.getScheduleDate())
+                .scheduleTimeStart(request.getScheduleTimeStart())
+                .scheduleTimeEnd(request.getScheduleTimeEnd())
+                .quantity(request.getQuantity())
+                .booked(0L)
                 .build();
     }
 
-    public VaccinationSessionRequest find(Long id) {
-        Optional<VaccinationSessions> optionalVaccinationSessions = vaccinationSessionsRepository.findById(id);
-        if (optionalVaccinationSessions.isEmpty())
-            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "Vaccination session not found!");
-        VaccinationSessions vaccinationSessions = optionalVaccinationSessions.get();
+    /**
+     * Add seats to a booked session. The booked count is not written, bookings keep updating it while this runs
+     */
+    private VaccinationSessionRequest increaseQuantity(VaccinationSessions vaccinationSessions, VaccinationSessionRequest request) throws BusinessFlowException {
+        boolean unchanged = vaccinationSessions.getVaccine().getId().equals(request.getVaccine().getId())
+                && Objects.equals(vaccinationSessions.getScheduleDate(), request.getScheduleDate())
+                && Objects.equals(vaccinationSessions.getScheduleTimeStart(), request.getScheduleTimeStart())
+                && Objects.equals(vaccinationSessions.getScheduleTimeEnd(), request.getScheduleTimeEnd());
+        if (!unchanged || request.getQuantity() < vaccinationSessions.getQuantity()) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.VACCINATION_SESSION_ALREADY_BOOKED, "Can't update vaccination session because already booked, only the quantity can be increased!");
+        }
+
+        long extra = request.getQuantity() - vaccinationSessions.getQuantity();
+        if (extra > 0) {
+            if (healthFacilitiesVaccinesRepository.debitStock(vaccinationSessions.getHealthFacility().getId(), vaccinationSessions.getVaccine().getId(), extra) == 0) {
+                throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.STOCK_NOT_VALID, "Stock is not enough!");
+            }
+            vaccinationSessionsRepository.incrementQuantity(vaccinationSessions.getId(), extra);
+        }
+
         return VaccinationSessionRequest.builder()
                 .id(vaccinationSessions.getId())
                 .vaccine(VaccineRequest.builder()
@@ -221,37 +273,53 @@ public class VaccinationSessionService {
                 .scheduleDate(vaccinationSessions.getScheduleDate())
                 .scheduleTimeStart(vaccinationSessions.getScheduleTimeStart())
                 .scheduleTimeEnd(vaccinationSessions.getScheduleTimeEnd())
-                .quantity(vaccinationSessions.getQuantity())
+                .quantity(request.getQuantity())
                 .booked(vaccinationSessions.getBooked())
                 .build();
     }
 
-    public List<VaccinationSessionRequest> findAll(Long healthFacilityId) {
-        List<VaccinationSessions> vaccinationSessionsList;
+    public VaccinationSessionRequest find(Long id) {
+        Optional<VaccinationSessionView> optionalVaccinationSessions = vaccinationSessionsRepository.findViewById(id);
+        if (optionalVaccinationSessions.isEmpty())
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "Vaccination session not found!");
+        return toRequest(optionalVaccinationSessions.get());
+    }
+
+    public CursorPage<VaccinationSessionRequest> findAll(Long healthFacilityId, String cursor, Integer limit) throws BusinessFlowException {
+        long afterId = Cursor.after(cursor);
+        int pageSize = Cursor.limit(limit);
+        List<VaccinationSessionView> vaccinationSessionsList;
         if (healthFacilityId == null) {
-            vaccinationSessionsList = vaccinationSessionsRepository.findAll();
+            vaccinationSessionsList = vaccinationSessionsRepository.findViewsByIdGreaterThan(afterId, Cursor.pageable(pageSize));
         } else {
-            vaccinationSessionsList = vaccinationSessionsRepository.findAllByHealthFacilityId(healthFacilityId);
+            vaccinationSessionsList = vaccinationSessionsRepository.findViewsByHealthFacilityIdAndIdGreaterThan(healthFacilityId, afterId, Cursor.pageable(pageSize));
         }
         List<VaccinationSessionRequest> vaccinationSessionRequests = new ArrayList<>();
-        for(VaccinationSessions vaccinationSessions : vaccinationSessionsList) {
-            vaccinationSessionRequests.add(VaccinationSessionRequest.builder()
-                    .id(vaccinationSessions.getId())
-                    .vaccine(VaccineRequest.builder()
-                            .id(vaccinationSessions.getVaccine().getId())
-                            .name(vaccinationSessions.getVaccine().getName())
-                            .build())
-                    .healthFacility(HealthFacilityRequest.builder()
-                            .id(vaccinationSessions.getHealthFacility().getId())
-                            .name(vaccinationSessions.getHealthFacility().getName())
-                            .build())
-                    .scheduleDate(vaccinationSessions.getScheduleDate())
-                    .scheduleTimeStart(vaccinationSessions.getScheduleTimeStart())
-                    .scheduleTimeEnd(vaccinationSessions.getScheduleTimeEnd())
-                    .quantity(vaccinationSessions.getQuantity())
-                    .booked(vaccinationSessions.getBooked())
-                    .build());
+        for(VaccinationSessionView vaccinationSessions : Cursor.items(vaccinationSessionsList, pageSize)) {
+            vaccinationSessionRequests.add(toRequest(vaccinationSessions));
         }
-        return vaccinationSessionRequests;
+        return CursorPage.<VaccinationSessionRequest>builder()
+                .items(vaccinationSessionRequests)
+                .nextCursor(Cursor.next(vaccinationSessionsList, pageSize, VaccinationSessionView::getId))
+                .build();
+    }
+
+    private static VaccinationSessionRequest toRequest(VaccinationSessionView vaccinationSessions) {
+        return VaccinationSessionRequest.builder()
+                .id(vaccinationSessions.getId())
+                .vaccine(VaccineRequest.builder()
+                        .id(vaccinationSessions.getVaccineId())
+                        .name(vaccinationSessions.getVaccineName())
+                        .build())
+                .healthFacility(HealthFacilityRequest.builder()
+                        .id(vaccinationSessions.getHealthFacilityId())
+                        .name(vaccinationSessions.getHealthFacilityName())
+                        .build())
+                .scheduleDate(vaccinationSessions.getScheduleDate())
+                .scheduleTimeStart(vaccinationSessions.getScheduleTimeStart())
+                .scheduleTimeEnd(vaccinationSessions.getScheduleTimeEnd())
+                .quantity(vaccinationSessions.getQuantity())
+                .booked(vaccinationSessions.getBooked())
+                .build();
     }
 }
@@ -0,0 +1,224 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.constant.WaitlistStatus;
+import com.evizy.evizy.domain.dao.FamilyMembers;
+import com.evizy.evizy.domain.dao.Users;
+import com.evizy.evizy.domain.dao.VaccinationSessions;
+import com.evizy.evizy.domain.dao.WaitlistEntry;
+import com.evizy.evizy.domain.dto.*;
+import com.evizy.evizy.errors.BusinessFlowException;
+import com.evizy.evizy.repository.FamilyMembersRepository;
+import com.evizy.evizy.repository.VaccinationSessionsRepository;
+import com.evizy.evizy.repository.WaitlistEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * First come first served waitlist for full vaccination sessions. Freed seats are handed to the head of the
+ * waitlist as a vaccination pass, users follow their entry instead of retrying the booking.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistService {
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final VaccinationSessionsRepository vaccinationSessionsRepository;
+    private final FamilyMembersRepository familyMembersRepository;
+    private final VaccinationPassService vaccinationPassService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Queue a booking, it is promoted right away when the session still has a free seat
+     */
+    public WaitlistEntryRequest join(VaccinationPassRequest request) throws BusinessFlowException {
+        Optional<VaccinationSessions> optionalVaccinationSessions = vaccinationSessionsRepository.findById(request.getVaccinationSession().getId());
+        if (optionalVaccinationSessions.isEmpty()) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "Vaccination session not found!");
+        }
+
+        FamilyMembers familyMember = null;
+        if (request.getFamilyMember() != null && request.getFamilyMember().getId() != null) {
+            Optional<FamilyMembers> optionalFamilyMembers = familyMembersRepository.findById(request.getFamilyMember().getId());
+            if (optionalFamilyMembers.isEmpty() || !optionalFamilyMembers.get().getUsers().getId().equals(request.getRegisteredBy().getId())) {
+                throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "Family member not found or not the part of the auth user!");
+            }
+            familyMember = optionalFamilyMembers.get();
+        }
+
+        Long familyMemberId = familyMember == null ? null : familyMember.getId();
+        boolean waiting = waitlistEntryRepository.findAllByRegisteredByIdAndVaccinationSessionsIdAndStatus(
+                        request.getRegisteredBy().getId(), request.getVaccinationSession().getId(), WaitlistStatus.WAITING)
+                .stream()
+                .anyMatch(e -> Objects.equals(familyMemberId, e.getFamilyMembers() == null ? null : e.getFamilyMembers().getId()));
+        if (waiting) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.ALREADY_EXIST, "Already on the waitlist!");
+        }
+
+        WaitlistEntry waitlistEntry = WaitlistEntry.builder()
+                .registeredBy(Users.builder()
+                        .id(request.getRegisteredBy().getId())
+                        .build())
+                .vaccinationSessions(optionalVaccinationSessions.get())
+                .familyMembers(familyMember)
+                .status(WaitlistStatus.WAITING)
+                .isPregnant(request.getIsPregnant())
+                .medicalHistory(request.getMedicalHistory())
+                .ageCategory(request.getAgeCategory())
+                .idAddress(request.getIdAddress())
+                .idUrbanVillage(request.getIdUrbanVillage())
+                .idSubDistrict(request.getIdSubDistrict())
+                .idCity(request.getIdCity())
+                .idProvince(request.getIdProvince())
+                .currAddress(request.getCurrAddress())
+                .currUrbanVillage(request.getCurrUrbanVillage())
+                .currSubDistrict(request.getCurrSubDistrict())
+                .currCity(request.getCurrCity())
+                .currProvince(request.getCurrProvince())
+                .build();
+        waitlistEntryRepository.save(waitlistEntry);
+
+        promote(request.getVaccinationSession().getId());
+        return find(waitlistEntry.getId(), request.getRegisteredBy().getId());
+    }
+
+    public WaitlistEntryRequest find(Long id, Long userId) throws BusinessFlowException {
+        WaitlistEntry waitlistEntry = findOwned(id, userId);
+
+        WaitlistEntryRequest response = WaitlistEntryRequest.builder()
+                .id(waitlistEntry.getId())
+                .registeredBy(UsersRequest.builder()
+                        .id(waitlistEntry.getRegisteredBy().getId())
+                        .build())
+                .vaccinationSession(VaccinationSessionRequest.builder()
+                        .id(waitlistEntry.getVaccinationSessions().getId())
+                        .build())
+                .status(waitlistEntry.getStatus())
+                .build();
+
+        if (waitlistEntry.getFamilyMembers() != null) {
+            response.setFamilyMember(FamilyMembersRequest.builder()
+                    .id(waitlistEntry.getFamilyMembers().getId())
+                    .build());
+        }
+        if (waitlistEntry.getVaccinationPass() != null) {
+            response.setVaccinationPass(VaccinationPassRequest.builder()
+                    .id(waitlistEntry.getVaccinationPass().getId())
+                    .build());
+        }
+        if (WaitlistStatus.WAITING.equals(waitlistEntry.getStatus())) {
+            response.setPosition(waitlistEntryRepository.countByVaccinationSessionsIdAndStatusAndIdLessThan(
+                    waitlistEntry.getVaccinationSessions().getId(), WaitlistStatus.WAITING, waitlistEntry.getId()) + 1);
+        }
+        return response;
+    }
+
+    public void delete(Long id, Long userId) throws BusinessFlowException {
+        WaitlistEntry waitlistEntry = findOwned(id, userId);
+        if (!WaitlistStatus.WAITING.equals(waitlistEntry.getStatus())) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.BAD_REQUEST, "Waitlist entry is no longer waiting!");
+        }
+        waitlistEntryRepository.delete(waitlistEntry);
+    }
+
+    /**
+     * Close the waitlist of a cancelled session so the released seats aren't handed out again
+     */
+    public int cancelAllByVaccinationSession(Long vaccinationSessionId) {
+        Integer cancelled = transactionTemplate.execute(status -> waitlistEntryRepository.updateAllStatusByVaccinationSessionId(
+                vaccinationSessionId, WaitlistStatus.WAITING, WaitlistStatus.CANCELLED));
+        return cancelled == null ? 0 : cancelled;
+    }
+
+    /**
+     * Hand free seats of the session to the waitlist in order, each promotion runs in its own transaction.
+     * An entry the booking rules reject is marked failed, on any other error it stays waiting for the next sweep.
+     */
+    public void promote(Long vaccinationSessionId) {
+        while (true) {
+            Optional<WaitlistEntry> optionalWaitlistEntry = waitlistEntryRepository.findFirstByVaccinationSessionsIdAndStatusOrderByIdAsc(
+                    vaccinationSessionId, WaitlistStatus.WAITING);
+            if (optionalWaitlistEntry.isEmpty()) {
+                return;
+            }
+
+            WaitlistEntry waitlistEntry = optionalWaitlistEntry.get();
+            try {
+                Boolean promoted = transactionTemplate.execute(status -> {
+                    if (waitlistEntryRepository.updateStatus(waitlistEntry.getId(), WaitlistStatus.WAITING, WaitlistStatus.PROMOTED) == 0) {
+                        return true;
+                    }
+                    if (!vaccinationPassService.reserveSeat(vaccinationSessionId)) {
+                        status.setRollbackOnly();
+                        return false;
+                    }
+                    VaccinationPassRequest vaccinationPass = vaccinationPassService.createReserved(toVaccinationPassRequest(waitlistEntry));
+                    waitlistEntryRepository.updateVaccinationPass(waitlistEntry.getId(), vaccinationPass.getId());
+                    return true;
+                });
+                if (!Boolean.TRUE.equals(promoted)) {
+                    return;
+                }
+            } catch (BusinessFlowException e) {
+                log.warn("Rejected waitlist entry {}: {}", waitlistEntry.getId(), e.getMessage());
+                transactionTemplate.execute(status -> waitlistEntryRepository.updateStatus(
+                        waitlistEntry.getId(), WaitlistStatus.WAITING, WaitlistStatus.FAILED));
+            } catch (RuntimeException e) {
+                log.error("Failed to promote waitlist entry {}, will retry: {}", waitlistEntry.getId(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Safety net for seats freed without a promotion, e.g. when the instance stopped in between
+     */
+    @Scheduled(fixedDelayString = "${app.booking.waitlist.sweep-interval-ms:60000}")
+    public void promoteAll() {
+        for (Long vaccinationSessionId : waitlistEntryRepository.findAllVaccinationSessionIdsByStatus(WaitlistStatus.WAITING)) {
+            promote(vaccinationSessionId);
+        }
+    }
+
+    private WaitlistEntry findOwned(Long id, Long userId) throws BusinessFlowException {
+        Optional<WaitlistEntry> optionalWaitlistEntry = waitlistEntryRepository.findById(id);
+        if (optionalWaitlistEntry.isEmpty() || !optionalWaitlistEntry.get().getRegisteredBy().getId().equals(userId)) {
+            throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.NOT_FOUND, "Waitlist entry not found!");
+        }
+        return optionalWaitlistEntry.get();
+    }
+
+    private VaccinationPassRequest toVaccinationPassRequest(WaitlistEntry waitlistEntry) {
+        return VaccinationPassRequest.builder()
+                .registeredBy(UsersRequest.builder()
+                        .id(waitlistEntry.getRegisteredBy().getId())
+                        .build())
+                .vaccinationSession(VaccinationSessionRequest.builder()
+                        .id(waitlistEntry.getVaccinationSessions().getId())
+                        .build())
+                .familyMember(waitlistEntry.getFamilyMembers() == null ? null : FamilyMembersRequest.builder()
+                        .id(waitlistEntry.getFamilyMembers().getId())
+                        .build())
+                .isPregnant(waitlistEntry.getIsPregnant())
+                .medicalHistory(waitlistEntry.getMedicalHistory())
+                .ageCategory(waitlistEntry.getAgeCategory())
+                .idAddress(waitlistEntry.getIdAddress())
+                .idUrbanVillage(waitlistEntry.getIdUrbanVillage())
+                .idSubDistrict(waitlistEntry.getIdSubDistrict())
+                .idCity(waitlistEntry.getIdCity())
+                .idProvince(waitlistEntry.getIdProvince())
+                .currAddress(waitlistEntry.getCurrAddress())
+                .currUrbanVillage(waitlistEntry.getCurrUrbanVillage())
+                .currSubDistrict(waitlistEntry.getCurrSubDistrict())
+                .currCity(waitlistEntry.getCurrCity())
+                .currProvince(waitlistEntry.getCurrProvince())
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.evizy.evizy.util;
+
+import com.evizy.evizy.domain.dto.CitizenResponse;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+public class CitizenParser {
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+    private static final ObjectReader CITIZEN_READER = MAPPER.readerFor(CitizenResponse.class);
+
+    /**
+     * Read the citizen list one element at a time and stop at the first citizen with the NIK,
+     * the citizens after it are never parsed and the list is never held in memory
+     */
+    public static Optional<CitizenResponse> find(InputStream inputStream, String nik) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Citizen list is not an array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                CitizenResponse citizen = CITIZEN_READER.readValue(parser);
+                if (citizen.getNik() != null && citizen.getNik().equalsIgnoreCase(nik)) {
+                    return Optional.of(citizen);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
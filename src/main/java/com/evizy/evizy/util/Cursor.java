@@ -0,0 +1,76 @@
+package com.evizy.evizy.util;
+
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.errors.BusinessFlowException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination on id. The cursor is the opaque form of the last id of a page, the next page is read with
+ * id > that id in index order, so every page costs the same however deep it is.
+ */
+public class Cursor {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private static final String PREFIX = "id:";
+
+    /**
+     * The id after which the page starts, 0 without a cursor
+     */
+    public static long after(String cursor) throws BusinessFlowException {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(PREFIX)) {
+                return Long.parseLong(decoded.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through to the invalid cursor below
+        }
+        throw new BusinessFlowException(HttpStatus.BAD_REQUEST, ResponseMessage.INVALID_CURSOR, "Invalid cursor!");
+    }
+
+    public static String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The requested page size bounded to MAX_LIMIT, DEFAULT_LIMIT when not given
+     */
+    public static int limit(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * One row more than the page size is read to know whether there is a next page without counting
+     */
+    public static Pageable pageable(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    /**
+     * The rows of the page, without the extra row read by pageable
+     */
+    public static <E> List<E> items(List<E> rows, int limit) {
+        return rows.size() > limit ? rows.subList(0, limit) : rows;
+    }
+
+    /**
+     * The cursor of the page after this one, null when the extra row wasn't there
+     */
+    public static <E> String next(List<E> rows, int limit, Function<E, Long> id) {
+        return rows.size() > limit ? encode(id.apply(rows.get(limit - 1))) : null;
+    }
+}
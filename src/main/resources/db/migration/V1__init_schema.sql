@@ -0,0 +1,145 @@
+-- Tables hibernate ddl-auto=update created before the migrations, with the identity ids of PostgreSQL10Dialect.
+-- Existing databases are baselined at this version, those created on PostgreSQL 9.x have bigserial ids instead
+-- and random foreign key names, V4 handles both kinds of id.
+
+CREATE TABLE admins (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at     TIMESTAMP    NOT NULL,
+    updated_at     TIMESTAMP,
+    deleted_at     TIMESTAMP,
+    username       VARCHAR(255) NOT NULL,
+    password       VARCHAR(255) NOT NULL,
+    name           VARCHAR(255) NOT NULL,
+    active         BOOLEAN DEFAULT TRUE,
+    is_super_admin BOOLEAN DEFAULT FALSE
+);
+
+CREATE TABLE users (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at    TIMESTAMP    NOT NULL,
+    updated_at    TIMESTAMP,
+    deleted_at    TIMESTAMP,
+    nik           VARCHAR(255) NOT NULL,
+    email         VARCHAR(255),
+    password      VARCHAR(255) NOT NULL,
+    name          VARCHAR(255) NOT NULL,
+    date_of_birth DATE,
+    phone_number  VARCHAR(255),
+    gender        CHAR(1),
+    active        BOOLEAN DEFAULT TRUE
+);
+
+CREATE TABLE cities (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at TIMESTAMP    NOT NULL,
+    updated_at TIMESTAMP,
+    deleted_at TIMESTAMP,
+    name       VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE vaccines (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at TIMESTAMP    NOT NULL,
+    updated_at TIMESTAMP,
+    deleted_at TIMESTAMP,
+    name       VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE health_facilities (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at TIMESTAMP    NOT NULL,
+    updated_at TIMESTAMP,
+    deleted_at TIMESTAMP,
+    name       VARCHAR(255) NOT NULL,
+    admin_id   BIGINT CONSTRAINT fk_health_facilities_admin REFERENCES admins,
+    city_id    BIGINT CONSTRAINT fk_health_facilities_city REFERENCES cities
+);
+
+CREATE TABLE health_facilities_vaccines (
+    health_facility_id BIGINT NOT NULL CONSTRAINT fk_health_facilities_vaccines_health_facility REFERENCES health_facilities,
+    vaccine_id         BIGINT NOT NULL CONSTRAINT fk_health_facilities_vaccines_vaccine REFERENCES vaccines,
+    stock              BIGINT NOT NULL,
+    PRIMARY KEY (health_facility_id, vaccine_id)
+);
+
+CREATE TABLE news (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at  TIMESTAMP    NOT NULL,
+    updated_at  TIMESTAMP,
+    deleted_at  TIMESTAMP,
+    title       VARCHAR(255) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    content     VARCHAR(255) NOT NULL,
+    admin_id    BIGINT CONSTRAINT fk_news_admin REFERENCES admins
+);
+
+CREATE TABLE family_members (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at    TIMESTAMP    NOT NULL,
+    updated_at    TIMESTAMP,
+    deleted_at    TIMESTAMP,
+    users_id      BIGINT CONSTRAINT fk_family_members_users REFERENCES users,
+    nik           VARCHAR(255) NOT NULL,
+    name          VARCHAR(255) NOT NULL,
+    phone_number  VARCHAR(255) NOT NULL,
+    date_of_birth DATE,
+    gender        CHAR(1),
+    relationship  VARCHAR(255)
+);
+
+CREATE TABLE vaccination_sessions (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at          TIMESTAMP    NOT NULL,
+    updated_at          TIMESTAMP,
+    deleted_at          TIMESTAMP,
+    health_facility_id  BIGINT CONSTRAINT fk_vaccination_sessions_health_facility REFERENCES health_facilities,
+    vaccine_id          BIGINT CONSTRAINT fk_vaccination_sessions_vaccine REFERENCES vaccines,
+    schedule_date       DATE         NOT NULL,
+    schedule_time_start VARCHAR(255) NOT NULL,
+    schedule_time_end   VARCHAR(255) NOT NULL,
+    quantity            BIGINT       NOT NULL,
+    booked              BIGINT       NOT NULL
+);
+
+CREATE TABLE vaccination_pass (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at              TIMESTAMP    NOT NULL,
+    updated_at              TIMESTAMP,
+    deleted_at              TIMESTAMP,
+    vaccination_sessions_id BIGINT CONSTRAINT fk_vaccination_pass_vaccination_sessions REFERENCES vaccination_sessions,
+    registered_by_id        BIGINT CONSTRAINT fk_vaccination_pass_registered_by REFERENCES users,
+    family_members_id       BIGINT CONSTRAINT fk_vaccination_pass_family_members REFERENCES family_members,
+    vaccine_id              BIGINT CONSTRAINT fk_vaccination_pass_vaccine REFERENCES vaccines,
+    nik                     VARCHAR(255) NOT NULL,
+    name                    VARCHAR(255) NOT NULL,
+    date_of_birth           DATE         NOT NULL,
+    phone_number            VARCHAR(255) NOT NULL,
+    landline_phone          VARCHAR(255),
+    email                   VARCHAR(255),
+    gender                  CHAR(1)      NOT NULL,
+    age_category            VARCHAR(255),
+    is_vaccinated           BOOLEAN      NOT NULL,
+    is_pregnant             BOOLEAN      NOT NULL,
+    medical_history         VARCHAR(255),
+    id_address              VARCHAR(255),
+    id_urban_village        VARCHAR(255),
+    id_sub_district         VARCHAR(255),
+    id_city                 VARCHAR(255),
+    id_province             VARCHAR(255),
+    curr_address            VARCHAR(255),
+    curr_urban_village      VARCHAR(255),
+    curr_sub_district       VARCHAR(255),
+    curr_city               VARCHAR(255),
+    curr_province           VARCHAR(255)
+);
+
+CREATE TABLE vaccine_distribution (
+    id                     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at             TIMESTAMP NOT NULL,
+    updated_at             TIMESTAMP,
+    deleted_at             TIMESTAMP,
+    health_facility_id     BIGINT CONSTRAINT fk_vaccine_distribution_health_facility REFERENCES health_facilities,
+    vaccination_session_id BIGINT CONSTRAINT fk_vaccine_distribution_vaccination_session REFERENCES vaccination_sessions,
+    vaccine_id             BIGINT CONSTRAINT fk_vaccine_distribution_vaccine REFERENCES vaccines,
+    quantity               BIGINT    NOT NULL
+);
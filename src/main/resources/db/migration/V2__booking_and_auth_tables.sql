@@ -0,0 +1,69 @@
+-- Tables added after the baseline: booking holds and the waitlist, the citizen registry copy and the token stores.
+
+CREATE TABLE booking_holds (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    vaccination_sessions_id BIGINT CONSTRAINT fk_booking_holds_vaccination_sessions REFERENCES vaccination_sessions,
+    registered_by_id        BIGINT CONSTRAINT fk_booking_holds_registered_by REFERENCES users,
+    family_members_id       BIGINT CONSTRAINT fk_booking_holds_family_members REFERENCES family_members,
+    expires_at              TIMESTAMP NOT NULL
+);
+
+CREATE TABLE waitlist_entries (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at              TIMESTAMP    NOT NULL,
+    updated_at              TIMESTAMP,
+    deleted_at              TIMESTAMP,
+    vaccination_sessions_id BIGINT CONSTRAINT fk_waitlist_entries_vaccination_sessions REFERENCES vaccination_sessions,
+    registered_by_id        BIGINT CONSTRAINT fk_waitlist_entries_registered_by REFERENCES users,
+    family_members_id       BIGINT CONSTRAINT fk_waitlist_entries_family_members REFERENCES family_members,
+    vaccination_pass_id     BIGINT CONSTRAINT fk_waitlist_entries_vaccination_pass REFERENCES vaccination_pass,
+    status                  VARCHAR(255) NOT NULL,
+    medical_history         VARCHAR(255),
+    age_category            VARCHAR(255),
+    is_pregnant             BOOLEAN,
+    id_address              VARCHAR(255),
+    id_urban_village        VARCHAR(255),
+    id_sub_district         VARCHAR(255),
+    id_city                 VARCHAR(255),
+    id_province             VARCHAR(255),
+    curr_address            VARCHAR(255),
+    curr_urban_village      VARCHAR(255),
+    curr_sub_district       VARCHAR(255),
+    curr_city               VARCHAR(255),
+    curr_province           VARCHAR(255)
+);
+
+CREATE TABLE citizens (
+    nik           VARCHAR(255) PRIMARY KEY,
+    citizen_id    BIGINT,
+    name          VARCHAR(255),
+    date_of_birth DATE,
+    gender        CHAR(1)
+);
+
+CREATE TABLE citizen_sync_state (
+    id            VARCHAR(255) PRIMARY KEY,
+    etag          VARCHAR(255),
+    last_modified VARCHAR(255),
+    synced_at     TIMESTAMP
+);
+
+CREATE TABLE refresh_tokens (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_hash VARCHAR(255) NOT NULL UNIQUE,
+    family_id  VARCHAR(255) NOT NULL,
+    user_id    BIGINT,
+    admin_id   BIGINT,
+    expires_at TIMESTAMP    NOT NULL,
+    used_at    TIMESTAMP,
+    revoked_at TIMESTAMP
+);
+
+CREATE TABLE revoked_tokens (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    jti        VARCHAR(255) NOT NULL UNIQUE,
+    expires_at TIMESTAMP    NOT NULL,
+    revoked_at TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS revoked_tokens_revoked_at_idx ON revoked_tokens (revoked_at);
@@ -0,0 +1,42 @@
+-- Indexes for the lookups the services run. Soft deleted rows are left out of the indexes of tables read through
+-- @Where(clause = "deleted_at IS NULL"), the keyset listings filter on the parent id and page by id.
+
+-- ddl-auto=update never made these columns unique, stop with a readable message instead of a failed index build
+-- when a baselined database holds duplicates. Soft delete all but one row of each duplicate before migrating.
+DO $$
+DECLARE
+    duplicates BIGINT;
+BEGIN
+    SELECT COUNT(*) INTO duplicates FROM (
+        SELECT nik FROM users WHERE deleted_at IS NULL GROUP BY nik HAVING COUNT(*) > 1
+    ) duplicated;
+    IF duplicates > 0 THEN
+        RAISE EXCEPTION 'users.nik has % duplicated values among rows that are not deleted', duplicates;
+    END IF;
+
+    SELECT COUNT(*) INTO duplicates FROM (
+        SELECT username FROM admins WHERE deleted_at IS NULL GROUP BY username HAVING COUNT(*) > 1
+    ) duplicated;
+    IF duplicates > 0 THEN
+        RAISE EXCEPTION 'admins.username has % duplicated values among rows that are not deleted', duplicates;
+    END IF;
+END
+$$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS users_nik_uidx ON users (nik) WHERE deleted_at IS NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS admins_username_uidx ON admins (username) WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS cities_lower_name_idx ON cities (lower(name)) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS vaccines_lower_name_idx ON vaccines (lower(name)) WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS family_members_users_id_idx ON family_members (users_id, id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS health_facilities_city_id_idx ON health_facilities (city_id, id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS vaccination_sessions_health_facility_id_idx ON vaccination_sessions (health_facility_id, id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS vaccination_pass_registered_by_id_idx ON vaccination_pass (registered_by_id, id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS vaccination_pass_vaccination_sessions_id_idx ON vaccination_pass (vaccination_sessions_id) WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS waitlist_entries_vaccination_sessions_id_idx ON waitlist_entries (vaccination_sessions_id, status, id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS booking_holds_vaccination_sessions_id_idx ON booking_holds (vaccination_sessions_id, expires_at);
+CREATE INDEX IF NOT EXISTS refresh_tokens_family_id_idx ON refresh_tokens (family_id);
+CREATE INDEX IF NOT EXISTS refresh_tokens_expires_at_idx ON refresh_tokens (expires_at);
+CREATE INDEX IF NOT EXISTS revoked_tokens_expires_at_idx ON revoked_tokens (expires_at);
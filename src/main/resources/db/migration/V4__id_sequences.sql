@@ -0,0 +1,87 @@
+-- Ids come from sequences that hand out blocks of 50 (pooled-lo) instead of identity columns, so hibernate can batch
+-- inserts. Each sequence continues after the highest id already in its table. Databases created on PostgreSQL 9.x
+-- have bigserial ids, their default and the serial sequence are dropped as well.
+
+ALTER TABLE admins ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE admins ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS admins_id_seq;
+CREATE SEQUENCE admins_seq INCREMENT BY 50;
+SELECT setval('admins_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM admins), false);
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS users_id_seq;
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM users), false);
+
+ALTER TABLE cities ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE cities ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS cities_id_seq;
+CREATE SEQUENCE cities_seq INCREMENT BY 50;
+SELECT setval('cities_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM cities), false);
+
+ALTER TABLE vaccines ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE vaccines ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS vaccines_id_seq;
+CREATE SEQUENCE vaccines_seq INCREMENT BY 50;
+SELECT setval('vaccines_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM vaccines), false);
+
+ALTER TABLE health_facilities ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE health_facilities ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS health_facilities_id_seq;
+CREATE SEQUENCE health_facilities_seq INCREMENT BY 50;
+SELECT setval('health_facilities_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM health_facilities), false);
+
+ALTER TABLE news ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE news ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS news_id_seq;
+CREATE SEQUENCE news_seq INCREMENT BY 50;
+SELECT setval('news_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM news), false);
+
+ALTER TABLE family_members ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE family_members ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS family_members_id_seq;
+CREATE SEQUENCE family_members_seq INCREMENT BY 50;
+SELECT setval('family_members_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM family_members), false);
+
+ALTER TABLE vaccination_sessions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE vaccination_sessions ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS vaccination_sessions_id_seq;
+CREATE SEQUENCE vaccination_sessions_seq INCREMENT BY 50;
+SELECT setval('vaccination_sessions_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM vaccination_sessions), false);
+
+ALTER TABLE vaccination_pass ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE vaccination_pass ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS vaccination_pass_id_seq;
+CREATE SEQUENCE vaccination_pass_seq INCREMENT BY 50;
+SELECT setval('vaccination_pass_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM vaccination_pass), false);
+
+ALTER TABLE vaccine_distribution ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE vaccine_distribution ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS vaccine_distribution_id_seq;
+CREATE SEQUENCE vaccine_distribution_seq INCREMENT BY 50;
+SELECT setval('vaccine_distribution_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM vaccine_distribution), false);
+
+ALTER TABLE booking_holds ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE booking_holds ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS booking_holds_id_seq;
+CREATE SEQUENCE booking_holds_seq INCREMENT BY 50;
+SELECT setval('booking_holds_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM booking_holds), false);
+
+ALTER TABLE waitlist_entries ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE waitlist_entries ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS waitlist_entries_id_seq;
+CREATE SEQUENCE waitlist_entries_seq INCREMENT BY 50;
+SELECT setval('waitlist_entries_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM waitlist_entries), false);
+
+ALTER TABLE refresh_tokens ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE refresh_tokens ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS refresh_tokens_id_seq;
+CREATE SEQUENCE refresh_tokens_seq INCREMENT BY 50;
+SELECT setval('refresh_tokens_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM refresh_tokens), false);
+
+ALTER TABLE revoked_tokens ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE revoked_tokens ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS revoked_tokens_id_seq;
+CREATE SEQUENCE revoked_tokens_seq INCREMENT BY 50;
+SELECT setval('revoked_tokens_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM revoked_tokens), false);
@@ -0,0 +1,65 @@
+package com.evizy.evizy.benchmark;
+
+import com.evizy.evizy.domain.dao.Users;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Boots a slice of the application on an in-memory H2 database for the benchmarks.
+ * With BENCHMARK_DATASOURCE_URL set it runs on that PostgreSQL database instead, the environment is inherited by the
+ * forked JVM. Point it at an empty database, the schema is created and dropped like on H2.
+ */
+final class BenchmarkContext {
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(Class<?> configuration, String database, String... args) {
+        String url = System.getenv("BENCHMARK_DATASOURCE_URL");
+        List<String> arguments = new ArrayList<>();
+        if (url == null || url.isBlank()) {
+            arguments.addAll(Arrays.asList(
+                    "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                    "--spring.datasource.driverClassName=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+            ));
+        } else {
+            arguments.addAll(Arrays.asList(
+                    "--spring.datasource.url=" + url,
+                    "--spring.datasource.driverClassName=org.postgresql.Driver",
+                    "--spring.datasource.username=" + System.getenv().getOrDefault("BENCHMARK_DATASOURCE_USERNAME", "postgres"),
+                    "--spring.datasource.password=" + System.getenv().getOrDefault("BENCHMARK_DATASOURCE_PASSWORD", "")
+            ));
+        }
+        arguments.addAll(Arrays.asList(
+                "--spring.datasource.hikari.maximum-pool-size=16",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"
+        ));
+        arguments.addAll(Arrays.asList(args));
+        return new SpringApplicationBuilder(configuration)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(new String[0]));
+    }
+
+    static Users user() {
+        return Users.builder()
+                .nik("1234567890123456")
+                .name("User")
+                .password("password")
+                .phoneNumber("081234567890")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .gender('M')
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.evizy.evizy.benchmark;
+
+import com.evizy.evizy.domain.dao.Users;
+import com.evizy.evizy.domain.dao.VaccinationPass;
+import com.evizy.evizy.domain.dao.VaccinationSessions;
+import com.evizy.evizy.domain.dao.Vaccine;
+import com.evizy.evizy.domain.dto.UsersRequest;
+import com.evizy.evizy.domain.dto.VaccinationPassRequest;
+import com.evizy.evizy.domain.dto.VaccinationSessionRequest;
+import com.evizy.evizy.repository.UsersRepository;
+import com.evizy.evizy.repository.VaccinationPassRepository;
+import com.evizy.evizy.repository.VaccinationSessionsRepository;
+import com.evizy.evizy.repository.VaccineRepository;
+import com.evizy.evizy.service.SessionCapacityLedger;
+import com.evizy.evizy.service.VaccinationPassService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking throughput of VaccinationPassService.create against one hot session on H2,
+ * with the conditional update path (ledger=false) and the in-memory capacity ledger (ledger=true).
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath com.evizy.evizy.benchmark.BookingThroughputBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(16)
+public class BookingThroughputBenchmark {
+    @Param({"false", "true"})
+    public boolean ledger;
+
+    private ConfigurableApplicationContext context;
+    private VaccinationPassService vaccinationPassService;
+    private VaccinationPassRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(BookingConfiguration.class, "booking",
+                "--app.booking.ledger.enabled=" + ledger);
+        vaccinationPassService = context.getBean(VaccinationPassService.class);
+
+        Vaccine vaccine = context.getBean(VaccineRepository.class).save(Vaccine.builder()
+                .name("Sinovac")
+                .build());
+        Users user = context.getBean(UsersRepository.class).save(BenchmarkContext.user());
+        VaccinationSessions vaccinationSessions = context.getBean(VaccinationSessionsRepository.class).save(VaccinationSessions.builder()
+                .vaccine(vaccine)
+                .scheduleDate(LocalDate.now().plusDays(1))
+                .scheduleTimeStart("08:00")
+                .scheduleTimeEnd("12:00")
+                .quantity(Long.MAX_VALUE / 2)
+                .booked(0L)
+                .build());
+
+        request = VaccinationPassRequest.builder()
+                .vaccinationSession(VaccinationSessionRequest.builder()
+                        .id(vaccinationSessions.getId())
+                        .build())
+                .registeredBy(UsersRequest.builder()
+                        .id(user.getId())
+                        .build())
+                .isPregnant(false)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public VaccinationPassRequest create() {
+        return vaccinationPassService.create(request);
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = VaccinationPass.class)
+    @EnableJpaRepositories(basePackageClasses = VaccinationPassRepository.class)
+    @Import({VaccinationPassService.class, SessionCapacityLedger.class})
+    static class BookingConfiguration {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(BookingThroughputBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,124 @@
+package com.evizy.evizy.benchmark;
+
+import com.evizy.evizy.domain.dao.Users;
+import com.evizy.evizy.domain.dao.VaccinationPass;
+import com.evizy.evizy.domain.dao.VaccinationSessions;
+import com.evizy.evizy.domain.dao.Vaccine;
+import com.evizy.evizy.repository.UsersRepository;
+import com.evizy.evizy.repository.VaccinationPassRepository;
+import com.evizy.evizy.repository.VaccinationSessionsRepository;
+import com.evizy.evizy.repository.VaccineRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second of VaccinationPassRepository.insertAll for 100k passes,
+ * without JDBC batching (batchSize=1) and with hibernate.jdbc.batch_size=50 (batchSize=50).
+ * H2 runs in process, so there is no round trip to save. Set BENCHMARK_DATASOURCE_URL to an empty PostgreSQL database
+ * with the options of the application url (tcpNoDelay=true&reWriteBatchedInserts=true) to measure what batching saves,
+ * the gain grows with the round trip to the server.
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath com.evizy.evizy.benchmark.BulkInsertBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(BulkInsertBenchmark.ROWS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class BulkInsertBenchmark {
+    static final int ROWS = 100_000;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private VaccinationPassRepository vaccinationPassRepository;
+    private Users user;
+    private VaccinationSessions vaccinationSessions;
+    private List<VaccinationPass> vaccinationPasses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(BulkInsertConfiguration.class, "bulk-insert",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        vaccinationPassRepository = context.getBean(VaccinationPassRepository.class);
+
+        Vaccine vaccine = context.getBean(VaccineRepository.class).save(Vaccine.builder()
+                .name("Sinovac")
+                .build());
+        user = context.getBean(UsersRepository.class).save(BenchmarkContext.user());
+        vaccinationSessions = context.getBean(VaccinationSessionsRepository.class).save(VaccinationSessions.builder()
+                .vaccine(vaccine)
+                .scheduleDate(LocalDate.now().plusDays(1))
+                .scheduleTimeStart("08:00")
+                .scheduleTimeEnd("12:00")
+                .quantity((long) ROWS)
+                .booked(0L)
+                .build());
+    }
+
+    @Setup(Level.Invocation)
+    public void buildPasses() {
+        vaccinationPasses = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            vaccinationPasses.add(VaccinationPass.builder()
+                    .registeredBy(user)
+                    .vaccinationSessions(vaccinationSessions)
+                    .vaccine(vaccinationSessions.getVaccine())
+                    .nik(user.getNik())
+                    .name(user.getName())
+                    .dateOfBirth(user.getDateOfBirth())
+                    .phoneNumber(user.getPhoneNumber())
+                    .gender(user.getGender())
+                    .isVaccinated(false)
+                    .isPregnant(false)
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deletePasses() {
+        context.getBean(JdbcTemplate.class).update("DELETE FROM vaccination_pass");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<VaccinationPass> insertAll() {
+        return vaccinationPassRepository.insertAll(vaccinationPasses);
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = VaccinationPass.class)
+    @EnableJpaRepositories(basePackageClasses = VaccinationPassRepository.class)
+    static class BulkInsertConfiguration {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(BulkInsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
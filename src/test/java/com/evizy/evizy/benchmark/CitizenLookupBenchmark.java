@@ -0,0 +1,136 @@
+package com.evizy.evizy.benchmark;
+
+import com.evizy.evizy.config.BeanConfiguration;
+import com.evizy.evizy.constant.Endpoints;
+import com.evizy.evizy.domain.dao.Users;
+import com.evizy.evizy.domain.dto.CitizenResponse;
+import com.evizy.evizy.repository.UsersRepository;
+import com.evizy.evizy.service.UsersService;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking up one NIK in a synthetic list of 1M citizens served over HTTP on localhost, through the pooled client of
+ * BeanConfiguration: reading the whole array with getAllCitizen (full) and streaming it with an early exit and
+ * an aborted connection with findCitizen (streaming). The NIK sits at the start, the middle or the end of the list.
+ * Add -prof gc to the arguments to compare the allocation per lookup.
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath com.evizy.evizy.benchmark.CitizenLookupBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CitizenLookupBenchmark {
+    private static final int CITIZENS = 1_000_000;
+    private static final int CHUNK = 64 * 1024;
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double position;
+
+    private HttpServer citizenServer;
+    private ExecutorService citizenServerExecutor;
+    private ConfigurableApplicationContext context;
+    private UsersService usersService;
+    private String nik;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StringBuilder json = new StringBuilder(CITIZENS * 110).append('[');
+        for (int i = 0; i < CITIZENS; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i + 1)
+                    .append(",\"nik\":\"").append(nik(i))
+                    .append("\",\"name\":\"Warga ").append(i + 1)
+                    .append("\",\"gender\":\"").append(i % 2 == 0 ? 'M' : 'F')
+                    .append("\",\"date_of_birth\":\"1990-01-01\"}");
+        }
+        byte[] payload = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        nik = nik((int) Math.min(CITIZENS - 1, position * CITIZENS));
+
+        citizenServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        citizenServer.createContext("/api/v1/citizen", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(200, payload.length);
+                for (int offset = 0; offset < payload.length; offset += CHUNK) {
+                    outputStream.write(payload, offset, Math.min(CHUNK, payload.length - offset));
+                }
+            } catch (IOException e) {
+                // findCitizen aborted the connection after the match
+            }
+        });
+        citizenServerExecutor = Executors.newCachedThreadPool();
+        citizenServer.setExecutor(citizenServerExecutor);
+        citizenServer.start();
+        Endpoints.API_CITIZEN_BASE_URL = "http://localhost:" + citizenServer.getAddress().getPort();
+
+        context = BenchmarkContext.start(CitizenLookupConfiguration.class, "citizen-lookup");
+        usersService = context.getBean(UsersService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        citizenServer.stop(0);
+        citizenServerExecutor.shutdownNow();
+    }
+
+    private static String nik(int i) {
+        return String.valueOf(3200000000000000L + i);
+    }
+
+    @Benchmark
+    public Optional<CitizenResponse> full() {
+        CitizenResponse citizen = null;
+        for (CitizenResponse e : usersService.getAllCitizen()) {
+            if (e.getNik().equalsIgnoreCase(nik))
+                citizen = e;
+        }
+        return Optional.ofNullable(citizen);
+    }
+
+    @Benchmark
+    public Optional<CitizenResponse> streaming() {
+        return usersService.findCitizen(nik);
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Users.class)
+    @EnableJpaRepositories(basePackageClasses = UsersRepository.class)
+    @Import({UsersService.class, BeanConfiguration.class})
+    static class CitizenLookupConfiguration {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(CitizenLookupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,131 @@
+package com.evizy.evizy.benchmark;
+
+import com.evizy.evizy.config.JwtKeyRing;
+import com.evizy.evizy.config.JwtTokenProvider;
+import com.evizy.evizy.config.SecurityFilter;
+import com.evizy.evizy.domain.dao.Users;
+import com.evizy.evizy.repository.AdminRepository;
+import com.evizy.evizy.repository.RevokedTokenRepository;
+import com.evizy.evizy.repository.UsersRepository;
+import com.evizy.evizy.service.AccountStatusService;
+import com.evizy.evizy.service.TokenRevocationService;
+import com.evizy.evizy.service.UsersService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.security.Key;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of authenticating one request with a bearer token. legacy verifies the signature three times like the
+ * filter used to and loads the user, parseOnce verifies it once per request and cached reuses the claims of a verified
+ * token. Both build the principal from the claims and check the account status through its cache.
+ * The user lookups are stubbed so only the token handling is measured.
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath com.evizy.evizy.benchmark.SecurityFilterBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SecurityFilterBenchmark {
+    @Param({"legacy", "parseOnce", "cached"})
+    public String mode;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private SecurityFilter securityFilter;
+    private UsersService usersService;
+    private Key key;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Users user = BenchmarkContext.user();
+        user.setId(1L);
+        usersService = new UsersService() {
+            @Override
+            public UserDetails loadUserByUsername(String str) {
+                return user;
+            }
+        };
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "keys", "");
+        ReflectionTestUtils.setField(keyRing, "keystorePath", "");
+        keyRing.load();
+        jwtTokenProvider = new JwtTokenProvider(keyRing);
+        ReflectionTestUtils.setField(jwtTokenProvider, "expiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtTokenProvider, "maxCachedTokens", "cached".equals(mode) ? 10000 : 0);
+        key = keyRing.signingKey().getKey();
+        UsersRepository usersRepository = Mockito.mock(UsersRepository.class);
+        Mockito.when(usersRepository.findById(1L)).thenReturn(Optional.of(user));
+        AccountStatusService accountStatusService = new AccountStatusService(usersRepository, Mockito.mock(AdminRepository.class));
+        ReflectionTestUtils.setField(accountStatusService, "enabled", true);
+        ReflectionTestUtils.setField(accountStatusService, "ttlSeconds", 30L);
+        ReflectionTestUtils.setField(accountStatusService, "maxEntries", 10000);
+        TokenRevocationService tokenRevocationService = new TokenRevocationService(
+                Mockito.mock(RevokedTokenRepository.class), Mockito.mock(TransactionTemplate.class));
+        securityFilter = new SecurityFilter(jwtTokenProvider, accountStatusService, tokenRevocationService);
+        token = jwtTokenProvider.generateToken(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @Benchmark
+    public Authentication filter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users");
+        request.addHeader("Authorization", "Bearer " + token);
+        if ("legacy".equals(mode)) {
+            legacyFilter(request);
+        } else {
+            securityFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    /**
+     * The filter before parsing once, validateToken, getUsername and getIsAdmin each built a parser and verified
+     */
+    private void legacyFilter(MockHttpServletRequest request) {
+        String token = request.getHeader("Authorization").substring("Bearer ".length());
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        String username = (boolean) claims.get("is_admin") ? claims.get("admin_username").toString() : claims.get("user_nik").toString();
+        boolean isAdmin = (boolean) Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().get("is_admin");
+        UserDetails user = usersService.loadUserByUsername((isAdmin ? "admin_" : "user_") + username);
+        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                user, user.getPassword(), user.getAuthorities()
+        );
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(SecurityFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
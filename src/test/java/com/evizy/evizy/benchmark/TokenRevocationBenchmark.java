@@ -0,0 +1,68 @@
+package com.evizy.evizy.benchmark;
+
+import com.evizy.evizy.repository.RevokedTokenRepository;
+import com.evizy.evizy.service.TokenRevocationService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the revocation check every authenticated request pays, for a token that is not revoked and one that is,
+ * with the given number of unexpired revoked tokens in memory.
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath com.evizy.evizy.benchmark.TokenRevocationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class TokenRevocationBenchmark {
+    @Param({"0", "100000"})
+    public int revokedTokens;
+
+    private TokenRevocationService tokenRevocationService;
+    private String validJti;
+    private String revokedJti;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenRevocationService = new TokenRevocationService(Mockito.mock(RevokedTokenRepository.class), Mockito.mock(TransactionTemplate.class));
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+        for (int i = 0; i < revokedTokens; i++) {
+            revokedJti = UUID.randomUUID().toString();
+            tokenRevocationService.revoke(revokedJti, expiresAt);
+        }
+        validJti = UUID.randomUUID().toString();
+        if (revokedJti == null) {
+            revokedJti = validJti;
+        }
+    }
+
+    @Benchmark
+    public boolean valid() {
+        return tokenRevocationService.isRevoked(validJti);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return tokenRevocationService.isRevoked(revokedJti);
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(TokenRevocationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,183 @@
+package com.evizy.evizy.config;
+
+import com.evizy.evizy.domain.dao.Citizen;
+import com.evizy.evizy.domain.dao.Vaccine;
+import com.evizy.evizy.repository.CitizenRepository;
+import com.evizy.evizy.repository.VaccineRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the migrations on an empty PostgreSQL database and lets hibernate validate the entities against the result,
+ * the context only starts when every mapped table, column and sequence exists with a matching type.
+ * A database hibernate created before the migrations, with either kind of id it generated, is baselined at V1
+ * and gets the later versions.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlywayMigrationTest {
+    private static final String COLUMNS = "SELECT table_name, column_name, data_type, is_nullable, column_default " +
+            "FROM information_schema.columns WHERE table_schema = 'public' AND table_name <> 'flyway_schema_history' " +
+            "ORDER BY table_name, column_name";
+    private static final String SEQUENCES = "SELECT sequence_name FROM information_schema.sequences " +
+            "WHERE sequence_schema = 'public' ORDER BY sequence_name";
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private VaccineRepository vaccineRepository;
+
+    @Autowired
+    private CitizenRepository citizenRepository;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Test
+    void migrateThenValidateSuccess_Test() {
+        List<String> applied = Arrays.stream(flyway.info().applied())
+                .map(MigrationInfo::getVersion)
+                .map(Object::toString)
+                .collect(Collectors.toList());
+        assertEquals(List.of("1", "2", "3", "4"), applied);
+        assertEquals(0, flyway.info().pending().length);
+
+        Vaccine vaccine = vaccineRepository.save(Vaccine.builder()
+                .name("Sinovac")
+                .build());
+        assertNotNull(vaccine.getId());
+        citizenRepository.upsertAll(List.of(Citizen.builder()
+                .nik("1234567890123456")
+                .citizenId(1L)
+                .name("Warga 1")
+                .gender('M')
+                .build()));
+        assertEquals("Warga 1", citizenRepository.findById("1234567890123456").get().getName());
+    }
+
+    @Test
+    void migrateDatabaseCreatedByPostgresql10DialectSuccess_Test() throws Exception {
+        DataSource dataSource = baseline("baselined10", "db/baseline/hibernate_postgresql10.sql");
+        assertMigratedLikeFreshDatabase(dataSource);
+    }
+
+    @Test
+    void migrateDatabaseCreatedByPostgresql95DialectSuccess_Test() throws Exception {
+        DataSource dataSource = baseline("baselined95", "db/baseline/hibernate_postgresql95.sql");
+        assertMigratedLikeFreshDatabase(dataSource);
+    }
+
+    @Test
+    void migrateDatabaseWithDuplicateNikFail_Test() throws Exception {
+        DataSource dataSource = baseline("duplicated", "db/baseline/hibernate_postgresql10.sql");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO users (id, created_at, nik, name, password) VALUES (1, now(), '1234567890123456', 'User 1', 'x')");
+        jdbcTemplate.update("INSERT INTO users (id, created_at, nik, name, password) VALUES (2, now(), '1234567890123456', 'User 2', 'x')");
+
+        FlywayException e = assertThrows(FlywayException.class, () -> migrate(dataSource));
+        assertTrue(e.getMessage().contains("users.nik has 1 duplicated values"));
+
+        jdbcTemplate.update("UPDATE users SET deleted_at = now() WHERE id = 2");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .load()
+                .repair();
+        assertEquals("4", migrate(dataSource).targetSchemaVersion);
+    }
+
+    /**
+     * Create a database the way hibernate did before the migrations existed
+     */
+    private static DataSource baseline(String database, String script) throws Exception {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + database);
+        }
+        DataSource dataSource = postgres.getDatabase("postgres", database);
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(script));
+        }
+        return dataSource;
+    }
+
+    private static MigrateResult migrate(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    /**
+     * The columns, defaults and sequences must end up as on a database migrated from scratch, the one hibernate
+     * validated when the context started. Ids continue after the rows that were already there.
+     */
+    private void assertMigratedLikeFreshDatabase(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO users (id, created_at, nik, name, password) VALUES (7, now(), '1234567890123456', 'User', 'x')");
+
+        MigrateResult result = migrate(dataSource);
+        assertEquals("1", result.initialSchemaVersion);
+        assertEquals("4", result.targetSchemaVersion);
+        assertEquals(3, result.migrationsExecuted);
+
+        JdbcTemplate migrated = new JdbcTemplate(this.dataSource);
+        assertEquals(migrated.queryForList(COLUMNS), jdbcTemplate.queryForList(COLUMNS));
+        assertEquals(migrated.queryForList(SEQUENCES, String.class), jdbcTemplate.queryForList(SEQUENCES, String.class));
+        assertEquals(8L, jdbcTemplate.queryForObject("SELECT nextval('users_seq')", Long.class));
+    }
+}
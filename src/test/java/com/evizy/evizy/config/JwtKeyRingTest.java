@@ -0,0 +1,115 @@
+package com.evizy.evizy.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.KeyGenerator;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    @TempDir
+    Path tempDir;
+
+    private static JwtKeyRing keyRing(String keys, String keystorePath, long activationDelayMs) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "keys", keys);
+        ReflectionTestUtils.setField(keyRing, "keystorePath", keystorePath);
+        ReflectionTestUtils.setField(keyRing, "keystorePassword", new String(PASSWORD));
+        ReflectionTestUtils.setField(keyRing, "activationDelayMs", activationDelayMs);
+        keyRing.load();
+        return keyRing;
+    }
+
+    private void addKey(Path keystore, String alias) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        if (Files.exists(keystore)) {
+            try (InputStream inputStream = Files.newInputStream(keystore)) {
+                keyStore.load(inputStream, PASSWORD);
+            }
+        } else {
+            keyStore.load(null, PASSWORD);
+        }
+        keyStore.setEntry(alias, new KeyStore.SecretKeyEntry(KeyGenerator.getInstance("HmacSHA256").generateKey()),
+                new KeyStore.PasswordProtection(PASSWORD));
+        try (OutputStream outputStream = Files.newOutputStream(keystore)) {
+            keyStore.store(outputStream, PASSWORD);
+        }
+    }
+
+    @Test
+    void loadFromPropertySuccess_Test() {
+        JwtKeyRing keyRing = keyRing(JwtTokenProviderTest.OLD_KEY + "," + JwtTokenProviderTest.NEW_KEY + ","
+                + JwtTokenProviderTest.NEXT_KEY, "", 0);
+        assertEquals("new", keyRing.signingKey().getId());
+        assertEquals(Instant.parse("2020-01-01T00:00:00Z"), keyRing.signingKey().getActiveFrom());
+        assertTrue(keyRing.contains("old"));
+        assertTrue(keyRing.contains("next"));
+        assertTrue(keyRing.verificationKey("next").isPresent());
+        assertTrue(keyRing.verificationKey("unknown").isEmpty());
+        assertTrue(keyRing.verificationKey(null).isEmpty());
+    }
+
+    @Test
+    void loadWithoutKeysGeneratesLocalKeySuccess_Test() {
+        JwtKeyRing keyRing = keyRing("", "", 0);
+        assertEquals("local", keyRing.signingKey().getId());
+        assertNotEquals(keyRing.signingKey().getKey(), keyRing("", "", 0).signingKey().getKey());
+    }
+
+    @Test
+    void loadInvalidPropertyFail_Test() {
+        assertThrows(IllegalStateException.class, () -> keyRing("no-secret", "", 0));
+    }
+
+    @Test
+    void loadFromKeystoreSuccess_Test() throws Exception {
+        Path keystore = tempDir.resolve("jwt.p12");
+        addKey(keystore, "k1");
+
+        JwtKeyRing keyRing = keyRing("", keystore.toString(), TimeUnit.HOURS.toMillis(1));
+        assertEquals("k1", keyRing.signingKey().getId());
+        assertEquals(keyRing.signingKey().getKey(), keyRing(JwtTokenProviderTest.OLD_KEY, keystore.toString(), 0).signingKey().getKey());
+    }
+
+    @Test
+    void reloadActivatesKeyAfterDelaySuccess_Test() throws Exception {
+        Path keystore = tempDir.resolve("jwt.p12");
+        addKey(keystore, "k1");
+        JwtKeyRing keyRing = keyRing("", keystore.toString(), 0);
+        assertEquals("k1", keyRing.signingKey().getId());
+
+        Thread.sleep(1100);
+        addKey(keystore, "k2");
+        ReflectionTestUtils.setField(keyRing, "activationDelayMs", TimeUnit.HOURS.toMillis(1));
+        keyRing.reload();
+        assertTrue(keyRing.contains("k2"));
+        assertEquals("k1", keyRing.signingKey().getId());
+
+        ReflectionTestUtils.setField(keyRing, "activationDelayMs", 0L);
+        keyRing.reload();
+        assertEquals("k2", keyRing.signingKey().getId());
+    }
+
+    @Test
+    void reloadUnreadableKeystoreKeepsRingSuccess_Test() throws Exception {
+        Path keystore = tempDir.resolve("jwt.p12");
+        addKey(keystore, "k1");
+        JwtKeyRing keyRing = keyRing("", keystore.toString(), 0);
+
+        Files.delete(keystore);
+        keyRing.reload();
+        assertTrue(keyRing.contains("k1"));
+        assertEquals("k1", keyRing.signingKey().getId());
+    }
+}
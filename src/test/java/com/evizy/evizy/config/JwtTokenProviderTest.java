@@ -0,0 +1,209 @@
+package com.evizy.evizy.config;
+
+import com.evizy.evizy.domain.common.AuthenticatedPrincipal;
+import com.evizy.evizy.domain.dao.Admin;
+import com.evizy.evizy.domain.dao.Users;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = {JwtTokenProvider.class, JwtKeyRing.class}, properties = JwtTokenProviderTest.KEYS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class JwtTokenProviderTest {
+    static final String OLD_KEY = "old:c2VjcmV0LWtleS1vbGQtMDAwMDAwMDAwMDAwMDAwMDAwMDAwMDA=";
+    static final String NEW_KEY = "new:c2VjcmV0LWtleS1uZXctMDAwMDAwMDAwMDAwMDAwMDAwMDAwMDA=:2020-01-01T00:00:00Z";
+    static final String NEXT_KEY = "next:c2VjcmV0LWtleS1uZXh0LTAwMDAwMDAwMDAwMDAwMDAwMDAwMDA=:2999-01-01T00:00:00Z";
+    static final String KEYS = "app.jwt.keys=" + OLD_KEY + "," + NEW_KEY + "," + NEXT_KEY;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
+    private static JwtTokenProvider otherNode(String keys) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "keys", keys);
+        ReflectionTestUtils.setField(keyRing, "keystorePath", "");
+        ReflectionTestUtils.setField(keyRing, "keystorePassword", "");
+        keyRing.load();
+        JwtTokenProvider provider = new JwtTokenProvider(keyRing);
+        ReflectionTestUtils.setField(provider, "expiration", 3600000L);
+        ReflectionTestUtils.setField(provider, "maxCachedTokens", 10000);
+        return provider;
+    }
+
+    private String userToken() {
+        Users user = Users.builder()
+                .id(1L)
+                .nik("1234567890123456")
+                .build();
+        return jwtTokenProvider.generateToken(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @Test
+    void parseUserTokenSuccess_Test() {
+        Optional<Claims> claims = jwtTokenProvider.parseToken(userToken());
+        assertTrue(claims.isPresent());
+        assertFalse(jwtTokenProvider.getIsAdmin(claims.get()));
+        assertEquals("1234567890123456", jwtTokenProvider.getUsername(claims.get()));
+
+        AuthenticatedPrincipal principal = jwtTokenProvider.getPrincipal(claims.get());
+        assertEquals(1L, principal.getId());
+        assertEquals("1234567890123456", principal.getName());
+        assertFalse(principal.isAdmin());
+        assertFalse(principal.isSuperAdmin());
+        assertTrue(principal.getAuthorities().isEmpty());
+    }
+
+    @Test
+    void parseAdminTokenSuccess_Test() {
+        Admin admin = Admin.builder()
+                .id(2L)
+                .username("admin")
+                .isSuperAdmin(true)
+                .build();
+        String token = jwtTokenProvider.generateToken(new UsernamePasswordAuthenticationToken(admin, null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+
+        Optional<Claims> claims = jwtTokenProvider.parseToken(token);
+        assertTrue(claims.isPresent());
+        assertTrue(jwtTokenProvider.getIsAdmin(claims.get()));
+        assertEquals("admin", jwtTokenProvider.getUsername(claims.get()));
+
+        AuthenticatedPrincipal principal = jwtTokenProvider.getPrincipal(claims.get());
+        assertEquals(2L, principal.getId());
+        assertEquals("admin", principal.getUsername());
+        assertTrue(principal.isAdmin());
+        assertTrue(principal.isSuperAdmin());
+        assertEquals("ROLE_ADMIN", principal.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void parseCachedTokenOnceSuccess_Test() {
+        String token = userToken();
+        Claims claims = jwtTokenProvider.parseToken(token).get();
+        assertSame(claims, jwtTokenProvider.parseToken(token).get());
+    }
+
+    @Test
+    void parseWithoutCacheSuccess_Test() {
+        ReflectionTestUtils.setField(jwtTokenProvider, "maxCachedTokens", 0);
+        String token = userToken();
+        Claims claims = jwtTokenProvider.parseToken(token).get();
+        assertNotSame(claims, jwtTokenProvider.parseToken(token).get());
+        assertEquals(claims, jwtTokenProvider.parseToken(token).get());
+    }
+
+    @Test
+    void parseWithFullCacheSuccess_Test() {
+        ReflectionTestUtils.setField(jwtTokenProvider, "maxCachedTokens", 1);
+        String cached = userToken();
+        String uncached = userToken();
+        Claims claims = jwtTokenProvider.parseToken(cached).get();
+
+        Claims uncachedClaims = jwtTokenProvider.parseToken(uncached).get();
+        assertNotSame(uncachedClaims, jwtTokenProvider.parseToken(uncached).get());
+        assertSame(claims, jwtTokenProvider.parseToken(cached).get());
+    }
+
+    @Test
+    void parseWithFullCacheEvictsExpiredSuccess_Test() throws Exception {
+        ReflectionTestUtils.setField(jwtTokenProvider, "maxCachedTokens", 1);
+        ReflectionTestUtils.setField(jwtTokenProvider, "expiration", 1500L);
+        assertTrue(jwtTokenProvider.parseToken(userToken()).isPresent());
+
+        Thread.sleep(2000);
+        ReflectionTestUtils.setField(jwtTokenProvider, "expiration", 3600000L);
+        String token = userToken();
+        Claims claims = jwtTokenProvider.parseToken(token).get();
+        assertSame(claims, jwtTokenProvider.parseToken(token).get());
+    }
+
+    @Test
+    void parseTamperedTokenFail_Test() {
+        String token = userToken();
+        assertTrue(jwtTokenProvider.parseToken(token).isPresent());
+
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + parts[1] + "." + (parts[2].charAt(0) == 'A' ? 'B' : 'A') + parts[2].substring(1);
+        assertTrue(jwtTokenProvider.parseToken(tampered).isEmpty());
+        assertTrue(jwtTokenProvider.parseToken("not.a.token").isEmpty());
+        assertTrue(jwtTokenProvider.parseToken(null).isEmpty());
+    }
+
+    @Test
+    void parseCachedTokenAfterExpiryFail_Test() throws Exception {
+        ReflectionTestUtils.setField(jwtTokenProvider, "expiration", 1500L);
+        String token = userToken();
+        assertTrue(jwtTokenProvider.parseToken(token).isPresent());
+
+        Thread.sleep(2000);
+        assertTrue(jwtTokenProvider.parseToken(token).isEmpty());
+    }
+
+    @Test
+    void signWithNewestActiveKeySuccess_Test() {
+        String token = userToken();
+        String header = new String(Base64.getUrlDecoder().decode(token.split("\\.")[0]), StandardCharsets.UTF_8);
+        assertTrue(header.contains("\"kid\":\"new\""));
+        assertEquals("new", jwtKeyRing.signingKey().getId());
+    }
+
+    @Test
+    void parseTokenFromOtherNodeSuccess_Test() {
+        String token = userToken();
+        Optional<Claims> claims = otherNode(KEYS).parseToken(token);
+        assertTrue(claims.isPresent());
+        assertEquals("1234567890123456", jwtTokenProvider.getUsername(claims.get()));
+    }
+
+    @Test
+    void parseTokenAfterRotationSuccess_Test() {
+        String token = otherNode(OLD_KEY).generateToken(new UsernamePasswordAuthenticationToken(
+                Users.builder().id(1L).nik("1234567890123456").build(), null, List.of()));
+        assertTrue(jwtTokenProvider.parseToken(token).isPresent());
+    }
+
+    @Test
+    void parseTokenWithUnknownKeyFail_Test() {
+        String token = otherNode("other:c2VjcmV0LWtleS1vdGhlci0wMDAwMDAwMDAwMDAwMDAwMDAwMDA=").generateToken(
+                new UsernamePasswordAuthenticationToken(Users.builder().id(1L).nik("1234567890123456").build(), null, List.of()));
+        assertTrue(jwtTokenProvider.parseToken(token).isEmpty());
+    }
+
+    @Test
+    void parseCachedTokenAfterKeyRemovedFail_Test() {
+        String token = userToken();
+        assertTrue(jwtTokenProvider.parseToken(token).isPresent());
+
+        ReflectionTestUtils.setField(jwtKeyRing, "keys", OLD_KEY);
+        jwtKeyRing.load();
+        assertTrue(jwtTokenProvider.parseToken(token).isEmpty());
+    }
+
+    @Test
+    void generateTokenWithUniqueIdSuccess_Test() {
+        Claims first = jwtTokenProvider.parseToken(userToken()).get();
+        Claims second = jwtTokenProvider.parseToken(userToken()).get();
+        assertNotNull(first.getId());
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals("1234567890123456", first.getSubject());
+        assertEquals(1, ((Number) first.get("user_id")).intValue());
+    }
+}
@@ -0,0 +1,37 @@
+package com.evizy.evizy.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityConfigTest {
+    private static PasswordEncoder passwordEncoder(int strength) {
+        SecurityConfig securityConfig = new SecurityConfig(null, null);
+        ReflectionTestUtils.setField(securityConfig, "bcryptStrength", strength);
+        return securityConfig.passwordEncoder();
+    }
+
+    @Test
+    void encodeWithConfiguredStrengthSuccess_Test() {
+        String encoded = passwordEncoder(5).encode("secret");
+        assertTrue(encoded.startsWith("$2a$05$"));
+        assertTrue(passwordEncoder(5).matches("secret", encoded));
+        assertFalse(passwordEncoder(5).upgradeEncoding(encoded));
+    }
+
+    @Test
+    void upgradeEncodingWhenStrengthChangedSuccess_Test() {
+        String weaker = new BCryptPasswordEncoder(4).encode("secret");
+        String stronger = new BCryptPasswordEncoder(6).encode("secret");
+
+        PasswordEncoder passwordEncoder = passwordEncoder(5);
+        assertTrue(passwordEncoder.upgradeEncoding(weaker));
+        assertTrue(passwordEncoder.upgradeEncoding(stronger));
+        assertTrue(passwordEncoder.matches("secret", weaker));
+        assertTrue(passwordEncoder.matches("secret", stronger));
+        assertFalse(passwordEncoder.upgradeEncoding(null));
+    }
+}
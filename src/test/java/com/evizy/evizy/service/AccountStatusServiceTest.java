@@ -0,0 +1,155 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.domain.common.AuthenticatedPrincipal;
+import com.evizy.evizy.domain.dao.Admin;
+import com.evizy.evizy.domain.dao.Users;
+import com.evizy.evizy.repository.AdminRepository;
+import com.evizy.evizy.repository.UsersRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = AccountStatusService.class, properties = "app.auth.account-status.ttl-seconds=1")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AccountStatusServiceTest {
+    @MockBean
+    private UsersRepository usersRepository;
+
+    @MockBean
+    private AdminRepository adminRepository;
+
+    @Autowired
+    private AccountStatusService accountStatusService;
+
+    private static AuthenticatedPrincipal user() {
+        return AuthenticatedPrincipal.builder()
+                .id(1L)
+                .username("1234567890123456")
+                .build();
+    }
+
+    private static AuthenticatedPrincipal admin() {
+        return AuthenticatedPrincipal.builder()
+                .id(1L)
+                .username("admin")
+                .admin(true)
+                .superAdmin(true)
+                .build();
+    }
+
+    @Test
+    void checkActiveUserCachedSuccess_Test() {
+        when(usersRepository.findById(1L)).thenReturn(Optional.of(Users.builder()
+                .id(1L)
+                .active(true)
+                .build()));
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(accountStatusService.check(user()).isPresent());
+        }
+        verify(usersRepository, times(1)).findById(1L);
+        verify(adminRepository, never()).findById(any());
+    }
+
+    @Test
+    void checkDisabledUserFail_Test() {
+        when(usersRepository.findById(1L)).thenReturn(Optional.of(Users.builder()
+                .id(1L)
+                .active(false)
+                .build()));
+
+        assertTrue(accountStatusService.check(user()).isEmpty());
+    }
+
+    @Test
+    void checkDeletedAdminFail_Test() {
+        when(adminRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(accountStatusService.check(admin()).isEmpty());
+    }
+
+    @Test
+    void checkRevokedSuperAdminAfterTtlSuccess_Test() throws Exception {
+        when(adminRepository.findById(1L)).thenReturn(Optional.of(Admin.builder()
+                .id(1L)
+                .active(true)
+                .isSuperAdmin(true)
+                .build()));
+        assertTrue(accountStatusService.check(admin()).get().isSuperAdmin());
+
+        when(adminRepository.findById(1L)).thenReturn(Optional.of(Admin.builder()
+                .id(1L)
+                .active(true)
+                .isSuperAdmin(false)
+                .build()));
+        assertTrue(accountStatusService.check(admin()).get().isSuperAdmin());
+
+        Thread.sleep(1100);
+        Optional<AuthenticatedPrincipal> principal = accountStatusService.check(admin());
+        assertTrue(principal.isPresent());
+        assertFalse(principal.get().isSuperAdmin());
+        verify(adminRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void checkConcurrentMissesLoadOnceSuccess_Test() throws Exception {
+        when(usersRepository.findById(1L)).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return Optional.of(Users.builder()
+                    .id(1L)
+                    .active(true)
+                    .build());
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Optional<AuthenticatedPrincipal>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> accountStatusService.check(user())));
+        }
+        for (Future<Optional<AuthenticatedPrincipal>> result : results) {
+            assertTrue(result.get(10, TimeUnit.SECONDS).isPresent());
+        }
+        executor.shutdown();
+        verify(usersRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void checkWithFullCacheEvictsExpiredSuccess_Test() throws Exception {
+        ReflectionTestUtils.setField(accountStatusService, "maxEntries", 1);
+        when(adminRepository.findById(1L)).thenReturn(Optional.of(Admin.builder()
+                .id(1L)
+                .active(true)
+                .build()));
+        when(usersRepository.findById(1L)).thenReturn(Optional.of(Users.builder()
+                .id(1L)
+                .active(true)
+                .build()));
+
+        assertTrue(accountStatusService.check(admin()).isPresent());
+        assertTrue(accountStatusService.check(user()).isPresent());
+        assertTrue(accountStatusService.check(user()).isPresent());
+        verify(usersRepository, times(2)).findById(1L);
+
+        Thread.sleep(1100);
+        assertTrue(accountStatusService.check(user()).isPresent());
+        assertTrue(accountStatusService.check(user()).isPresent());
+        verify(usersRepository, times(3)).findById(1L);
+    }
+}
@@ -0,0 +1,149 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.dao.HealthFacility;
+import com.evizy.evizy.domain.dao.VaccinationSessions;
+import com.evizy.evizy.domain.dto.AdmissionTokenRequest;
+import com.evizy.evizy.errors.BusinessFlowException;
+import com.evizy.evizy.repository.VaccinationSessionsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = AdmissionQueueService.class, properties = {
+        "app.booking.queue.enabled=true",
+        "app.booking.queue.admitted-per-second=2"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AdmissionQueueServiceTest {
+    @MockBean
+    private VaccinationSessionsRepository vaccinationSessionsRepository;
+
+    @Autowired
+    private AdmissionQueueService admissionQueueService;
+
+    private void givenSession(Long id, Long healthFacilityId) {
+        when(vaccinationSessionsRepository.findById(id)).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(id)
+                .healthFacility(HealthFacility.builder()
+                        .id(healthFacilityId)
+                        .build())
+                .build()));
+    }
+
+    @Test
+    void admitAtConfiguredRateSuccess_Test() {
+        givenSession(1L, 1L);
+
+        AdmissionTokenRequest first = admissionQueueService.join(1L, 1L);
+        AdmissionTokenRequest second = admissionQueueService.join(2L, 1L);
+        AdmissionTokenRequest third = admissionQueueService.join(3L, 1L);
+        assertFalse(first.getAdmitted());
+        assertEquals(3L, third.getPosition());
+
+        admissionQueueService.advance();
+        assertTrue(admissionQueueService.find(first.getToken()).getAdmitted());
+        assertTrue(admissionQueueService.find(second.getToken()).getAdmitted());
+        assertFalse(admissionQueueService.find(third.getToken()).getAdmitted());
+        assertEquals(1L, admissionQueueService.find(third.getToken()).getPosition());
+
+        admissionQueueService.advance();
+        assertTrue(admissionQueueService.find(third.getToken()).getAdmitted());
+    }
+
+    @Test
+    void queuesArePerHealthFacilitySuccess_Test() {
+        givenSession(1L, 1L);
+        givenSession(2L, 2L);
+
+        admissionQueueService.join(1L, 1L);
+        admissionQueueService.join(2L, 1L);
+        AdmissionTokenRequest other = admissionQueueService.join(3L, 2L);
+        assertEquals(1L, other.getPosition());
+    }
+
+    @Test
+    void joinAgainReturnsSameTokenSuccess_Test() {
+        givenSession(1L, 1L);
+
+        AdmissionTokenRequest first = admissionQueueService.join(1L, 1L);
+        AdmissionTokenRequest again = admissionQueueService.join(1L, 1L);
+        assertEquals(first.getToken(), again.getToken());
+        assertEquals(1L, again.getPosition());
+    }
+
+    @Test
+    void joinSessionNotFoundFail_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.empty());
+
+        try {
+            admissionQueueService.join(1L, 1L);
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.NOT_FOUND, e.getCode());
+        }
+    }
+
+    @Test
+    void admitQueuedTokenFail_Test() {
+        givenSession(1L, 1L);
+
+        AdmissionTokenRequest token = admissionQueueService.join(1L, 1L);
+        try {
+            admissionQueueService.admit(token.getToken(), 1L, 1L);
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.ADMISSION_PENDING, e.getCode());
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getHttpStatus());
+        }
+    }
+
+    @Test
+    void admitTokenOnlyOnceSuccess_Test() {
+        givenSession(1L, 1L);
+
+        AdmissionTokenRequest token = admissionQueueService.join(1L, 1L);
+        admissionQueueService.advance();
+        admissionQueueService.admit(token.getToken(), 1L, 1L);
+
+        try {
+            admissionQueueService.admit(token.getToken(), 1L, 1L);
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.NOT_FOUND, e.getCode());
+        }
+    }
+
+    @Test
+    void admitOtherUserTokenFail_Test() {
+        givenSession(1L, 1L);
+
+        AdmissionTokenRequest token = admissionQueueService.join(1L, 1L);
+        admissionQueueService.advance();
+
+        try {
+            admissionQueueService.admit(token.getToken(), 2L, 1L);
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.NOT_FOUND, e.getCode());
+        }
+        try {
+            admissionQueueService.admit(null, 1L, 1L);
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.NOT_FOUND, e.getCode());
+        }
+    }
+}
@@ -3,14 +3,18 @@ package com.evizy.evizy.service;
 import com.evizy.evizy.config.JwtTokenProvider;
 import com.evizy.evizy.constant.ResponseMessage;
 import com.evizy.evizy.domain.common.ApiResponse;
+import com.evizy.evizy.domain.common.AuthenticatedPrincipal;
 import com.evizy.evizy.domain.dao.Admin;
 import com.evizy.evizy.domain.dao.Users;
 import com.evizy.evizy.domain.dto.CitizenResponse;
+import com.evizy.evizy.domain.dto.RefreshTokenRequest;
 import com.evizy.evizy.domain.dto.TokenResponse;
 import com.evizy.evizy.domain.dto.UsersRequest;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.AdminRepository;
 import com.evizy.evizy.repository.UsersRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,19 +23,26 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
-@SpringBootTest(classes = AuthService.class)
+@SpringBootTest(classes = {AuthService.class, NikFilter.class, LoginExecutor.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class AuthServiceTest {
     @MockBean
     private UsersRepository usersRepository;
@@ -49,11 +60,26 @@ class AuthServiceTest {
     private JwtTokenProvider jwtTokenProvider;
 
     @MockBean
-    private UsersService usersService;
+    private CitizenRegistry citizenRegistry;
+
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
 
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private NikFilter nikFilter;
+
+    private void citizens(CitizenResponse... citizenResponses) {
+        when(citizenRegistry.find(any())).thenAnswer(i -> Arrays.stream(citizenResponses)
+                .filter(citizen -> citizen.getNik().equals(i.getArgument(0)))
+                .findFirst());
+    }
+
     @Test
     void loadAdminByUsernameSuccess_Test() {
         when(adminRepository.getDistinctTopByUsername(any())).thenReturn(Admin.builder()
@@ -98,13 +124,13 @@ class AuthServiceTest {
 
     @Test
     void registerUsersSuccess_Test() {
-        when(usersService.getAllCitizen()).thenReturn(List.of(
+        citizens(
                 CitizenResponse.builder()
                         .id(1L)
                         .nik("1234567890123456")
                         .name("Nathan Ramli")
                         .build()
-        ));
+        );
 
         when(usersRepository.getDistinctTopByNik("1234567890123456")).thenReturn(null);
         when(usersRepository.save(any())).thenReturn(Users
@@ -158,7 +184,7 @@ class AuthServiceTest {
     @Test
     void registerUsersErrorInvalidNik_Test() {
         when(usersRepository.getDistinctTopByNik(any())).thenReturn(null);
-        when(usersService.getAllCitizen()).thenReturn(List.of());
+        citizens();
 
         try {
             Users user = authService.register(
@@ -175,9 +201,122 @@ class AuthServiceTest {
         }
     }
 
+    @Test
+    void registerNewNikSkipsDuplicateQuerySuccess_Test() {
+        when(usersRepository.count()).thenReturn(1L);
+        when(usersRepository.findAllNik()).thenReturn(List.of("1234567890123456"));
+        nikFilter.refreshUsers();
+        citizens(
+                CitizenResponse.builder()
+                        .nik("1234567890123457")
+                        .name("Warga 2")
+                        .build()
+        );
+        when(usersRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        Users user = authService.register(
+                UsersRequest
+                        .builder()
+                        .nik("1234567890123457")
+                        .password("123456")
+                        .name("Warga 2")
+                        .build()
+        );
+        assertEquals("1234567890123457", user.getNik());
+        verify(usersRepository, never()).getDistinctTopByNik(any());
+        assertTrue(nikFilter.mightBeUser("1234567890123457"));
+    }
+
+    @Test
+    void registerFilteredNikErrorExist_Test() {
+        when(usersRepository.count()).thenReturn(1L);
+        when(usersRepository.findAllNik()).thenReturn(List.of("1234567890123456"));
+        nikFilter.refreshUsers();
+        when(usersRepository.getDistinctTopByNik("1234567890123456")).thenReturn(Users
+                .builder()
+                .id(1L)
+                .nik("1234567890123456")
+                .build());
+
+        try {
+            authService.register(
+                    UsersRequest
+                            .builder()
+                            .nik("1234567890123456")
+                            .password("123456")
+                            .name("Nathan Ramli")
+                            .build()
+            );
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.ALREADY_EXIST, e.getCode());
+        }
+        verify(usersRepository).getDistinctTopByNik("1234567890123456");
+    }
+
+    @Test
+    void getUserByPrincipalSuccess_Test() {
+        AuthenticatedPrincipal principal = AuthenticatedPrincipal.builder()
+                .id(1L)
+                .username("1234567890123456")
+                .build();
+
+        assertSame(principal, authService.getUser(principal));
+        verify(usersRepository, never()).getDistinctTopByNik(any());
+    }
+
+    @Test
+    void getUserByAdminPrincipalFail_Test() {
+        try {
+            authService.getUser(AuthenticatedPrincipal.builder()
+                    .id(1L)
+                    .username("admin")
+                    .admin(true)
+                    .build());
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.UNAUTHORIZED, e.getCode());
+        }
+    }
+
+    @Test
+    void getAdminByPrincipalSuccess_Test() {
+        AuthenticatedPrincipal principal = AuthenticatedPrincipal.builder()
+                .id(1L)
+                .username("admin")
+                .admin(true)
+                .superAdmin(true)
+                .build();
+
+        assertTrue(authService.getAdmin(principal).isSuperAdmin());
+        verify(adminRepository, never()).getDistinctTopByUsername(any());
+    }
+
+    @Test
+    void getAdminByUserPrincipalFail_Test() {
+        try {
+            authService.getAdmin(AuthenticatedPrincipal.builder()
+                    .id(1L)
+                    .username("1234567890123456")
+                    .build());
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.UNAUTHORIZED, e.getCode());
+        }
+        try {
+            authService.getAdmin(null);
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(HttpStatus.UNAUTHORIZED, e.getHttpStatus());
+        }
+    }
+
     @Test
     void authenticatedAndGenerateTokenSuccess_Test() {
+        Users user = Users.builder().id(1L).nik("1234567890123456").build();
+        when(authenticationManager.authenticate(any())).thenReturn(new UsernamePasswordAuthenticationToken(user, null, List.of()));
         when(jwtTokenProvider.generateToken(any())).thenReturn("THIS_IS_A_TOKEN");
+        when(refreshTokenService.issue(user)).thenReturn("THIS_IS_A_REFRESH_TOKEN");
 
         ResponseEntity<?> responseEntity = authService.authenticatedAndGenerateToken(
                 UsersRequest
@@ -191,5 +330,45 @@ class AuthServiceTest {
         TokenResponse tokenResponse = (TokenResponse) Objects.requireNonNull(response).getData();
         assertEquals(HttpStatus.OK.value(), responseEntity.getStatusCodeValue());
         assertEquals("THIS_IS_A_TOKEN", tokenResponse.getAccessToken());
+        assertEquals("THIS_IS_A_REFRESH_TOKEN", tokenResponse.getRefreshToken());
+    }
+
+    @Test
+    void refreshTokenSuccess_Test() {
+        when(refreshTokenService.refresh("THIS_IS_A_REFRESH_TOKEN")).thenReturn(TokenResponse.builder()
+                .accessToken("THIS_IS_A_TOKEN")
+                .refreshToken("THIS_IS_THE_NEXT_REFRESH_TOKEN")
+                .build());
+
+        ResponseEntity<?> responseEntity = authService.refreshToken(RefreshTokenRequest.builder()
+                .refreshToken("THIS_IS_A_REFRESH_TOKEN")
+                .build());
+        ApiResponse response = (ApiResponse) responseEntity.getBody();
+        TokenResponse tokenResponse = (TokenResponse) Objects.requireNonNull(response).getData();
+        assertEquals(HttpStatus.OK.value(), responseEntity.getStatusCodeValue());
+        assertEquals("THIS_IS_A_TOKEN", tokenResponse.getAccessToken());
+        assertEquals("THIS_IS_THE_NEXT_REFRESH_TOKEN", tokenResponse.getRefreshToken());
+        verifyNoInteractions(authenticationManager);
+    }
+
+    @Test
+    void logoutRevokesTokensSuccess_Test() {
+        Claims claims = Jwts.claims().setId("jti-1").setExpiration(new Date(System.currentTimeMillis() + 60000));
+        when(jwtTokenProvider.parseToken("THIS_IS_A_TOKEN")).thenReturn(Optional.of(claims));
+
+        ResponseEntity<?> responseEntity = authService.logout("THIS_IS_A_TOKEN", "THIS_IS_A_REFRESH_TOKEN");
+        assertEquals(HttpStatus.OK.value(), responseEntity.getStatusCodeValue());
+        verify(tokenRevocationService).revoke(eq("jti-1"), any());
+        verify(refreshTokenService).revoke("THIS_IS_A_REFRESH_TOKEN");
+    }
+
+    @Test
+    void logoutInvalidTokenSuccess_Test() {
+        when(jwtTokenProvider.parseToken(any())).thenReturn(Optional.empty());
+
+        ResponseEntity<?> responseEntity = authService.logout("not.a.token", null);
+        assertEquals(HttpStatus.OK.value(), responseEntity.getStatusCodeValue());
+        verify(tokenRevocationService, never()).revoke(any(), any());
+        verify(refreshTokenService).revoke(null);
     }
-}
\ No newline at end of file
+}
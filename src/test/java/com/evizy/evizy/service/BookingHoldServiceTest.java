@@ -0,0 +1,216 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.dao.*;
+import com.evizy.evizy.domain.dto.*;
+import com.evizy.evizy.errors.BusinessFlowException;
+import com.evizy.evizy.repository.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = BookingHoldService.class)
+class BookingHoldServiceTest {
+    @MockBean
+    private BookingHoldRepository bookingHoldRepository;
+    @MockBean
+    private VaccinationSessionsRepository vaccinationSessionsRepository;
+    @MockBean
+    private FamilyMembersRepository familyMembersRepository;
+    @MockBean
+    private VaccinationPassService vaccinationPassService;
+    @MockBean
+    private WaitlistService waitlistService;
+    @MockBean
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookingHoldService bookingHoldService;
+
+    @Test
+    void reserveSuccess_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(1L)
+                .quantity(10L)
+                .booked(9L)
+                .build()));
+        when(vaccinationPassService.reserveSeat(1L)).thenReturn(true);
+        when(bookingHoldRepository.save(any())).thenAnswer(i -> {
+            ((BookingHold) i.getArgument(0)).setId(1L);
+            return null;
+        });
+
+        BookingHoldRequest bookingHold = bookingHoldService.reserve(VaccinationPassRequest.builder()
+                .vaccinationSession(VaccinationSessionRequest.builder()
+                        .id(1L)
+                        .build())
+                .registeredBy(UsersRequest.builder()
+                        .id(1L)
+                        .build())
+                .build());
+        assertEquals(1L, bookingHold.getId());
+        assertEquals(1L, bookingHold.getVaccinationSession().getId());
+        assertTrue(bookingHold.getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void reserveStockEmptyFail_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(1L)
+                .quantity(10L)
+                .booked(10L)
+                .build()));
+        when(vaccinationPassService.reserveSeat(1L)).thenReturn(false);
+
+        try {
+            bookingHoldService.reserve(VaccinationPassRequest.builder()
+                    .vaccinationSession(VaccinationSessionRequest.builder()
+                            .id(1L)
+                            .build())
+                    .registeredBy(UsersRequest.builder()
+                            .id(1L)
+                            .build())
+                    .build());
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.STOCK_EMPTY, e.getCode());
+        }
+        verify(bookingHoldRepository, never()).save(any());
+    }
+
+    @Test
+    void reserveFamilyMemberNotOwnedFail_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(1L)
+                .build()));
+        when(familyMembersRepository.findById(any())).thenReturn(Optional.of(FamilyMembers.builder()
+                .id(1L)
+                .users(Users.builder()
+                        .id(2L)
+                        .build())
+                .build()));
+
+        try {
+            bookingHoldService.reserve(VaccinationPassRequest.builder()
+                    .vaccinationSession(VaccinationSessionRequest.builder()
+                            .id(1L)
+                            .build())
+                    .familyMember(FamilyMembersRequest.builder()
+                            .id(1L)
+                            .build())
+                    .registeredBy(UsersRequest.builder()
+                            .id(1L)
+                            .build())
+                    .build());
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.BAD_REQUEST, e.getCode());
+        }
+        verify(vaccinationPassService, never()).reserveSeat(any());
+    }
+
+    @Test
+    void confirmSuccess_Test() {
+        when(bookingHoldRepository.findById(1L)).thenReturn(Optional.of(BookingHold.builder()
+                .id(1L)
+                .registeredBy(Users.builder()
+                        .id(1L)
+                        .build())
+                .vaccinationSessions(VaccinationSessions.builder()
+                        .id(2L)
+                        .build())
+                .expiresAt(LocalDateTime.now().plusMinutes(5))
+                .build()));
+        when(bookingHoldRepository.deleteActiveById(eq(1L), any())).thenReturn(1);
+        when(vaccinationPassService.createReserved(any())).thenReturn(VaccinationPassRequest.builder()
+                .id(3L)
+                .build());
+
+        VaccinationPassRequest request = VaccinationPassRequest.builder()
+                .registeredBy(UsersRequest.builder()
+                        .id(1L)
+                        .build())
+                .build();
+        VaccinationPassRequest vaccinationPass = bookingHoldService.confirm(1L, request);
+        assertEquals(3L, vaccinationPass.getId());
+        assertEquals(2L, request.getVaccinationSession().getId());
+        verify(vaccinationPassService, never()).create(any());
+    }
+
+    @Test
+    void confirmExpiredFail_Test() {
+        when(bookingHoldRepository.findById(1L)).thenReturn(Optional.of(BookingHold.builder()
+                .id(1L)
+                .registeredBy(Users.builder()
+                        .id(1L)
+                        .build())
+                .vaccinationSessions(VaccinationSessions.builder()
+                        .id(2L)
+                        .build())
+                .expiresAt(LocalDateTime.now().minusMinutes(1))
+                .build()));
+        when(bookingHoldRepository.deleteActiveById(eq(1L), any())).thenReturn(0);
+
+        try {
+            bookingHoldService.confirm(1L, VaccinationPassRequest.builder()
+                    .registeredBy(UsersRequest.builder()
+                            .id(1L)
+                            .build())
+                    .build());
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.BOOKING_HOLD_EXPIRED, e.getCode());
+        }
+        verify(vaccinationPassService, never()).createReserved(any());
+    }
+
+    @Test
+    void confirmOtherUserFail_Test() {
+        when(bookingHoldRepository.findById(1L)).thenReturn(Optional.of(BookingHold.builder()
+                .id(1L)
+                .registeredBy(Users.builder()
+                        .id(2L)
+                        .build())
+                .build()));
+
+        try {
+            bookingHoldService.confirm(1L, VaccinationPassRequest.builder()
+                    .registeredBy(UsersRequest.builder()
+                            .id(1L)
+                            .build())
+                    .build());
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.NOT_FOUND, e.getCode());
+        }
+        verify(bookingHoldRepository, never()).deleteActiveById(any(), any());
+    }
+
+    @Test
+    void releaseExpiredSuccess_Test() {
+        when(transactionTemplate.execute(any())).thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+        when(bookingHoldRepository.findAllExpiredVaccinationSessionIds(any())).thenReturn(List.of(1L, 2L));
+        when(bookingHoldRepository.deleteAllExpiredByVaccinationSessionId(eq(1L), any())).thenReturn(3);
+        when(bookingHoldRepository.deleteAllExpiredByVaccinationSessionId(eq(2L), any())).thenReturn(0);
+
+        bookingHoldService.releaseExpired();
+        verify(vaccinationPassService).releaseSeats(1L, 3);
+        verify(waitlistService).promote(1L);
+        verify(vaccinationPassService, never()).releaseSeats(eq(2L), anyInt());
+    }
+}
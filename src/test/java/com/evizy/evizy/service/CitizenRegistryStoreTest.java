@@ -0,0 +1,100 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.domain.dao.Citizen;
+import com.evizy.evizy.domain.dto.CitizenResponse;
+import com.evizy.evizy.repository.CitizenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:citizen-store;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.show-sql=false",
+        "app.citizen.sync.batch-size=2"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CitizenRegistryStoreTest {
+    @Autowired
+    private CitizenRepository citizenRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private static Citizen citizen(String nik, String name) {
+        return Citizen.builder()
+                .nik(nik)
+                .citizenId(Long.parseLong(nik.substring(12)))
+                .name(name)
+                .build();
+    }
+
+    private Map<String, CitizenResponse> stored() {
+        return transactionTemplate.execute(status -> {
+            try (Stream<CitizenResponse> stream = citizenRepository.streamAll()) {
+                return stream.collect(Collectors.toMap(CitizenResponse::getNik, Function.identity()));
+            }
+        });
+    }
+
+    @Test
+    void upsertInsertsAndUpdatesAcrossChunksSuccess_Test() {
+        citizenRepository.deleteAll();
+        citizenRepository.upsertAll(List.of(
+                citizen("1234567890120001", "Warga 1"),
+                citizen("1234567890120002", "Warga 2"),
+                citizen("1234567890120003", "Warga 3")));
+
+        citizenRepository.upsertAll(List.of(
+                Citizen.builder()
+                        .nik("1234567890120002")
+                        .citizenId(2L)
+                        .name("Warga Dua")
+                        .gender('F')
+                        .dateOfBirth(LocalDate.of(1990, 1, 1))
+                        .build(),
+                citizen("1234567890120004", "Warga 4"),
+                citizen("1234567890120005", "Warga 5")));
+
+        Map<String, CitizenResponse> stored = stored();
+        assertEquals(5, stored.size());
+        assertEquals("Warga 1", stored.get("1234567890120001").getName());
+        assertEquals("Warga Dua", stored.get("1234567890120002").getName());
+        assertEquals('F', stored.get("1234567890120002").getGender());
+        assertEquals(LocalDate.of(1990, 1, 1), stored.get("1234567890120002").getDateOfBirth());
+        assertEquals(5L, stored.get("1234567890120005").getId());
+    }
+
+    @Test
+    void deleteAllByNikSuccess_Test() {
+        citizenRepository.deleteAll();
+        citizenRepository.upsertAll(List.of(
+                citizen("1234567890120001", "Warga 1"),
+                citizen("1234567890120002", "Warga 2"),
+                citizen("1234567890120003", "Warga 3")));
+
+        citizenRepository.deleteAllByNik(List.of("1234567890120001", "1234567890120003", "9999999999999999"));
+
+        assertEquals(List.of("1234567890120002"), List.copyOf(stored().keySet()));
+    }
+}
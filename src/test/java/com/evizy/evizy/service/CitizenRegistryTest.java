@@ -0,0 +1,229 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.config.BeanConfiguration;
+import com.evizy.evizy.constant.Endpoints;
+import com.evizy.evizy.domain.dao.Citizen;
+import com.evizy.evizy.domain.dao.CitizenSyncState;
+import com.evizy.evizy.domain.dto.CitizenResponse;
+import com.evizy.evizy.repository.AdminRepository;
+import com.evizy.evizy.repository.CitizenRepository;
+import com.evizy.evizy.repository.CitizenSyncStateRepository;
+import com.evizy.evizy.repository.UsersRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = {CitizenRegistry.class, NikFilter.class, UsersService.class, BeanConfiguration.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@SuppressWarnings("unchecked")
+class CitizenRegistryTest {
+    private static final String WARGA_1 = "{\"id\":1,\"nik\":\"1234567890123456\",\"name\":\"Warga 1\",\"gender\":\"M\",\"date_of_birth\":\"1990-01-01\"}";
+    private static final String WARGA_2 = "{\"id\":2,\"nik\":\"1234567890123457\",\"name\":\"Warga 2\",\"gender\":\"F\",\"date_of_birth\":\"1995-06-15\"}";
+
+    private static HttpServer citizenServer;
+    private static String citizenBaseUrl;
+    private static final AtomicInteger requests = new AtomicInteger();
+    private static volatile int status;
+    private static volatile String body;
+
+    @MockBean
+    private UsersRepository usersRepository;
+
+    @MockBean
+    private AdminRepository adminRepository;
+
+    @MockBean
+    private CitizenRepository citizenRepository;
+
+    @MockBean
+    private CitizenSyncStateRepository citizenSyncStateRepository;
+
+    @MockBean
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CitizenRegistry citizenRegistry;
+
+    private static String etag(String body) {
+        return "\"" + Integer.toHexString(body.hashCode()) + "\"";
+    }
+
+    @BeforeAll
+    static void startCitizenServer() throws Exception {
+        citizenServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        citizenServer.createContext("/api/v1/citizen", exchange -> {
+            requests.incrementAndGet();
+            String etag = etag(body);
+            if (status == 200 && etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] response = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("ETag", etag);
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        });
+        citizenServer.start();
+        citizenBaseUrl = Endpoints.API_CITIZEN_BASE_URL;
+        Endpoints.API_CITIZEN_BASE_URL = "http://localhost:" + citizenServer.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void stopCitizenServer() {
+        Endpoints.API_CITIZEN_BASE_URL = citizenBaseUrl;
+        citizenServer.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        requests.set(0);
+        status = 200;
+        body = "[" + WARGA_1 + "," + WARGA_2 + "]";
+        when(transactionTemplate.execute(any())).thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(mock(TransactionStatus.class)));
+    }
+
+    @Test
+    void findReadsSnapshotSuccess_Test() {
+        citizenRegistry.refresh();
+        for (int i = 0; i < 100; i++) {
+            Optional<CitizenResponse> citizen = citizenRegistry.find("1234567890123457");
+            assertTrue(citizen.isPresent());
+            assertEquals("Warga 2", citizen.get().getName());
+            assertEquals('F', citizen.get().getGender());
+            assertEquals(LocalDate.of(1995, 6, 15), citizen.get().getDateOfBirth());
+        }
+        assertEquals(1, requests.get());
+        assertEquals(2, citizenRegistry.size());
+    }
+
+    @Test
+    void findBeforeFirstRefreshStreamsSuccess_Test() {
+        Optional<CitizenResponse> citizen = citizenRegistry.find("1234567890123456");
+        assertTrue(citizen.isPresent());
+        assertEquals("Warga 1", citizen.get().getName());
+        assertEquals(1, requests.get());
+        assertEquals(0, citizenRegistry.size());
+    }
+
+    @Test
+    void findUnknownNikSuccess_Test() {
+        assertTrue(citizenRegistry.find("9999999999999999").isEmpty());
+        assertTrue(citizenRegistry.find(null).isEmpty());
+    }
+
+    @Test
+    void refreshSwapsSnapshotSuccess_Test() {
+        citizenRegistry.refresh();
+        assertTrue(citizenRegistry.find("1234567890123456").isPresent());
+
+        body = "[" + WARGA_2 + "]";
+        citizenRegistry.refresh();
+        assertTrue(citizenRegistry.find("1234567890123456").isEmpty());
+        assertTrue(citizenRegistry.find("1234567890123457").isPresent());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void refreshAppliesChangedCitizensOnlySuccess_Test() {
+        citizenRegistry.refresh();
+        verify(citizenRepository).upsertAll(argThat(citizens -> citizens.size() == 2));
+
+        body = "[" + WARGA_2.replace("Warga 2", "Warga Dua") + ",{\"id\":3,\"nik\":\"1234567890123458\",\"name\":\"Warga 3\"}]";
+        citizenRegistry.refresh();
+
+        ArgumentCaptor<Collection<Citizen>> changed = ArgumentCaptor.forClass(List.class);
+        verify(citizenRepository, times(2)).upsertAll(changed.capture());
+        assertEquals(2, changed.getValue().size());
+        assertTrue(changed.getValue().stream().anyMatch(citizen -> "Warga Dua".equals(citizen.getName())));
+        assertTrue(changed.getValue().stream().anyMatch(citizen -> "1234567890123458".equals(citizen.getNik())));
+        verify(citizenRepository).deleteAllByNik(List.of("1234567890123456"));
+
+        ArgumentCaptor<CitizenSyncState> syncState = ArgumentCaptor.forClass(CitizenSyncState.class);
+        verify(citizenSyncStateRepository, times(2)).save(syncState.capture());
+        assertEquals(etag(body), syncState.getValue().getEtag());
+        assertEquals("Warga Dua", citizenRegistry.find("1234567890123457").get().getName());
+        assertEquals(2, citizenRegistry.size());
+    }
+
+    @Test
+    void refreshNotModifiedSkipsDownloadSuccess_Test() {
+        citizenRegistry.refresh();
+        citizenRegistry.refresh();
+        citizenRegistry.refresh();
+
+        assertEquals(3, requests.get());
+        verify(citizenRepository, times(1)).upsertAll(any());
+        verify(citizenSyncStateRepository, times(1)).save(any());
+        assertEquals(2, citizenRegistry.size());
+    }
+
+    @Test
+    void refreshAfterRestartRestoresFromDatabaseSuccess_Test() {
+        when(citizenSyncStateRepository.findById(CitizenRegistry.SYNC_STATE_ID)).thenReturn(Optional.of(CitizenSyncState.builder()
+                .id(CitizenRegistry.SYNC_STATE_ID)
+                .etag(etag(body))
+                .build()));
+        when(citizenRepository.streamAll()).thenReturn(Stream.of(
+                CitizenResponse.builder()
+                        .nik("1234567890123456")
+                        .id(1L)
+                        .name("Warga 1")
+                        .build(),
+                CitizenResponse.builder()
+                        .nik("1234567890123457")
+                        .id(2L)
+                        .name("Warga 2")
+                        .build()));
+
+        citizenRegistry.refresh();
+
+        assertEquals(1, requests.get());
+        verify(citizenRepository, never()).upsertAll(any());
+        assertEquals(2, citizenRegistry.size());
+        assertEquals("Warga 1", citizenRegistry.find("1234567890123456").get().getName());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void failedRefreshKeepsSnapshotSuccess_Test() {
+        citizenRegistry.refresh();
+
+        status = 500;
+        body = "{}";
+        citizenRegistry.refresh();
+        assertTrue(citizenRegistry.find("1234567890123456").isPresent());
+        assertEquals(2, citizenRegistry.size());
+    }
+}
@@ -8,6 +8,7 @@ import com.evizy.evizy.domain.dto.CitizenResponse;
 import com.evizy.evizy.domain.dto.CityRequest;
 import com.evizy.evizy.domain.dto.FamilyMembersRequest;
 import com.evizy.evizy.domain.dto.UsersRequest;
+import com.evizy.evizy.domain.projection.FamilyMemberView;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.CityRepository;
 import com.evizy.evizy.repository.FamilyMembersRepository;
@@ -21,6 +22,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,13 +37,19 @@ class FamilyMembersServiceTest {
     @MockBean
     private FamilyMembersRepository familyMembersRepository;
     @MockBean
-    private UsersService usersService;
+    private CitizenRegistry citizenRegistry;
     @Autowired
     private FamilyMembersService familyMembersService;
 
+    private void citizens(CitizenResponse... citizenResponses) {
+        when(citizenRegistry.find(any())).thenAnswer(i -> Arrays.stream(citizenResponses)
+                .filter(citizen -> citizen.getNik().equals(i.getArgument(0)))
+                .findFirst());
+    }
+
     @Test
     void createFamilyMemberSuccess_Test() {
-        when(usersService.getAllCitizen()).thenReturn(List.of(
+        citizens(
                 CitizenResponse.builder()
                        .nik("1234567890123456")
                        .name("Warga 1")
@@ -50,7 +58,7 @@ class FamilyMembersServiceTest {
                         .nik("1234567890123457")
                         .name("Warga 2")
                         .build()
-        ));
+        );
 
         when(familyMembersRepository.save(any())).thenAnswer(i -> {
             ((FamilyMembers) i.getArgument(0)).setId(1L);
@@ -74,7 +82,7 @@ class FamilyMembersServiceTest {
 
     @Test
     void createFamilyMemberFail_Test() {
-        when(usersService.getAllCitizen()).thenReturn(List.of(
+        citizens(
                 CitizenResponse.builder()
                         .nik("1234567890123456")
                         .name("Warga 1")
@@ -83,7 +91,7 @@ class FamilyMembersServiceTest {
                         .nik("1234567890123457")
                         .name("Warga 2")
                         .build()
-        ));
+        );
 
         try {
             FamilyMembersRequest familyMembersRequest = familyMembersService.create(FamilyMembersRequest.builder()
@@ -130,24 +138,20 @@ class FamilyMembersServiceTest {
 
     @Test
     void findAllFamilyMembersByUserIdSuccess_Test() {
-        when(familyMembersRepository.findAllByUsersId(any())).thenReturn(List.of(
-                FamilyMembers.builder()
+        when(familyMembersRepository.findViewsByUsersIdAndIdGreaterThan(any(), any(), any())).thenReturn(List.of(
+                FamilyMemberView.builder()
                         .id(1L)
-                        .users(Users.builder()
-                                .id(1L)
-                                .build())
+                        .userId(1L)
                         .name("Family Member 1")
                         .build(),
-                FamilyMembers.builder()
+                FamilyMemberView.builder()
                         .id(2L)
-                        .users(Users.builder()
-                                .id(1L)
-                                .build())
+                        .userId(1L)
                         .name("Family Member 2")
                         .build()
         ));
 
-        List<FamilyMembersRequest> familyMembers = familyMembersService.findAll(1L);
+        List<FamilyMembersRequest> familyMembers = familyMembersService.findAll(1L, null, null).getItems();
         assertEquals(1L, familyMembers.get(0).getId());
         assertEquals("Family Member 1", familyMembers.get(0).getName());
         assertEquals(2L, familyMembers.get(1).getId());
@@ -156,24 +160,20 @@ class FamilyMembersServiceTest {
 
     @Test
     void findAllFamilyMembersSuccess_Test() {
-        when(familyMembersRepository.findAll()).thenReturn(List.of(
-                FamilyMembers.builder()
+        when(familyMembersRepository.findViewsByIdGreaterThan(any(), any())).thenReturn(List.of(
+                FamilyMemberView.builder()
                         .id(1L)
-                        .users(Users.builder()
-                                .id(1L)
-                                .build())
+                        .userId(1L)
                         .name("Family Member 1")
                         .build(),
-                FamilyMembers.builder()
+                FamilyMemberView.builder()
                         .id(2L)
-                        .users(Users.builder()
-                                .id(2L)
-                                .build())
+                        .userId(2L)
                         .name("Family Member 2")
                         .build()
         ));
 
-        List<FamilyMembersRequest> familyMembers = familyMembersService.findAll(null);
+        List<FamilyMembersRequest> familyMembers = familyMembersService.findAll(null, null, null).getItems();
         assertEquals(1L, familyMembers.get(0).getId());
         assertEquals("Family Member 1", familyMembers.get(0).getName());
         assertEquals(2L, familyMembers.get(1).getId());
@@ -182,12 +182,10 @@ class FamilyMembersServiceTest {
 
     @Test
     void findFamilyMemberByIdSuccess_Test() {
-        when(familyMembersRepository.findById(any())).thenReturn(Optional.of(
-                FamilyMembers.builder()
+        when(familyMembersRepository.findViewById(any())).thenReturn(Optional.of(
+                FamilyMemberView.builder()
                         .id(1L)
-                        .users(Users.builder()
-                                .id(1L)
-                                .build())
+                        .userId(1L)
                         .name("Family Member 1")
                         .build()
         ));
@@ -199,7 +197,7 @@ class FamilyMembersServiceTest {
 
     @Test
     void findFamilyMemberByIdFail_Test() {
-        when(familyMembersRepository.findById(any())).thenReturn(Optional.empty());
+        when(familyMembersRepository.findViewById(any())).thenReturn(Optional.empty());
 
         try {
             FamilyMembersRequest familyMembersRequest = familyMembersService.find(1L);
@@ -237,7 +235,7 @@ class FamilyMembersServiceTest {
                         .name("Family Member 1")
                         .build()
         ));
-        when(usersService.getAllCitizen()).thenReturn(List.of(
+        citizens(
                 CitizenResponse.builder()
                         .nik("1234567890123456")
                         .name("Warga 1")
@@ -246,7 +244,7 @@ class FamilyMembersServiceTest {
                         .nik("1234567890123457")
                         .name("Warga 2")
                         .build()
-        ));
+        );
 
         try {
             FamilyMembersRequest familyMembersRequest = familyMembersService.update(1L, FamilyMembersRequest.builder()
@@ -273,7 +271,7 @@ class FamilyMembersServiceTest {
                         .name("Family Member 1")
                         .build()
         ));
-        when(usersService.getAllCitizen()).thenReturn(List.of(
+        citizens(
                 CitizenResponse.builder()
                         .nik("1234567890123456")
                         .name("Warga 1")
@@ -282,7 +280,7 @@ class FamilyMembersServiceTest {
                         .nik("1234567890123457")
                         .name("Warga 2")
                         .build()
-        ));
+        );
 
         FamilyMembersRequest familyMembersRequest = familyMembersService.update(1L, FamilyMembersRequest.builder()
                 .nik("1234567890123457")
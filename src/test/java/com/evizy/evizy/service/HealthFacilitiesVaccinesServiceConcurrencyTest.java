@@ -0,0 +1,203 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.dao.HealthFacilitiesVaccines;
+import com.evizy.evizy.domain.dao.HealthFacility;
+import com.evizy.evizy.domain.dao.Vaccine;
+import com.evizy.evizy.domain.dto.HealthFacilityRequest;
+import com.evizy.evizy.domain.dto.VaccinationSessionRequest;
+import com.evizy.evizy.domain.dto.VaccineDistributionRequest;
+import com.evizy.evizy.domain.dto.VaccineRequest;
+import com.evizy.evizy.errors.BusinessFlowException;
+import com.evizy.evizy.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({HealthFacilitiesVaccinesService.class, VaccinationSessionService.class, SessionCapacityLedger.class,
+        WaitlistService.class, BookingHoldService.class, VaccinationPassService.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock-concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HealthFacilitiesVaccinesServiceConcurrencyTest {
+    private static final int THREADS = 32;
+    private static final long INITIAL_STOCK = 1000L;
+    private static final long SESSION_QUANTITY = 10L;
+    private static final long DISTRIBUTION_QUANTITY = 5L;
+
+    @Autowired
+    private HealthFacilitiesVaccinesService healthFacilitiesVaccinesService;
+    @Autowired
+    private VaccinationSessionService vaccinationSessionService;
+    @Autowired
+    private HealthFacilitiesVaccinesRepository healthFacilitiesVaccinesRepository;
+    @Autowired
+    private HealthFacilityRepository healthFacilityRepository;
+    @Autowired
+    private VaccineRepository vaccineRepository;
+    @Autowired
+    private VaccinationSessionsRepository vaccinationSessionsRepository;
+    @Autowired
+    private VaccineDistributionRepository vaccineDistributionRepository;
+
+    private void distribute(HealthFacility healthFacility, Vaccine vaccine, long quantity) {
+        healthFacilitiesVaccinesService.distribute(VaccineDistributionRequest.builder()
+                .healthFacility(HealthFacilityRequest.builder()
+                        .id(healthFacility.getId())
+                        .build())
+                .vaccine(VaccineRequest.builder()
+                        .id(vaccine.getId())
+                        .build())
+                .quantity(quantity)
+                .build());
+    }
+
+    private void createSession(HealthFacility healthFacility, Vaccine vaccine) {
+        vaccinationSessionService.create(VaccinationSessionRequest.builder()
+                .healthFacility(HealthFacilityRequest.builder()
+                        .id(healthFacility.getId())
+                        .build())
+                .vaccine(VaccineRequest.builder()
+                        .id(vaccine.getId())
+                        .build())
+                .scheduleDate(LocalDate.now().plusDays(1))
+                .scheduleTimeStart("08:00")
+                .scheduleTimeEnd("12:00")
+                .quantity(SESSION_QUANTITY)
+                .build());
+    }
+
+    private long stock(HealthFacility healthFacility, Vaccine vaccine) {
+        return healthFacilitiesVaccinesRepository.findById(new HealthFacilitiesVaccines.HealthFacilitiesVaccinesId(
+                healthFacility.getId(),
+                vaccine.getId()
+        )).get().getStock();
+    }
+
+    private void runAll(List<Callable<Void>> tasks) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (Callable<Void> task : tasks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void parallelSessionsAndDistributionsConserveStock_Test() throws Exception {
+        HealthFacility healthFacility = healthFacilityRepository.save(HealthFacility.builder()
+                .name("Puskesmas")
+                .build());
+        Vaccine vaccine = vaccineRepository.save(Vaccine.builder()
+                .name("Sinovac")
+                .build());
+        distribute(healthFacility, vaccine, INITIAL_STOCK);
+
+        AtomicInteger sessions = new AtomicInteger();
+        AtomicInteger credits = new AtomicInteger();
+        AtomicInteger debits = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            int kind = i % 3;
+            tasks.add(() -> {
+                try {
+                    if (kind == 0) {
+                        createSession(healthFacility, vaccine);
+                        sessions.incrementAndGet();
+                    } else if (kind == 1) {
+                        distribute(healthFacility, vaccine, DISTRIBUTION_QUANTITY);
+                        credits.incrementAndGet();
+                    } else {
+                        distribute(healthFacility, vaccine, -DISTRIBUTION_QUANTITY);
+                        debits.incrementAndGet();
+                    }
+                } catch (BusinessFlowException e) {
+                    if (ResponseMessage.STOCK_NOT_VALID.equals(e.getCode())) {
+                        rejected.incrementAndGet();
+                    } else {
+                        errors.add(e);
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+                return null;
+            });
+        }
+        runAll(tasks);
+
+        assertTrue(errors.isEmpty(), () -> "Unexpected failures: " + errors);
+        assertEquals(200, credits.get());
+        assertTrue(rejected.get() > 0);
+        long expected = INITIAL_STOCK
+                + credits.get() * DISTRIBUTION_QUANTITY
+                - debits.get() * DISTRIBUTION_QUANTITY
+                - sessions.get() * SESSION_QUANTITY;
+        assertEquals(expected, stock(healthFacility, vaccine));
+        assertTrue(stock(healthFacility, vaccine) >= 0);
+        assertEquals(sessions.get(), vaccinationSessionsRepository.findAllByHealthFacilityId(healthFacility.getId()).size());
+        assertEquals(1 + credits.get() + debits.get(), vaccineDistributionRepository.findAll().stream()
+                .filter(vaccineDistribution -> vaccineDistribution.getHealthFacility().getId().equals(healthFacility.getId()))
+                .count());
+    }
+
+    @Test
+    void parallelFirstDistributionsCreateStockOnce_Test() throws Exception {
+        HealthFacility healthFacility = healthFacilityRepository.save(HealthFacility.builder()
+                .name("Klinik")
+                .build());
+        Vaccine vaccine = vaccineRepository.save(Vaccine.builder()
+                .name("Pfizer")
+                .build());
+
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(() -> {
+                try {
+                    distribute(healthFacility, vaccine, 1L);
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+                return null;
+            });
+        }
+        runAll(tasks);
+
+        assertTrue(errors.isEmpty(), () -> "Unexpected failures: " + errors);
+        assertEquals(THREADS, stock(healthFacility, vaccine));
+    }
+}
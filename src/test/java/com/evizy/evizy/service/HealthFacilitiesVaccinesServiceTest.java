@@ -2,22 +2,26 @@ package com.evizy.evizy.service;
 
 import com.evizy.evizy.domain.dao.*;
 import com.evizy.evizy.domain.dto.*;
+import com.evizy.evizy.domain.projection.HealthFacilityVaccinesView;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.*;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
 @SpringBootTest(classes = HealthFacilitiesVaccinesService.class)
@@ -32,29 +36,28 @@ class HealthFacilitiesVaccinesServiceTest {
     private VaccineRepository vaccineRepository;
     @MockBean
     private VaccineDistributionRepository vaccineDistributionRepository;
+    @MockBean
+    private TransactionTemplate transactionTemplate;
 
     @Autowired
     private HealthFacilitiesVaccinesService healthFacilitiesVaccinesService;
 
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(mock(TransactionStatus.class)));
+    }
+
     @Test
     void findAllHealthFacilityVaccinesSuccess_Test() {
-        when(healthFacilitiesVaccinesRepository.findAllByHealthFacilityId(1L)).thenReturn(List.of(
-                HealthFacilitiesVaccines.builder()
-                        .healthFacility(HealthFacility.builder()
-                                .id(1L)
-                                .build())
-                        .vaccine(Vaccine.builder()
-                                .id(1L)
-                                .build())
+        when(healthFacilitiesVaccinesRepository.findAllViewsByHealthFacilityId(1L)).thenReturn(List.of(
+                HealthFacilityVaccinesView.builder()
+                        .healthFacilityId(1L)
+                        .vaccineId(1L)
                         .stock(10L)
                         .build(),
-                HealthFacilitiesVaccines.builder()
-                        .healthFacility(HealthFacility.builder()
-                                .id(1L)
-                                .build())
-                        .vaccine(Vaccine.builder()
-                                .id(2L)
-                                .build())
+                HealthFacilityVaccinesView.builder()
+                        .healthFacilityId(1L)
+                        .vaccineId(2L)
                         .stock(200L)
                         .build()
         ));
@@ -182,7 +185,7 @@ class HealthFacilitiesVaccinesServiceTest {
                         .build()
         ));
 
-        when(healthFacilitiesVaccinesRepository.findById(any())).thenReturn(Optional.empty());
+        when(healthFacilitiesVaccinesRepository.debitStock(1L, 1L, 10L)).thenReturn(0);
 
         try {
             HealthFacilityVaccinesRequest healthFacilityVaccinesRequest = healthFacilitiesVaccinesService.distribute(VaccineDistributionRequest.builder()
@@ -203,6 +206,7 @@ class HealthFacilitiesVaccinesServiceTest {
         } catch (Exception e){
             fail();
         }
+        verify(vaccineDistributionRepository, never()).save(any());
     }
 
     @Test
@@ -225,6 +229,7 @@ class HealthFacilitiesVaccinesServiceTest {
                         .build()
         ));
 
+        when(healthFacilitiesVaccinesRepository.creditStock(1L, 1L, 10L)).thenReturn(1);
         when(healthFacilitiesVaccinesRepository.findById(any())).thenReturn(Optional.of(
                 HealthFacilitiesVaccines.builder()
                         .healthFacility(HealthFacility.builder()
@@ -233,7 +238,7 @@ class HealthFacilitiesVaccinesServiceTest {
                         .vaccine(Vaccine.builder()
                                 .id(1L)
                                 .build())
-                        .stock(10L)
+                        .stock(20L)
                         .build()
         ));
 
@@ -251,5 +256,7 @@ class HealthFacilitiesVaccinesServiceTest {
                 .build());
 
         assertEquals(20L, healthFacilityVaccinesRequest.getStock());
+        verify(healthFacilitiesVaccinesRepository).insertEmptyStockIfAbsent(1L, 1L);
+        verify(vaccineDistributionRepository).save(any());
     }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import com.evizy.evizy.domain.dao.HealthFacility;
 import com.evizy.evizy.domain.dto.AdminsRequest;
 import com.evizy.evizy.domain.dto.CityRequest;
 import com.evizy.evizy.domain.dto.HealthFacilityRequest;
+import com.evizy.evizy.domain.projection.HealthFacilityView;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.AdminRepository;
 import com.evizy.evizy.repository.CityRepository;
@@ -157,30 +158,22 @@ class HealthFacilityServiceTest {
 
     @Test
     void findAllHealthFacilitySuccess_Test() {
-        when(healthFacilityRepository.findAll()).thenReturn(List.of(
-                HealthFacility.builder()
+        when(healthFacilityRepository.findViewsByIdGreaterThan(any(), any())).thenReturn(List.of(
+                HealthFacilityView.builder()
                         .id(1L)
                         .name("My Health Facility 1")
-                        .admin(Admin.builder()
-                                .id(1L)
-                                .build())
-                        .city(City.builder()
-                                .id(1L)
-                                .build())
+                        .adminId(1L)
+                        .cityId(1L)
                         .build(),
-                HealthFacility.builder()
+                HealthFacilityView.builder()
                         .id(2L)
                         .name("My Health Facility 2")
-                        .admin(Admin.builder()
-                                .id(2L)
-                                .build())
-                        .city(City.builder()
-                                .id(2L)
-                                .build())
+                        .adminId(2L)
+                        .cityId(2L)
                         .build()
         ));
 
-        List<HealthFacilityRequest> healthFacilities = healthFacilityService.findAll(null);
+        List<HealthFacilityRequest> healthFacilities = healthFacilityService.findAll(null, null, null).getItems();
         assertEquals(1L, healthFacilities.get(0).getId());
         assertEquals("My Health Facility 1", healthFacilities.get(0).getName());
         assertEquals(1L, healthFacilities.get(0).getCity().getId());
@@ -193,30 +186,22 @@ class HealthFacilityServiceTest {
 
     @Test
     void findAllHealthFacilityByCityIdSuccess_Test() {
-        when(healthFacilityRepository.findAllByCityId(any())).thenReturn(List.of(
-                HealthFacility.builder()
+        when(healthFacilityRepository.findViewsByCityIdAndIdGreaterThan(any(), any(), any())).thenReturn(List.of(
+                HealthFacilityView.builder()
                         .id(1L)
                         .name("My Health Facility 1")
-                        .admin(Admin.builder()
-                                .id(1L)
-                                .build())
-                        .city(City.builder()
-                                .id(1L)
-                                .build())
+                        .adminId(1L)
+                        .cityId(1L)
                         .build(),
-                HealthFacility.builder()
+                HealthFacilityView.builder()
                         .id(3L)
                         .name("My Health Facility 3")
-                        .admin(Admin.builder()
-                                .id(2L)
-                                .build())
-                        .city(City.builder()
-                                .id(1L)
-                                .build())
+                        .adminId(2L)
+                        .cityId(1L)
                         .build()
         ));
 
-        List<HealthFacilityRequest> healthFacilities = healthFacilityService.findAll(1L);
+        List<HealthFacilityRequest> healthFacilities = healthFacilityService.findAll(1L, null, null).getItems();
         assertEquals(1L, healthFacilities.get(0).getId());
         assertEquals("My Health Facility 1", healthFacilities.get(0).getName());
         assertEquals(1L, healthFacilities.get(0).getCity().getId());
@@ -229,16 +214,12 @@ class HealthFacilityServiceTest {
 
     @Test
     void findHealthFacilityByIdSuccess_Test() {
-        when(healthFacilityRepository.findById(any())).thenReturn(Optional.of(
-                HealthFacility.builder()
+        when(healthFacilityRepository.findViewById(any())).thenReturn(Optional.of(
+                HealthFacilityView.builder()
                         .id(1L)
                         .name("My Health Facility 1")
-                        .admin(Admin.builder()
-                                .id(1L)
-                                .build())
-                        .city(City.builder()
-                                .id(1L)
-                                .build())
+                        .adminId(1L)
+                        .cityId(1L)
                         .build()
         ));
 
@@ -0,0 +1,150 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.errors.BusinessFlowException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = IdempotencyService.class, properties = "app.idempotency.max-entries=2")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class IdempotencyServiceTest {
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger executed = new AtomicInteger();
+
+    private ResponseEntity<?> created() {
+        return new ResponseEntity<>("pass-" + executed.incrementAndGet(), HttpStatus.CREATED);
+    }
+
+    @Test
+    void replayReturnsOriginalResponseSuccess_Test() {
+        ResponseEntity<?> first = idempotencyService.execute("key", "user_1", "request", this::created);
+        ResponseEntity<?> second = idempotencyService.execute("key", "user_1", "request", this::created);
+
+        assertEquals(1, executed.get());
+        assertSame(first, second);
+    }
+
+    @Test
+    void withoutKeyAlwaysExecutesSuccess_Test() {
+        idempotencyService.execute(null, "user_1", "request", this::created);
+        idempotencyService.execute("", "user_1", "request", this::created);
+
+        assertEquals(2, executed.get());
+    }
+
+    @Test
+    void keysAreScopedSuccess_Test() {
+        idempotencyService.execute("key", "user_1", "request", this::created);
+        idempotencyService.execute("key", "user_2", "request", this::created);
+
+        assertEquals(2, executed.get());
+    }
+
+    @Test
+    void reuseKeyForOtherRequestFail_Test() {
+        idempotencyService.execute("key", "user_1", "request", this::created);
+
+        try {
+            idempotencyService.execute("key", "user_1", "other request", this::created);
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.IDEMPOTENCY_KEY_REUSED, e.getCode());
+            assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getHttpStatus());
+        }
+        assertEquals(1, executed.get());
+    }
+
+    @Test
+    void reuseKeyForRequestWithSameHashCodeFail_Test() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        idempotencyService.execute("key", "user_1", "Aa", this::created);
+
+        try {
+            idempotencyService.execute("key", "user_1", "BB", this::created);
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.IDEMPOTENCY_KEY_REUSED, e.getCode());
+        }
+        assertEquals(1, executed.get());
+    }
+
+    @Test
+    void clientErrorIsStoredSuccess_Test() {
+        ResponseEntity<?> first = idempotencyService.execute("key", "user_1", "request", () -> new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        ResponseEntity<?> retry = idempotencyService.execute("key", "user_1", "request", this::created);
+
+        assertSame(first, retry);
+        assertEquals(0, executed.get());
+    }
+
+    @Test
+    void transientClientErrorIsNotStoredSuccess_Test() {
+        idempotencyService.execute("key", "user_1", "request", () -> new ResponseEntity<>(HttpStatus.CONFLICT));
+        idempotencyService.execute("key", "user_1", "request", () -> new ResponseEntity<>(HttpStatus.TOO_MANY_REQUESTS));
+        ResponseEntity<?> retry = idempotencyService.execute("key", "user_1", "request", this::created);
+
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(1, executed.get());
+    }
+
+    @Test
+    void serverErrorIsNotStoredSuccess_Test() {
+        idempotencyService.execute("key", "user_1", "request", () -> new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR));
+        ResponseEntity<?> retry = idempotencyService.execute("key", "user_1", "request", this::created);
+
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(1, executed.get());
+    }
+
+    @Test
+    void storeIsBoundedSuccess_Test() {
+        idempotencyService.execute("key-1", "user_1", "request", this::created);
+        idempotencyService.execute("key-2", "user_1", "request", this::created);
+        idempotencyService.execute("key-3", "user_1", "request", this::created);
+        idempotencyService.execute("key-1", "user_1", "request", this::created);
+
+        assertEquals(4, executed.get());
+    }
+
+    @Test
+    void concurrentRetryWaitsForFirstResponseSuccess_Test() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<ResponseEntity<?>> first = executor.submit(() -> idempotencyService.execute("key", "user_1", "request", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return created();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Executors.newSingleThreadScheduledExecutor().schedule(release::countDown, 200, TimeUnit.MILLISECONDS);
+        ResponseEntity<?> retry = idempotencyService.execute("key", "user_1", "request", this::created);
+
+        assertSame(first.get(5, TimeUnit.SECONDS), retry);
+        assertEquals(1, executed.get());
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,104 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.errors.BusinessFlowException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginExecutorTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private LoginExecutor loginExecutor;
+
+    @BeforeEach
+    void setUp() {
+        loginExecutor = new LoginExecutor();
+        ReflectionTestUtils.setField(loginExecutor, "threads", 1);
+        ReflectionTestUtils.setField(loginExecutor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(loginExecutor, "timeoutMs", 5000L);
+        loginExecutor.start();
+        loginExecutor.bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loginExecutor.stop();
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+
+    private static void assertBusy(Runnable login) {
+        BusinessFlowException e = assertThrows(BusinessFlowException.class, login::run);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getHttpStatus());
+        assertEquals(ResponseMessage.LOGIN_BUSY, e.getCode());
+    }
+
+    @Test
+    void executeSuccess_Test() {
+        String thread = loginExecutor.execute("login", () -> Thread.currentThread().getName());
+        assertTrue(thread.startsWith("login-"));
+        assertEquals(1, registry.get("auth.password.hash").tag("operation", "login").timer().count());
+        assertEquals(1, registry.get("auth.login.wait").tag("operation", "login").timer().count());
+    }
+
+    @Test
+    void executeRethrowsTaskExceptionFail_Test() {
+        assertThrows(BadCredentialsException.class, () -> loginExecutor.execute("login", () -> {
+            throw new BadCredentialsException("Bad credentials");
+        }));
+        assertEquals(0, registry.get("auth.login.rejected").functionCounter().count());
+    }
+
+    @Test
+    void executeWhenFullRejectsFail_Test() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> loginExecutor.execute("login", () -> await(release)));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> loginExecutor.execute("login", () -> await(release)));
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((gauge("auth.login.active") < 1 || gauge("auth.login.queue.depth") < 1) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, gauge("auth.login.active"));
+        assertEquals(1, gauge("auth.login.queue.depth"));
+
+        long startedAt = System.nanoTime();
+        assertBusy(() -> loginExecutor.execute("login", () -> true));
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, registry.get("auth.login.rejected").functionCounter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void executeTimeoutFail_Test() {
+        ReflectionTestUtils.setField(loginExecutor, "timeoutMs", 100L);
+        CountDownLatch release = new CountDownLatch(1);
+        assertBusy(() -> loginExecutor.execute("login", () -> await(release)));
+        assertEquals(1, registry.get("auth.login.rejected").functionCounter().count());
+        release.countDown();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.evizy.evizy.domain.dao.News;
 import com.evizy.evizy.domain.dto.AdminsRequest;
 import com.evizy.evizy.domain.dto.CityRequest;
 import com.evizy.evizy.domain.dto.NewsRequest;
+import com.evizy.evizy.domain.projection.NewsView;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.CityRepository;
 import com.evizy.evizy.repository.NewsRepository;
@@ -87,28 +88,24 @@ class NewsServiceTest {
 
     @Test
     void findAllNewsSuccess_Test() {
-        when(newsRepository.findAll()).thenReturn(List.of(
-                News.builder()
+        when(newsRepository.findViewsByIdGreaterThan(any(), any())).thenReturn(List.of(
+                NewsView.builder()
                         .id(1L)
                         .title("This is title 1")
                         .description("This is desc 1")
                         .content("This is content 1")
-                        .admin(Admin.builder()
-                                .id(1L)
-                                .build())
+                        .adminId(1L)
                         .build(),
-                News.builder()
+                NewsView.builder()
                         .id(2L)
                         .title("This is title 2")
                         .description("This is desc 2")
                         .content("This is content 2")
-                        .admin(Admin.builder()
-                                .id(2L)
-                                .build())
+                        .adminId(2L)
                         .build()
         ));
 
-        List<NewsRequest> news = newsService.find();
+        List<NewsRequest> news = newsService.find(null, null).getItems();
         assertEquals(1L, news.get(0).getId());
         assertEquals("This is title 1", news.get(0).getTitle());
         assertEquals("This is desc 1", news.get(0).getDescription());
@@ -123,15 +120,13 @@ class NewsServiceTest {
 
     @Test
     void findNewsByIdSuccess_Test() {
-        when(newsRepository.findById(any())).thenReturn(Optional.of(
-                News.builder()
+        when(newsRepository.findViewById(any())).thenReturn(Optional.of(
+                NewsView.builder()
                     .id(1L)
                     .title("This is title")
                     .description("This is desc")
                     .content("This is content")
-                    .admin(Admin.builder()
-                            .id(1L)
-                            .build())
+                    .adminId(1L)
                     .build()
         ));
 
@@ -145,7 +140,7 @@ class NewsServiceTest {
 
     @Test
     void findNewsByIdFail_Test() {
-        when(newsRepository.findById(any())).thenReturn(Optional.empty());
+        when(newsRepository.findViewById(any())).thenReturn(Optional.empty());
 
         try {
             NewsRequest news = newsService.find(1L);
@@ -0,0 +1,112 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.repository.UsersRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = NikFilter.class, properties = "app.nik-filter.false-positive-probability=0.01")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class NikFilterTest {
+    private static final int CITIZENS = 100000;
+
+    @MockBean
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private NikFilter nikFilter;
+
+    private static String nik(long i) {
+        return String.valueOf(3171000000000000L + i);
+    }
+
+    @Test
+    void everyNikMightBeContainedBeforeBuildSuccess_Test() {
+        assertTrue(nikFilter.mightBeCitizen("1234567890123456"));
+        assertTrue(nikFilter.mightBeUser("1234567890123456"));
+        assertTrue(nikFilter.mightBeUser(null));
+    }
+
+    @Test
+    void citizenFilterHasNoFalseNegativesSuccess_Test() {
+        List<String> niks = new ArrayList<>();
+        for (int i = 0; i < CITIZENS; i++) {
+            niks.add(nik(i));
+        }
+        nikFilter.rebuildCitizens(niks);
+
+        for (String nik : niks) {
+            assertTrue(nikFilter.mightBeCitizen(nik));
+        }
+    }
+
+    @Test
+    void falsePositiveRateMetricSuccess_Test() {
+        List<String> niks = new ArrayList<>();
+        for (int i = 0; i < CITIZENS; i++) {
+            niks.add(nik(i));
+        }
+        nikFilter.rebuildCitizens(niks);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        nikFilter.bindTo(registry);
+
+        int falsePositives = 0;
+        for (int i = CITIZENS; i < 2 * CITIZENS; i++) {
+            if (nikFilter.mightBeCitizen(nik(i))) {
+                nikFilter.citizenNotFound();
+                falsePositives++;
+            }
+        }
+
+        double rate = registry.get("nik.filter.false.positive.rate").tag("filter", "citizens").gauge().value();
+        assertEquals((double) falsePositives / CITIZENS, rate, 1e-9);
+        assertTrue(rate < 0.02, () -> "False positive rate " + rate);
+        double expected = registry.get("nik.filter.expected.false.positive.rate").tag("filter", "citizens").gauge().value();
+        assertTrue(expected > 0 && expected < 0.02, () -> "Expected false positive rate " + expected);
+    }
+
+    @Test
+    void userRegisteredDuringRefreshIsKeptSuccess_Test() {
+        when(usersRepository.count()).thenReturn(1L);
+        when(usersRepository.findAllNik()).thenAnswer(i -> {
+            nikFilter.addUser("1234567890123457");
+            return List.of("1234567890123456");
+        });
+
+        nikFilter.refreshUsers();
+
+        assertTrue(nikFilter.mightBeUser("1234567890123456"));
+        assertTrue(nikFilter.mightBeUser("1234567890123457"));
+        assertFalse(nikFilter.mightBeUser("1234567890123458"));
+    }
+
+    @Test
+    void citizenPutDuringRebuildIsKeptSuccess_Test() {
+        List<String> niks = new ArrayList<>(List.of("1234567890123456")) {
+            @Override
+            public void forEach(Consumer<? super String> action) {
+                nikFilter.putCitizen("1234567890123457");
+                super.forEach(action);
+            }
+        };
+
+        nikFilter.rebuildCitizens(niks);
+
+        assertTrue(nikFilter.mightBeCitizen("1234567890123456"));
+        assertTrue(nikFilter.mightBeCitizen("1234567890123457"));
+        assertFalse(nikFilter.mightBeCitizen("1234567890123458"));
+    }
+}
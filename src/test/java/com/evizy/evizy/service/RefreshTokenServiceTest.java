@@ -0,0 +1,189 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.config.JwtTokenProvider;
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.dao.Admin;
+import com.evizy.evizy.domain.dao.RefreshToken;
+import com.evizy.evizy.domain.dao.Users;
+import com.evizy.evizy.domain.dto.TokenResponse;
+import com.evizy.evizy.errors.BusinessFlowException;
+import com.evizy.evizy.repository.AdminRepository;
+import com.evizy.evizy.repository.RefreshTokenRepository;
+import com.evizy.evizy.repository.UsersRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = RefreshTokenService.class)
+class RefreshTokenServiceTest {
+    @MockBean
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @MockBean
+    private UsersRepository usersRepository;
+
+    @MockBean
+    private AdminRepository adminRepository;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    private final List<RefreshToken> tokens = new ArrayList<>();
+
+    private final Users user = Users.builder()
+            .id(1L)
+            .nik("1234567890123456")
+            .active(true)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        tokens.clear();
+        when(transactionTemplate.execute(any())).thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(mock(TransactionStatus.class)));
+        when(refreshTokenRepository.save(any())).thenAnswer(i -> {
+            RefreshToken token = i.getArgument(0);
+            token.setId((long) tokens.size() + 1);
+            tokens.add(token);
+            return token;
+        });
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenAnswer(i -> tokens.stream()
+                .filter(token -> token.getTokenHash().equals(i.getArgument(0)))
+                .findFirst());
+        when(refreshTokenRepository.markUsed(anyLong(), any())).thenAnswer(i -> {
+            RefreshToken token = tokens.get((int) (long) i.getArgument(0, Long.class) - 1);
+            if (token.getUsedAt() != null || token.getRevokedAt() != null) {
+                return 0;
+            }
+            token.setUsedAt(i.getArgument(1));
+            return 1;
+        });
+        when(refreshTokenRepository.revokeFamily(anyString(), any())).thenAnswer(i -> {
+            tokens.stream()
+                    .filter(token -> token.getFamilyId().equals(i.getArgument(0)) && token.getRevokedAt() == null)
+                    .forEach(token -> token.setRevokedAt(i.getArgument(1)));
+            return 1;
+        });
+        when(usersRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(jwtTokenProvider.generateToken(any())).thenAnswer(i -> "ACCESS_TOKEN_" + ((Authentication) i.getArgument(0)).getName());
+    }
+
+    private static void assertInvalid(Runnable refresh) {
+        BusinessFlowException e = assertThrows(BusinessFlowException.class, refresh::run);
+        assertEquals(HttpStatus.UNAUTHORIZED, e.getHttpStatus());
+        assertEquals(ResponseMessage.INVALID_REFRESH_TOKEN, e.getCode());
+    }
+
+    @Test
+    void issueStoresHashOnlySuccess_Test() {
+        String token = refreshTokenService.issue(user);
+
+        assertEquals(1, tokens.size());
+        assertNotEquals(token, tokens.get(0).getTokenHash());
+        assertEquals(1L, tokens.get(0).getUserId());
+        assertNull(tokens.get(0).getAdminId());
+        assertTrue(tokens.get(0).getExpiresAt().isAfter(LocalDateTime.now()));
+        assertNotEquals(token, refreshTokenService.issue(user));
+    }
+
+    @Test
+    void refreshRotatesTokenSuccess_Test() {
+        String token = refreshTokenService.issue(user);
+
+        TokenResponse response = refreshTokenService.refresh(token);
+        assertEquals("ACCESS_TOKEN_1234567890123456", response.getAccessToken());
+        assertNotEquals(token, response.getRefreshToken());
+        assertEquals(2, tokens.size());
+        assertNotNull(tokens.get(0).getUsedAt());
+        assertEquals(tokens.get(0).getFamilyId(), tokens.get(1).getFamilyId());
+
+        TokenResponse next = refreshTokenService.refresh(response.getRefreshToken());
+        assertEquals("ACCESS_TOKEN_1234567890123456", next.getAccessToken());
+    }
+
+    @Test
+    void refreshAdminSuccess_Test() {
+        Admin admin = Admin.builder()
+                .id(2L)
+                .username("admin")
+                .active(true)
+                .build();
+        when(adminRepository.findById(2L)).thenReturn(Optional.of(admin));
+
+        TokenResponse response = refreshTokenService.refresh(refreshTokenService.issue(admin));
+        assertEquals("ACCESS_TOKEN_admin", response.getAccessToken());
+        assertEquals(2L, tokens.get(1).getAdminId());
+        verify(usersRepository, never()).findById(any());
+    }
+
+    @Test
+    void refreshReusedTokenRevokesFamilyFail_Test() {
+        String token = refreshTokenService.issue(user);
+        String next = refreshTokenService.refresh(token).getRefreshToken();
+        String other = refreshTokenService.issue(user);
+
+        assertInvalid(() -> refreshTokenService.refresh(token));
+        assertInvalid(() -> refreshTokenService.refresh(next));
+        assertNotNull(refreshTokenService.refresh(other).getAccessToken());
+    }
+
+    @Test
+    void refreshUnknownOrExpiredTokenFail_Test() {
+        assertInvalid(() -> refreshTokenService.refresh("unknown"));
+        assertInvalid(() -> refreshTokenService.refresh(null));
+
+        String token = refreshTokenService.issue(user);
+        tokens.get(0).setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        assertInvalid(() -> refreshTokenService.refresh(token));
+        verify(jwtTokenProvider, never()).generateToken(any());
+    }
+
+    @Test
+    void refreshInactiveAccountRevokesFamilyFail_Test() {
+        String token = refreshTokenService.issue(user);
+        user.setActive(false);
+
+        assertInvalid(() -> refreshTokenService.refresh(token));
+        assertNotNull(tokens.get(0).getRevokedAt());
+        verify(jwtTokenProvider, never()).generateToken(any());
+    }
+
+    @Test
+    void revokeFamilySuccess_Test() {
+        String token = refreshTokenService.issue(user);
+        String next = refreshTokenService.refresh(token).getRefreshToken();
+
+        refreshTokenService.revoke(next);
+        refreshTokenService.revoke("unknown");
+        refreshTokenService.revoke(null);
+        assertNotNull(tokens.get(0).getRevokedAt());
+        assertInvalid(() -> refreshTokenService.refresh(next));
+        verify(refreshTokenRepository, times(1)).revokeFamily(anyString(), any());
+    }
+}
@@ -0,0 +1,322 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.domain.dao.VaccinationSessions;
+import com.evizy.evizy.repository.BookingHoldRepository;
+import com.evizy.evizy.repository.VaccinationPassRepository;
+import com.evizy.evizy.repository.VaccinationSessionsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = SessionCapacityLedger.class, properties = "app.booking.ledger.enabled=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SessionCapacityLedgerTest {
+    @MockBean
+    private VaccinationSessionsRepository vaccinationSessionsRepository;
+    @MockBean
+    private VaccinationPassRepository vaccinationPassRepository;
+    @MockBean
+    private BookingHoldRepository bookingHoldRepository;
+    @MockBean
+    private JdbcTemplate jdbcTemplate;
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SessionCapacityLedger sessionCapacityLedger;
+
+    @Test
+    void acquireUntilFullSuccess_Test() {
+        when(vaccinationSessionsRepository.findById(1L)).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(1L)
+                .quantity(10L)
+                .booked(7L)
+                .build()));
+        when(vaccinationPassRepository.countByVaccinationSessionsId(1L)).thenReturn(7L);
+
+        assertTrue(sessionCapacityLedger.isEnabled());
+        assertTrue(sessionCapacityLedger.tryAcquire(1L));
+        assertTrue(sessionCapacityLedger.tryAcquire(1L));
+        assertTrue(sessionCapacityLedger.tryAcquire(1L));
+        assertFalse(sessionCapacityLedger.tryAcquire(1L));
+        verify(vaccinationSessionsRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void acquireSessionNotFoundFail_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.empty());
+
+        assertFalse(sessionCapacityLedger.tryAcquire(2L));
+    }
+
+    @Test
+    void releaseUntrackedSessionFail_Test() {
+        assertFalse(sessionCapacityLedger.release(3L, 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void flushWritesPendingDeltaSuccess_Test() {
+        when(vaccinationSessionsRepository.findById(4L)).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(4L)
+                .quantity(10L)
+                .booked(0L)
+                .build()));
+
+        sessionCapacityLedger.tryAcquire(4L);
+        sessionCapacityLedger.tryAcquire(4L);
+        sessionCapacityLedger.tryAcquire(4L);
+        assertTrue(sessionCapacityLedger.release(4L, 1));
+        sessionCapacityLedger.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(2L, captor.getValue().get(0)[0]);
+        assertEquals(4L, captor.getValue().get(0)[1]);
+
+        sessionCapacityLedger.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void evictWritesBackInOwnTransactionSuccess_Test() {
+        when(vaccinationSessionsRepository.findById(7L)).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(7L)
+                .quantity(10L)
+                .booked(0L)
+                .build()));
+
+        sessionCapacityLedger.tryAcquire(7L);
+        sessionCapacityLedger.tryAcquire(7L);
+        sessionCapacityLedger.evict(7L);
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        assertEquals(2L, captor.getValue().get(0)[0]);
+        verify(transactionManager).commit(any());
+
+        assertFalse(sessionCapacityLedger.release(7L, 1));
+        assertTrue(sessionCapacityLedger.tryAcquire(7L));
+        verify(vaccinationSessionsRepository, times(2)).findById(7L);
+    }
+
+    @Test
+    void evictFailureKeepsPendingDeltaFail_Test() {
+        when(vaccinationSessionsRepository.findById(8L)).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(8L)
+                .quantity(10L)
+                .booked(0L)
+                .build()));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("connection reset"));
+
+        sessionCapacityLedger.tryAcquire(8L);
+        assertThrows(RuntimeException.class, () -> sessionCapacityLedger.evict(8L));
+
+        assertTrue(sessionCapacityLedger.release(8L, 1));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void releaseInTransactionWaitsForCommitSuccess_Test() {
+        when(vaccinationSessionsRepository.findById(9L)).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(9L)
+                .quantity(1L)
+                .booked(0L)
+                .build()));
+        assertTrue(sessionCapacityLedger.tryAcquire(9L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(sessionCapacityLedger.release(9L, 1));
+            assertFalse(sessionCapacityLedger.tryAcquire(9L));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(sessionCapacityLedger.tryAcquire(9L));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void releaseAfterEvictCorrectsDatabaseSuccess_Test() {
+        when(vaccinationSessionsRepository.findById(10L)).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(10L)
+                .quantity(5L)
+                .booked(0L)
+                .build()));
+        sessionCapacityLedger.tryAcquire(10L);
+        sessionCapacityLedger.tryAcquire(10L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(sessionCapacityLedger.release(10L, 2));
+            sessionCapacityLedger.evict(10L);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), captor.capture());
+        assertEquals(2L, captor.getAllValues().get(0).get(0)[0]);
+        assertEquals(-2L, captor.getAllValues().get(1).get(0)[0]);
+    }
+
+    @Test
+    void evictBlocksSessionUntilTransactionCompletesSuccess_Test() {
+        when(vaccinationSessionsRepository.findById(11L)).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(11L)
+                .quantity(2L)
+                .booked(0L)
+                .build()));
+        when(vaccinationSessionsRepository.incrementBookedIfAvailable(11L, 1L)).thenReturn(1);
+        assertTrue(sessionCapacityLedger.tryAcquire(11L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            sessionCapacityLedger.evict(11L);
+            assertTrue(sessionCapacityLedger.tryAcquire(11L));
+            assertFalse(sessionCapacityLedger.release(11L, 1));
+            verify(vaccinationSessionsRepository, times(1)).findById(11L);
+            verify(vaccinationSessionsRepository).incrementBookedIfAvailable(11L, 1L);
+
+            when(vaccinationSessionsRepository.findById(11L)).thenReturn(Optional.of(VaccinationSessions.builder()
+                    .id(11L)
+                    .quantity(5L)
+                    .booked(2L)
+                    .build()));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(sessionCapacityLedger.tryAcquire(11L));
+        assertTrue(sessionCapacityLedger.tryAcquire(11L));
+        assertTrue(sessionCapacityLedger.tryAcquire(11L));
+        assertFalse(sessionCapacityLedger.tryAcquire(11L));
+        verify(vaccinationSessionsRepository, times(2)).findById(11L);
+        verify(vaccinationSessionsRepository, times(1)).incrementBookedIfAvailable(11L, 1L);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void flushFailureKeepsPendingDeltaFail_Test() {
+        when(vaccinationSessionsRepository.findById(12L)).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(12L)
+                .quantity(10L)
+                .booked(0L)
+                .build()));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(new int[]{1});
+
+        sessionCapacityLedger.tryAcquire(12L);
+        sessionCapacityLedger.tryAcquire(12L);
+        sessionCapacityLedger.flush();
+        sessionCapacityLedger.tryAcquire(12L);
+        sessionCapacityLedger.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), captor.capture());
+        assertEquals(3L, captor.getAllValues().get(1).get(0)[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void flushFailureAfterEvictWritesDeltaFail_Test() {
+        when(vaccinationSessionsRepository.findById(13L)).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(13L)
+                .quantity(10L)
+                .booked(0L)
+                .build()));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenAnswer(invocation -> {
+                    sessionCapacityLedger.evict(13L);
+                    throw new RuntimeException("connection reset");
+                })
+                .thenReturn(new int[]{1});
+
+        sessionCapacityLedger.tryAcquire(13L);
+        sessionCapacityLedger.tryAcquire(13L);
+        sessionCapacityLedger.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), captor.capture());
+        assertEquals(2L, captor.getAllValues().get(1).get(0)[0]);
+        verify(transactionManager).commit(any());
+        assertFalse(sessionCapacityLedger.release(13L, 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void recoverUnflushedBookingsSuccess_Test() {
+        when(vaccinationSessionsRepository.findById(5L)).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(5L)
+                .quantity(10L)
+                .booked(2L)
+                .build()));
+        when(vaccinationPassRepository.countByVaccinationSessionsId(5L)).thenReturn(6L);
+        when(bookingHoldRepository.countByVaccinationSessionsId(5L)).thenReturn(2L);
+
+        assertTrue(sessionCapacityLedger.tryAcquire(5L));
+        assertTrue(sessionCapacityLedger.tryAcquire(5L));
+        assertFalse(sessionCapacityLedger.tryAcquire(5L));
+        sessionCapacityLedger.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        assertEquals(8L, captor.getValue().get(0)[0]);
+    }
+
+    @Test
+    void concurrentAcquireNeverExceedsQuantity_Test() throws Exception {
+        when(vaccinationSessionsRepository.findById(6L)).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(6L)
+                .quantity(1000L)
+                .booked(0L)
+                .build()));
+
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 5000; i++) {
+            executor.submit(() -> {
+                if (sessionCapacityLedger.tryAcquire(6L)) {
+                    admitted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(1000, admitted.get());
+    }
+}
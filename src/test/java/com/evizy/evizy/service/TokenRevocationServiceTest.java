@@ -0,0 +1,117 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.domain.dao.RevokedToken;
+import com.evizy.evizy.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = TokenRevocationService.class, properties = "app.jwt.revocation.poll-overlap-ms=60000")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class TokenRevocationServiceTest {
+    @MockBean
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @MockBean
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    private static RevokedToken revokedToken(String jti, LocalDateTime expiresAt) {
+        return RevokedToken.builder()
+                .jti(jti)
+                .expiresAt(expiresAt)
+                .revokedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void revokeSuccess_Test() {
+        assertFalse(tokenRevocationService.isRevoked("jti-1"));
+
+        tokenRevocationService.revoke("jti-1", LocalDateTime.now().plusHours(1));
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+        assertFalse(tokenRevocationService.isRevoked("jti-2"));
+        assertFalse(tokenRevocationService.isRevoked(null));
+
+        ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(captor.capture());
+        assertEquals("jti-1", captor.getValue().getJti());
+
+        tokenRevocationService.revoke("jti-1", LocalDateTime.now().plusHours(1));
+        verify(revokedTokenRepository, times(1)).save(any());
+    }
+
+    @Test
+    void revokeExpiredTokenIgnoredSuccess_Test() {
+        tokenRevocationService.revoke("jti-1", LocalDateTime.now().minusSeconds(1));
+        assertFalse(tokenRevocationService.isRevoked("jti-1"));
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void revokeAlreadyRevokedOnOtherNodeSuccess_Test() {
+        when(revokedTokenRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        tokenRevocationService.revoke("jti-1", LocalDateTime.now().plusHours(1));
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+    }
+
+    @Test
+    void pollLoadsRevocationsFromOtherNodesSuccess_Test() {
+        when(revokedTokenRepository.findAllByExpiresAtAfter(any())).thenReturn(List.of(
+                revokedToken("jti-1", LocalDateTime.now().plusHours(1))));
+        tokenRevocationService.poll();
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+
+        when(revokedTokenRepository.findAllByRevokedAtGreaterThanEqual(any())).thenReturn(List.of(
+                revokedToken("jti-2", LocalDateTime.now().plusHours(1)),
+                revokedToken("jti-3", LocalDateTime.now().minusSeconds(1))));
+        tokenRevocationService.poll();
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+        assertTrue(tokenRevocationService.isRevoked("jti-2"));
+        assertFalse(tokenRevocationService.isRevoked("jti-3"));
+        assertEquals(2, tokenRevocationService.size());
+
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(revokedTokenRepository).findAllByRevokedAtGreaterThanEqual(since.capture());
+        assertTrue(since.getValue().isBefore(LocalDateTime.now().minusSeconds(59)));
+        verify(revokedTokenRepository, times(1)).findAllByExpiresAtAfter(any());
+    }
+
+    @Test
+    void pollForgetsExpiredTokensSuccess_Test() throws Exception {
+        tokenRevocationService.revoke("jti-1", LocalDateTime.now().plusNanos(200_000_000));
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+
+        Thread.sleep(300);
+        tokenRevocationService.poll();
+        assertFalse(tokenRevocationService.isRevoked("jti-1"));
+        assertEquals(0, tokenRevocationService.size());
+    }
+
+    @Test
+    void pollFailureKeepsRevocationsSuccess_Test() {
+        tokenRevocationService.revoke("jti-1", LocalDateTime.now().plusHours(1));
+        when(revokedTokenRepository.findAllByExpiresAtAfter(any())).thenThrow(new RuntimeException("connection refused"));
+
+        tokenRevocationService.poll();
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+    }
+}
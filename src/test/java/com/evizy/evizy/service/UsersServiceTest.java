@@ -1,38 +1,58 @@
 package com.evizy.evizy.service;
 
+import com.evizy.evizy.config.BeanConfiguration;
 import com.evizy.evizy.constant.ResponseMessage;
 import com.evizy.evizy.domain.common.ApiResponse;
 import com.evizy.evizy.domain.dao.Admin;
 import com.evizy.evizy.domain.dao.Users;
 import com.evizy.evizy.domain.dto.CitizenResponse;
+import com.evizy.evizy.domain.dto.CitizenSyncResponse;
 import com.evizy.evizy.domain.dto.TokenResponse;
 import com.evizy.evizy.domain.dto.UsersRequest;
+import com.evizy.evizy.domain.projection.UserView;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.AdminRepository;
 import com.evizy.evizy.repository.UsersRepository;
+import org.apache.http.conn.ConnectionReleaseTrigger;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
-@SpringBootTest(classes = UsersService.class)
+@SpringBootTest(classes = {UsersService.class, BeanConfiguration.class}, properties = {
+        "app.citizen.circuit-breaker.minimum-number-of-calls=2",
+        "app.citizen.bulkhead.max-concurrent-calls=1"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class UsersServiceTest {
     @MockBean
     private UsersRepository usersRepository;
@@ -109,20 +129,146 @@ class UsersServiceTest {
         assertEquals("Warga 2", citizenResponses.get(1).getName());
     }
 
+    @Test
+    void syncCitizensModifiedSuccess_Test() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v2\"");
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(CitizenResponse[].class))).thenReturn(
+                new ResponseEntity<>(new CitizenResponse[]{
+                        CitizenResponse.builder()
+                                .nik("1234567890123456")
+                                .name("Warga 1")
+                                .build()
+                }, headers, HttpStatus.OK)
+        );
+
+        CitizenSyncResponse sync = usersService.syncCitizens("\"v1\"", null);
+        assertTrue(sync.isModified());
+        assertEquals("\"v2\"", sync.getEtag());
+        assertEquals(1, sync.getCitizens().size());
+    }
+
+    @Test
+    void syncCitizensNotModifiedSuccess_Test() {
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(CitizenResponse[].class))).thenAnswer(i -> {
+            HttpEntity<?> request = i.getArgument(2);
+            assertEquals(List.of("\"v1\""), request.getHeaders().getIfNoneMatch());
+            assertEquals("Tue, 01 Mar 2022 00:00:00 GMT", request.getHeaders().getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+            return new ResponseEntity<CitizenResponse[]>(HttpStatus.NOT_MODIFIED);
+        });
+
+        CitizenSyncResponse sync = usersService.syncCitizens("\"v1\"", "Tue, 01 Mar 2022 00:00:00 GMT");
+        assertFalse(sync.isModified());
+        assertEquals("\"v1\"", sync.getEtag());
+        assertNull(sync.getCitizens());
+    }
+
+    @Test
+    void findCitizenStopsAtMatchSuccess_Test() throws Exception {
+        String body = "[{\"nik\":\"1234567890123456\",\"name\":\"Warga 1\"}," +
+                "{\"nik\":\"1234567890123457\",\"name\":\"Warga 2\",\"date_of_birth\":\"1990-01-01\"}," +
+                "not json, never read";
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getBody()).thenReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), any(), any())).thenAnswer(i ->
+                ((ResponseExtractor<?>) i.getArgument(3)).extractData(response));
+
+        Optional<CitizenResponse> citizen = usersService.findCitizen("1234567890123457");
+        assertTrue(citizen.isPresent());
+        assertEquals("Warga 2", citizen.get().getName());
+        assertEquals(LocalDate.of(1990, 1, 1), citizen.get().getDateOfBirth());
+    }
+
+    @Test
+    void findCitizenAbortsConnectionAfterMatchSuccess_Test() throws Exception {
+        ReleasableBody body = new ReleasableBody("[{\"nik\":\"1234567890123456\"},{\"nik\":\"1234567890123457\"}]");
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getBody()).thenReturn(body);
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), any(), any())).thenAnswer(i ->
+                ((ResponseExtractor<?>) i.getArgument(3)).extractData(response));
+
+        assertTrue(usersService.findCitizen("1234567890123456").isPresent());
+        assertTrue(body.aborted);
+        assertFalse(body.closed);
+    }
+
+    @Test
+    void findCitizenNotFoundKeepsConnectionSuccess_Test() throws Exception {
+        ReleasableBody body = new ReleasableBody("[{\"nik\":\"1234567890123456\"}]");
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getBody()).thenReturn(body);
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), any(), any())).thenAnswer(i ->
+                ((ResponseExtractor<?>) i.getArgument(3)).extractData(response));
+
+        assertTrue(usersService.findCitizen("1234567890123457").isEmpty());
+        assertFalse(body.aborted);
+    }
+
+    @Test
+    void findCitizenNotFoundSuccess_Test() throws Exception {
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getBody()).thenReturn(new ByteArrayInputStream("[{\"nik\":\"1234567890123456\"}]".getBytes(StandardCharsets.UTF_8)));
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), any(), any())).thenAnswer(i ->
+                ((ResponseExtractor<?>) i.getArgument(3)).extractData(response));
+
+        assertTrue(usersService.findCitizen("1234567890123457").isEmpty());
+    }
+
+    @Test
+    void getAllCitizenOpenCircuitFail_Test() {
+        when(restTemplate.getForObject(anyString(), any())).thenThrow(new ResourceAccessException("Read timed out"));
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                usersService.getAllCitizen();
+                fail();
+            } catch (BusinessFlowException e) {
+                assertEquals(ResponseMessage.CITIZEN_SERVICE_UNAVAILABLE, e.getCode());
+                assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getHttpStatus());
+            }
+        }
+        verify(restTemplate, times(2)).getForObject(anyString(), any());
+    }
+
+    @Test
+    void getAllCitizenBulkheadFullFail_Test() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(restTemplate.getForObject(anyString(), any())).thenAnswer(i -> {
+            started.countDown();
+            release.await();
+            return new CitizenResponse[0];
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<List<CitizenResponse>> first = executor.submit(() -> usersService.getAllCitizen());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        try {
+            usersService.getAllCitizen();
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.CITIZEN_SERVICE_UNAVAILABLE, e.getCode());
+        } finally {
+            release.countDown();
+        }
+        assertTrue(first.get(5, TimeUnit.SECONDS).isEmpty());
+        executor.shutdown();
+    }
+
     @Test
     void findAllUserSuccess_Test() {
-        when(usersRepository.findAll()).thenReturn(List.of(
-                Users.builder()
+        when(usersRepository.findViewsByIdGreaterThan(any(), any())).thenReturn(List.of(
+                UserView.builder()
                         .nik("1234567890123456")
                         .name("User 1")
                         .build(),
-                Users.builder()
+                UserView.builder()
                         .nik("1234567890123457")
                         .name("User 2")
                         .build()
         ));
 
-        List<UsersRequest> users = usersService.find();
+        List<UsersRequest> users = usersService.find(null, null).getItems();
         assertEquals("1234567890123456", users.get(0).getNik());
         assertEquals("User 1", users.get(0).getName());
         assertEquals("1234567890123457", users.get(1).getNik());
@@ -131,8 +277,8 @@ class UsersServiceTest {
 
     @Test
     void findUserByIdSuccess_Test() {
-        when(usersRepository.findById(any())).thenReturn(Optional.of(
-                Users.builder()
+        when(usersRepository.findViewById(any())).thenReturn(Optional.of(
+                UserView.builder()
                         .id(1L)
                         .nik("1234567890123456")
                         .name("User 1")
@@ -147,7 +293,7 @@ class UsersServiceTest {
 
     @Test
     void findUserByIdFail_Test() {
-        when(usersRepository.findById(any())).thenReturn(Optional.empty());
+        when(usersRepository.findViewById(any())).thenReturn(Optional.empty());
 
         try {
             UsersRequest user = usersService.find(1L);
@@ -157,4 +303,49 @@ class UsersServiceTest {
             fail();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateUserPasswordSuccess_Test() {
+        Users user = Users.builder().id(1L).nik("1234567890123456").password("$2a$12$old").build();
+        when(usersRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        UserDetails updated = usersService.updatePassword(user, "$2a$10$new");
+        assertEquals("$2a$10$new", updated.getPassword());
+        verify(usersRepository).save(user);
+        verify(adminRepository, never()).save(any());
+    }
+
+    @Test
+    void updateAdminPasswordSuccess_Test() {
+        Admin admin = Admin.builder().id(1L).username("admin").password("$2a$12$old").build();
+        when(adminRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        UserDetails updated = usersService.updatePassword(admin, "$2a$10$new");
+        assertEquals("$2a$10$new", updated.getPassword());
+        verify(adminRepository).save(admin);
+        verify(usersRepository, never()).save(any());
+    }
+
+    private static class ReleasableBody extends ByteArrayInputStream implements ConnectionReleaseTrigger {
+        private boolean aborted;
+        private boolean closed;
+
+        ReleasableBody(String body) {
+            super(body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void releaseConnection() {
+        }
+
+        @Override
+        public void abortConnection() {
+            aborted = true;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
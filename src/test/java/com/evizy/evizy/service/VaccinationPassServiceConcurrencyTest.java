@@ -0,0 +1,199 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.dao.*;
+import com.evizy.evizy.domain.dto.UsersRequest;
+import com.evizy.evizy.domain.dto.VaccinationPassRequest;
+import com.evizy.evizy.domain.dto.VaccinationSessionRequest;
+import com.evizy.evizy.errors.BusinessFlowException;
+import com.evizy.evizy.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({VaccinationPassService.class, SessionCapacityLedger.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pass-concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VaccinationPassServiceConcurrencyTest {
+    private static final int THREADS = 32;
+    private static final int BOOKINGS = 2000;
+    private static final long QUANTITY = 100L;
+
+    @Autowired
+    private VaccinationPassService vaccinationPassService;
+    @Autowired
+    private VaccinationPassRepository vaccinationPassRepository;
+    @Autowired
+    private VaccinationSessionsRepository vaccinationSessionsRepository;
+    @Autowired
+    private VaccineRepository vaccineRepository;
+    @Autowired
+    private UsersRepository usersRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Users user(String nik) {
+        return usersRepository.save(Users.builder()
+                .nik(nik)
+                .name("User")
+                .password("password")
+                .phoneNumber("081234567890")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .gender('M')
+                .active(true)
+                .build());
+    }
+
+    private VaccinationSessions vaccinationSessions(long quantity) {
+        Vaccine vaccine = vaccineRepository.save(Vaccine.builder()
+                .name("Sinovac")
+                .build());
+        return vaccinationSessionsRepository.save(VaccinationSessions.builder()
+                .vaccine(vaccine)
+                .scheduleDate(LocalDate.now().plusDays(1))
+                .scheduleTimeStart("08:00")
+                .scheduleTimeEnd("12:00")
+                .quantity(quantity)
+                .booked(0L)
+                .build());
+    }
+
+    private VaccinationPassRequest book(VaccinationSessions vaccinationSessions, Users user) {
+        return vaccinationPassService.create(VaccinationPassRequest.builder()
+                .vaccinationSession(VaccinationSessionRequest.builder()
+                        .id(vaccinationSessions.getId())
+                        .build())
+                .registeredBy(UsersRequest.builder()
+                        .id(user.getId())
+                        .build())
+                .isPregnant(false)
+                .build());
+    }
+
+    @Test
+    void parallelBookingsNeverExceedQuantity_Test() throws Exception {
+        Users user = user("1234567890123456");
+        VaccinationSessions vaccinationSessions = vaccinationSessions(QUANTITY);
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    start.await();
+                    book(vaccinationSessions, user);
+                    booked.incrementAndGet();
+                } catch (BusinessFlowException e) {
+                    if (ResponseMessage.STOCK_EMPTY.equals(e.getCode())) {
+                        rejected.incrementAndGet();
+                    } else {
+                        errors.add(e);
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertTrue(errors.isEmpty(), () -> "Unexpected failures: " + errors);
+        assertEquals(QUANTITY, booked.get());
+        assertEquals(BOOKINGS - QUANTITY, rejected.get());
+        assertEquals(QUANTITY, vaccinationSessionsRepository.findById(vaccinationSessions.getId()).get().getBooked());
+        assertEquals(QUANTITY, vaccinationPassRepository.countByVaccinationSessionsId(vaccinationSessions.getId()));
+    }
+
+    @Test
+    void parallelCancellationsReleaseEachSeatOnce_Test() throws Exception {
+        Users user = user("1234567890123457");
+        VaccinationSessions vaccinationSessions = vaccinationSessions(10L);
+        List<Long> vaccinationPassIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            vaccinationPassIds.add(book(vaccinationSessions, user).getId());
+        }
+
+        AtomicInteger cancelled = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            for (Long id : vaccinationPassIds.subList(0, 5)) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        start.await();
+                        vaccinationPassService.delete(id);
+                        cancelled.incrementAndGet();
+                    } catch (BusinessFlowException e) {
+                        assertEquals(ResponseMessage.NOT_FOUND, e.getCode());
+                    }
+                    return null;
+                }));
+            }
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(5, cancelled.get());
+        assertEquals(5L, vaccinationSessionsRepository.findById(vaccinationSessions.getId()).get().getBooked());
+
+        assertEquals(5, vaccinationPassService.deleteAllByVaccinationSession(vaccinationSessions.getId()));
+        assertEquals(0L, vaccinationSessionsRepository.findById(vaccinationSessions.getId()).get().getBooked());
+        assertEquals(0L, vaccinationPassRepository.countByVaccinationSessionsId(vaccinationSessions.getId()));
+    }
+
+    @Test
+    void updateUnbookedSessionKeepsCommittedBooking_Test() {
+        Users user = user("1234567890123458");
+        VaccinationSessions vaccinationSessions = vaccinationSessions(10L);
+        LocalDate scheduleDate = LocalDate.now().plusDays(2);
+
+        assertEquals(Integer.valueOf(1), transactionTemplate.execute(status -> vaccinationSessionsRepository.updateUnbookedById(vaccinationSessions.getId(),
+                vaccinationSessions.getVaccine().getId(), scheduleDate, "09:00", "13:00", 5L)));
+        book(vaccinationSessions, user);
+        assertEquals(Integer.valueOf(0), transactionTemplate.execute(status -> vaccinationSessionsRepository.updateUnbookedById(vaccinationSessions.getId(),
+                vaccinationSessions.getVaccine().getId(), scheduleDate, "09:00", "13:00", 1L)));
+
+        VaccinationSessions updated = vaccinationSessionsRepository.findById(vaccinationSessions.getId()).get();
+        assertEquals(scheduleDate, updated.getScheduleDate());
+        assertEquals("09:00", updated.getScheduleTimeStart());
+        assertEquals(5L, updated.getQuantity());
+        assertEquals(1L, updated.getBooked());
+    }
+}
@@ -0,0 +1,237 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.domain.dao.*;
+import com.evizy.evizy.domain.dto.VaccinationPassRequest;
+import com.evizy.evizy.repository.BulkInsertRepositoryImpl;
+import com.evizy.evizy.repository.VaccinationPassRepository;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({VaccinationPassService.class, SessionCapacityLedger.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pass-query;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "app.bulk-insert.flush-size=50",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+class VaccinationPassServiceQueryTest {
+    private static final int PASSES = 10;
+
+    @Autowired
+    private VaccinationPassService vaccinationPassService;
+    @Autowired
+    private VaccinationPassRepository vaccinationPassRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private Users owner;
+    private VaccinationSessions lastVaccinationSessions;
+
+    private Users user(String nik) {
+        return entityManager.persist(Users.builder()
+                .nik(nik)
+                .name("User " + nik)
+                .password("password")
+                .phoneNumber("081234567890")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .gender('M')
+                .active(true)
+                .build());
+    }
+
+    private VaccinationSessions vaccinationSessions(int i) {
+        Admin admin = entityManager.persist(Admin.builder()
+                .username("admin" + i)
+                .password("password")
+                .name("Admin")
+                .active(true)
+                .build());
+        City city = entityManager.persist(City.builder()
+                .name("City " + i)
+                .build());
+        HealthFacility healthFacility = entityManager.persist(HealthFacility.builder()
+                .name("Puskesmas " + i)
+                .admin(admin)
+                .city(city)
+                .build());
+        return entityManager.persist(VaccinationSessions.builder()
+                .healthFacility(healthFacility)
+                .vaccine(vaccine(i))
+                .scheduleDate(LocalDate.now().plusDays(1))
+                .scheduleTimeStart("08:00")
+                .scheduleTimeEnd("12:00")
+                .quantity(100L)
+                .booked(1L)
+                .build());
+    }
+
+    private Vaccine vaccine(int i) {
+        return entityManager.persist(Vaccine.builder()
+                .name("Vaccine " + i)
+                .build());
+    }
+
+    @BeforeEach
+    void setUp() {
+        owner = user("1234567890123456");
+        for (int i = 0; i < PASSES; i++) {
+            FamilyMembers familyMember = entityManager.persist(FamilyMembers.builder()
+                    .users(user("98765432101234" + (10 + i)))
+                    .nik("11111111111111" + (10 + i))
+                    .name("Family " + i)
+                    .phoneNumber("081234567890")
+                    .dateOfBirth(LocalDate.of(2000, 1, 1))
+                    .gender('F')
+                    .build());
+            lastVaccinationSessions = vaccinationSessions(i);
+            entityManager.persist(VaccinationPass.builder()
+                    .registeredBy(owner)
+                    .vaccinationSessions(lastVaccinationSessions)
+                    .familyMembers(familyMember)
+                    .vaccine(vaccine(PASSES + i))
+                    .nik(familyMember.getNik())
+                    .name(familyMember.getName())
+                    .dateOfBirth(familyMember.getDateOfBirth())
+                    .phoneNumber(familyMember.getPhoneNumber())
+                    .gender('F')
+                    .isVaccinated(false)
+                    .isPregnant(false)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllLoadsPageInOneQuery_Test() {
+        List<VaccinationPassRequest> vaccinationPassRequests = vaccinationPassService.findAll(null, null, null).getItems();
+
+        assertEquals(PASSES, vaccinationPassRequests.size());
+        assertEquals("Family 9", vaccinationPassRequests.get(9).getFamilyMember().getName());
+        assertEquals("Vaccine 19", vaccinationPassRequests.get(9).getVaccine().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findAllByUserLoadsPageInOneQuery_Test() {
+        List<VaccinationPassRequest> vaccinationPassRequests = vaccinationPassService.findAll(owner.getId(), null, 4).getItems();
+
+        assertEquals(4, vaccinationPassRequests.size());
+        assertEquals(owner.getName(), vaccinationPassRequests.get(0).getRegisteredBy().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findLoadsPassInOneQuery_Test() {
+        Long id = vaccinationPassService.findAll(null, null, 1).getItems().get(0).getId();
+        statistics.clear();
+
+        VaccinationPassRequest vaccinationPassRequest = vaccinationPassService.find(id);
+        assertEquals("Family 0", vaccinationPassRequest.getFamilyMember().getName());
+        assertEquals(owner.getName(), vaccinationPassRequest.getRegisteredBy().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findByIdLeavesAssociationsUnloaded_Test() {
+        Long id = vaccinationPassService.findAll(null, null, 1).getItems().get(0).getId();
+        statistics.clear();
+
+        VaccinationPass vaccinationPass = entityManager.find(VaccinationPass.class, id);
+        assertFalse(Hibernate.isInitialized(vaccinationPass.getVaccinationSessions()));
+        assertFalse(Hibernate.isInitialized(vaccinationPass.getRegisteredBy()));
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void insertAllBatchesInserts_Test() {
+        List<VaccinationPass> vaccinationPasses = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            vaccinationPasses.add(VaccinationPass.builder()
+                    .registeredBy(owner)
+                    .vaccinationSessions(lastVaccinationSessions)
+                    .nik(owner.getNik())
+                    .name(owner.getName())
+                    .dateOfBirth(owner.getDateOfBirth())
+                    .phoneNumber(owner.getPhoneNumber())
+                    .gender('M')
+                    .isVaccinated(false)
+                    .isPregnant(false)
+                    .build());
+        }
+
+        vaccinationPassRepository.insertAll(vaccinationPasses);
+        assertEquals(120, vaccinationPasses.stream().map(VaccinationPass::getId).distinct().count());
+        assertTrue(statistics.getPrepareStatementCount() <= 6, "statements: " + statistics.getPrepareStatementCount());
+        assertEquals(PASSES + 120, vaccinationPassRepository.count());
+    }
+
+    @Test
+    void insertAllDetachesOnlyFlushedChunks_Test() {
+        Users registeredBy = entityManager.find(Users.class, owner.getId());
+        VaccinationSessions vaccinationSessions = entityManager.find(VaccinationSessions.class, lastVaccinationSessions.getId());
+        List<VaccinationPass> vaccinationPasses = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            vaccinationPasses.add(VaccinationPass.builder()
+                    .registeredBy(registeredBy)
+                    .vaccinationSessions(vaccinationSessions)
+                    .nik(owner.getNik())
+                    .name(owner.getName())
+                    .dateOfBirth(owner.getDateOfBirth())
+                    .phoneNumber(owner.getPhoneNumber())
+                    .gender('M')
+                    .isVaccinated(false)
+                    .isPregnant(false)
+                    .build());
+        }
+
+        vaccinationPassRepository.insertAll(vaccinationPasses);
+        EntityManager em = entityManager.getEntityManager();
+        assertTrue(em.contains(registeredBy));
+        assertTrue(em.contains(vaccinationSessions));
+        assertFalse(em.contains(vaccinationPasses.get(0)));
+        assertFalse(em.contains(vaccinationPasses.get(99)));
+        assertTrue(em.contains(vaccinationPasses.get(100)));
+        assertTrue(em.contains(vaccinationPasses.get(119)));
+    }
+
+    @Test
+    void flushSizeMustBePositiveFail_Test() {
+        BulkInsertRepositoryImpl<VaccinationPass> repository = new BulkInsertRepositoryImpl<>();
+        ReflectionTestUtils.setField(repository, "flushSize", 0);
+        assertThrows(IllegalStateException.class, repository::init);
+    }
+}
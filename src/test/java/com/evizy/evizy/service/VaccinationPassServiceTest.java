@@ -1,23 +1,34 @@
 package com.evizy.evizy.service;
 
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.domain.common.CursorPage;
 import com.evizy.evizy.domain.dao.*;
 import com.evizy.evizy.domain.dto.*;
+import com.evizy.evizy.domain.projection.VaccinationPassView;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.*;
+import com.evizy.evizy.util.Cursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -31,6 +42,8 @@ class VaccinationPassServiceTest {
     private FamilyMembersRepository familyMembersRepository;
     @MockBean
     private UsersRepository usersRepository;
+    @MockBean
+    private SessionCapacityLedger sessionCapacityLedger;
 
     @Autowired
     private VaccinationPassService vaccinationPassService;
@@ -54,6 +67,8 @@ class VaccinationPassServiceTest {
                 .gender('F')
                 .build()));
 
+        when(vaccinationSessionsRepository.incrementBookedIfAvailable(any(), anyLong())).thenReturn(1);
+
         when(vaccinationPassRepository.save(any())).thenAnswer(i -> {
             ((VaccinationPass) i.getArgument(0)).setId(1L);
             return null;
@@ -97,6 +112,8 @@ class VaccinationPassServiceTest {
                 .gender('F')
                 .build()));
 
+        when(vaccinationSessionsRepository.incrementBookedIfAvailable(any(), anyLong())).thenReturn(1);
+
         when(vaccinationPassRepository.save(any())).thenAnswer(i -> {
             ((VaccinationPass) i.getArgument(0)).setId(1L);
             return null;
@@ -193,6 +210,197 @@ class VaccinationPassServiceTest {
         }
     }
 
+    @Test
+    void createVaccinationPassConcurrentlyFilledFail_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(1L)
+                .vaccine(Vaccine.builder()
+                        .id(1L)
+                        .build())
+                .quantity(10L)
+                .booked(9L)
+                .build()));
+
+        when(usersRepository.findById(any())).thenReturn(Optional.of(Users.builder()
+                .id(1L)
+                .gender('F')
+                .build()));
+
+        when(vaccinationSessionsRepository.incrementBookedIfAvailable(any(), anyLong())).thenReturn(0);
+
+        try {
+            vaccinationPassService.create(VaccinationPassRequest.builder()
+                    .vaccinationSession(VaccinationSessionRequest.builder()
+                            .id(1L)
+                            .build())
+                    .registeredBy(UsersRequest.builder()
+                            .id(1L)
+                            .build())
+                    .build());
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals("STOCK_EMPTY", e.getCode());
+        } catch (Exception e) {
+            fail();
+        }
+        verify(vaccinationPassRepository, never()).save(any());
+    }
+
+    @Test
+    void createAllVaccinationPassSuccess_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(1L)
+                .vaccine(Vaccine.builder()
+                        .id(1L)
+                        .build())
+                .quantity(10L)
+                .booked(7L)
+                .build()));
+
+        when(familyMembersRepository.findAllById(any())).thenReturn(List.of(
+                FamilyMembers.builder()
+                        .id(2L)
+                        .users(Users.builder()
+                                .id(1L)
+                                .build())
+                        .gender('F')
+                        .build(),
+                FamilyMembers.builder()
+                        .id(3L)
+                        .users(Users.builder()
+                                .id(1L)
+                                .build())
+                        .gender('M')
+                        .build()));
+
+        when(usersRepository.findById(any())).thenReturn(Optional.of(Users.builder()
+                .id(1L)
+                .gender('F')
+                .build()));
+
+        when(vaccinationSessionsRepository.incrementBookedIfAvailable(1L, 3L)).thenReturn(1);
+
+        List<VaccinationPassRequest> vaccinationPassRequests = vaccinationPassService.createAll(1L, VaccinationPassBatchRequest.builder()
+                .vaccinationSession(VaccinationSessionRequest.builder()
+                        .id(1L)
+                        .build())
+                .vaccinationPasses(List.of(
+                        VaccinationPassRequest.builder()
+                                .build(),
+                        VaccinationPassRequest.builder()
+                                .familyMember(FamilyMembersRequest.builder()
+                                        .id(2L)
+                                        .build())
+                                .build(),
+                        VaccinationPassRequest.builder()
+                                .familyMember(FamilyMembersRequest.builder()
+                                        .id(3L)
+                                        .build())
+                                .build()))
+                .build());
+
+        assertEquals(3, vaccinationPassRequests.size());
+        assertNull(vaccinationPassRequests.get(0).getFamilyMember());
+        assertEquals(3L, vaccinationPassRequests.get(2).getFamilyMember().getId());
+        verify(familyMembersRepository, never()).findById(any());
+        verify(vaccinationPassRepository).insertAll(any());
+    }
+
+    @Test
+    void createAllVaccinationPassNotEnoughSeatsFail_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(1L)
+                .vaccine(Vaccine.builder()
+                        .id(1L)
+                        .build())
+                .quantity(10L)
+                .booked(9L)
+                .build()));
+
+        try {
+            vaccinationPassService.createAll(1L, VaccinationPassBatchRequest.builder()
+                    .vaccinationSession(VaccinationSessionRequest.builder()
+                            .id(1L)
+                            .build())
+                    .vaccinationPasses(List.of(
+                            VaccinationPassRequest.builder()
+                                    .build(),
+                            VaccinationPassRequest.builder()
+                                    .familyMember(FamilyMembersRequest.builder()
+                                            .id(2L)
+                                            .build())
+                                    .build()))
+                    .build());
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals("STOCK_EMPTY", e.getCode());
+        }
+        verify(vaccinationPassRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void createAllVaccinationPassTooManyFail_Test() {
+        List<VaccinationPassRequest> vaccinationPassRequests = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            vaccinationPassRequests.add(VaccinationPassRequest.builder()
+                    .familyMember(FamilyMembersRequest.builder()
+                            .id((long) i)
+                            .build())
+                    .build());
+        }
+
+        try {
+            vaccinationPassService.createAll(1L, VaccinationPassBatchRequest.builder()
+                    .vaccinationSession(VaccinationSessionRequest.builder()
+                            .id(1L)
+                            .build())
+                    .vaccinationPasses(vaccinationPassRequests)
+                    .build());
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(HttpStatus.BAD_REQUEST, e.getHttpStatus());
+            assertEquals("BAD_REQUEST", e.getCode());
+        }
+        verify(vaccinationSessionsRepository, never()).findById(any());
+        verify(vaccinationPassRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void createAllVaccinationPassFamilyMemberNotOwnedFail_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(1L)
+                .vaccine(Vaccine.builder()
+                        .id(1L)
+                        .build())
+                .quantity(10L)
+                .booked(0L)
+                .build()));
+
+        when(familyMembersRepository.findAllById(any())).thenReturn(List.of(FamilyMembers.builder()
+                .id(2L)
+                .users(Users.builder()
+                        .id(5L)
+                        .build())
+                .build()));
+
+        try {
+            vaccinationPassService.createAll(1L, VaccinationPassBatchRequest.builder()
+                    .vaccinationSession(VaccinationSessionRequest.builder()
+                            .id(1L)
+                            .build())
+                    .vaccinationPasses(List.of(VaccinationPassRequest.builder()
+                            .familyMember(FamilyMembersRequest.builder()
+                                    .id(2L)
+                                    .build())
+                            .build()))
+                    .build());
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals("BAD_REQUEST", e.getCode());
+        }
+        verify(vaccinationSessionsRepository, never()).incrementBookedIfAvailable(any(), anyLong());
+    }
+
     @Test
     void createVaccinationPassFamilyMemberNotFoundFail_Test() {
         when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(VaccinationSessions.builder()
@@ -274,113 +482,137 @@ class VaccinationPassServiceTest {
                         .isVaccinated(false)
                         .build()
         ));
-        doNothing().when(vaccinationPassRepository).delete(any());
+        when(vaccinationPassRepository.deleteUnvaccinatedById(1L)).thenReturn(1);
         vaccinationPassService.delete(1L);
+        verify(vaccinationSessionsRepository).decrementBooked(any(), eq(1L));
     }
 
     @Test
-    void findAllVaccinationPassSuccess_Test() {
-        when(vaccinationPassRepository.findAll()).thenReturn(List.of(
+    void deleteVaccinationPassAlreadyCancelledFail_Test() {
+        when(vaccinationPassRepository.findById(any())).thenReturn(Optional.of(
                 VaccinationPass.builder()
                         .id(1L)
                         .vaccinationSessions(VaccinationSessions.builder()
-                                .booked(0L)
-                                .build())
-                        .isVaccinated(false)
-                        .registeredBy(
-                                Users.builder()
-                                        .id(1L)
-                                        .build()
-                        )
-                        .vaccine(Vaccine.builder()
                                 .id(1L)
+                                .booked(1L)
                                 .build())
+                        .isVaccinated(false)
+                        .build()
+        ));
+        when(vaccinationPassRepository.deleteUnvaccinatedById(1L)).thenReturn(0);
+
+        try {
+            vaccinationPassService.delete(1L);
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals("NOT_FOUND", e.getCode());
+        }
+        verify(vaccinationSessionsRepository, never()).decrementBooked(any(), anyLong());
+    }
+
+    @Test
+    void deleteAllVaccinationPassBySessionSuccess_Test() {
+        when(vaccinationPassRepository.deleteAllUnvaccinatedByVaccinationSessionId(1L)).thenReturn(1200);
+
+        assertEquals(1200, vaccinationPassService.deleteAllByVaccinationSession(1L));
+        verify(vaccinationSessionsRepository).decrementBooked(1L, 1200L);
+    }
+
+    @Test
+    void findAllVaccinationPassSuccess_Test() {
+        when(vaccinationPassRepository.findViewsByIdGreaterThan(any(), any())).thenReturn(List.of(
+                VaccinationPassView.builder()
+                        .id(1L)
+                        .isVaccinated(false)
+                        .registeredById(1L)
+                        .vaccineId(1L)
                         .build(),
-                VaccinationPass.builder()
+                VaccinationPassView.builder()
                         .id(2L)
-                        .registeredBy(
-                                Users.builder()
-                                        .id(1L)
-                                        .build()
-                        )
-                        .familyMembers(FamilyMembers.builder()
-                                .id(1L)
-                                .build())
-                        .vaccinationSessions(VaccinationSessions.builder()
-                                .booked(0L)
-                                .build())
-                        .vaccine(Vaccine.builder()
-                                .id(1L)
-                                .build())
+                        .registeredById(1L)
+                        .familyMemberId(1L)
+                        .vaccineId(1L)
                         .isVaccinated(false)
                         .build()
         ));
 
-        List<VaccinationPassRequest> vaccinationPassRequests = vaccinationPassService.findAll(null);
+        List<VaccinationPassRequest> vaccinationPassRequests = vaccinationPassService.findAll(null, null, null).getItems();
         assertEquals(1L, vaccinationPassRequests.get(0).getId());
         assertEquals(2L, vaccinationPassRequests.get(1).getId());
     }
 
     @Test
     void findAllVaccinationPassByUserIdSuccess_Test() {
-        when(vaccinationPassRepository.findAllByRegisteredById(any())).thenReturn(List.of(
-                VaccinationPass.builder()
+        when(vaccinationPassRepository.findViewsByRegisteredByIdAndIdGreaterThan(any(), any(), any())).thenReturn(List.of(
+                VaccinationPassView.builder()
                         .id(1L)
-                        .vaccinationSessions(VaccinationSessions.builder()
-                                .booked(0L)
-                                .build())
                         .isVaccinated(false)
-                        .registeredBy(
-                                Users.builder()
-                                        .id(1L)
-                                        .build()
-                        )
-                        .vaccine(Vaccine.builder()
-                                .id(1L)
-                                .build())
+                        .registeredById(1L)
+                        .vaccineId(1L)
                         .build(),
-                VaccinationPass.builder()
+                VaccinationPassView.builder()
                         .id(2L)
-                        .registeredBy(
-                                Users.builder()
-                                        .id(1L)
-                                        .build()
-                        )
-                        .familyMembers(FamilyMembers.builder()
-                                .id(1L)
-                                .build())
-                        .vaccinationSessions(VaccinationSessions.builder()
-                                .booked(0L)
-                                .build())
-                        .vaccine(Vaccine.builder()
-                                .id(1L)
-                                .build())
+                        .registeredById(1L)
+                        .familyMemberId(1L)
+                        .vaccineId(1L)
                         .isVaccinated(false)
                         .build()
         ));
 
-        List<VaccinationPassRequest> vaccinationPassRequests = vaccinationPassService.findAll(1L);
+        List<VaccinationPassRequest> vaccinationPassRequests = vaccinationPassService.findAll(1L, null, null).getItems();
         assertEquals(1L, vaccinationPassRequests.get(0).getId());
         assertEquals(2L, vaccinationPassRequests.get(1).getId());
     }
 
+    private static VaccinationPassView pass(long id) {
+        return VaccinationPassView.builder()
+                .id(id)
+                .registeredById(1L)
+                .vaccineId(1L)
+                .isVaccinated(false)
+                .build();
+    }
+
+    @Test
+    void findAllVaccinationPassNextPageSuccess_Test() {
+        when(vaccinationPassRepository.findViewsByIdGreaterThan(eq(0L), any())).thenReturn(List.of(pass(1L), pass(2L), pass(3L)));
+        when(vaccinationPassRepository.findViewsByIdGreaterThan(eq(2L), any())).thenReturn(List.of(pass(3L)));
+
+        CursorPage<VaccinationPassRequest> page = vaccinationPassService.findAll(null, null, 2);
+        assertEquals(2, page.getItems().size());
+        assertEquals(2L, page.getItems().get(1).getId());
+        assertEquals(Cursor.encode(2L), page.getNextCursor());
+
+        CursorPage<VaccinationPassRequest> next = vaccinationPassService.findAll(null, page.getNextCursor(), 2);
+        assertEquals(1, next.getItems().size());
+        assertEquals(3L, next.getItems().get(0).getId());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void findAllVaccinationPassLimitBoundedSuccess_Test() {
+        when(vaccinationPassRepository.findViewsByIdGreaterThan(any(), any())).thenReturn(List.of());
+
+        vaccinationPassService.findAll(null, null, 100_000);
+        verify(vaccinationPassRepository).findViewsByIdGreaterThan(eq(0L), eq(PageRequest.of(0, Cursor.MAX_LIMIT + 1)));
+    }
+
+    @Test
+    void findAllVaccinationPassInvalidCursorFail_Test() {
+        BusinessFlowException e = assertThrows(BusinessFlowException.class, () -> vaccinationPassService.findAll(null, "not-a-cursor", null));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getHttpStatus());
+        assertEquals(ResponseMessage.INVALID_CURSOR, e.getCode());
+        verify(vaccinationPassRepository, never()).findViewsByIdGreaterThan(any(), any());
+    }
+
     @Test
     void findVaccinationPassByIdSuccess_Test() {
-        when(vaccinationPassRepository.findById(any())).thenReturn(Optional.of(
-                VaccinationPass.builder()
+        when(vaccinationPassRepository.findViewById(any())).thenReturn(Optional.of(
+                VaccinationPassView.builder()
                         .id(1L)
-                        .vaccinationSessions(VaccinationSessions.builder()
-                                .booked(0L)
-                                .build())
                         .isVaccinated(false)
-                        .registeredBy(
-                                Users.builder()
-                                        .id(1L)
-                                        .build()
-                        )
-                        .vaccine(Vaccine.builder()
-                                .id(1L)
-                                .build())
+                        .registeredById(1L)
+                        .vaccineId(1L)
                         .build()
         ));
 
@@ -390,24 +622,13 @@ class VaccinationPassServiceTest {
 
     @Test
     void findVaccinationPassByIdWithFamilyMemberSuccess_Test() {
-        when(vaccinationPassRepository.findById(any())).thenReturn(Optional.of(
-                VaccinationPass.builder()
+        when(vaccinationPassRepository.findViewById(any())).thenReturn(Optional.of(
+                VaccinationPassView.builder()
                         .id(1L)
-                        .vaccinationSessions(VaccinationSessions.builder()
-                                .booked(0L)
-                                .build())
                         .isVaccinated(false)
-                        .registeredBy(
-                                Users.builder()
-                                        .id(1L)
-                                        .build()
-                        )
-                        .familyMembers(FamilyMembers.builder()
-                                .id(1L)
-                                .build())
-                        .vaccine(Vaccine.builder()
-                                .id(1L)
-                                .build())
+                        .registeredById(1L)
+                        .familyMemberId(1L)
+                        .vaccineId(1L)
                         .build()
         ));
 
@@ -417,7 +638,7 @@ class VaccinationPassServiceTest {
 
     @Test
     void findVaccinationPassByIdFail_Test() {
-        when(vaccinationPassRepository.findById(any())).thenReturn(Optional.empty());
+        when(vaccinationPassRepository.findViewById(any())).thenReturn(Optional.empty());
 
         try {
             VaccinationPassRequest vaccinationPassRequest = vaccinationPassService.find(1L);
@@ -1,10 +1,13 @@
 package com.evizy.evizy.service;
 
+import com.evizy.evizy.constant.ResponseMessage;
 import com.evizy.evizy.domain.dao.*;
 import com.evizy.evizy.domain.dto.CityRequest;
 import com.evizy.evizy.domain.dto.HealthFacilityRequest;
+import com.evizy.evizy.domain.dto.VaccinationSessionBatchRequest;
 import com.evizy.evizy.domain.dto.VaccinationSessionRequest;
 import com.evizy.evizy.domain.dto.VaccineRequest;
+import com.evizy.evizy.domain.projection.VaccinationSessionView;
 import com.evizy.evizy.errors.BusinessFlowException;
 import com.evizy.evizy.repository.HealthFacilitiesVaccinesRepository;
 import com.evizy.evizy.repository.HealthFacilityRepository;
@@ -24,8 +27,8 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
 @SpringBootTest(classes = VaccinationSessionService.class)
@@ -38,7 +41,14 @@ class VaccinationSessionServiceTest {
     private HealthFacilitiesVaccinesRepository healthFacilitiesVaccinesRepository;
     @MockBean
     private VaccineRepository vaccineRepository;
-
+    @MockBean
+    private SessionCapacityLedger sessionCapacityLedger;
+    @MockBean
+    private WaitlistService waitlistService;
+    @MockBean
+    private BookingHoldService bookingHoldService;
+    @MockBean
+    private VaccinationPassService vaccinationPassService;
 
     @Autowired
     private VaccinationSessionService vaccinationSessionService;
@@ -57,17 +67,7 @@ class VaccinationSessionServiceTest {
                         .build()
         ));
 
-        when(healthFacilitiesVaccinesRepository.findById(any())).thenReturn(Optional.of(
-                HealthFacilitiesVaccines.builder()
-                        .healthFacility(HealthFacility.builder()
-                                .id(1L)
-                                .build())
-                        .vaccine(Vaccine.builder()
-                                .id(1L)
-                                .build())
-                        .stock(10L)
-                        .build()
-        ));
+        when(healthFacilitiesVaccinesRepository.debitStock(1L, 1L, 10L)).thenReturn(1);
 
         when(vaccinationSessionsRepository.save(any())).thenAnswer(i -> {
             ((VaccinationSessions) i.getArgument(0)).setId(1L);
@@ -200,7 +200,7 @@ class VaccinationSessionServiceTest {
                         .build()
         ));
 
-        when(healthFacilitiesVaccinesRepository.findById(any())).thenReturn(Optional.empty());
+        when(healthFacilitiesVaccinesRepository.debitStock(1L, 1L, 10L)).thenReturn(0);
 
         when(vaccinationSessionsRepository.save(any())).thenAnswer(i -> {
             ((VaccinationSessions) i.getArgument(0)).setId(1L);
@@ -222,9 +222,11 @@ class VaccinationSessionServiceTest {
                     .build());
             fail();
         } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.STOCK_NOT_VALID, e.getCode());
         } catch (Exception e) {
             fail();
         }
+        verify(vaccinationSessionsRepository, never()).save(any());
     }
 
     @Test
@@ -269,10 +271,12 @@ class VaccinationSessionServiceTest {
                 .vaccine(Vaccine.builder()
                         .id(1L)
                         .build())
+                .quantity(10L)
                 .booked(0L)
                 .build()));
-        doNothing().when(vaccinationSessionsRepository).delete(any());
+        when(vaccinationSessionsRepository.deleteUnbookedById(1L)).thenReturn(1);
         vaccinationSessionService.delete(1L);
+        verify(healthFacilitiesVaccinesRepository).creditStock(1L, 1L, 10L);
     }
 
     @Test
@@ -288,46 +292,53 @@ class VaccinationSessionServiceTest {
                 .quantity(10L)
                 .booked(0L)
                 .build()));
-        when(healthFacilitiesVaccinesRepository.findById(any())).thenReturn(Optional.of(HealthFacilitiesVaccines.builder()
+        when(vaccinationSessionsRepository.deleteUnbookedById(1L)).thenReturn(1);
+        when(healthFacilitiesVaccinesRepository.creditStock(1L, 1L, 10L)).thenReturn(1);
+        vaccinationSessionService.delete(1L);
+        verify(healthFacilitiesVaccinesRepository).creditStock(1L, 1L, 10L);
+    }
+
+    @Test
+    void deleteVaccinationSessionBookedConcurrentlyFail_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(1L)
                 .healthFacility(HealthFacility.builder()
                         .id(1L)
                         .build())
                 .vaccine(Vaccine.builder()
                         .id(1L)
                         .build())
-                .stock(0L)
+                .quantity(10L)
+                .booked(0L)
                 .build()));
-        doNothing().when(vaccinationSessionsRepository).delete(any());
-        vaccinationSessionService.delete(1L);
+        when(vaccinationSessionsRepository.deleteUnbookedById(1L)).thenReturn(0);
+
+        try {
+            vaccinationSessionService.delete(1L);
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.VACCINATION_SESSION_ALREADY_BOOKED, e.getCode());
+        }
+        verify(healthFacilitiesVaccinesRepository, never()).creditStock(any(), any(), anyLong());
     }
 
     @Test
     void findAllVaccinationSessionSuccess_Test() {
-        when(vaccinationSessionsRepository.findAll()).thenReturn(List.of(
-                VaccinationSessions.builder()
+        when(vaccinationSessionsRepository.findViewsByIdGreaterThan(any(), any())).thenReturn(List.of(
+                VaccinationSessionView.builder()
                         .id(1L)
-                        .healthFacility(HealthFacility
-                                .builder()
-                                .id(1L)
-                                .build())
-                        .vaccine(Vaccine.builder()
-                                .id(1L)
-                                .build())
+                        .healthFacilityId(1L)
+                        .vaccineId(1L)
                         .quantity(10L)
                         .booked(0L)
                         .scheduleDate(LocalDate.of(2022, 12, 25))
                         .scheduleTimeStart("20:00")
                         .scheduleTimeEnd("23:00")
                         .build(),
-                VaccinationSessions.builder()
+                VaccinationSessionView.builder()
                         .id(2L)
-                        .healthFacility(HealthFacility
-                                .builder()
-                                .id(2L)
-                                .build())
-                        .vaccine(Vaccine.builder()
-                                .id(1L)
-                                .build())
+                        .healthFacilityId(2L)
+                        .vaccineId(1L)
                         .quantity(200L)
                         .booked(50L)
                         .scheduleDate(LocalDate.of(2022, 12, 25))
@@ -336,7 +347,7 @@ class VaccinationSessionServiceTest {
                         .build()
         ));
 
-        List<VaccinationSessionRequest> vaccinationSessionRequests = vaccinationSessionService.findAll(null);
+        List<VaccinationSessionRequest> vaccinationSessionRequests = vaccinationSessionService.findAll(null, null, null).getItems();
         assertEquals(1L, vaccinationSessionRequests.get(0).getId());
         assertEquals(10L, vaccinationSessionRequests.get(0).getQuantity());
         assertEquals(0L, vaccinationSessionRequests.get(0).getBooked());
@@ -347,31 +358,21 @@ class VaccinationSessionServiceTest {
 
     @Test
     void findAllVaccinationSessionByHealthFacilitySuccess_Test() {
-        when(vaccinationSessionsRepository.findAllByHealthFacilityId(any())).thenReturn(List.of(
-                VaccinationSessions.builder()
+        when(vaccinationSessionsRepository.findViewsByHealthFacilityIdAndIdGreaterThan(any(), any(), any())).thenReturn(List.of(
+                VaccinationSessionView.builder()
                         .id(1L)
-                        .healthFacility(HealthFacility
-                                .builder()
-                                .id(1L)
-                                .build())
-                        .vaccine(Vaccine.builder()
-                                .id(1L)
-                                .build())
+                        .healthFacilityId(1L)
+                        .vaccineId(1L)
                         .quantity(10L)
                         .booked(0L)
                         .scheduleDate(LocalDate.of(2022, 12, 25))
                         .scheduleTimeStart("20:00")
                         .scheduleTimeEnd("23:00")
                         .build(),
-                VaccinationSessions.builder()
+                VaccinationSessionView.builder()
                         .id(2L)
-                        .healthFacility(HealthFacility
-                                .builder()
-                                .id(1L)
-                                .build())
-                        .vaccine(Vaccine.builder()
-                                .id(2L)
-                                .build())
+                        .healthFacilityId(1L)
+                        .vaccineId(2L)
                         .quantity(200L)
                         .booked(50L)
                         .scheduleDate(LocalDate.of(2022, 12, 25))
@@ -380,7 +381,7 @@ class VaccinationSessionServiceTest {
                         .build()
         ));
 
-        List<VaccinationSessionRequest> vaccinationSessionRequests = vaccinationSessionService.findAll(1L);
+        List<VaccinationSessionRequest> vaccinationSessionRequests = vaccinationSessionService.findAll(1L, null, null).getItems();
         assertEquals(1L, vaccinationSessionRequests.get(0).getId());
         assertEquals(10L, vaccinationSessionRequests.get(0).getQuantity());
         assertEquals(0L, vaccinationSessionRequests.get(0).getBooked());
@@ -391,16 +392,11 @@ class VaccinationSessionServiceTest {
 
     @Test
     void findVaccinationSessionByIdSuccess_Test() {
-        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(
-                VaccinationSessions.builder()
+        when(vaccinationSessionsRepository.findViewById(any())).thenReturn(Optional.of(
+                VaccinationSessionView.builder()
                         .id(1L)
-                        .healthFacility(HealthFacility
-                                .builder()
-                                .id(1L)
-                                .build())
-                        .vaccine(Vaccine.builder()
-                                .id(1L)
-                                .build())
+                        .healthFacilityId(1L)
+                        .vaccineId(1L)
                         .quantity(10L)
                         .booked(0L)
                         .scheduleDate(LocalDate.of(2022, 12, 25))
@@ -417,7 +413,7 @@ class VaccinationSessionServiceTest {
 
     @Test
     void findVaccinationSessionByIdFail_Test() {
-        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.empty());
+        when(vaccinationSessionsRepository.findViewById(any())).thenReturn(Optional.empty());
 
         try {
             VaccinationSessionRequest vaccinationSessionRequest = vaccinationSessionService.find(1L);
@@ -455,7 +451,7 @@ class VaccinationSessionServiceTest {
                     .scheduleTimeEnd("23:00")
                     .quantity(10L)
                     .vaccine(VaccineRequest.builder()
-                            .id(1L)
+                            .id(2L)
                             .build())
                     .healthFacility(HealthFacilityRequest.builder()
                             .id(1L)
@@ -469,6 +465,86 @@ class VaccinationSessionServiceTest {
         }
     }
 
+    @Test
+    void updateVaccinationSessionAlreadyBookedDecreaseFail_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(
+                VaccinationSessions.builder()
+                        .id(1L)
+                        .healthFacility(HealthFacility
+                                .builder()
+                                .id(1L)
+                                .build())
+                        .vaccine(Vaccine.builder()
+                                .id(1L)
+                                .build())
+                        .quantity(10L)
+                        .booked(5L)
+                        .scheduleDate(LocalDate.of(2022, 12, 25))
+                        .scheduleTimeStart("20:00")
+                        .scheduleTimeEnd("23:00")
+                        .build()
+        ));
+
+        try {
+            vaccinationSessionService.update(1L, VaccinationSessionRequest.builder()
+                    .scheduleDate(LocalDate.of(2022, 12, 25))
+                    .scheduleTimeStart("20:00")
+                    .scheduleTimeEnd("23:00")
+                    .quantity(8L)
+                    .vaccine(VaccineRequest.builder()
+                            .id(1L)
+                            .build())
+                    .healthFacility(HealthFacilityRequest.builder()
+                            .id(1L)
+                            .build())
+                    .build());
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.VACCINATION_SESSION_ALREADY_BOOKED, e.getCode());
+        }
+        verify(healthFacilitiesVaccinesRepository, never()).debitStock(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void updateVaccinationSessionAlreadyBookedIncreaseSuccess_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(
+                VaccinationSessions.builder()
+                        .id(1L)
+                        .healthFacility(HealthFacility
+                                .builder()
+                                .id(1L)
+                                .build())
+                        .vaccine(Vaccine.builder()
+                                .id(1L)
+                                .build())
+                        .quantity(10L)
+                        .booked(10L)
+                        .scheduleDate(LocalDate.of(2022, 12, 25))
+                        .scheduleTimeStart("20:00")
+                        .scheduleTimeEnd("23:00")
+                        .build()
+        ));
+        when(healthFacilitiesVaccinesRepository.debitStock(1L, 1L, 5L)).thenReturn(1);
+
+        VaccinationSessionRequest vaccinationSession = vaccinationSessionService.update(1L, VaccinationSessionRequest.builder()
+                .scheduleDate(LocalDate.of(2022, 12, 25))
+                .scheduleTimeStart("20:00")
+                .scheduleTimeEnd("23:00")
+                .quantity(15L)
+                .vaccine(VaccineRequest.builder()
+                        .id(1L)
+                        .build())
+                .healthFacility(HealthFacilityRequest.builder()
+                        .id(1L)
+                        .build())
+                .build());
+        assertEquals(15L, vaccinationSession.getQuantity());
+        assertEquals(10L, vaccinationSession.getBooked());
+        verify(vaccinationSessionsRepository).incrementQuantity(1L, 5L);
+        verify(healthFacilitiesVaccinesRepository, never()).creditStock(anyLong(), anyLong(), anyLong());
+        verify(vaccinationSessionsRepository, never()).save(any());
+    }
+
     @Test
     void updateVaccinationSessionInvalidVaccineFail_Test() {
         when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(
@@ -539,19 +615,7 @@ class VaccinationSessionServiceTest {
                         .build()
         ));
 
-        when(healthFacilitiesVaccinesRepository.findById(new HealthFacilitiesVaccines.HealthFacilitiesVaccinesId(1L, 1L))).thenReturn(Optional.of(
-                HealthFacilitiesVaccines.builder()
-                        .healthFacility(HealthFacility
-                                .builder()
-                                .id(1L)
-                                .build())
-                        .vaccine(Vaccine.builder()
-                                .id(1L)
-                                .build())
-                        .stock(10L)
-                        .build()
-        ));
-        when(healthFacilitiesVaccinesRepository.findById(new HealthFacilitiesVaccines.HealthFacilitiesVaccinesId(1L, 2L))).thenReturn(Optional.empty());
+        when(healthFacilitiesVaccinesRepository.debitStock(1L, 2L, 10L)).thenReturn(0);
 
         try {
             VaccinationSessionRequest vaccinationSession = vaccinationSessionService.update(1L, VaccinationSessionRequest.builder()
@@ -568,7 +632,7 @@ class VaccinationSessionServiceTest {
                     .build());
             fail();
         } catch (BusinessFlowException e) {
-
+            assertEquals(ResponseMessage.STOCK_NOT_VALID, e.getCode());
         } catch (Exception e){
             fail();
         }
@@ -626,17 +690,8 @@ class VaccinationSessionServiceTest {
                         .build()
         ));
 
-        when(healthFacilitiesVaccinesRepository.findById(any())).thenReturn(Optional.of(
-                HealthFacilitiesVaccines.builder()
-                        .vaccine(Vaccine.builder()
-                                .id(1L)
-                                .build())
-                        .healthFacility(HealthFacility.builder()
-                                .id(1L)
-                                .build())
-                        .stock(10L)
-                        .build()
-        ));
+        when(healthFacilitiesVaccinesRepository.debitStock(1L, 1L, 10L)).thenReturn(1);
+        when(vaccinationSessionsRepository.updateUnbookedById(1L, 1L, LocalDate.of(2022, 12, 25), "20:00", "23:00", 10L)).thenReturn(1);
 
         VaccinationSessionRequest vaccinationSession = vaccinationSessionService.update(1L, VaccinationSessionRequest.builder()
                 .scheduleDate(LocalDate.of(2022, 12, 25))
@@ -652,5 +707,164 @@ class VaccinationSessionServiceTest {
                 .build());
         assertEquals(10L, vaccinationSession.getQuantity());
         assertEquals(1L, vaccinationSession.getId());
+        verify(healthFacilitiesVaccinesRepository).creditStock(1L, 1L, 20L);
+    }
+
+    @Test
+    void updateVaccinationSessionBookedMeanwhileFail_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(
+                VaccinationSessions.builder()
+                        .id(1L)
+                        .healthFacility(HealthFacility
+                                .builder()
+                                .id(1L)
+                                .build())
+                        .vaccine(Vaccine.builder()
+                                .id(1L)
+                                .build())
+                        .quantity(20L)
+                        .booked(0L)
+                        .scheduleDate(LocalDate.of(2022, 12, 25))
+                        .scheduleTimeStart("20:00")
+                        .scheduleTimeEnd("23:00")
+                        .build()
+        ));
+
+        when(vaccineRepository.findById(any())).thenReturn(Optional.of(
+                Vaccine.builder()
+                        .id(1L)
+                        .name("Sinovac")
+                        .build()
+        ));
+
+        when(healthFacilitiesVaccinesRepository.debitStock(1L, 1L, 10L)).thenReturn(1);
+        when(vaccinationSessionsRepository.updateUnbookedById(any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        try {
+            vaccinationSessionService.update(1L, VaccinationSessionRequest.builder()
+                    .scheduleDate(LocalDate.of(2022, 12, 25))
+                    .scheduleTimeStart("20:00")
+                    .scheduleTimeEnd("23:00")
+                    .quantity(10L)
+                    .vaccine(VaccineRequest.builder()
+                            .id(1L)
+                            .build())
+                    .healthFacility(HealthFacilityRequest.builder()
+                            .id(1L)
+                            .build())
+                    .build());
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.VACCINATION_SESSION_ALREADY_BOOKED, e.getCode());
+        }
+        verify(vaccinationSessionsRepository, never()).save(any());
+    }
+
+    @Test
+    void cancelAllVaccinationPassSuccess_Test() {
+        when(vaccinationPassService.deleteAllByVaccinationSession(1L)).thenReturn(3);
+
+        assertEquals(3, vaccinationSessionService.cancelAllVaccinationPass(1L));
+        verify(waitlistService).cancelAllByVaccinationSession(1L);
+        verify(bookingHoldService).deleteAllByVaccinationSession(1L);
+    }
+
+    private static VaccinationSessionRequest vaccinationSessionRequest(Long vaccineId, Long quantity) {
+        return VaccinationSessionRequest.builder()
+                .scheduleDate(LocalDate.of(2022, 12, 25))
+                .scheduleTimeStart("08:00")
+                .scheduleTimeEnd("12:00")
+                .quantity(quantity)
+                .vaccine(VaccineRequest.builder()
+                        .id(vaccineId)
+                        .build())
+                .healthFacility(HealthFacilityRequest.builder()
+                        .id(1L)
+                        .build())
+                .build();
+    }
+
+    private void mockBatchLookups() {
+        when(healthFacilityRepository.findAllById(any())).thenReturn(List.of(
+                HealthFacility.builder()
+                        .id(1L)
+                        .name("Puskesmas")
+                        .build()
+        ));
+        when(vaccineRepository.findAllById(any())).thenReturn(List.of(
+                Vaccine.builder()
+                        .id(1L)
+                        .name("Sinovac")
+                        .build(),
+                Vaccine.builder()
+                        .id(2L)
+                        .name("Pfizer")
+                        .build()
+        ));
+    }
+
+    @Test
+    void createAllVaccinationSessionSuccess_Test() {
+        mockBatchLookups();
+        when(healthFacilitiesVaccinesRepository.debitStock(anyLong(), anyLong(), anyLong())).thenReturn(1);
+        when(vaccinationSessionsRepository.insertAll(any())).thenAnswer(i -> {
+            long id = 1;
+            for (VaccinationSessions vaccinationSessions : i.<Iterable<VaccinationSessions>>getArgument(0)) {
+                vaccinationSessions.setId(id++);
+            }
+            return null;
+        });
+
+        List<VaccinationSessionRequest> vaccinationSessionRequests = vaccinationSessionService.createAll(VaccinationSessionBatchRequest.builder()
+                .vaccinationSessions(List.of(
+                        vaccinationSessionRequest(1L, 10L),
+                        vaccinationSessionRequest(2L, 5L),
+                        vaccinationSessionRequest(1L, 20L)))
+                .build());
+        assertEquals(3, vaccinationSessionRequests.size());
+        assertEquals(3L, vaccinationSessionRequests.get(2).getId());
+        assertEquals("Pfizer", vaccinationSessionRequests.get(1).getVaccine().getName());
+        assertEquals("Puskesmas", vaccinationSessionRequests.get(0).getHealthFacility().getName());
+        assertEquals(0L, vaccinationSessionRequests.get(0).getBooked());
+        verify(healthFacilitiesVaccinesRepository).debitStock(1L, 1L, 30L);
+        verify(healthFacilitiesVaccinesRepository).debitStock(1L, 2L, 5L);
+        verify(healthFacilitiesVaccinesRepository, times(2)).debitStock(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void createAllVaccinationSessionStockNotEnoughFail_Test() {
+        mockBatchLookups();
+        when(healthFacilitiesVaccinesRepository.debitStock(1L, 1L, 10L)).thenReturn(1);
+        when(healthFacilitiesVaccinesRepository.debitStock(1L, 2L, 5L)).thenReturn(0);
+
+        BusinessFlowException e = assertThrows(BusinessFlowException.class, () -> vaccinationSessionService.createAll(VaccinationSessionBatchRequest.builder()
+                .vaccinationSessions(List.of(
+                        vaccinationSessionRequest(1L, 10L),
+                        vaccinationSessionRequest(2L, 5L)))
+                .build()));
+        assertEquals(ResponseMessage.STOCK_NOT_VALID, e.getCode());
+        verify(vaccinationSessionsRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void createAllVaccinationSessionVaccineNotFoundFail_Test() {
+        mockBatchLookups();
+
+        BusinessFlowException e = assertThrows(BusinessFlowException.class, () -> vaccinationSessionService.createAll(VaccinationSessionBatchRequest.builder()
+                .vaccinationSessions(List.of(
+                        vaccinationSessionRequest(1L, 10L),
+                        vaccinationSessionRequest(3L, 5L)))
+                .build()));
+        assertEquals(ResponseMessage.NOT_FOUND, e.getCode());
+        verify(healthFacilitiesVaccinesRepository, never()).debitStock(anyLong(), anyLong(), anyLong());
+        verify(vaccinationSessionsRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void createAllVaccinationSessionEmptyFail_Test() {
+        BusinessFlowException e = assertThrows(BusinessFlowException.class, () -> vaccinationSessionService.createAll(VaccinationSessionBatchRequest.builder()
+                .vaccinationSessions(List.of())
+                .build()));
+        assertEquals(ResponseMessage.BAD_REQUEST, e.getCode());
     }
-}
\ No newline at end of file
+}
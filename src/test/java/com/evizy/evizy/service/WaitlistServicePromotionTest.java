@@ -0,0 +1,136 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.constant.WaitlistStatus;
+import com.evizy.evizy.domain.dao.HealthFacilitiesVaccines;
+import com.evizy.evizy.domain.dao.HealthFacility;
+import com.evizy.evizy.domain.dao.Users;
+import com.evizy.evizy.domain.dao.VaccinationSessions;
+import com.evizy.evizy.domain.dao.Vaccine;
+import com.evizy.evizy.domain.dto.*;
+import com.evizy.evizy.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({WaitlistService.class, VaccinationPassService.class, VaccinationSessionService.class,
+        HealthFacilitiesVaccinesService.class, BookingHoldService.class, SessionCapacityLedger.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:waitlist-promotion;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WaitlistServicePromotionTest {
+    @Autowired
+    private WaitlistService waitlistService;
+    @Autowired
+    private VaccinationPassService vaccinationPassService;
+    @Autowired
+    private VaccinationSessionService vaccinationSessionService;
+    @Autowired
+    private HealthFacilitiesVaccinesService healthFacilitiesVaccinesService;
+    @Autowired
+    private HealthFacilitiesVaccinesRepository healthFacilitiesVaccinesRepository;
+    @Autowired
+    private HealthFacilityRepository healthFacilityRepository;
+    @Autowired
+    private VaccineRepository vaccineRepository;
+    @Autowired
+    private VaccinationSessionsRepository vaccinationSessionsRepository;
+    @Autowired
+    private UsersRepository usersRepository;
+
+    private Users user(String nik) {
+        return usersRepository.save(Users.builder()
+                .nik(nik)
+                .name("User")
+                .password("password")
+                .phoneNumber("081234567890")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .gender('M')
+                .active(true)
+                .build());
+    }
+
+    private VaccinationPassRequest vaccinationPassRequest(Long vaccinationSessionId, Users user) {
+        return VaccinationPassRequest.builder()
+                .vaccinationSession(VaccinationSessionRequest.builder()
+                        .id(vaccinationSessionId)
+                        .build())
+                .registeredBy(UsersRequest.builder()
+                        .id(user.getId())
+                        .build())
+                .isPregnant(false)
+                .build();
+    }
+
+    private VaccinationSessionRequest vaccinationSessionRequest(HealthFacility healthFacility, Vaccine vaccine, long quantity) {
+        return VaccinationSessionRequest.builder()
+                .healthFacility(HealthFacilityRequest.builder()
+                        .id(healthFacility.getId())
+                        .build())
+                .vaccine(VaccineRequest.builder()
+                        .id(vaccine.getId())
+                        .build())
+                .scheduleDate(LocalDate.now().plusDays(1))
+                .scheduleTimeStart("08:00")
+                .scheduleTimeEnd("12:00")
+                .quantity(quantity)
+                .build();
+    }
+
+    @Test
+    void increaseBookedSessionPromotesWaitlistSuccess_Test() {
+        HealthFacility healthFacility = healthFacilityRepository.save(HealthFacility.builder()
+                .name("Puskesmas")
+                .build());
+        Vaccine vaccine = vaccineRepository.save(Vaccine.builder()
+                .name("Sinovac")
+                .build());
+        healthFacilitiesVaccinesService.distribute(VaccineDistributionRequest.builder()
+                .healthFacility(HealthFacilityRequest.builder()
+                        .id(healthFacility.getId())
+                        .build())
+                .vaccine(VaccineRequest.builder()
+                        .id(vaccine.getId())
+                        .build())
+                .quantity(10L)
+                .build());
+        Long vaccinationSessionId = vaccinationSessionService.create(vaccinationSessionRequest(healthFacility, vaccine, 1L)).getId();
+
+        vaccinationPassService.create(vaccinationPassRequest(vaccinationSessionId, user("1234567890123456")));
+        WaitlistEntryRequest waitlistEntry = waitlistService.join(vaccinationPassRequest(vaccinationSessionId, user("6543210987654321")));
+        assertEquals(WaitlistStatus.WAITING, waitlistEntry.getStatus());
+
+        VaccinationSessionRequest updated = vaccinationSessionService.update(vaccinationSessionId, vaccinationSessionRequest(healthFacility, vaccine, 2L));
+        assertEquals(2L, updated.getQuantity());
+        waitlistService.promote(vaccinationSessionId);
+
+        WaitlistEntryRequest promoted = waitlistService.find(waitlistEntry.getId(), waitlistEntry.getRegisteredBy().getId());
+        assertEquals(WaitlistStatus.PROMOTED, promoted.getStatus());
+        assertNotNull(promoted.getVaccinationPass());
+        VaccinationSessions vaccinationSessions = vaccinationSessionsRepository.findById(vaccinationSessionId).get();
+        assertEquals(2L, vaccinationSessions.getQuantity());
+        assertEquals(2L, vaccinationSessions.getBooked());
+        assertEquals(8L, healthFacilitiesVaccinesRepository.findById(new HealthFacilitiesVaccines.HealthFacilitiesVaccinesId(
+                healthFacility.getId(),
+                vaccine.getId()
+        )).get().getStock());
+    }
+}
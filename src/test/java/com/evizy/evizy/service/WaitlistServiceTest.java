@@ -0,0 +1,204 @@
+package com.evizy.evizy.service;
+
+import com.evizy.evizy.constant.ResponseMessage;
+import com.evizy.evizy.constant.WaitlistStatus;
+import com.evizy.evizy.domain.dao.*;
+import com.evizy.evizy.domain.dto.*;
+import com.evizy.evizy.errors.BusinessFlowException;
+import com.evizy.evizy.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = WaitlistService.class)
+class WaitlistServiceTest {
+    @MockBean
+    private WaitlistEntryRepository waitlistEntryRepository;
+    @MockBean
+    private VaccinationSessionsRepository vaccinationSessionsRepository;
+    @MockBean
+    private FamilyMembersRepository familyMembersRepository;
+    @MockBean
+    private VaccinationPassService vaccinationPassService;
+    @MockBean
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(mock(TransactionStatus.class)));
+    }
+
+    private WaitlistEntry waitlistEntry(Long id, String status) {
+        return WaitlistEntry.builder()
+                .id(id)
+                .registeredBy(Users.builder()
+                        .id(1L)
+                        .build())
+                .vaccinationSessions(VaccinationSessions.builder()
+                        .id(1L)
+                        .build())
+                .status(status)
+                .build();
+    }
+
+    @Test
+    void joinFullSessionWaitsSuccess_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(1L)
+                .quantity(10L)
+                .booked(10L)
+                .build()));
+        when(waitlistEntryRepository.save(any())).thenAnswer(i -> {
+            ((WaitlistEntry) i.getArgument(0)).setId(5L);
+            return null;
+        });
+        when(waitlistEntryRepository.findFirstByVaccinationSessionsIdAndStatusOrderByIdAsc(1L, WaitlistStatus.WAITING))
+                .thenReturn(Optional.of(waitlistEntry(3L, WaitlistStatus.WAITING)));
+        when(waitlistEntryRepository.updateStatus(3L, WaitlistStatus.WAITING, WaitlistStatus.PROMOTED)).thenReturn(1);
+        when(vaccinationPassService.reserveSeat(1L)).thenReturn(false);
+        when(waitlistEntryRepository.findById(5L)).thenReturn(Optional.of(waitlistEntry(5L, WaitlistStatus.WAITING)));
+        when(waitlistEntryRepository.countByVaccinationSessionsIdAndStatusAndIdLessThan(1L, WaitlistStatus.WAITING, 5L)).thenReturn(2L);
+
+        WaitlistEntryRequest waitlistEntry = waitlistService.join(VaccinationPassRequest.builder()
+                .vaccinationSession(VaccinationSessionRequest.builder()
+                        .id(1L)
+                        .build())
+                .registeredBy(UsersRequest.builder()
+                        .id(1L)
+                        .build())
+                .build());
+        assertEquals(5L, waitlistEntry.getId());
+        assertEquals(WaitlistStatus.WAITING, waitlistEntry.getStatus());
+        assertEquals(3L, waitlistEntry.getPosition());
+        verify(vaccinationPassService, never()).createReserved(any());
+    }
+
+    @Test
+    void joinTwiceFail_Test() {
+        when(vaccinationSessionsRepository.findById(any())).thenReturn(Optional.of(VaccinationSessions.builder()
+                .id(1L)
+                .build()));
+        when(waitlistEntryRepository.findAllByRegisteredByIdAndVaccinationSessionsIdAndStatus(1L, 1L, WaitlistStatus.WAITING))
+                .thenReturn(List.of(waitlistEntry(3L, WaitlistStatus.WAITING)));
+
+        try {
+            waitlistService.join(VaccinationPassRequest.builder()
+                    .vaccinationSession(VaccinationSessionRequest.builder()
+                            .id(1L)
+                            .build())
+                    .registeredBy(UsersRequest.builder()
+                            .id(1L)
+                            .build())
+                    .build());
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.ALREADY_EXIST, e.getCode());
+        }
+        verify(waitlistEntryRepository, never()).save(any());
+    }
+
+    @Test
+    void promoteInOrderSuccess_Test() {
+        when(waitlistEntryRepository.findFirstByVaccinationSessionsIdAndStatusOrderByIdAsc(1L, WaitlistStatus.WAITING))
+                .thenReturn(Optional.of(waitlistEntry(1L, WaitlistStatus.WAITING)))
+                .thenReturn(Optional.of(waitlistEntry(2L, WaitlistStatus.WAITING)))
+                .thenReturn(Optional.of(waitlistEntry(3L, WaitlistStatus.WAITING)));
+        when(waitlistEntryRepository.updateStatus(anyLong(), eq(WaitlistStatus.WAITING), eq(WaitlistStatus.PROMOTED))).thenReturn(1);
+        when(vaccinationPassService.reserveSeat(1L)).thenReturn(true, true, false);
+        when(vaccinationPassService.createReserved(any())).thenReturn(VaccinationPassRequest.builder()
+                .id(10L)
+                .build(), VaccinationPassRequest.builder()
+                .id(11L)
+                .build());
+
+        waitlistService.promote(1L);
+        verify(waitlistEntryRepository).updateVaccinationPass(1L, 10L);
+        verify(waitlistEntryRepository).updateVaccinationPass(2L, 11L);
+        verify(waitlistEntryRepository, never()).updateVaccinationPass(eq(3L), any());
+    }
+
+    @Test
+    void promoteFailedEntryIsSkippedSuccess_Test() {
+        when(waitlistEntryRepository.findFirstByVaccinationSessionsIdAndStatusOrderByIdAsc(1L, WaitlistStatus.WAITING))
+                .thenReturn(Optional.of(waitlistEntry(1L, WaitlistStatus.WAITING)))
+                .thenReturn(Optional.empty());
+        when(waitlistEntryRepository.updateStatus(1L, WaitlistStatus.WAITING, WaitlistStatus.PROMOTED)).thenReturn(1);
+        when(vaccinationPassService.reserveSeat(1L)).thenReturn(true);
+        when(vaccinationPassService.createReserved(any())).thenThrow(new BusinessFlowException(null, ResponseMessage.BAD_REQUEST, "Family member not found!"));
+
+        waitlistService.promote(1L);
+        verify(waitlistEntryRepository).updateStatus(1L, WaitlistStatus.WAITING, WaitlistStatus.FAILED);
+    }
+
+    @Test
+    void promoteTransientFailureKeepsWaitingSuccess_Test() {
+        when(waitlistEntryRepository.findFirstByVaccinationSessionsIdAndStatusOrderByIdAsc(1L, WaitlistStatus.WAITING))
+                .thenReturn(Optional.of(waitlistEntry(1L, WaitlistStatus.WAITING)));
+        when(waitlistEntryRepository.updateStatus(1L, WaitlistStatus.WAITING, WaitlistStatus.PROMOTED)).thenReturn(1);
+        when(vaccinationPassService.reserveSeat(1L)).thenReturn(true);
+        when(vaccinationPassService.createReserved(any())).thenThrow(new DataAccessResourceFailureException("Connection is closed"));
+
+        waitlistService.promote(1L);
+        verify(waitlistEntryRepository, never()).updateStatus(1L, WaitlistStatus.WAITING, WaitlistStatus.FAILED);
+        verify(vaccinationPassService, times(1)).createReserved(any());
+    }
+
+    @Test
+    void findOtherUserFail_Test() {
+        when(waitlistEntryRepository.findById(1L)).thenReturn(Optional.of(waitlistEntry(1L, WaitlistStatus.WAITING)));
+
+        try {
+            waitlistService.find(1L, 2L);
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.NOT_FOUND, e.getCode());
+        }
+    }
+
+    @Test
+    void findPromotedSuccess_Test() {
+        WaitlistEntry promoted = waitlistEntry(1L, WaitlistStatus.PROMOTED);
+        promoted.setVaccinationPass(VaccinationPass.builder()
+                .id(10L)
+                .build());
+        when(waitlistEntryRepository.findById(1L)).thenReturn(Optional.of(promoted));
+
+        WaitlistEntryRequest waitlistEntry = waitlistService.find(1L, 1L);
+        assertEquals(10L, waitlistEntry.getVaccinationPass().getId());
+        assertNull(waitlistEntry.getPosition());
+    }
+
+    @Test
+    void deletePromotedFail_Test() {
+        when(waitlistEntryRepository.findById(1L)).thenReturn(Optional.of(waitlistEntry(1L, WaitlistStatus.PROMOTED)));
+
+        try {
+            waitlistService.delete(1L, 1L);
+            fail();
+        } catch (BusinessFlowException e) {
+            assertEquals(ResponseMessage.BAD_REQUEST, e.getCode());
+        }
+        verify(waitlistEntryRepository, never()).delete(any());
+    }
+}
@@ -0,0 +1,29 @@
+-- Schema hibernate 5.6 created with ddl-auto=update for the entities as they were before the migrations,
+-- using PostgreSQL95Dialect which hibernate picks on PostgreSQL 9.5 and 9.6. Ids are bigserial columns.
+
+create table admins (id  bigserial not null, created_at timestamp not null, deleted_at timestamp, updated_at timestamp, active boolean default true, is_super_admin boolean default false, name varchar(255) not null, password varchar(255) not null, username varchar(255) not null, primary key (id));
+create table cities (id  bigserial not null, created_at timestamp not null, deleted_at timestamp, updated_at timestamp, name varchar(255) not null, primary key (id));
+create table family_members (id  bigserial not null, created_at timestamp not null, deleted_at timestamp, updated_at timestamp, date_of_birth date, gender char(1), name varchar(255) not null, nik varchar(255) not null, phone_number varchar(255) not null, relationship varchar(255), users_id int8, primary key (id));
+create table health_facilities (id  bigserial not null, created_at timestamp not null, deleted_at timestamp, updated_at timestamp, name varchar(255) not null, admin_id int8, city_id int8, primary key (id));
+create table health_facilities_vaccines (health_facility_id int8 not null, vaccine_id int8 not null, stock int8 not null, primary key (health_facility_id, vaccine_id));
+create table news (id  bigserial not null, created_at timestamp not null, deleted_at timestamp, updated_at timestamp, content varchar(255) not null, description varchar(255) not null, title varchar(255) not null, admin_id int8, primary key (id));
+create table users (id  bigserial not null, created_at timestamp not null, deleted_at timestamp, updated_at timestamp, active boolean default true, date_of_birth date, email varchar(255), gender char(1), name varchar(255) not null, nik varchar(255) not null, password varchar(255) not null, phone_number varchar(255), primary key (id));
+create table vaccination_pass (id  bigserial not null, created_at timestamp not null, deleted_at timestamp, updated_at timestamp, age_category varchar(255), curr_address varchar(255), curr_city varchar(255), curr_province varchar(255), curr_sub_district varchar(255), curr_urban_village varchar(255), date_of_birth date not null, email varchar(255), gender char(1) not null, id_address varchar(255), id_city varchar(255), id_province varchar(255), id_sub_district varchar(255), id_urban_village varchar(255), is_pregnant boolean not null, is_vaccinated boolean not null, landline_phone varchar(255), medical_history varchar(255), name varchar(255) not null, nik varchar(255) not null, phone_number varchar(255) not null, family_members_id int8, registered_by_id int8, vaccination_sessions_id int8, vaccine_id int8, primary key (id));
+create table vaccination_sessions (id  bigserial not null, created_at timestamp not null, deleted_at timestamp, updated_at timestamp, booked int8 not null, quantity int8 not null, schedule_date date not null, schedule_time_end varchar(255) not null, schedule_time_start varchar(255) not null, health_facility_id int8, vaccine_id int8, primary key (id));
+create table vaccine_distribution (id  bigserial not null, created_at timestamp not null, deleted_at timestamp, updated_at timestamp, quantity int8 not null, health_facility_id int8, vaccination_session_id int8, vaccine_id int8, primary key (id));
+create table vaccines (id  bigserial not null, created_at timestamp not null, deleted_at timestamp, updated_at timestamp, name varchar(255) not null, primary key (id));
+alter table if exists family_members add constraint FKew3n6pf6eia22qfxqes621f9t foreign key (users_id) references users;
+alter table if exists health_facilities add constraint FKoqbic73pldxlgyvpo4eo8bpg3 foreign key (admin_id) references admins;
+alter table if exists health_facilities add constraint FK3nin0gl5yxg2rsq0f6x9r3grs foreign key (city_id) references cities;
+alter table if exists health_facilities_vaccines add constraint FK4saw3ecm83go2uvv2bp6wph7 foreign key (health_facility_id) references health_facilities;
+alter table if exists health_facilities_vaccines add constraint FKefyafjb7pck0mkoa0fcq4tp9 foreign key (vaccine_id) references vaccines;
+alter table if exists news add constraint FKb54v8y2ac5y6nn5ck88htlh6u foreign key (admin_id) references admins;
+alter table if exists vaccination_pass add constraint FK8k0r9brfi46sg0dhqlvjj0jh3 foreign key (family_members_id) references family_members;
+alter table if exists vaccination_pass add constraint FK825xig0f2ue7l9alpfvpf4xki foreign key (registered_by_id) references users;
+alter table if exists vaccination_pass add constraint FKcksncphel6f876mqcu1kru9dd foreign key (vaccination_sessions_id) references vaccination_sessions;
+alter table if exists vaccination_pass add constraint FKl1nfy8dc35ykmbs02pe16vba3 foreign key (vaccine_id) references vaccines;
+alter table if exists vaccination_sessions add constraint FKdwe3h69mwofa8ufnqnt9b39qi foreign key (health_facility_id) references health_facilities;
+alter table if exists vaccination_sessions add constraint FKgbqx8tfjy5r5yw1s1ksymwfh1 foreign key (vaccine_id) references vaccines;
+alter table if exists vaccine_distribution add constraint FKjyrw8p4e6h1tbwklyeburllh foreign key (health_facility_id) references health_facilities;
+alter table if exists vaccine_distribution add constraint FK93hm2ojmkd16tw4eybeo9j6bm foreign key (vaccination_session_id) references vaccination_sessions;
+alter table if exists vaccine_distribution add constraint FK6kxbr4da1coti1mw4y4lg7iyh foreign key (vaccine_id) references vaccines;